@@ -0,0 +1,14 @@
+package be.kuleuven.cs.som.annotate;
+
+import java.lang.annotation.Documented;
+
+/**
+ * An annotation marking a method whose result is the same throughout the lifetime of the object, or a class whose objects cannot change.
+ *
+ * @note    This is a source-compatible stand-in for the annotation of the same name in the
+ *          be.kuleuven.cs.som.annotate library, which is not available from a public repository.
+ *          It only documents the annotated element and has no effect at run time.
+ */
+@Documented
+public @interface Immutable {
+}
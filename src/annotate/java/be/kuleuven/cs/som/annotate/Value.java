@@ -0,0 +1,14 @@
+package be.kuleuven.cs.som.annotate;
+
+import java.lang.annotation.Documented;
+
+/**
+ * An annotation marking a class whose objects are values, compared on their contents rather than their identity.
+ *
+ * @note    This is a source-compatible stand-in for the annotation of the same name in the
+ *          be.kuleuven.cs.som.annotate library, which is not available from a public repository.
+ *          It only documents the annotated element and has no effect at run time.
+ */
+@Documented
+public @interface Value {
+}
@@ -0,0 +1,118 @@
+package rpg;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A benchmark measuring the combat hot paths: a complete battle and single hits in both directions.
+ *
+ * Every battle is fought between a freshly created hero and monster, so that each invocation fights
+ * a complete battle. Battles are fought once reporting to the console and once without reporting
+ * any events. The console output is redirected to a stream discarding everything, such that the
+ * benchmark measures the construction of the messages, but not the speed of the terminal.
+ *
+ * The single hits are never fatal: the hit points of the target are restored after every hit, so that
+ * every invocation measures the same (random) attack roll, protection check and hit point update.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CombatBenchmark {
+
+    /**
+     * The hit points the target of a single hit is restored to, large enough to survive any hit.
+     */
+    private static final int TARGET_HIT_POINTS = 10_007;
+
+    /**
+     * A state holding a fresh hero and monster for every battle.
+     */
+    @State(Scope.Thread)
+    public static class BattleState {
+
+        /**
+         * The hero and monster fighting the next battle.
+         */
+        Hero hero;
+        Monster monster;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            hero = new Hero("Hero", 100, 30.0);
+            monster = new Monster("Monster", 100, 21, new ArrayList<Equipment>(), SkinType.THICK);
+        }
+    }
+
+    /**
+     * The hero and monster exchanging single hits.
+     */
+    private Hero hero;
+    private Monster monster;
+
+    /**
+     * The console stream, restored after the benchmark.
+     */
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        hero = new Hero("Hero", TARGET_HIT_POINTS, 30.0);
+        monster = new Monster("Monster", TARGET_HIT_POINTS, 7, new ArrayList<Equipment>(), SkinType.TOUGH);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(console);
+    }
+
+    /**
+     * Fight a complete battle between a fresh hero and monster.
+     */
+    @Benchmark
+    public boolean fight(BattleState battle) {
+        new Battle(battle.hero, battle.monster).fight();
+        return battle.hero.isAlive();
+    }
+
+    /**
+     * Fight a complete battle between a fresh hero and monster, without reporting any events.
+     */
+    @Benchmark
+    public boolean fightHeadless(BattleState battle) {
+        new Battle(battle.hero, battle.monster, BattleEventSink.NONE).fight();
+        return battle.hero.isAlive();
+    }
+
+    /**
+     * Let the hero hit the monster once, without killing it.
+     */
+    @Benchmark
+    public int heroHit() {
+        monster.setHitPoints(TARGET_HIT_POINTS);
+        hero.hit(monster);
+        return monster.getHitPoints();
+    }
+
+    /**
+     * Let the monster hit the hero once, without killing it.
+     */
+    @Benchmark
+    public int monsterHit() {
+        hero.setHitPoints(TARGET_HIT_POINTS);
+        monster.hit(hero);
+        return hero.getHitPoints();
+    }
+}
@@ -0,0 +1,163 @@
+package rpg;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A benchmark measuring how long a pass over a whole population of heroes and monsters takes, both when every
+ * entity is visited in turn and when their properties are kept in an entity store.
+ *
+ * Every invocation starts from a population in which every entity is fighting and wounded, and either regenerates
+ * hitpoints for all of them, or ends all of their fights. The heroes are created along with their equipment, so
+ * the entities lie scattered over the heap as they would in a world that is being played.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityStoreBenchmark {
+
+    /**
+     * The number of hitpoints regenerated by every pass.
+     */
+    private static final int REGENERATION = 5;
+
+    /**
+     * A state holding a population of entities that are not attached to any store.
+     */
+    @State(Scope.Thread)
+    public static class Scattered {
+
+        /**
+         * The number of entities of the population.
+         */
+        @Param({"1000", "100000"})
+        public int nbEntities;
+
+        /**
+         * The entities of the population.
+         */
+        List<Entity> entities;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            entities = createEntities(nbEntities);
+        }
+
+        @Setup(Level.Invocation)
+        public void wound() {
+            EntityStoreBenchmark.wound(entities);
+        }
+    }
+
+    /**
+     * A state holding a population of entities that are attached to an entity store.
+     */
+    @State(Scope.Thread)
+    public static class Stored {
+
+        /**
+         * The number of entities of the population.
+         */
+        @Param({"1000", "100000"})
+        public int nbEntities;
+
+        /**
+         * The entities of the population, and the store they are attached to.
+         */
+        List<Entity> entities;
+        EntityStore store;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            entities = createEntities(nbEntities);
+            store = new EntityStore(nbEntities);
+            for (Entity entity : entities)
+                store.add(entity);
+        }
+
+        @Setup(Level.Invocation)
+        public void wound() {
+            EntityStoreBenchmark.wound(entities);
+        }
+    }
+
+    // AUXILIARY METHOD: returns the given number of new heroes and monsters, the heroes carrying a weapon
+    private static List<Entity> createEntities(int nbEntities) {
+        List<Entity> entities = new ArrayList<>(nbEntities);
+        for (int i = 0; i < nbEntities; i++) {
+            if (i % 2 == 0) {
+                Hero hero = new Hero("Hero", 100, 30.0);
+                new Weapon(5, 14).setOwner(hero);
+                entities.add(hero);
+            }
+            else
+                entities.add(new Monster("Monster", 100, 49, new ArrayList<>(), SkinType.THICK));
+        }
+        return entities;
+    }
+
+    // AUXILIARY METHOD: makes all the given entities fight with only a few hitpoints left
+    private static void wound(List<Entity> entities) {
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            entity.setFighting(true);
+            entity.setHitPoints(1 + (i & 31));
+        }
+    }
+
+    /**
+     * Regenerate hitpoints for every living entity, visiting the entities one after the other.
+     */
+    @Benchmark
+    public int regenerateEntities(Scattered state) {
+        int nbChanged = 0;
+        for (Entity entity : state.entities) {
+            if (entity.isAlive()) {
+                int hitPoints = entity.getHitPoints();
+                entity.addHitPoints(REGENERATION);
+                if (entity.getHitPoints() != hitPoints)
+                    nbChanged++;
+            }
+        }
+        return nbChanged;
+    }
+
+    /**
+     * Regenerate hitpoints for every living entity, in the entity store.
+     */
+    @Benchmark
+    public int regenerateStore(Stored state) {
+        return state.store.regenerateHitPoints(REGENERATION);
+    }
+
+    /**
+     * End the fight of every fighting entity, visiting the entities one after the other.
+     */
+    @Benchmark
+    public int expireFightingEntities(Scattered state) {
+        int nbExpired = 0;
+        for (Entity entity : state.entities) {
+            if (entity.isFighting()) {
+                entity.setFighting(false);
+                nbExpired++;
+            }
+        }
+        return nbExpired;
+    }
+
+    /**
+     * End the fight of every fighting entity, in the entity store.
+     */
+    @Benchmark
+    public int expireFightingStore(Stored state) {
+        return state.store.expireFighting();
+    }
+}
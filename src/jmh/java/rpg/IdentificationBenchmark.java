@@ -0,0 +1,68 @@
+package rpg;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A benchmark measuring the creation of a piece of equipment, which is dominated by generating
+ * an identification number and checking its uniqueness against all existing items of the same type.
+ *
+ * Before measuring, the given number of items of the measured type is created, such that the
+ * identification registry holds as many identification numbers as a long-running game would.
+ * The registry is shared by all items ever created, so each combination of parameters is
+ * measured in its own fork.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdentificationBenchmark {
+
+    /**
+     * The type of equipment to create.
+     */
+    @Param({"Weapon", "Armor", "Backpack", "Purse"})
+    public String type;
+
+    /**
+     * The number of items of the measured type existing before measuring.
+     */
+    @Param({"10000", "100000", "1000000"})
+    public int existingItems;
+
+    // AUXILIARY METHOD: creates a new piece of equipment of the measured type
+    private Equipment createItem() {
+        switch (type) {
+            case "Weapon":
+                return new Weapon(1, 7);
+            case "Armor":
+                return new Armor(1, 10, ArmorType.TIN);
+            case "Backpack":
+                return new Backpack(1, 10, 100);
+            case "Purse":
+                return new Purse(1, 100);
+            default:
+                throw new IllegalArgumentException("Unknown type of equipment: " + type);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        for (int i = 0; i < existingItems; i++)
+            createItem();
+    }
+
+    /**
+     * Create one piece of equipment of the measured type.
+     */
+    @Benchmark
+    public long createItemWithUniqueIdentification() {
+        return createItem().getIdentification();
+    }
+}
@@ -0,0 +1,81 @@
+package rpg;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A benchmark comparing the registration of the identification numbers of a saved world one by one with importing
+ * them at once, into a registry without any identification numbers, as when a world is loaded on start-up.
+ *
+ * The identification numbers are distinct multiples of 6, in random order, like those of saved weapons. Importing
+ * also reserves them, which registering one by one does not.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdentificationImportBenchmark {
+
+    /**
+     * The number of identification numbers to register.
+     */
+    @Param({"100000", "1000000"})
+    public int nbIdentifications;
+
+    /**
+     * The identification numbers to register.
+     */
+    private long[] identifications;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        identifications = new long[nbIdentifications];
+        for (int i = 0; i < nbIdentifications; i++)
+            identifications[i] = 6L * (i + 1);
+        for (int i = nbIdentifications - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long identification = identifications[i];
+            identifications[i] = identifications[j];
+            identifications[j] = identification;
+        }
+    }
+
+    /**
+     * Register every identification number on its own, checking each of them against the registry.
+     */
+    @Benchmark
+    public IdentificationRegistry registerOneByOne() {
+        IdentificationRegistry registry = new IdentificationRegistry();
+        for (long identification : identifications)
+            registry.register(Weapon.class, identification);
+        return registry;
+    }
+
+    /**
+     * Reserve all identification numbers at once, skipping taken and repeated ones.
+     */
+    @Benchmark
+    public IdentificationRegistry reserveAll() {
+        IdentificationRegistry registry = new IdentificationRegistry();
+        registry.reserveAll(Weapon.class, identifications);
+        return registry;
+    }
+
+    /**
+     * Import all identification numbers at once, after verifying their uniqueness.
+     */
+    @Benchmark
+    public IdentificationRegistry importAll() {
+        IdentificationRegistry registry = new IdentificationRegistry();
+        registry.importAll(Weapon.class, identifications);
+        return registry;
+    }
+}
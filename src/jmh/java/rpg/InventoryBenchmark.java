@@ -0,0 +1,192 @@
+package rpg;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A benchmark measuring the inventory hot paths: looting, collecting treasure, the total weight and
+ * value of nested backpacks, and the anchor point scan of an entity with many anchor points.
+ *
+ * Looting and collecting treasure move items between entities, so both are measured on a freshly
+ * equipped hero and monster per invocation. The other operations do not change any state, and are
+ * measured on the same backpacks and monster throughout the benchmark.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryBenchmark {
+
+    /**
+     * The largest number of anchor points a monster can have.
+     */
+    private static final int MAX_ANCHOR_POINTS = 100;
+
+    /**
+     * A monster with the largest number of anchor points, all of them occupied except the last one.
+     */
+    private Monster crowdedMonster;
+
+    /**
+     * The item checked against the anchor points of the crowded monster.
+     */
+    private Weapon candidate;
+
+    /**
+     * A state holding an equipped hero and a monster with free anchor points for every invocation.
+     */
+    @State(Scope.Thread)
+    public static class LootState {
+
+        /**
+         * The hero carrying the treasure and the monster taking it.
+         */
+        Hero hero;
+        Monster monster;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            // The items end up in the left hand, right hand, back and belt, in that order.
+            hero = new Hero("Hero", 100, 30.0);
+            new Armor(5, 10, ArmorType.BRONZE).setOwner(hero);
+            new Weapon(2, 14).setOwner(hero);
+            new Weapon(2, 21).setOwner(hero);
+            new Purse(1, 100).setOwner(hero);
+            monster = createMonster(MAX_ANCHOR_POINTS);
+        }
+    }
+
+    /**
+     * A state holding a monster carrying treasure and a hero with free anchor points for every invocation.
+     */
+    @State(Scope.Thread)
+    public static class TreasureState {
+
+        /**
+         * The hero collecting the treasure and the monster carrying it.
+         */
+        Hero hero;
+        Monster monster;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            hero = new Hero("Hero", 100, 30.0);
+            new Backpack(1, 10, 500).setOwner(hero);
+
+            ArrayList<Equipment> treasure = new ArrayList<>();
+            for (int i = 0; i < 10; i++)
+                treasure.add(new Weapon(1, 7));
+            monster = createMonster(treasure.size());
+            monster.distributeInitialItems(treasure);
+        }
+    }
+
+    /**
+     * A state holding backpacks nested inside each other, each one also storing some weapons.
+     */
+    @State(Scope.Thread)
+    public static class BackpackState {
+
+        /**
+         * The number of backpacks nested inside each other.
+         */
+        @Param({"1", "10", "100"})
+        public int depth;
+
+        /**
+         * The number of weapons stored in each of the nested backpacks.
+         */
+        @Param({"10"})
+        public int itemsPerBackpack;
+
+        /**
+         * The outermost backpack of the nested backpacks.
+         */
+        Backpack outermost;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            // Nest the backpacks from the outside in.
+            outermost = new Backpack(1, 10, Integer.MAX_VALUE);
+            Backpack current = outermost;
+            for (int level = 1; level <= depth; level++) {
+                for (int i = 0; i < itemsPerBackpack; i++)
+                    new Weapon(1, 7).setBackpack(current);
+                if (level < depth) {
+                    Backpack inner = new Backpack(1, 10, Integer.MAX_VALUE);
+                    inner.setBackpack(current);
+                    current = inner;
+                }
+            }
+        }
+    }
+
+    // AUXILIARY METHOD: creates a monster with at least the given number of anchor points and a capacity
+    // large enough to never limit what it can carry
+    private static Monster createMonster(int nbAnchorPoints) {
+        Monster monster = new Monster("Monster", 100, 7, new ArrayList<Equipment>(), SkinType.TOUGH);
+        monster.registerCapacity(Integer.MAX_VALUE / 2);
+        for (int i = monster.getNbAnchorPoints() + 1; i <= nbAnchorPoints; i++)
+            monster.addAnchorPoint(new AnchorPoint("anchor_" + i));
+        return monster;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ArrayList<Equipment> items = new ArrayList<>();
+        for (int i = 1; i < MAX_ANCHOR_POINTS; i++)
+            items.add(new Weapon(1, 7));
+        crowdedMonster = createMonster(MAX_ANCHOR_POINTS);
+        crowdedMonster.distributeInitialItems(items);
+        candidate = new Weapon(1, 7);
+    }
+
+    /**
+     * Let a monster loot an equipped hero.
+     */
+    @Benchmark
+    public int loot(LootState state) {
+        state.monster.loot(state.hero);
+        return state.monster.getAllItems().size();
+    }
+
+    /**
+     * Let a hero collect the treasure of a monster.
+     */
+    @Benchmark
+    public int collectTreasure(TreasureState state) {
+        state.hero.collectTreasureFrom(state.monster);
+        return state.hero.getAllItems().size();
+    }
+
+    /**
+     * Compute the total weight of the nested backpacks.
+     */
+    @Benchmark
+    public int backpackTotalWeight(BackpackState state) {
+        return state.outermost.getTotalWeight();
+    }
+
+    /**
+     * Compute the current value of the nested backpacks.
+     */
+    @Benchmark
+    public int backpackCurrentValue(BackpackState state) {
+        return state.outermost.getCurrentValue();
+    }
+
+    /**
+     * Check whether the crowded monster can carry one more item, which is only possible at its last anchor point.
+     */
+    @Benchmark
+    public boolean canHaveAsItem() {
+        return crowdedMonster.canHaveAsItem(candidate);
+    }
+}
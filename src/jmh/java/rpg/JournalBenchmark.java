@@ -0,0 +1,156 @@
+package rpg;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A benchmark measuring how many changes per second a world journal sustains, both while recording them and while
+ * replaying them on a world store.
+ *
+ * Every invocation changes the hit points of a hundred heroes many times over, or replays a journal of as many
+ * changes. Recording starts a new journal for every invocation, and ends by writing the last batch, so every change
+ * recorded reaches the file, and is forced onto the storage device if the journal syncs every batch.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JournalBenchmark {
+
+    /**
+     * The number of heroes of the world, and the number of changes per invocation.
+     */
+    private static final int NB_HEROES = 100;
+    private static final int NB_CHANGES = 1 << 16;
+
+    /**
+     * A state holding the heroes of the world and a new journal for every invocation.
+     */
+    @State(Scope.Thread)
+    public static class Recording {
+
+        /**
+         * The number of changes written to the journal file at once.
+         */
+        @Param({"64", "4096"})
+        public int batchSize;
+
+        /**
+         * The moments at which the changes are forced onto the storage device.
+         */
+        @Param({"ON_CLOSE", "EVERY_BATCH"})
+        public JournalSync sync;
+
+        /**
+         * The heroes of the world, and the journal recording their changes.
+         */
+        List<Hero> heroes;
+        Path journalPath;
+        WorldJournal journal;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            heroes = createHeroes();
+            journalPath = Files.createTempFile("world", ".rpgj");
+        }
+
+        @Setup(Level.Invocation)
+        public void startJournal() throws IOException {
+            journal = new WorldJournal(journalPath, heroes, batchSize, sync);
+            WorldEvents.setSink(journal);
+        }
+
+        @TearDown(Level.Invocation)
+        public void closeJournal() throws IOException {
+            journal.close();
+        }
+
+        @TearDown(Level.Trial)
+        public void deleteJournal() throws IOException {
+            Files.deleteIfExists(journalPath);
+        }
+    }
+
+    /**
+     * A state holding a world file and a journal of changes to replay on it.
+     */
+    @State(Scope.Thread)
+    public static class Replaying {
+
+        /**
+         * The number of changes written to the journal file at once.
+         */
+        @Param({"64", "4096"})
+        public int batchSize;
+
+        /**
+         * The world file and journal file.
+         */
+        Path worldPath, journalPath;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            List<Hero> heroes = createHeroes();
+            worldPath = Files.createTempFile("world", ".rpgw");
+            journalPath = Files.createTempFile("world", ".rpgj");
+            try (WorldJournal journal = WorldJournal.checkpoint(worldPath, journalPath, heroes, batchSize,
+                    JournalSync.ON_CLOSE)) {
+                WorldEvents.setSink(journal);
+                changeHitPoints(heroes);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void deleteFiles() throws IOException {
+            Files.deleteIfExists(worldPath);
+            Files.deleteIfExists(journalPath);
+        }
+    }
+
+    // AUXILIARY METHOD: returns a list of new heroes
+    private static List<Hero> createHeroes() {
+        List<Hero> heroes = new ArrayList<>();
+        for (int i = 0; i < NB_HEROES; i++)
+            heroes.add(new Hero("Hero", 100, 30.0));
+        return heroes;
+    }
+
+    // AUXILIARY METHOD: changes the hit points of the given heroes, one after the other, as many times as there are
+    // changes per invocation
+    private static void changeHitPoints(List<Hero> heroes) {
+        for (int i = 0; i < NB_CHANGES; i++)
+            heroes.get(i % NB_HEROES).setHitPoints(1 + (i & 63));
+    }
+
+    /**
+     * Record changes of the hit points of the heroes, and write the last batch.
+     */
+    @Benchmark
+    @OperationsPerInvocation(NB_CHANGES)
+    public long record(Recording state) throws IOException {
+        changeHitPoints(state.heroes);
+        state.journal.flush();
+        return state.journal.getNbChangesRecorded();
+    }
+
+    /**
+     * Open the world file, and replay the journal on it.
+     */
+    @Benchmark
+    @OperationsPerInvocation(NB_CHANGES)
+    public long replay(Replaying state) throws IOException {
+        try (WorldStore store = new WorldStore(state.worldPath)) {
+            return WorldJournal.replay(store, state.journalPath);
+        }
+    }
+}
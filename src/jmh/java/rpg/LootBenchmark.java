@@ -0,0 +1,160 @@
+package rpg;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A benchmark comparing the exception-driven way of collecting treasure with the probing one, for a hero
+ * whose anchor points and backpack are all full.
+ *
+ * None of the treasure fits, so neither way changes any state and both are measured on the same hero and
+ * monster throughout the benchmark. The exception-driven way is the one heroes used before: attach every item
+ * and catch the exception, then try every backpack and catch the exception again.
+ *
+ * The loot planner is measured selecting from items of random weights and values, for a capacity of about a
+ * tenth of their total weight. It is also measured in its worst case: items that all have the same value per unit
+ * of weight and even weights, for an odd capacity. The bound of every branch then exceeds the best selection, so
+ * no branch is abandoned and the planner explores its largest number of branches.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LootBenchmark {
+
+    /**
+     * The number of items the monster carries.
+     */
+    @Param({"10", "100"})
+    public int nbItems;
+
+    /**
+     * The hero with a full inventory and the monster carrying the treasure.
+     */
+    private Hero hero;
+    private Monster monster;
+
+    /**
+     * The items the monster carries.
+     */
+    private List<Equipment> treasure;
+
+    /**
+     * The items of random weights and values to plan the loot from, and the planner selecting among them.
+     */
+    private List<Equipment> randomTreasure;
+    private LootPlanner planner;
+
+    /**
+     * The items of equal value per unit of weight to plan the loot from, and the planner selecting among them.
+     */
+    private List<Equipment> evenTreasure;
+    private LootPlanner oddPlanner;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // The items end up in the left hand, right hand, back, body and belt, in that order.
+        hero = new Hero("Hero", 100, 30.0);
+        Backpack backpack = new Backpack(1, 10, 10);
+        new Weapon(9, 7).setBackpack(backpack);
+        backpack.setOwner(hero);
+        new Weapon(1, 14).setOwner(hero);
+        new Weapon(1, 21).setOwner(hero);
+        new Armor(1, 10, ArmorType.BRONZE).setOwner(hero);
+        new Purse(1, 100).setOwner(hero);
+
+        treasure = new ArrayList<>();
+        for (int i = 0; i < nbItems; i++)
+            treasure.add(new Weapon(1, 7));
+        monster = new Monster("Monster", 100, 7, new ArrayList<Equipment>(), SkinType.TOUGH);
+        monster.registerCapacity(Integer.MAX_VALUE / 2);
+        for (int i = monster.getNbAnchorPoints() + 1; i <= nbItems; i++)
+            monster.addAnchorPoint(new AnchorPoint("anchor_" + i));
+        monster.distributeInitialItems(treasure);
+
+        Random random = new Random(42);
+        randomTreasure = new ArrayList<>();
+        for (int i = 0; i < nbItems; i++)
+            randomTreasure.add(new Weapon(1 + random.nextInt(20), 7 * (1 + random.nextInt(14))));
+        planner = new LootPlanner(nbItems, Integer.MAX_VALUE);
+
+        // A weapon of damage 7k is worth 14k, so a weight of 2k gives every weapon 7 dukaten per unit of weight
+        evenTreasure = new ArrayList<>();
+        for (int i = 0; i < nbItems; i++) {
+            int k = 1 + random.nextInt(14);
+            evenTreasure.add(new Weapon(2 * k, 7 * k));
+        }
+        oddPlanner = new LootPlanner(8 * nbItems + 1, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Collect the treasure by attaching every item and catching the exceptions.
+     */
+    @Benchmark
+    public int collectTreasureWithExceptions() {
+        int nbFailures = 0;
+        for (Equipment item : treasure) {
+            try {
+                item.setOwner(hero);
+            } catch (IllegalArgumentException e) {
+                for (Equipment heroItem : hero.getAllItems()) {
+                    if (heroItem instanceof Backpack) {
+                        try {
+                            item.setBackpack((Backpack) heroItem);
+                        } catch (IllegalArgumentException a) {
+                            nbFailures++;
+                        }
+                    }
+                }
+            }
+        }
+        return nbFailures;
+    }
+
+    /**
+     * Collect the treasure by probing every item before moving it.
+     */
+    @Benchmark
+    public int collectTreasure() {
+        return hero.transferAll(monster, TransferPolicy.STORE_IN_BACKPACKS).getRejected().size();
+    }
+
+    /**
+     * Probe every item with the non-throwing attach and store.
+     */
+    @Benchmark
+    public int tryEquipAndStore() {
+        int nbFailures = 0;
+        Backpack backpack = (Backpack) hero.getAnchorPoint(HeroAnchor.LEFT_HAND).getItem();
+        for (Equipment item : treasure) {
+            if (!hero.tryEquip(item).isSuccess() && !backpack.tryStore(item).isSuccess())
+                nbFailures++;
+        }
+        return nbFailures;
+    }
+
+    /**
+     * Select the most valuable items the planner can take.
+     */
+    @Benchmark
+    public List<Equipment> planLoot() {
+        return planner.select(randomTreasure);
+    }
+
+    /**
+     * Select the most valuable items the planner can take, in its worst case.
+     */
+    @Benchmark
+    public List<Equipment> planLootWorstCase() {
+        return oddPlanner.select(evenTreasure);
+    }
+}
@@ -0,0 +1,81 @@
+package rpg;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A benchmark comparing the prime tables with the trial division that was previously used
+ * to normalize the hit points of entities.
+ *
+ * The number checked is the largest composite number below the maximum hit points, as it occurs
+ * right after an entity with those maximum hit points is created or healed. Finding its closest
+ * lower prime forces a walk down the numbers below it.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimeTableBenchmark {
+
+    /**
+     * The maximum hit points of the entity.
+     */
+    @Param({"1000", "100000", "1000000", "100000000"})
+    public int maxHitPoints;
+
+    /**
+     * The number checked by every operation.
+     */
+    private int number;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        number = maxHitPoints - 1;
+        while (PrimeTable.isPrime(number))
+            number--;
+    }
+
+    // AUXILIARY METHOD: the trial division previously used by Entity.isPrime
+    private static boolean isPrimeByTrialDivision(int number) {
+        if (number == 0) return true;
+        if (number < 2) return false;
+        for (int i = 2; i <= Math.sqrt(number); i++) {
+            if (number % i == 0) return false;
+        }
+        return true;
+    }
+
+    // AUXILIARY METHOD: the walk previously used by Entity.getClosestLowerPrime
+    private static int closestLowerPrimeByTrialDivision(int start) {
+        for (int i = start - 1; i >= 2; i--) {
+            if (isPrimeByTrialDivision(i)) return i;
+        }
+        return 2;
+    }
+
+    @Benchmark
+    public boolean isPrimeByTrialDivision() {
+        return isPrimeByTrialDivision(number);
+    }
+
+    @Benchmark
+    public boolean isPrimeByTable() {
+        return PrimeTable.isPrime(number);
+    }
+
+    @Benchmark
+    public int closestLowerPrimeByTrialDivision() {
+        return closestLowerPrimeByTrialDivision(number);
+    }
+
+    @Benchmark
+    public int closestLowerPrimeByTable() {
+        return PrimeTable.getClosestLowerPrime(number);
+    }
+}
@@ -0,0 +1,69 @@
+package rpg;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A benchmark measuring how the battle simulator scales with the number of threads.
+ *
+ * Every invocation simulates the same number of battles between an evenly matched hero and
+ * monster, on a pool with the given number of threads. With perfect scaling, the time per
+ * invocation is inversely proportional to the number of threads, up to the number of cores.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimulationBenchmark {
+
+    /**
+     * The number of battles simulated per invocation.
+     */
+    private static final int NB_BATTLES = 10_000;
+
+    /**
+     * The number of threads of the pool running the battles.
+     */
+    @Param({"1", "2", "4", "8"})
+    public int nbThreads;
+
+    /**
+     * The pool running the battles.
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * The simulator running the battles on the pool.
+     */
+    private BattleSimulator simulator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = new ForkJoinPool(nbThreads);
+        simulator = new BattleSimulator(
+                () -> new Hero("Hero", 100, 20.0),
+                () -> new Monster("Monster", 100, 14, new ArrayList<Equipment>(), SkinType.TOUGH),
+                pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Simulate a fixed number of battles.
+     */
+    @Benchmark
+    public double simulate() {
+        return simulator.simulate(NB_BATTLES).getHeroWinRate();
+    }
+}
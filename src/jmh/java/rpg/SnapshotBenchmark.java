@@ -0,0 +1,203 @@
+package rpg;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A benchmark measuring how fast snapshots of a world of heroes carrying a million items are written and read, and
+ * how fast world stores of the same world are saved and opened.
+ *
+ * Every hero carries a backpack with the same number of weapons. Snapshots are written to a channel that only
+ * counts the bytes, and read from a snapshot written beforehand. The number of bytes is reported as an extra
+ * counter, so the throughput in megabytes per second follows from the bytes per second.
+ *
+ * Reading creates a million new items, and opening a world store reserves a million identification numbers, so
+ * the identification numbers are cleared before every invocation, which lets the restored items keep their own
+ * identification numbers.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class SnapshotBenchmark {
+
+    /**
+     * The number of heroes, each carrying a thousand weapons in their backpack.
+     */
+    @Param({"1000"})
+    public int nbHeroes;
+
+    /**
+     * The number of weapons in the backpack of every hero.
+     */
+    private static final int NB_WEAPONS = 1000;
+
+    /**
+     * The heroes of the world, and a snapshot of them.
+     */
+    private List<Hero> heroes;
+    private byte[] snapshot;
+
+    /**
+     * The world file of all heroes.
+     */
+    private Path worldFile;
+
+    /**
+     * The number of bytes written or read by a benchmark.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Bytes {
+        public long bytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        heroes = new ArrayList<>();
+        for (int i = 0; i < nbHeroes; i++) {
+            Hero hero = new Hero("Hero", 100, 100.0);
+            Backpack backpack = new Backpack(1, 10, 2 * NB_WEAPONS);
+            backpack.setOwner(hero);
+            for (int j = 0; j < NB_WEAPONS; j++)
+                new Weapon(1, 7 * (1 + j % 14)).setBackpack(backpack);
+            heroes.add(hero);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (SnapshotWriter writer = new SnapshotWriter(Channels.newChannel(bytes))) {
+            for (Hero hero : heroes)
+                writer.writeEntity(hero);
+        }
+        snapshot = bytes.toByteArray();
+        worldFile = Files.createTempFile("world", ".rpgw");
+        WorldStore.save(worldFile, heroes);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteWorldFile() throws IOException {
+        Files.deleteIfExists(worldFile);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearIdentifications() {
+        Equipment.equipmentByType.clear();
+    }
+
+    /**
+     * Write a snapshot of all heroes.
+     */
+    @Benchmark
+    public int write(Bytes counter) throws IOException {
+        CountingChannel channel = new CountingChannel();
+        try (SnapshotWriter writer = new SnapshotWriter(channel)) {
+            for (Hero hero : heroes)
+                writer.writeEntity(hero);
+        }
+        counter.bytes += channel.nbBytes;
+        return channel.nbBytes > 0 ? heroes.size() : 0;
+    }
+
+    /**
+     * Read the snapshot of all heroes.
+     */
+    @Benchmark
+    public int read(Bytes counter) throws IOException {
+        int nbEntities = 0;
+        try (SnapshotReader reader = new SnapshotReader(
+                Channels.newChannel(new ByteArrayInputStream(snapshot)))) {
+            while (reader.hasNext()) {
+                reader.readEntity();
+                nbEntities++;
+            }
+        }
+        counter.bytes += snapshot.length;
+        return nbEntities;
+    }
+
+    /**
+     * Save a world file of all heroes.
+     */
+    @Benchmark
+    public long saveWorld(Bytes counter) throws IOException {
+        WorldStore.save(worldFile, heroes);
+        long size = Files.size(worldFile);
+        counter.bytes += size;
+        return size;
+    }
+
+    /**
+     * Open a world store of all heroes, without creating any of them.
+     */
+    @Benchmark
+    public int openWorld() throws IOException {
+        try (WorldStore store = new WorldStore(worldFile)) {
+            return store.getNbItems();
+        }
+    }
+
+    /**
+     * Open a world store of all heroes, and create the first of them.
+     */
+    @Benchmark
+    public Entity openWorldAndGetEntity() throws IOException {
+        try (WorldStore store = new WorldStore(worldFile)) {
+            return store.getEntity(0);
+        }
+    }
+
+    /**
+     * Open a world store of all heroes, and create all of them.
+     */
+    @Benchmark
+    public int openWorldAndGetAllEntities(Bytes counter) throws IOException {
+        try (WorldStore store = new WorldStore(worldFile)) {
+            for (int index = 0; index < store.getNbEntities(); index++)
+                store.getEntity(index);
+            counter.bytes += Files.size(worldFile);
+            return store.getNbEntities();
+        }
+    }
+
+    /**
+     * A channel that discards what is written to it, and counts the bytes.
+     */
+    private static final class CountingChannel implements WritableByteChannel {
+
+        private long nbBytes;
+        private boolean isOpen = true;
+
+        @Override
+        public int write(ByteBuffer source) {
+            int nbWritten = source.remaining();
+            source.position(source.limit());
+            nbBytes += nbWritten;
+            return nbWritten;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return isOpen;
+        }
+
+        @Override
+        public void close() {
+            isOpen = false;
+        }
+    }
+}
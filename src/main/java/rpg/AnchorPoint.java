@@ -0,0 +1,155 @@
+package rpg;
+
+/**
+ *
+ * A class representing the anchor points in the game.
+ *
+ * @author Jitse Vandenberghe
+ *
+ * @version 1.0
+ */
+public class AnchorPoint {
+
+    /**********************************************************
+     * Constructors
+     **********************************************************/
+
+    /**
+     * Initialize a new anchor point with the given name.
+     *
+     * @param name
+     *        The name of the new entity.
+     *
+     * @post The name is set to the given name.
+     *       | new.getName() == name
+     */
+    public AnchorPoint(String name) {
+        this.name = name;
+    }
+
+    /**********************************************************
+     * Name
+     **********************************************************/
+
+    /**
+     * Variable referencing the name of an anchor point.
+     */
+    private final String name; // for Heroes this has meaning, for monsters is null
+
+    /**
+     * Returns the name of the anchor point.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**********************************************************
+     * Item
+     **********************************************************/
+
+    /**
+     * Variable referencing an item connected to this anchor point.
+     */
+    private Equipment item;
+
+    /**
+     * Returns the item connected to the anchor point.
+     */
+    public Equipment getItem() {
+        return item;
+    }
+
+    /**
+     * Set the item connected to this anchor point.
+     *
+     * @param   item
+     *          The new item to connect to the anchor point.
+     *
+     * @effect  If this anchor point belongs to an entity, the weight carried by that entity is adjusted
+     *          by the difference in weight between the new and the old item.
+     *          | if (getEntity() != null)
+     *          |     then getEntity().adjustCarriedWeight(Entity.getCarriedWeightOf(item) - Entity.getCarriedWeightOf(getItem()))
+     *
+     * @effect  If this anchor point belongs to an entity, that entity registers whether this anchor point is empty.
+     *          | if (getEntity() != null) then getEntity().registerOccupancy(this)
+     *
+     * @note    The item registers this anchor point, such that changes to its total weight reach the entity as well.
+     */
+    public void setItem(Equipment item) {
+        Equipment oldItem = this.item;
+        if (oldItem == item)
+            return;
+        this.item = item;
+
+        if (oldItem != null)
+            oldItem.detachFrom(this);
+        if (item != null)
+            item.attachTo(this);
+
+        if (entity != null) {
+            entity.registerOccupancy(this);
+            entity.adjustCarriedWeight(Entity.getCarriedWeightOf(item) - Entity.getCarriedWeightOf(oldItem));
+        }
+    }
+
+    /**
+     * Check wether the given anchor point is empty.
+     *
+     * @return  True if there is no item that is connected to the anchor point,
+     *          false otherwise.
+     *          | result == (item == null)
+     */
+    public boolean isEmpty() {
+        return item == null;
+    }
+
+    /**********************************************************
+     * Entity
+     **********************************************************/
+
+    /**
+     * Variable referencing the entity this anchor point belongs to, if any.
+     */
+    private Entity entity = null;
+
+    /**
+     * Returns the entity this anchor point belongs to, or null if it was not yet added to an entity.
+     */
+    public Entity getEntity() {
+        return entity;
+    }
+
+    /**
+     * Variable registering the slot of this anchor point in the entity it belongs to, or 0 if it belongs to none.
+     */
+    private int slot = 0;
+
+    /**
+     * Returns the slot of this anchor point in the entity it belongs to, or 0 if it was not yet added to an entity.
+     *
+     * @note    The slot is the index at which the entity returns this anchor point.
+     *          | getEntity() == null || getEntity().getAnchorPointAt(getSlot()) == this
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Set the entity this anchor point belongs to, and its slot in that entity.
+     *
+     * @param   entity
+     *          The entity this anchor point is added to.
+     *
+     * @param   slot
+     *          The index of this anchor point in the given entity.
+     *
+     * @post    This anchor point belongs to the given entity, at the given slot.
+     *          | new.getEntity() == entity && new.getSlot() == slot
+     *
+     * @note    This is an auxiliary method that should only be called by the entity adding this anchor point.
+     */
+    void setEntity(Entity entity, int slot) {
+        this.entity = entity;
+        this.slot = slot;
+    }
+}
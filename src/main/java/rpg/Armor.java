@@ -1,6 +1,6 @@
-import be.kuleuven.cs.som.annotate.*;
+package rpg;
 
-import java.util.Random;
+import be.kuleuven.cs.som.annotate.*;
 
 /**
  * A class of armor, involving protection.
@@ -49,7 +49,22 @@ public class Armor extends Equipment {
      *          | new.isShiny() = true
      */
     public Armor(int weight, int baseValue, ArmorType type) {
-        super(weight, baseValue);
+        this(weight, baseValue, type, -1);
+    }
+
+    /**
+     * Initialize a new piece of armor with the given weight, base value and type, and with the given
+     * identification number if it is still free.
+     *
+     * @param   identification
+     *          The identification number to register, or a negative number to generate one.
+     *
+     * @effect  The piece of armor is initialized as a piece of equipment with the given identification number,
+     *          and with the given type.
+     *          | super(weight, baseValue, identification)
+     */
+    Armor(int weight, int baseValue, ArmorType type, long identification) {
+        super(weight, baseValue, identification);
 
         this.type = type;
         this.maximalProtection = type.getMaxProtection();
@@ -121,6 +136,14 @@ public class Armor extends Equipment {
         return true;
     }
 
+    /**
+     * Variable referencing the pool from which the prime identification numbers of all pieces of armor are taken.
+     *
+     * @note    The pool starts with all primes below 1 000 000, and sieves further (in segments of the same size)
+     *          only when those have all been handed out.
+     */
+    private static final PrimePool identificationPool = new PrimePool(1_000_000, Integer.MAX_VALUE);
+
     /**
      * Generates a valid and unique identification number for this piece of armor.
      *
@@ -130,30 +153,48 @@ public class Armor extends Equipment {
      * @post   The returned identification number is guaranteed to be unique among all equipment of the same type.
      *         | canHaveAsIdentification(this.getClass(), result)
      *
+     * @throws IllegalStateException
+     *         All prime identification numbers have already been handed out.
+     *         | identificationPool.isExhausted()
+     *
      * @note   The identification number is not automatically added to the registry; this must be done separately
      *         (via addIdentification()).
+     *
+     * @note   Every prime is taken from the pool at most once, so this method does not have to guess
+     *         until it hits an unused prime. A prime is only skipped if it was registered by other means.
+     *
+     * @note   The numbers in the pool are prime by construction, so only their uniqueness is checked, and not
+     *         their primality by trial division as for identification numbers given from outside.
      */
     @Override
-    public long generateIdentification() {
-        Random random = new Random();
-        long possibleID = Math.abs(random.nextLong() % 1_000_000);
+    public long generateIdentification() throws IllegalStateException {
+        long possibleID = identificationPool.take();
 
-        // Make sure the number is odd (since even numbers > 2 are not prime)
-        if (possibleID % 2 == 0) {
-            possibleID++;
-        }
-
-        // Keep generating a new number until we find a valid identification number
-        while (!canHaveAsIdentification(this.getClass(), possibleID)) {
-            possibleID = Math.abs(random.nextLong() % 1_000_000);
-            if (possibleID % 2 == 0) {
-                possibleID++;  // Ensure the number is odd
-            }
+        // Keep taking primes until we find one that is still unique
+        while (!super.canHaveAsIdentification(this.getClass(), possibleID)) {
+            possibleID = identificationPool.take();
         }
 
         return possibleID;
     }
 
+    /**
+     * Release the identification number of this piece of armor, which is no longer used.
+     *
+     * @effect  | super.releaseIdentification()
+     *
+     * @effect  The identification number is returned to the pool it was taken from.
+     *          | identificationPool.release(getIdentification())
+     *
+     * @note    Only pieces of armor that took their identification number from the pool release it, which are
+     *          those recorded in an identification scope.
+     */
+    @Override
+    void releaseIdentification() {
+        super.releaseIdentification();
+        identificationPool.release(getIdentification());
+    }
+
     /**********************************************************
      * Protection
      **********************************************************/
@@ -209,6 +250,9 @@ public class Armor extends Equipment {
      * @post    The given current protection is registered as the current protection of this piece of armor.
      *          | new.getCurrentProtection() == currentProtection
      *
+     * @effect  The change in value is passed on to the backpack containing this piece of armor.
+     *          | currentValueChanged(getCurrentValue())
+     *
      * @throws  IllegalArgumentException
      *          If the given current protection is invalid.
      *          |!isValidCurrentProtection(currentProtection)
@@ -217,7 +261,9 @@ public class Armor extends Equipment {
             throws IllegalArgumentException {
         if (!isValidCurrentProtection(currentProtection))
             throw new IllegalArgumentException("The current protection must be between 0 and " + maximalProtection);
+        int oldValue = getCurrentValue();
         this.currentProtection = currentProtection;
+        currentValueChanged(oldValue);
     }
 
     /**
@@ -282,13 +328,13 @@ public class Armor extends Equipment {
      * @effect  The protection of the protection is set to zero.
      *          | setCurrentProtection(0)
      *
-     * @effect  The condition is set to DESTROYED
-     *          | setCondition(Condition.DESTROYED)
+     * @effect  This item is destroyed as a piece of equipment.
+     *          | super.destroy()
      */
     @Override @Model
     void destroy() {
         setCurrentProtection(0);
-        setCondition(Condition.DESTROYED);
+        super.destroy();
     }
 
 }
@@ -1,3 +1,5 @@
+package rpg;
+
 import be.kuleuven.cs.som.annotate.Basic;
 import be.kuleuven.cs.som.annotate.Immutable;
 import be.kuleuven.cs.som.annotate.Model;
@@ -39,7 +41,21 @@ public class Backpack extends StorageItem {
      * @note The owner of the backpack is initialized to null.
      */
     public Backpack(int weight, int baseValue, int capacity) {
-        super(weight, baseValue, capacity);
+        this(weight, baseValue, capacity, -1);
+    }
+
+    /**
+     * Initialize a new backpack with the given weight, base value and capacity, and with the given
+     * identification number if it is still free.
+     *
+     * @param   identification
+     *          The identification number to register, or a negative number to generate one.
+     *
+     * @effect  The backpack is initialized as a storage item with the given identification number.
+     *          | super(weight, baseValue, capacity, identification)
+     */
+    Backpack(int weight, int baseValue, int capacity, long identification) {
+        super(weight, baseValue, capacity, identification);
     }
 
     /**********************************************************
@@ -60,6 +76,10 @@ public class Backpack extends StorageItem {
      * equipment items with a given identification number, in time proportional to the number
      * of items with that same ID — independent of the total number of items in the backpack.
      *
+     * Every item remembers its position in the list of its identification number, so checking
+     * whether an item is stored in this backpack and removing it take constant time. Lists that
+     * become empty are removed from the map.
+     *
      * @invar   The contents map is always effective (non-null).
      *          | contents != null
      *
@@ -79,6 +99,14 @@ public class Backpack extends StorageItem {
      *          | for each item in contents:
      *          |   item.getBackpack() == this
      *
+     * @invar   Each item in the map registers its position in the list of its identification number.
+     *          | for each item in contents:
+     *          |   contents.get(item.getIdentification()).get(item.getSlotInBackpack()) == item
+     *
+     * @invar   The map contains no empty lists.
+     *          | for each list in contents.values():
+     *          |   !list.isEmpty()
+     *
      * @note The backpack class is the sole controller of the backpack–equipment relationship.
      *       Items can only be added or removed via the backpack’s own interface.
      */
@@ -104,6 +132,34 @@ public class Backpack extends StorageItem {
         return getTotalWeight() + item.getWeight() <= getCapacity();
     }
 
+    /**
+     * Try to store the given item in this backpack, without throwing an exception if it does not fit.
+     *
+     * @param   item
+     *          The item to store.
+     *
+     * @return  INVALID_ITEM if the item is not effective or destroyed, or is this backpack itself, ALREADY_PLACED if
+     *          it is stored in this backpack already, TOO_HEAVY if this backpack cannot store it, and PLACED otherwise.
+     *          | if (item == null || item.isDestroyed() || item == this) then result == PlacementStatus.INVALID_ITEM
+     *          | else if (item.getBackpack() == this) then result == PlacementStatus.ALREADY_PLACED
+     *          | else if (!canHaveAsItem(item)) then result == PlacementStatus.TOO_HEAVY
+     *          | else result == PlacementStatus.PLACED
+     *
+     * @effect  If the result is PLACED, the item is stored in this backpack.
+     *          | if (result == PlacementStatus.PLACED) then item.setBackpack(this)
+     */
+    public PlacementStatus tryStore(Equipment item) {
+        if (item == null || item.isDestroyed() || item == this)
+            return PlacementStatus.INVALID_ITEM;
+        if (item.getBackpack() == this)
+            return PlacementStatus.ALREADY_PLACED;
+        if (!canHaveAsItem(item))
+            return PlacementStatus.TOO_HEAVY;
+
+        item.setBackpack(this);
+        return PlacementStatus.PLACED;
+    }
+
     /**
      * Add the given item to the contents registered in this backpack.
      *
@@ -147,7 +203,27 @@ public class Backpack extends StorageItem {
             throw new IllegalArgumentException("The given item is not allowed in this backpack.");
         if (item.getBackpack() != this)
             throw new IllegalStateException("The given item does not yet reference this backpack.");
+        putItem(item);
+    }
 
+    /**
+     * Add the given item to the contents registered in this backpack, without checking whether it may be added.
+     *
+     * @param   item
+     *          The item to be added.
+     *
+     * @post    The array list of items for the identification number will contain the added item.
+     *          | contents.get(item.getIdentification()).contains(item) == true
+     *
+     * @effect  The total weight and the value of the contents of this backpack, and of all backpacks containing it,
+     *          are increased by the total weight and the value of the given item.
+     *          | adjustTotalWeight(getTotalWeightOf(item)) && adjustContentsValue(getCurrentValueOf(item))
+     *
+     * @note    This is an auxiliary method of addItem, which is also used to restore the contents of saved backpacks
+     *          at once. At that point, the other direction of the relationship should already be set up.
+     */
+    @Model
+    void putItem(@Raw Equipment item) {
         // Get the existing list of items stored in the backpack with the given ID
         ArrayList<Equipment> itemsWithSameID = contents.get(item.getIdentification());
 
@@ -157,8 +233,13 @@ public class Backpack extends StorageItem {
             contents.put(item.getIdentification(), itemsWithSameID);
         }
 
-        // Add the item to the list
+        // Add the item to the list, and let it remember where
         itemsWithSameID.add(item);
+        item.setSlotInBackpack(itemsWithSameID.size() - 1);
+
+        // The item now weighs on this backpack and on every backpack containing it, and adds to their value
+        adjustTotalWeight(getTotalWeightOf(item));
+        adjustContentsValue(getCurrentValueOf(item));
     }
 
     /**
@@ -168,10 +249,18 @@ public class Backpack extends StorageItem {
      *        	The item to remove.
      *
      * @post    The array list of items for the identification number will not contain the given item.
-     *          | contents.get(item.getIdentification()).contains(item) == false
+     *          | !new.hasAsItem(item)
+     *
+     * @post    The number of items for the identification number will decrease by 1 after removing the new item.
+     *          | new.getNbItemsWithID(item.getIdentification()) == getNbItemsWithID(item.getIdentification()) - 1
      *
-     * @post    The size of the array list of items for the identification number will decrease by 1 after removing the new item.
-     *          | (contents.get(item.getIdentification).size() == old(contents.get(item.getIdentification).size()) - 1)
+     * @post    If no other items with the same identification number remain, the list for that identification number
+     *          is removed from the contents.
+     *          | if (new.getNbItemsWithID(item.getIdentification()) == 0)
+     *          |     then !new.contents.containsKey(item.getIdentification())
+     *
+     * @note    The last item with the same identification number takes the position of the removed item, so the
+     *          positions of the other items with that identification number may change.
      *
      * @throws 	IllegalArgumentException
      *         	The given item is not in the backpack
@@ -198,8 +287,22 @@ public class Backpack extends StorageItem {
         // Get the existing list of items stored in the backpack with the given ID
         ArrayList<Equipment> itemsWithSameID = contents.get(item.getIdentification());
 
-        // Remove the item from the list
-        itemsWithSameID.remove(item);
+        // Move the last item of the list into the position of the removed item
+        int slot = item.getSlotInBackpack();
+        Equipment lastItem = itemsWithSameID.remove(itemsWithSameID.size() - 1);
+        if (lastItem != item) {
+            itemsWithSameID.set(slot, lastItem);
+            lastItem.setSlotInBackpack(slot);
+        }
+        item.setSlotInBackpack(-1);
+
+        // Do not keep an empty list for an identification number that is no longer present
+        if (itemsWithSameID.isEmpty())
+            contents.remove(item.getIdentification());
+
+        // Remove the weight and value of the item from this backpack and every backpack containing it
+        adjustTotalWeight(-getTotalWeightOf(item));
+        adjustContentsValue(-getCurrentValueOf(item));
     }
 
     /**
@@ -266,16 +369,20 @@ public class Backpack extends StorageItem {
      *         	position in this backpack;
      *         	false otherwise.
      *         	| result ==
-     *         	|    for some I in 1..getNbItems() :
-     *         	| 	      (getItemAt(I) == item)
+     *         	|    for some I in 1..getNbItemsWithID(item.getIdentification()) :
+     *         	| 	      (getItemAtWithID(item.getIdentification(), I) == item)
+     *
+     * @note    The item remembers its position, so only that position needs to be checked.
      */
     @Raw
     public boolean hasAsItem(@Raw Equipment item) {
-        for (int i=1; i<=getNbItemsWithID(item.getIdentification()); i++) {
-            if (getItemAtWithID(item.getIdentification(), i) == item)
-                return true;
-        }
-        return false;
+        if (item == null)
+            return false;
+
+        ArrayList<Equipment> itemsWithSameID = contents.get(item.getIdentification());
+        int slot = item.getSlotInBackpack();
+        return itemsWithSameID != null && slot >= 0 && slot < itemsWithSameID.size()
+                && itemsWithSameID.get(slot) == item;
     }
 
     /**
@@ -288,17 +395,98 @@ public class Backpack extends StorageItem {
      *          | result == (
      */
     public boolean containsItemWithIdentification(long identification){
-        return contents.containsKey(identification) && !contents.get(identification).isEmpty();
+        return contents.containsKey(identification);
     }
 
     /**********************************************************
      * Weight - total programming
      **********************************************************/
 
+    /**
+     * Variable registering the total weight of this backpack: its own weight and the total weight of all
+     * items stored inside, including the contents of nested backpacks and purses.
+     *
+     * @invar   The total weight equals the weight computed by walking all contents.
+     *          | totalWeight == calculateTotalWeight()
+     *
+     * @note    The total weight is kept up to date by addItem and removeItem, and by every change in
+     *          the total weight of a backpack or purse stored inside, which is passed on to the backpack
+     *          containing it through adjustTotalWeight.
+     */
+    private int totalWeight = getWeight();
+
     /**
      * Returns the total weight of this backpack (the weight of the backpack itself and the weight of the items stored inside).
+     *
+     * @note    When assertions are enabled, the registered total weight is checked against the weight computed by
+     *          walking all contents.
      */
     public int getTotalWeight() {
+        assert totalWeight == calculateTotalWeight() : "The registered total weight of the backpack is out of date.";
+        return totalWeight;
+    }
+
+    /**
+     * Return the weight the given item adds to the backpack containing it.
+     *
+     * @param   item
+     *          The item to return the weight of.
+     *
+     * @return  The total weight of the item if it is a backpack or a purse, and its own weight otherwise.
+     *          | if (item instanceof Backpack) then result == ((Backpack) item).getTotalWeight()
+     *          | else if (item instanceof Purse) then result == ((Purse) item).getTotalWeight()
+     *          | else result == item.getWeight()
+     */
+    @Model
+    private static int getTotalWeightOf(@Raw Equipment item) {
+        if (item instanceof Backpack) {
+            return ((Backpack) item).totalWeight;
+        }
+        else if (item instanceof Purse) {
+            return ((Purse) item).getTotalWeight();
+        }
+        else {
+            return item.getWeight();
+        }
+    }
+
+    /**
+     * Adjust the total weight of this backpack, and of all backpacks containing it, by the given amount.
+     *
+     * @param   delta
+     *          The change in the total weight of an item stored inside this backpack.
+     *
+     * @post    The total weight of this backpack is increased by the given amount.
+     *          | new.getTotalWeight() == getTotalWeight() + delta
+     *
+     * @effect  If this backpack is stored in another backpack, the total weight of that backpack is adjusted too.
+     *          | if (getBackpack() != null) then getBackpack().adjustTotalWeight(delta)
+     *
+     * @effect  The carried weight of every entity this backpack is attached to is adjusted too.
+     *          | adjustCarriedWeightOfHolders(delta)
+     *
+     * @note    This is an auxiliary method that should only be called when the total weight of an item stored
+     *          inside this backpack changes, at which point the registered total weight is temporarily out of date.
+     */
+    @Model
+    void adjustTotalWeight(int delta) {
+        for (Backpack backpack = this; backpack != null; backpack = backpack.getBackpack()) {
+            backpack.totalWeight += delta;
+            backpack.adjustCarriedWeightOfHolders(delta);
+        }
+    }
+
+    /**
+     * Calculate the total weight of this backpack by walking all of its contents.
+     *
+     * @return  The weight of this backpack itself plus the weight of all items stored inside, where backpacks and
+     *          purses count with their total weight.
+     *          | result == getWeight() + sum of (item is Backpack ? item.calculateTotalWeight()
+     *          |                                   : item is Purse ? item.getTotalWeight() : item.getWeight())
+     *          |                          for each item in the contents
+     */
+    @Model
+    int calculateTotalWeight() {
         int totalWeight = getWeight();
 
         // Iterate over every identification number (key) in the contents map
@@ -309,7 +497,7 @@ public class Backpack extends StorageItem {
             // Iterate over each individual item in the list associated with the current identification number
             for (Equipment item : itemsWithSameID) {
                 if (item instanceof Backpack) {
-                    totalWeight += ((Backpack) item).getTotalWeight();
+                    totalWeight += ((Backpack) item).calculateTotalWeight();
                 }
                 else if (item instanceof Purse) {
                     totalWeight += ((Purse) item).getTotalWeight();
@@ -334,16 +522,83 @@ public class Backpack extends StorageItem {
         return 500;
     }
 
+    /**
+     * Variable registering the sum of the current values of all items stored inside this backpack,
+     * including the contents of nested backpacks.
+     *
+     * @invar   The registered value equals the value computed by walking all contents.
+     *          | contentsValue == calculateContentsValue()
+     *
+     * @note    The value is kept up to date by addItem and removeItem, and by every change in the current value
+     *          of an item stored inside, which is passed on to the backpack containing it through adjustContentsValue.
+     */
+    private int contentsValue = 0;
+
     /**
      * Calculate the current value of this backpack.
      *
      * @return  The current value of the backpack, which is the sum of the base value of the backpack
      *          and the current values of all items stored inside the backpack.
-     *          | result == getBaseValue() + + sum of item.getCurrentValue() for each item in the contents
+     *          | result == getBaseValue() + calculateContentsValue()
+     *
+     * @note    When assertions are enabled, the registered value of the contents is checked against the value
+     *          computed by walking all contents.
      */
     @Override
     protected int calculateCurrentValue() {
-        int totalValue = getBaseValue();
+        assert contentsValue == calculateContentsValue() : "The registered value of the backpack is out of date.";
+        return getBaseValue() + contentsValue;
+    }
+
+    /**
+     * Return the current value of the given item, as it counts for the backpack containing it.
+     *
+     * @param   item
+     *          The item to return the value of.
+     *
+     * @return  The current value of the item.
+     *          | result == item.getCurrentValue()
+     */
+    @Model
+    private static int getCurrentValueOf(@Raw Equipment item) {
+        if (item instanceof Backpack) {
+            return item.getBaseValue() + ((Backpack) item).contentsValue;
+        }
+        else {
+            return item.getCurrentValue();
+        }
+    }
+
+    /**
+     * Adjust the value of the contents of this backpack, and of all backpacks containing it, by the given amount.
+     *
+     * @param   delta
+     *          The change in the current value of an item stored inside this backpack.
+     *
+     * @post    The current value of this backpack is increased by the given amount.
+     *          | new.getCurrentValue() == getCurrentValue() + delta
+     *
+     * @effect  If this backpack is stored in another backpack, the value of that backpack is adjusted too.
+     *          | if (getBackpack() != null) then getBackpack().adjustContentsValue(delta)
+     *
+     * @note    This is an auxiliary method that should only be called when the current value of an item stored
+     *          inside this backpack changes, at which point the registered value is temporarily out of date.
+     */
+    @Model
+    void adjustContentsValue(int delta) {
+        for (Backpack backpack = this; backpack != null; backpack = backpack.getBackpack())
+            backpack.contentsValue += delta;
+    }
+
+    /**
+     * Calculate the value of the contents of this backpack by walking all of its contents.
+     *
+     * @return  The sum of the current values of all items stored inside the backpack.
+     *          | result == sum of item.getCurrentValue() for each item in the contents
+     */
+    @Model
+    int calculateContentsValue() {
+        int totalValue = 0;
 
         // Iterate over every identification number (key) in the contents map
         for (Long identification : contents.keySet()) {
@@ -365,8 +620,8 @@ public class Backpack extends StorageItem {
     /**
      * Set this backpack to destroyed and empty its contents.
      *
-     * @effect The condition is set to DESTROYED.
-     *         | setCondition(Condition.DESTROYED)
+     * @effect This backpack is destroyed as a piece of equipment.
+     *         | super.destroy()
      *
      * @effect All items in the backpack are removed using setBackpack(null).
      *         | for each item in contents: item.setBackpack(null)
@@ -384,7 +639,7 @@ public class Backpack extends StorageItem {
             item.setBackpack(null);
         }
 
-        setCondition(Condition.DESTROYED);
+        super.destroy();
     }
 
 }
\ No newline at end of file
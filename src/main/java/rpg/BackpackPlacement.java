@@ -0,0 +1,231 @@
+package rpg;
+
+import be.kuleuven.cs.som.annotate.Model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * A class of plans for storing items in a fixed list of backpacks, according to a placement strategy.
+ *
+ * The plan keeps track of the room every backpack would have left after the items reserved so far, without
+ * storing any item. Storing an item in a backpack also takes room in the backpacks it is nested in, so a
+ * reservation lowers the room of every enclosing backpack in the list as well.
+ *
+ * To find a backpack in logarithmic time, the backpacks are kept ordered by the room they have left, for the
+ * tightest fit, and in a tree of the largest room left per range of positions, for the first fit.
+ *
+ * @invar   Every backpack is registered in both orderings with the room it has left.
+ *          | for each i in 0..getNbBackpacks()-1:
+ *          |   backpacksByRoomLeft.get(roomLeft[i]).contains(i) && largestRoomLeft[leafOffset + i] == roomLeft[i]
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+class BackpackPlacement {
+
+    /**
+     * Initialize a new placement in the given backpacks, according to the given strategy.
+     *
+     * @param   backpacks
+     *          The backpacks to store items in, in the order in which the first fit considers them.
+     *
+     * @param   strategy
+     *          The way in which the backpack for every item is chosen.
+     *
+     * @post    Every backpack starts with the room it has left in its current state.
+     *          | for each i in 0..backpacks.size()-1:
+     *          |   roomLeft[i] == backpacks.get(i).getCapacity() - backpacks.get(i).getTotalWeight()
+     *
+     * @note    Only the given backpacks take part in the placement: a backpack nested in a backpack that is
+     *          not in the list has no enclosing backpack as far as this placement is concerned.
+     */
+    BackpackPlacement(List<Backpack> backpacks, PlacementStrategy strategy) {
+        this.backpacks = new ArrayList<>(backpacks);
+        this.strategy = strategy;
+        this.roomLeft = new int[backpacks.size()];
+        this.enclosing = new int[backpacks.size()];
+
+        int offset = 1;
+        while (offset < backpacks.size())
+            offset *= 2;
+        this.leafOffset = offset;
+        this.largestRoomLeft = new int[2 * offset];
+        Arrays.fill(largestRoomLeft, Integer.MIN_VALUE);
+
+        Map<Backpack, Integer> positions = new IdentityHashMap<>();
+        for (int i = 0; i < backpacks.size(); i++)
+            positions.put(backpacks.get(i), i);
+        for (int i = 0; i < backpacks.size(); i++) {
+            Backpack backpack = backpacks.get(i);
+            enclosing[i] = positions.getOrDefault(backpack.getBackpack(), -1);
+            roomLeft[i] = backpack.getCapacity() - backpack.getTotalWeight();
+            register(i);
+        }
+    }
+
+    /**
+     * Return the number of backpacks in this placement.
+     */
+    int getNbBackpacks() {
+        return backpacks.size();
+    }
+
+    /**
+     * Reserve room for the given items, in the order of the placement strategy.
+     *
+     * @param   items
+     *          The items to reserve room for.
+     *
+     * @effect  Room is reserved for every item, in the given order unless the strategy orders them by value
+     *          density.
+     *          | for each item in ordered(items): reserve(item)
+     *
+     * @return  A map from every item for which room was reserved to its backpack, by identity.
+     */
+    Map<Equipment, Backpack> reserveAll(List<? extends Equipment> items) {
+        List<Equipment> ordered = new ArrayList<>(items);
+        if (strategy.isOrderingByValueDensity())
+            ordered.sort(BY_DECREASING_VALUE_DENSITY);
+
+        Map<Equipment, Backpack> reservations = new IdentityHashMap<>();
+        for (Equipment item : ordered) {
+            Backpack backpack = reserve(item);
+            if (backpack != null)
+                reservations.put(item, backpack);
+        }
+        return reservations;
+    }
+
+    /**
+     * Reserve room for the given item in the backpack chosen by the placement strategy.
+     *
+     * @param   item
+     *          The item to reserve room for.
+     *
+     * @return  The first backpack with room for the item, or the one with the least room left that still has room
+     *          for it, as chosen by the strategy, or null if no backpack has room for it. Room for an item is
+     *          decided as by Backpack.canHaveAsItem.
+     *
+     * @effect  The carried weight of the item is taken from the room left of the chosen backpack and of every
+     *          backpack it is nested in.
+     */
+    Backpack reserve(Equipment item) {
+        int index = strategy.isChoosingTightestFit() ? findTightestFit(item.getWeight()) : findFirstFit(item.getWeight());
+        if (index < 0)
+            return null;
+
+        int weight = Entity.getCarriedWeightOf(item);
+        for (int i = index; i >= 0; i = enclosing[i]) {
+            unregister(i);
+            roomLeft[i] -= weight;
+            register(i);
+        }
+        return backpacks.get(index);
+    }
+
+    /**
+     * Return the position of the first backpack with at least the given room left, or -1 if there is none.
+     */
+    @Model
+    private int findFirstFit(int weight) {
+        if (largestRoomLeft[1] < weight)
+            return -1;
+        // Descend into the leftmost subtree that still has a backpack with enough room
+        int node = 1;
+        while (node < leafOffset)
+            node = largestRoomLeft[2 * node] >= weight ? 2 * node : 2 * node + 1;
+        return node - leafOffset;
+    }
+
+    /**
+     * Return the position of the backpack with the least room left of at least the given weight, the first one
+     * of them if there are several, or -1 if there is none.
+     */
+    @Model
+    private int findTightestFit(int weight) {
+        Map.Entry<Integer, TreeSet<Integer>> entry = backpacksByRoomLeft.ceilingEntry(weight);
+        return entry == null ? -1 : entry.getValue().first();
+    }
+
+    /**
+     * Register the backpack at the given position with the room it has left, in both orderings.
+     */
+    private void register(int index) {
+        backpacksByRoomLeft.computeIfAbsent(roomLeft[index], room -> new TreeSet<>()).add(index);
+        int node = leafOffset + index;
+        largestRoomLeft[node] = roomLeft[index];
+        for (node /= 2; node >= 1; node /= 2)
+            largestRoomLeft[node] = Math.max(largestRoomLeft[2 * node], largestRoomLeft[2 * node + 1]);
+    }
+
+    /**
+     * Remove the backpack at the given position from the ordering by room left.
+     *
+     * @note    The tree of the largest room left is brought up to date by the next registration.
+     */
+    private void unregister(int index) {
+        TreeSet<Integer> withSameRoom = backpacksByRoomLeft.get(roomLeft[index]);
+        withSameRoom.remove(index);
+        if (withSameRoom.isEmpty())
+            backpacksByRoomLeft.remove(roomLeft[index]);
+    }
+
+    /**
+     * An ordering of items by decreasing value per unit of weight. Weightless items come first, by decreasing value.
+     *
+     * @note    The values of weighing items are compared as value * other weight, to avoid rounding the densities.
+     */
+    private static final Comparator<Equipment> BY_DECREASING_VALUE_DENSITY = (first, second) -> {
+        if (first.getWeight() == 0 || second.getWeight() == 0) {
+            if (first.getWeight() != second.getWeight())
+                return first.getWeight() == 0 ? -1 : 1;
+            return Integer.compare(second.getCurrentValue(), first.getCurrentValue());
+        }
+        return Long.compare((long) second.getCurrentValue() * first.getWeight(),
+                (long) first.getCurrentValue() * second.getWeight());
+    };
+
+    /**
+     * Variable referencing the backpacks of this placement.
+     */
+    private final List<Backpack> backpacks;
+
+    /**
+     * Variable referencing the strategy of this placement.
+     */
+    private final PlacementStrategy strategy;
+
+    /**
+     * Variable referencing the room every backpack would have left after the reservations so far.
+     */
+    private final int[] roomLeft;
+
+    /**
+     * Variable referencing the position of the backpack every backpack is stored in, or -1 if that backpack
+     * does not take part in this placement.
+     */
+    private final int[] enclosing;
+
+    /**
+     * Variable referencing the positions of the backpacks, by the room they have left.
+     */
+    private final TreeMap<Integer, TreeSet<Integer>> backpacksByRoomLeft = new TreeMap<>();
+
+    /**
+     * Variable referencing a tree of the largest room left, in which node n covers nodes 2n and 2n + 1,
+     * and the backpack at position i is leaf leafOffset + i.
+     */
+    private final int[] largestRoomLeft;
+
+    /**
+     * Variable registering the node of the first leaf of the tree of the largest room left.
+     */
+    private final int leafOffset;
+}
@@ -0,0 +1,124 @@
+package rpg;
+
+import java.util.random.RandomGenerator;
+
+public class Battle {
+
+    private final Hero hero;
+    private final Monster monster;
+
+    /**
+     * The sink receiving the events of this battle.
+     */
+    private final BattleEventSink eventSink;
+
+    /**
+     * The random generator deciding who attacks first.
+     */
+    private final RandomGenerator random;
+
+    public Battle(Hero hero, Monster monster) {
+        this(hero, monster, new ConsoleBattleEventSink());
+    }
+
+    /**
+     * Initialize a new battle between the given hero and monster, reporting its events to the given sink.
+     *
+     * @param   hero
+     *          The hero fighting the battle.
+     *
+     * @param   monster
+     *          The monster fighting the battle.
+     *
+     * @param   eventSink
+     *          The sink receiving the events of the battle.
+     *          Use BattleEventSink.NONE for battles of which only the outcome matters.
+     *
+     * @effect  The battle decides who attacks first with the generator of the current thread.
+     *          | this(hero, monster, eventSink, RandomSource.current())
+     */
+    public Battle(Hero hero, Monster monster, BattleEventSink eventSink) {
+        this(hero, monster, eventSink, RandomSource.current());
+    }
+
+    /**
+     * Initialize a new battle between the given hero and monster, reporting its events to the given sink
+     * and deciding who attacks first with the given random generator.
+     *
+     * @param   hero
+     *          The hero fighting the battle.
+     *
+     * @param   monster
+     *          The monster fighting the battle.
+     *
+     * @param   eventSink
+     *          The sink receiving the events of the battle.
+     *
+     * @param   random
+     *          The random generator deciding who attacks first.
+     *
+     * @throws  IllegalArgumentException
+     *          The given hero, monster, sink or generator is not effective.
+     *          | hero == null || monster == null || eventSink == null || random == null
+     *
+     * @note    The attacks themselves draw from the generators of the hero and monster.
+     */
+    public Battle(Hero hero, Monster monster, BattleEventSink eventSink, RandomGenerator random) {
+        if (hero == null || monster == null)
+            throw new IllegalArgumentException("Hero and Monster cannot be null.");
+        if (eventSink == null)
+            throw new IllegalArgumentException("The event sink cannot be null.");
+        if (random == null)
+            throw new IllegalArgumentException("The random generator cannot be null.");
+        this.hero = hero;
+        this.monster = monster;
+        this.eventSink = eventSink;
+        this.random = random;
+    }
+
+    public void fight() {
+        eventSink.battleStarted(hero, monster);
+
+        boolean heroStarts = random.nextBoolean();
+        int turn = 0;
+
+        while (hero.isAlive() && monster.isAlive()) {
+            turn++;
+            if (heroStarts) {
+                int hitPointsBefore = monster.getHitPoints();
+                hero.hit(monster);
+                eventSink.turnTaken(turn, hero, monster, hitPointsBefore, monster.getHitPoints());
+            } else {
+                int hitPointsBefore = hero.getHitPoints();
+                monster.hit(hero);
+                eventSink.turnTaken(turn, monster, hero, hitPointsBefore, hero.getHitPoints());
+            }
+
+            heroStarts = !heroStarts;
+        }
+
+        Entity winner;
+        if (hero.isAlive()) {
+            winner = hero;
+        } else {
+            winner = monster;
+        }
+
+        eventSink.battleEnded(winner, turn);
+    }
+
+    public Hero getHero() {
+        return hero;
+    }
+
+    public Monster getMonster() {
+        return monster;
+    }
+
+    /**
+     * Return the sink receiving the events of this battle.
+     */
+    public BattleEventSink getEventSink() {
+        return eventSink;
+    }
+}
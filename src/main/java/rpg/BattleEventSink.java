@@ -0,0 +1,65 @@
+package rpg;
+
+/**
+ * An interface for receivers of the events of a battle.
+ *
+ * A battle reports its start, every turn and its end to its sink, in that order. The events are
+ * passed as plain arguments rather than as event objects, such that reporting a turn does not
+ * allocate anything. Every event is ignored by default, so a sink only implements the events
+ * it is interested in.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public interface BattleEventSink {
+
+    /**
+     * A sink ignoring all events, for battles that only need their outcome.
+     */
+    BattleEventSink NONE = new BattleEventSink() {};
+
+    /**
+     * Receive the start of a battle between the given hero and monster.
+     *
+     * @param   hero
+     *          The hero fighting the battle.
+     *
+     * @param   monster
+     *          The monster fighting the battle.
+     */
+    default void battleStarted(Hero hero, Monster monster) {
+    }
+
+    /**
+     * Receive a turn of a battle, in which the given attacker attacked the given defender.
+     *
+     * @param   turn
+     *          The number of the turn, starting from 1.
+     *
+     * @param   attacker
+     *          The entity attacking in this turn.
+     *
+     * @param   defender
+     *          The entity attacked in this turn.
+     *
+     * @param   hitPointsBefore
+     *          The hit points of the defender before the attack.
+     *
+     * @param   hitPointsAfter
+     *          The hit points of the defender after the attack.
+     */
+    default void turnTaken(int turn, Entity attacker, Entity defender, int hitPointsBefore, int hitPointsAfter) {
+    }
+
+    /**
+     * Receive the end of a battle, won by the given winner.
+     *
+     * @param   winner
+     *          The entity still alive at the end of the battle.
+     *
+     * @param   nbTurns
+     *          The number of turns the battle took.
+     */
+    default void battleEnded(Entity winner, int nbTurns) {
+    }
+}
@@ -0,0 +1,320 @@
+package rpg;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * A class of simulators running many independent battles between a hero and a monster,
+ * to estimate how likely the hero is to win and how the battles unfold.
+ *
+ * The hero and monster are described by templates creating a new, fully equipped entity each time,
+ * such that every battle starts from the same loadout. The battles are divided over the threads of
+ * a fork/join pool. Every task gathers the statistics of its own battles without any sharing, and
+ * the statistics of all tasks are merged when they are joined.
+ *
+ * When a seed is given, every battle gets its own seed derived from it and from the number of the
+ * battle, so the result does not depend on the number of threads or on how the battles were divided.
+ *
+ * The heroes and monsters of the battles are not part of any saved world, so the battles cannot be simulated while
+ * changes to the world are reported to a sink: the threads of the pool would all report to it at once.
+ *
+ * The equipment created by the templates is discarded after every battle. Every task fights its battles in an
+ * identification scope, such that the equipment of a battle takes over the identification numbers of the equipment
+ * of the battle before it, and the task releases them all when it is done. A simulation therefore holds at most as
+ * many identification numbers as the battles fought at the same time need, and returns the prime identification
+ * numbers of its armor to the shared pool, however many battles it fights. Only the first battle of every task takes
+ * identification numbers for armor from that pool, so the threads rarely wait for each other to do so.
+ *
+ * @invar   The templates and the pool of this simulator are effective.
+ *          | getHeroTemplate() != null && getMonsterTemplate() != null && getPool() != null
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class BattleSimulator {
+
+    /**
+     * The number of battles below which a task fights its battles itself, rather than splitting them up.
+     */
+    private static final int BATTLES_PER_TASK = 64;
+
+    /**********************************************************
+     * Constructors
+     **********************************************************/
+
+    /**
+     * Initialize a new simulator for the given templates, running on the common fork/join pool.
+     *
+     * @param   heroTemplate
+     *          The template creating the hero of every battle.
+     *
+     * @param   monsterTemplate
+     *          The template creating the monster of every battle.
+     *
+     * @effect  The new simulator runs on the common pool.
+     *          | this(heroTemplate, monsterTemplate, ForkJoinPool.commonPool())
+     */
+    public BattleSimulator(Supplier<Hero> heroTemplate, Supplier<Monster> monsterTemplate)
+            throws IllegalArgumentException {
+        this(heroTemplate, monsterTemplate, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Initialize a new simulator for the given templates, running on the given fork/join pool.
+     *
+     * @param   heroTemplate
+     *          The template creating the hero of every battle.
+     *
+     * @param   monsterTemplate
+     *          The template creating the monster of every battle.
+     *
+     * @param   pool
+     *          The pool running the battles.
+     *
+     * @post    The templates and pool of the new simulator are the given ones.
+     *          | new.getHeroTemplate() == heroTemplate && new.getMonsterTemplate() == monsterTemplate
+     *          |   && new.getPool() == pool
+     *
+     * @throws  IllegalArgumentException
+     *          One of the given templates or the given pool is not effective.
+     *          | heroTemplate == null || monsterTemplate == null || pool == null
+     */
+    public BattleSimulator(Supplier<Hero> heroTemplate, Supplier<Monster> monsterTemplate, ForkJoinPool pool)
+            throws IllegalArgumentException {
+        if (heroTemplate == null || monsterTemplate == null)
+            throw new IllegalArgumentException("The templates cannot be null.");
+        if (pool == null)
+            throw new IllegalArgumentException("The pool cannot be null.");
+
+        this.heroTemplate = heroTemplate;
+        this.monsterTemplate = monsterTemplate;
+        this.pool = pool;
+    }
+
+    /**********************************************************
+     * Templates and pool
+     **********************************************************/
+
+    /**
+     * Variable referencing the template creating the hero of every battle.
+     */
+    private final Supplier<Hero> heroTemplate;
+
+    /**
+     * Variable referencing the template creating the monster of every battle.
+     */
+    private final Supplier<Monster> monsterTemplate;
+
+    /**
+     * Variable referencing the pool running the battles.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Return the template creating the hero of every battle.
+     */
+    @Basic @Immutable
+    public Supplier<Hero> getHeroTemplate() {
+        return heroTemplate;
+    }
+
+    /**
+     * Return the template creating the monster of every battle.
+     */
+    @Basic @Immutable
+    public Supplier<Monster> getMonsterTemplate() {
+        return monsterTemplate;
+    }
+
+    /**
+     * Return the pool running the battles.
+     */
+    @Basic @Immutable
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**********************************************************
+     * Simulation
+     **********************************************************/
+
+    /**
+     * Fight the given number of battles, each between a new hero and a new monster.
+     *
+     * @param   nbBattles
+     *          The number of battles to fight.
+     *
+     * @return  The statistics of all battles fought.
+     *          | result.getNbBattles() == nbBattles
+     *
+     * @throws  IllegalArgumentException
+     *          The given number of battles is negative.
+     *          | nbBattles < 0
+     *
+     * @throws  IllegalStateException
+     *          Changes to the world are reported to a sink.
+     *          | WorldEvents.getSink() != WorldEventSink.NONE
+     *
+     * @note    The templates are called on the threads of the pool, so they must be safe to call concurrently.
+     *          They must create new equipment every time, and not keep it, because the identification numbers of
+     *          the equipment are reused once its battle has ended.
+     *
+     * @note    A battle only ends when one of both entities dies, so the templates must not describe a hero
+     *          and monster that can never hurt each other.
+     */
+    public BattleStatistics simulate(int nbBattles) throws IllegalArgumentException, IllegalStateException {
+        if (nbBattles < 0)
+            throw new IllegalArgumentException("The number of battles cannot be negative.");
+        if (WorldEvents.getSink() != WorldEventSink.NONE)
+            throw new IllegalStateException("Battles cannot be simulated while changes are reported.");
+        return pool.invoke(new SimulationTask(0, nbBattles, false, 0));
+    }
+
+    /**
+     * Fight the given number of battles, each between a new hero and a new monster, reproducibly.
+     *
+     * @param   nbBattles
+     *          The number of battles to fight.
+     *
+     * @param   seed
+     *          The seed from which the seed of every battle is derived.
+     *
+     * @return  The statistics of all battles fought, which are the same for every simulation with
+     *          the same templates, number of battles and seed.
+     *          | result.getNbBattles() == nbBattles
+     *
+     * @throws  IllegalArgumentException
+     *          The given number of battles is negative.
+     *          | nbBattles < 0
+     *
+     * @throws  IllegalStateException
+     *          Changes to the world are reported to a sink.
+     *          | WorldEvents.getSink() != WorldEventSink.NONE
+     *
+     * @note    Every battle is fought with a fixed seed for its thread, that is set before its hero and monster
+     *          are created, so the templates should draw their random numbers from RandomSource.current().
+     *
+     * @note    The identification numbers of pieces of armor created by the templates are taken from a pool shared
+     *          by all threads, and depend on how many were taken before. They are not reproducible, but taking them
+     *          does not draw from the generator of the battle, so the battles themselves are.
+     */
+    public BattleStatistics simulate(int nbBattles, long seed) throws IllegalArgumentException, IllegalStateException {
+        if (nbBattles < 0)
+            throw new IllegalArgumentException("The number of battles cannot be negative.");
+        if (WorldEvents.getSink() != WorldEventSink.NONE)
+            throw new IllegalStateException("Battles cannot be simulated while changes are reported.");
+        return pool.invoke(new SimulationTask(0, nbBattles, true, seed));
+    }
+
+    /**
+     * Return the seed of the battle with the given number, in a simulation with the given seed.
+     *
+     * @param   seed
+     *          The seed of the simulation.
+     *
+     * @param   battle
+     *          The number of the battle.
+     *
+     * @return  A mix of all bits of the given seed and number of the battle.
+     */
+    static long seedOfBattle(long seed, long battle) {
+        long z = seed + battle * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    /**
+     * A task fighting a range of battles, splitting it up over new tasks as long as it is large.
+     */
+    private class SimulationTask extends RecursiveTask<BattleStatistics> {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The numbers of the first battle and of the battle after the last battle of this task.
+         */
+        private final int from;
+        private final int to;
+
+        /**
+         * Whether the battles are fought with seeds derived from the given seed.
+         */
+        private final boolean seeded;
+        private final long seed;
+
+        SimulationTask(int from, int to, boolean seeded, long seed) {
+            this.from = from;
+            this.to = to;
+            this.seeded = seeded;
+            this.seed = seed;
+        }
+
+        @Override
+        protected BattleStatistics compute() {
+            if (to - from <= BATTLES_PER_TASK)
+                return fightAll();
+
+            int middle = (from + to) >>> 1;
+            SimulationTask left = new SimulationTask(from, middle, seeded, seed);
+            SimulationTask right = new SimulationTask(middle, to, seeded, seed);
+            left.fork();
+            BattleStatistics statistics = right.compute();
+            statistics.merge(left.join());
+            return statistics;
+        }
+
+        // AUXILIARY METHOD: fights the battles of this task on the current thread
+        private BattleStatistics fightAll() {
+            BattleStatistics statistics = new BattleStatistics();
+            TurnCounter turnCounter = new TurnCounter();
+
+            // The equipment of a battle is discarded after it, and its identification numbers reused by the next
+            try (IdentificationScope scope = IdentificationScope.open()) {
+                for (int battle = from; battle < to; battle++) {
+                    fight(battle, turnCounter, statistics);
+                    scope.discardAll();
+                }
+            }
+            return statistics;
+        }
+
+        // AUXILIARY METHOD: fights the battle with the given number, and records it in the given statistics
+        private void fight(int battle, TurnCounter turnCounter, BattleStatistics statistics) {
+            RandomGenerator previous = null;
+            if (seeded)
+                previous = RandomSource.replaceSeeded(new SplittableRandom(seedOfBattle(seed, battle)));
+            try {
+                Hero hero = heroTemplate.get();
+                Monster monster = monsterTemplate.get();
+                new Battle(hero, monster, turnCounter).fight();
+
+                boolean heroWon = hero.isAlive();
+                int hitPointsLeft = heroWon ? hero.getHitPoints() : monster.getHitPoints();
+                statistics.record(heroWon, turnCounter.nbTurns, hitPointsLeft);
+            } finally {
+                if (seeded)
+                    RandomSource.replaceSeeded(previous);
+            }
+        }
+    }
+
+    /**
+     * A sink only remembering the number of turns of the last battle that ended.
+     */
+    private static class TurnCounter implements BattleEventSink {
+
+        private int nbTurns;
+
+        @Override
+        public void battleEnded(Entity winner, int nbTurns) {
+            this.nbTurns = nbTurns;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package rpg;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Model;
+
+import java.util.Arrays;
+
+/**
+ * A class of statistics about a number of battles between heroes and monsters.
+ *
+ * The statistics keep the number of battles won by each side, how many battles took each number
+ * of turns, and the hit points the winners had left. Statistics gathered separately, for instance
+ * by different threads, can be merged into one.
+ *
+ * @invar   Every battle is won by either the hero or the monster.
+ *          | getNbBattles() == getNbHeroWins() + getNbMonsterWins()
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class BattleStatistics {
+
+    /**********************************************************
+     * Constructor
+     **********************************************************/
+
+    /**
+     * Initialize new statistics without any battles.
+     *
+     * @post    The new statistics have no battles.
+     *          | new.getNbBattles() == 0
+     */
+    public BattleStatistics() {
+    }
+
+    /**********************************************************
+     * Wins
+     **********************************************************/
+
+    /**
+     * Variables registering the number of battles won by the hero and by the monster.
+     */
+    private long nbHeroWins = 0;
+    private long nbMonsterWins = 0;
+
+    /**
+     * Return the number of battles in these statistics.
+     */
+    public long getNbBattles() {
+        return nbHeroWins + nbMonsterWins;
+    }
+
+    /**
+     * Return the number of battles won by the hero.
+     */
+    @Basic
+    public long getNbHeroWins() {
+        return nbHeroWins;
+    }
+
+    /**
+     * Return the number of battles won by the monster.
+     */
+    @Basic
+    public long getNbMonsterWins() {
+        return nbMonsterWins;
+    }
+
+    /**
+     * Return the fraction of the battles won by the hero.
+     *
+     * @return  The number of battles won by the hero divided by the number of battles, or 0 if there are no battles.
+     *          | if (getNbBattles() == 0) then result == 0
+     *          | else result == (double) getNbHeroWins() / getNbBattles()
+     */
+    public double getHeroWinRate() {
+        if (getNbBattles() == 0)
+            return 0;
+        return (double) nbHeroWins / getNbBattles();
+    }
+
+    /**********************************************************
+     * Turns
+     **********************************************************/
+
+    /**
+     * Variable referencing the number of battles per number of turns, indexed by the number of turns.
+     */
+    private long[] nbBattlesPerNbTurns = new long[64];
+
+    /**
+     * Variable registering the total number of turns of all battles.
+     */
+    private long totalNbTurns = 0;
+
+    /**
+     * Return the number of battles that took exactly the given number of turns.
+     *
+     * @param   nbTurns
+     *          The number of turns.
+     */
+    public long getNbBattlesTaking(int nbTurns) {
+        if (nbTurns < 0 || nbTurns >= nbBattlesPerNbTurns.length)
+            return 0;
+        return nbBattlesPerNbTurns[nbTurns];
+    }
+
+    /**
+     * Return the largest number of turns any battle took, or 0 if there are no battles.
+     */
+    public int getMaximumNbTurns() {
+        for (int nbTurns = nbBattlesPerNbTurns.length - 1; nbTurns > 0; nbTurns--) {
+            if (nbBattlesPerNbTurns[nbTurns] > 0)
+                return nbTurns;
+        }
+        return 0;
+    }
+
+    /**
+     * Return the average number of turns of the battles, or 0 if there are no battles.
+     */
+    public double getAverageNbTurns() {
+        if (getNbBattles() == 0)
+            return 0;
+        return (double) totalNbTurns / getNbBattles();
+    }
+
+    /**
+     * Return the smallest number of turns such that at least the given fraction of the battles
+     * took at most that many turns.
+     *
+     * @param   fraction
+     *          The fraction of the battles, between 0 and 1.
+     *
+     * @return  The smallest number of turns t such that the battles taking at most t turns make up
+     *          at least the given fraction of all battles, or 0 if there are no battles.
+     *          | result == min { t | sum(getNbBattlesTaking(i) for i in 0..t) >= fraction * getNbBattles() }
+     *
+     * @throws  IllegalArgumentException
+     *          The given fraction is not between 0 and 1.
+     *          | fraction < 0 || fraction > 1
+     */
+    public int getNbTurnsAtFraction(double fraction) throws IllegalArgumentException {
+        if (fraction < 0 || fraction > 1)
+            throw new IllegalArgumentException("The fraction must be between 0 and 1.");
+
+        double needed = fraction * getNbBattles();
+        long seen = 0;
+        for (int nbTurns = 0; nbTurns < nbBattlesPerNbTurns.length; nbTurns++) {
+            seen += nbBattlesPerNbTurns[nbTurns];
+            if (seen > 0 && seen >= needed)
+                return nbTurns;
+        }
+        return 0;
+    }
+
+    /**********************************************************
+     * Remaining hit points
+     **********************************************************/
+
+    /**
+     * Variables registering the total hit points left after the battles won by the hero and by the monster.
+     */
+    private long totalHeroHitPointsLeft = 0;
+    private long totalMonsterHitPointsLeft = 0;
+
+    /**
+     * Return the average hit points the hero had left after the battles it won, or 0 if it won none.
+     */
+    public double getAverageHeroHitPointsLeft() {
+        if (nbHeroWins == 0)
+            return 0;
+        return (double) totalHeroHitPointsLeft / nbHeroWins;
+    }
+
+    /**
+     * Return the average hit points the monster had left after the battles it won, or 0 if it won none.
+     */
+    public double getAverageMonsterHitPointsLeft() {
+        if (nbMonsterWins == 0)
+            return 0;
+        return (double) totalMonsterHitPointsLeft / nbMonsterWins;
+    }
+
+    /**********************************************************
+     * Recording
+     **********************************************************/
+
+    /**
+     * Add a battle to these statistics.
+     *
+     * @param   heroWon
+     *          Whether the hero won the battle.
+     *
+     * @param   nbTurns
+     *          The number of turns the battle took.
+     *
+     * @param   hitPointsLeft
+     *          The hit points the winner had left.
+     *
+     * @post    The battle is counted as won by the given side, with the given number of turns.
+     *          | new.getNbBattles() == getNbBattles() + 1
+     *          | new.getNbBattlesTaking(nbTurns) == getNbBattlesTaking(nbTurns) + 1
+     *
+     * @throws  IllegalArgumentException
+     *          The given number of turns is negative.
+     *          | nbTurns < 0
+     */
+    public void record(boolean heroWon, int nbTurns, int hitPointsLeft) throws IllegalArgumentException {
+        if (nbTurns < 0)
+            throw new IllegalArgumentException("The number of turns cannot be negative.");
+
+        if (heroWon) {
+            nbHeroWins++;
+            totalHeroHitPointsLeft += hitPointsLeft;
+        } else {
+            nbMonsterWins++;
+            totalMonsterHitPointsLeft += hitPointsLeft;
+        }
+
+        ensureTurnsCapacity(nbTurns + 1);
+        nbBattlesPerNbTurns[nbTurns]++;
+        totalNbTurns += nbTurns;
+    }
+
+    /**
+     * Add all battles of the given statistics to these statistics.
+     *
+     * @param   other
+     *          The statistics to add.
+     *
+     * @post    These statistics count the battles of both.
+     *          | new.getNbHeroWins() == getNbHeroWins() + other.getNbHeroWins()
+     *          | new.getNbMonsterWins() == getNbMonsterWins() + other.getNbMonsterWins()
+     *          | for each nbTurns:
+     *          |   new.getNbBattlesTaking(nbTurns) == getNbBattlesTaking(nbTurns) + other.getNbBattlesTaking(nbTurns)
+     *
+     * @throws  IllegalArgumentException
+     *          The given statistics are not effective or are these statistics.
+     *          | other == null || other == this
+     */
+    public void merge(BattleStatistics other) throws IllegalArgumentException {
+        if (other == null || other == this)
+            throw new IllegalArgumentException("Cannot merge with the given statistics.");
+
+        nbHeroWins += other.nbHeroWins;
+        nbMonsterWins += other.nbMonsterWins;
+        totalHeroHitPointsLeft += other.totalHeroHitPointsLeft;
+        totalMonsterHitPointsLeft += other.totalMonsterHitPointsLeft;
+        totalNbTurns += other.totalNbTurns;
+
+        ensureTurnsCapacity(other.nbBattlesPerNbTurns.length);
+        for (int nbTurns = 0; nbTurns < other.nbBattlesPerNbTurns.length; nbTurns++)
+            nbBattlesPerNbTurns[nbTurns] += other.nbBattlesPerNbTurns[nbTurns];
+    }
+
+    /**
+     * Make sure the number of battles can be registered for all numbers of turns below the given length.
+     */
+    @Model
+    private void ensureTurnsCapacity(int length) {
+        if (length > nbBattlesPerNbTurns.length)
+            nbBattlesPerNbTurns = Arrays.copyOf(nbBattlesPerNbTurns, Math.max(length, 2 * nbBattlesPerNbTurns.length));
+    }
+}
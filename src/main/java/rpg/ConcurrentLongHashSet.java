@@ -0,0 +1,199 @@
+package rpg;
+
+import be.kuleuven.cs.som.annotate.*;
+
+import java.util.Arrays;
+
+/**
+ * A class of thread-safe sets of primitive long values.
+ *
+ * The values are spread over a fixed number of stripes, each of which is a LongHashSet
+ * guarded by its own lock. Threads working on values that fall in different stripes
+ * never block each other, so many threads can add values to the same set simultaneously.
+ *
+ * @invar   The number of values in the set is never negative.
+ *          | size() >= 0
+ *
+ * @note    Adding a value is atomic: of several threads adding the same value at the same
+ *          time, exactly one of them is told that the value was not yet part of the set.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class ConcurrentLongHashSet {
+
+    /**********************************************************
+     * Constructors
+     **********************************************************/
+
+    /**
+     * Initialize a new, empty set of long values.
+     *
+     * @post    The new set is empty.
+     *          | new.size() == 0
+     */
+    public ConcurrentLongHashSet() {
+        this.stripes = new LongHashSet[NB_STRIPES];
+        for (int i = 0; i < NB_STRIPES; i++) {
+            stripes[i] = new LongHashSet();
+        }
+    }
+
+    /**********************************************************
+     * Stripes
+     **********************************************************/
+
+    /**
+     * Variable referencing the number of bits used to select a stripe.
+     */
+    private static final int STRIPE_BITS = 6;
+
+    /**
+     * Variable referencing the number of stripes of each set.
+     */
+    private static final int NB_STRIPES = 1 << STRIPE_BITS;
+
+    /**
+     * Variable referencing the stripes of this set. Each stripe is also used as its own lock.
+     */
+    private final LongHashSet[] stripes;
+
+    /**
+     * Return the stripe responsible for the given value.
+     *
+     * @param   value
+     *          The value to return the stripe for.
+     *
+     * @note    The highest bits of the scrambled value are used, because the stripes themselves
+     *          use the lowest bits to select a slot in their table.
+     */
+    @Model
+    private LongHashSet stripeOf(long value) {
+        return stripes[stripeIndexOf(value)];
+    }
+
+    /**
+     * Return the index of the stripe responsible for the given value.
+     *
+     * @param   value
+     *          The value to return the index of the stripe for.
+     */
+    @Model
+    private static int stripeIndexOf(long value) {
+        return (int) ((value * 0xC2B2AE3D27D4EB4FL) >>> (64 - STRIPE_BITS));
+    }
+
+    /**********************************************************
+     * Values
+     **********************************************************/
+
+    /**
+     * Return the number of values in this set.
+     *
+     * @note    While other threads are adding values, the result is only a snapshot.
+     */
+    public int size() {
+        int size = 0;
+        for (LongHashSet stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Check whether the given value belongs to this set.
+     *
+     * @param   value
+     *          The value to check.
+     *
+     * @return  True if and only if the given value was added to this set.
+     */
+    public boolean contains(long value) {
+        LongHashSet stripe = stripeOf(value);
+        synchronized (stripe) {
+            return stripe.contains(value);
+        }
+    }
+
+    /**
+     * Add the given value to this set, if it is not yet part of it.
+     *
+     * @param   value
+     *          The value to add.
+     *
+     * @return  True if the value was not yet part of this set, false otherwise.
+     *          | result == !old.contains(value)
+     *
+     * @post    The given value belongs to this set.
+     *          | new.contains(value)
+     */
+    public boolean add(long value) {
+        LongHashSet stripe = stripeOf(value);
+        synchronized (stripe) {
+            return stripe.add(value);
+        }
+    }
+
+    /**
+     * Add the given values to this set.
+     *
+     * @param   values
+     *          The values to add.
+     *
+     * @return  The number of given values that were not yet part of this set, counting values that occur more
+     *          than once only once.
+     *
+     * @post    All given values belong to this set.
+     *          | for each value in values: new.contains(value)
+     *
+     * @note    The values are first grouped per stripe, after which each stripe adds its values at once. Every
+     *          stripe is thus locked once, and its table, which is far smaller than all of them together, is
+     *          visited while it stays in the cache.
+     */
+    public int addAll(long[] values) {
+        int[] stripeStarts = new int[NB_STRIPES + 1];
+        for (long value : values)
+            stripeStarts[stripeIndexOf(value) + 1]++;
+        for (int i = 0; i < NB_STRIPES; i++)
+            stripeStarts[i + 1] += stripeStarts[i];
+
+        long[] grouped = new long[values.length];
+        int[] next = Arrays.copyOf(stripeStarts, NB_STRIPES);
+        for (long value : values)
+            grouped[next[stripeIndexOf(value)]++] = value;
+
+        int nbAdded = 0;
+        for (int i = 0; i < NB_STRIPES; i++) {
+            if (stripeStarts[i] < stripeStarts[i + 1]) {
+                synchronized (stripes[i]) {
+                    nbAdded += stripes[i].addAll(grouped, stripeStarts[i], stripeStarts[i + 1]);
+                }
+            }
+        }
+        return nbAdded;
+    }
+
+    /**
+     * Remove the given value from this set, if it is part of it.
+     *
+     * @param   value
+     *          The value to remove.
+     *
+     * @return  True if the value was part of this set, false otherwise.
+     *          | result == old.contains(value)
+     *
+     * @post    The given value does not belong to this set.
+     *          | !new.contains(value)
+     *
+     * @note    Removing a value is atomic: of several threads removing the same value at the same
+     *          time, exactly one of them is told that the value was part of the set.
+     */
+    public boolean remove(long value) {
+        LongHashSet stripe = stripeOf(value);
+        synchronized (stripe) {
+            return stripe.remove(value);
+        }
+    }
+}
@@ -1,3 +1,5 @@
+package rpg;
+
 import be.kuleuven.cs.som.annotate.Value;
 
 /**
@@ -0,0 +1,37 @@
+package rpg;
+
+/**
+ * A sink printing the events of a battle to the console, one line per event.
+ *
+ * Lines are printed to the standard output stream as it is at the moment of the event.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class ConsoleBattleEventSink implements BattleEventSink {
+
+    /**
+     * Print the names of the hero and monster starting the battle.
+     */
+    @Override
+    public void battleStarted(Hero hero, Monster monster) {
+        System.out.println("Battle starts between " + hero.getName() + " and " + monster.getName());
+    }
+
+    /**
+     * Print the names of the attacker and defender of the turn.
+     */
+    @Override
+    public void turnTaken(int turn, Entity attacker, Entity defender, int hitPointsBefore, int hitPointsAfter) {
+        System.out.println(attacker.getName() + " attacks " + defender.getName());
+    }
+
+    /**
+     * Print the name and the remaining hit points of the winner.
+     */
+    @Override
+    public void battleEnded(Entity winner, int nbTurns) {
+        System.out.println("Winner: " + winner.getName());
+        System.out.println("Remaining hit points: " + winner.getHitPoints());
+    }
+}
@@ -0,0 +1,1457 @@
+package rpg;
+
+import be.kuleuven.cs.som.annotate.*;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+
+/**
+ *
+ * A class representing the entities (monsters and heroes) in the game.
+ *
+ * @invar   The name of the entity must be valid.
+ *          | canHaveAsName(getName())
+ *
+ * @invar   The amount of hitpoints must be valid.
+ *          | isValidHitPoints(getHitPoints())
+ *
+ * @invar   Each entity must have a valid protection factor.
+ *          | isValidProtection(getProtection())
+ *
+ * @invar   The maximum amount of hitpoints of an entity must be valid
+ *          | isValidMaxHitPoints(getMaxHitPoints())
+ *
+ * @author Ernest De Gres
+ * @author Jitse Vandenberghe
+ *
+ * @version 1.1
+ */
+
+
+public abstract class Entity {
+
+    /**********************************************************
+     * Constructors
+     **********************************************************/
+
+    /**
+     * Initialize a new entity with the given name, hitpoints, max hitpoints and protection factor.
+     *
+     * @param   name
+     *          The name of the new entity.
+     *
+     * @param   maxHitPoints
+     *          The maximum number of hitpoints.
+     *
+     * @pre     The maximum amount of hitpoints must be strictly positive
+     *          | isValidMaxHitPoints(getMaxHitPoints())
+     *
+     * @post    The name of the entity is set to the given name.
+     *          | new.getName() == name
+     *
+     * @post    The maximum hitpoints is set to the given value.
+     *          | new.getMaxHitPoints() == maxHitPoints
+     *
+     * @post    The hitpoints are set to the given value, unless it is not prime. In that case, they are corrected to the closest lower prime.
+     *          | if (!isPrime(maxHitPoints)) then new.getHitPoints() == getClosestLowerPrime(maxHitPoints)
+     *          | else new.getHitPoints() == maxHitPoints
+     *
+     * @post    The new entity is not fighting.
+     *          | !new.isFighting()
+     *
+     * @post    The new entity draws its random numbers from the generator of the current thread.
+     *          | new.getRandom() == RandomSource.current()
+     *
+     * @effect  The anchor points are initialized.
+     *          | initializeAnchorPoints()
+     *
+     * @throws IllegalArgumentException
+     *         If the given name is invalid
+     *         | !canHaveAsName(name)
+     *
+     */
+    public Entity(String name, int maxHitPoints)
+            throws IllegalArgumentException {
+        this(name, maxHitPoints, true);
+    }
+
+    /**
+     * Initialize a new entity with the given name and max hitpoints, with or without its initial anchor points.
+     *
+     * @param   name
+     *          The name of the new entity.
+     *
+     * @param   maxHitPoints
+     *          The maximum number of hitpoints.
+     *
+     * @param   withAnchorPoints
+     *          Whether the anchor points of the new entity are initialized.
+     *
+     * @effect  The new entity is initialized as by the public constructor, except that its anchor points are only
+     *          initialized if asked for.
+     *          | if (withAnchorPoints) then initializeAnchorPoints()
+     *
+     * @throws  IllegalArgumentException
+     *          If the given name is invalid
+     *          | !canHaveAsName(name)
+     *
+     * @note    Entities restored from a snapshot or world file get the anchor points they had, so they need not be
+     *          given their initial ones, which may be drawn from their random generator.
+     */
+    Entity(String name, int maxHitPoints, boolean withAnchorPoints)
+            throws IllegalArgumentException {
+        if (!canHaveAsName(name))
+            throw new IllegalArgumentException("Invalid name for the entity.");
+
+        this.name = name;
+        this.maxHitPoints = maxHitPoints;
+        this.hitPoints = maxHitPoints;
+        this.anchorPoints = new ArrayList<>();
+        this.anchorPointsByName = new HashMap<>();
+        this.freeSlots = new BitSet();
+        this.compatibleSlotsByCategory = new HashMap<>();
+
+        // Prime-correction at initialization, because not fighting
+        if (!isPrime(getHitPoints())) {
+            int p = getClosestLowerPrime(getHitPoints());
+            this.hitPoints = p;
+        }
+
+        // Initialize AnchorPoints
+        if (withAnchorPoints)
+            initializeAnchorPoints();
+    }
+
+    /**********************************************************
+     * Name
+     **********************************************************/
+
+    /**
+     * The name of the entity.
+     */
+    private final String name;
+
+    /**
+     * Returns the name of the entity.
+     */
+    @Raw @Basic
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Check if the name is valid
+     *
+     * @param	name
+     * 			The name to be validated.
+     *
+     * @return  True if name is valid
+     */
+    @Raw
+    public abstract boolean canHaveAsName(String name);
+
+    /**********************************************************
+     * HitPoints
+     **********************************************************/
+
+    /**
+     * The current number of hitpoints of the entity, while it is not attached to an entity store.
+     */
+    private int hitPoints;
+
+    /**
+     * The maximum number of hitpoints of the entity, while it is not attached to an entity store.
+     */
+    private int maxHitPoints;
+
+    /**
+     * Returns the current hitpoints.
+     */
+    @Raw @Basic
+    public int getHitPoints() {
+        return store == null ? hitPoints : store.hitPoints[handle];
+    }
+
+    /**
+     * Returns the maximum hitpoints.
+     */
+    @Raw @Basic
+    public int getMaxHitPoints() {
+        return store == null ? maxHitPoints : store.maxHitPoints[handle];
+    }
+
+    /**
+     * Sets the hitpoints of entity.
+     *
+     * @param   hitPoints
+     *          The amount of hitpoints to set.
+     *
+     * @pre     The amount of hitpoints must be valid.
+     *          | isValidHitPoints()
+     *
+     * @post    hitpoints is set to the given amount
+     *          | new.getHitPoints() == hitpoints
+     *
+     * @effect  The change is reported.
+     *          | WorldEvents.hitPointsChanged(this, hitPoints)
+     */
+    @Raw @Basic
+    public void setHitPoints(int hitPoints) {
+        if (store == null)
+            this.hitPoints = hitPoints;
+        else
+            store.hitPoints[handle] = hitPoints;
+        WorldEvents.hitPointsChanged(this, hitPoints);
+    }
+
+    /**
+     * Sets the maximum hitpoints of entity.
+     *
+     * @param   maxHitPoints
+     *          The maximum amount of hitpoints to set.
+     *
+     * @pre     The maximum amount of hitpoints must be strictly positive
+     *          | isValidMaxHitPoints(getMaxHitPoints())
+     *
+     * @post    maximum hitpoints is set to the given amount
+     *          | new.getMaxHitPoints() = maxHitPoints
+     */
+    @Raw @Basic
+    public void setMaxHitPoints(int maxHitPoints) {
+        if (store == null)
+            this.maxHitPoints = maxHitPoints;
+        else
+            store.maxHitPoints[handle] = maxHitPoints;
+    }
+
+    /**
+     * Check whether the given amount of maximum hitpoints is a valid amount.
+     *
+     * @param   maxHitPoints
+     *          The amount to check.
+     *
+     * @return  True if and only if the amount of maximum hitpoints is strictly positive.
+     *          | result == (maxHitPoints > 0)
+     */
+    public static boolean isValidMaxHitPoints(int maxHitPoints) {
+        return maxHitPoints > 0;
+    }
+
+
+    /**
+     * Check whether the given amount of hitpoints is valid.
+     *
+     * @param   hitPoints
+     *          The amount of hitpoints to validate.
+     *
+     * @return  True if and only if the amount of hitpoints is non-negative,
+     *          does not exceed the maximum hitpoints, and if the entity is not
+     *          fighting the hitpoints must also be prime.
+     *          | if (hitPoints == 0)
+     *          |     result == true
+     *          | else if (hitPoints > 0 && hitPoints <= maxHitPoints)
+     *          |     if (!isFighting)
+     *          |         result == isPrime(hitPoints)
+     *          |     else
+     *          |         result == true
+     *          | else
+     *          |     result == false
+     */
+    public boolean isValidHitPoints(int hitPoints) {
+        if (hitPoints == 0) {
+            return true;
+        }
+
+        if ((hitPoints > 0) && (hitPoints <= getMaxHitPoints())) {
+            if (!isFighting())
+                return isPrime(hitPoints);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Determines if a given number is a prime number.
+     *
+     * @param   number
+     *          The number to check.
+     *
+     * @return  true if the number is prime; false otherwise.
+     *
+     * @note    The check is a lookup in the shared prime tables, for all realistic amounts of hit points.
+     */
+    public boolean isPrime(int number) {
+        if (number == 0) return true;
+
+        return PrimeTable.isPrime(number);
+    }
+
+    /**
+     * Returns the closest lower prime number less than the given starting value.
+     *
+     * @param   start
+     *          The starting value.
+     *
+     * @return  The closest lower prime number.
+     *
+     * @note    The result is a lookup in the shared prime tables, for all realistic amounts of hit points.
+     */
+    public int getClosestLowerPrime(int start) {
+        return PrimeTable.getClosestLowerPrime(start); // falls back to 2
+    }
+
+    /**
+     * Increases the hero’s current hit points by the given amount.
+     * If the hero is not fighting and the resulting hit points are not prime,
+     * the hit points are adjusted down to the closest lower prime number.
+     *
+     * @param   amount
+     *          The number of hit points to add.
+     *
+     * @post    The hit points are increased by the given amount,
+     *          but do not exceed the maximum hit points.
+     *          | if (getHitPoints + amount > getMaxHitPoints) then new.getHitPoints = maxHitPoints
+     *          | else new.getHitPoints = old.getHitPoints + amount
+     *
+     * @effect  If the hero is not fighting and the resulting hit points are not prime,
+     *          they are reduced to the closest lower prime number.
+     *          | if (!isFighting && !isPrime(hitPoints)) then new.getHitPoints = getClosestLowerPrime(hitPoints)
+     *
+     * @effect  The resulting hit points are set, which reports them.
+     *          | setHitPoints(new.getHitPoints())
+     */
+    public void addHitPoints(int amount) {
+        int hitPoints = getHitPoints() + amount;
+        if (hitPoints > getMaxHitPoints()) {
+            hitPoints = getMaxHitPoints();
+        }
+        else {
+            if (!isFighting() && !isPrime(hitPoints)) {
+                int p = getClosestLowerPrime(hitPoints);
+                hitPoints = p;
+            }
+        }
+        setHitPoints(hitPoints);
+    }
+
+    /**
+     * Decreases the hero’s current hit points by the given amount.
+     * If the hero is not fighting and the resulting hit points are not prime,
+     * the hit points are adjusted down to the closest lower prime number.
+     *
+     * @param   amount
+     *          The number of hit points to remove
+     *
+     * @post    getHitPoints() is decreased by amount, but not below zero.
+     *          | if (getHitPoints - amount < 0) then new.getHitPoints = 0
+     *          | else new.getHitPoints = old.getHitPoints - amount
+     *
+     * @effect  If not fighting and the result is not prime,
+     *          hit points are reduced to the closest lower prime.
+     *          | if (!isFighting && !isPrime(hitPoints)) then new.getHitPoints = getClosestLowerPrime(hitPoints)
+     *
+     * @effect  The resulting hit points are set, which reports them.
+     *          | setHitPoints(new.getHitPoints())
+     */
+    public void removeHitPoints(int amount) {
+        int hitPoints = getHitPoints() - amount;
+        if (hitPoints <= 0) {
+            hitPoints = 0;
+        }
+        else{
+            if (!isFighting() && !isPrime(hitPoints)) {
+                int p = getClosestLowerPrime(hitPoints);
+                hitPoints = p;
+            }
+        }
+        setHitPoints(hitPoints);
+    }
+
+
+    /**
+     * Check whether the entity is still alive.
+     *
+     * @return  True if the entity has more than 0 hitpoints.
+     *          | result == (hitpoints > 0)
+     */
+    @Raw @Basic
+    public boolean isAlive() {
+        return getHitPoints() > 0;
+    }
+
+    /**********************************************************
+     * isFighting
+     **********************************************************/
+
+    /**
+     * Variable that indicates whether the entity is currently fighting, while it is not attached to an entity store.
+     * He is initialized as not fighting
+     */
+    private boolean isFighting = false;
+
+    /**
+     * Updates the fighting status of this entity.
+     *
+     * @param   status
+     *          True if the hero enters combat, false if they exit combat.
+     *
+     * @post    The fighting status is set to the given status.
+     *          | new.isFighting() == status
+     *
+     * @effect  If the fighting status is false and current hit points are not prime,
+     *          the hit points are reduced to the nearest lower prime.
+     *          | if (!isFighting && !isPrime(getHitpoints))
+     *          | then setHitPoints(getClosestLowerPrime(getHitPoints()))
+     */
+    public void setFighting(boolean status) {
+        if (store == null)
+            this.isFighting = status;
+        else
+            store.fighting[handle] = status;
+        if (!status && !isPrime(getHitPoints())) {
+            int p = getClosestLowerPrime(getHitPoints());
+            setHitPoints(p);
+        }
+    }
+
+    /**
+     * Returns true if the entity is fighting
+     */
+    @Basic
+    public boolean isFighting() {
+        return store == null ? isFighting : store.fighting[handle];
+    }
+
+
+    /**********************************************************
+     * Randomness
+     **********************************************************/
+
+    /**
+     * Variable referencing the random generator this entity draws its random numbers from.
+     * It is the generator of the thread creating the entity, as it is also needed during construction.
+     */
+    private RandomGenerator random = RandomSource.current();
+
+    /**
+     * Return the random generator this entity draws its random numbers from.
+     */
+    @Basic @Raw
+    public RandomGenerator getRandom() {
+        return random;
+    }
+
+    /**
+     * Set the random generator this entity draws its random numbers from.
+     *
+     * @param   random
+     *          The new random generator.
+     *
+     * @post    The random generator of this entity is the given generator.
+     *          | new.getRandom() == random
+     *
+     * @throws  IllegalArgumentException
+     *          The given generator is not effective.
+     *          | random == null
+     */
+    public void setRandom(RandomGenerator random) throws IllegalArgumentException {
+        if (random == null)
+            throw new IllegalArgumentException("The random generator cannot be null.");
+        this.random = random;
+    }
+
+    /**********************************************************
+     * Protection
+     **********************************************************/
+
+
+    /**
+     * Variable referencing the current protection this entity has as protection.
+     *
+     * @note    While this entity is attached to an entity store, its current protection is registered in the store,
+     *          and this variable is only brought up to date when it is detached again.
+     */
+    private int currentProtection;
+
+
+    public int getCurrentProtection() {
+        return getRegisteredProtection();
+    }
+
+    /**
+     * Return the current protection registered for this entity, rather than the protection it derives from it.
+     */
+    @Model @Raw
+    int getRegisteredProtection() {
+        return store == null ? currentProtection : store.currentProtections[handle];
+    }
+
+    /**
+     * Register the given current protection for this entity.
+     *
+     * @param   currentProtection
+     *          The current protection to register.
+     *
+     * @post    | new.getRegisteredProtection() == currentProtection
+     */
+    @Model @Raw
+    void registerProtection(int currentProtection) {
+        if (store == null)
+            this.currentProtection = currentProtection;
+        else
+            store.currentProtections[handle] = currentProtection;
+    }
+
+    /**********************************************************
+     * Capacity
+     **********************************************************/
+
+    /**
+     * Variable referencing the capacity of this entity.
+     *
+     * @note    While this entity is attached to an entity store, its capacity is registered in the store, and this
+     *          variable is only brought up to date when it is detached again.
+     */
+    private int capacity;
+
+    /**
+     * Return the capacity of this entity.
+     */
+    @Raw @Basic
+    public int getCapacity() {
+        return store == null ? capacity : store.capacities[handle];
+    }
+
+    /**
+     * Register the given capacity for this entity.
+     *
+     * @param   capacity
+     *          The capacity to register.
+     *
+     * @post    | new.getCapacity() == capacity
+     */
+    @Model @Raw
+    void registerCapacity(int capacity) {
+        if (store == null)
+            this.capacity = capacity;
+        else
+            store.capacities[handle] = capacity;
+    }
+
+    /**
+     * Variable registering the total weight of all the items this entity is carrying, while it is not attached to
+     * an entity store.
+     */
+    private int carriedWeight = 0;
+
+    /**
+     * Returns the total weight of all the items which the entity is carrying.
+     * If an item is a backpack, its total weight includes the contents of the backpack.
+     * Empty anchor points are ignored.
+     *
+     * @return  The sum of the weights of all non-null items in the anchor points,
+     *          including the total weight of nested backpacks and purses.
+     *          | result == calculateTotalWeight()
+     *
+     * @note    The total weight is kept up to date whenever an item is attached to or removed from an anchor point,
+     *          and whenever the contents of a carried backpack or purse change, so it is returned in constant time.
+     */
+    public int getTotalWeight() {
+        assert getCarriedWeight() == calculateTotalWeight();
+        return getCarriedWeight();
+    }
+
+    // AUXILIARY METHOD: returns the registered total weight, in the entity store of this entity if it is attached to one
+    private int getCarriedWeight() {
+        return store == null ? carriedWeight : store.carriedWeights[handle];
+    }
+
+    /**
+     * Calculate the total weight of all the items which the entity is carrying by walking all of its anchor points.
+     *
+     * @return  The sum of the weights of all non-null items in the anchor points,
+     *          including the total weight of nested backpacks and purses.
+     *          | let items = { item | item = getAnchorPointAt(i).getItem() and i in [1..getNbAnchorPoints()] and item != null }
+     *          | result == sum(item in items : getCarriedWeightOf(item))
+     */
+    @Model
+    int calculateTotalWeight() {
+        int totalWeight = 0;
+
+        for (int i = 1; i <= getNbAnchorPoints(); i++)
+            totalWeight += getCarriedWeightOf(getAnchorPointAt(i).getItem());
+
+        return totalWeight;
+    }
+
+    /**
+     * Return the weight the given item adds to the entity carrying it.
+     *
+     * @param   item
+     *          The item to weigh.
+     *
+     * @return  Zero if the item is not effective, the total weight of the item if it is a backpack or purse,
+     *          and the weight of the item otherwise.
+     *          | if (item == null) then result == 0
+     *          | else if (item instanceof Backpack) then result == ((Backpack) item).getTotalWeight()
+     *          | else if (item instanceof Purse) then result == ((Purse) item).getTotalWeight()
+     *          | else result == item.getWeight()
+     */
+    @Model
+    static int getCarriedWeightOf(Equipment item) {
+        if (item == null)
+            return 0;
+        if (item instanceof Backpack)
+            return ((Backpack) item).getTotalWeight();
+        if (item instanceof Purse)
+            return ((Purse) item).getTotalWeight();
+        return item.getWeight();
+    }
+
+    /**
+     * Adjust the total weight carried by this entity by the given amount.
+     *
+     * @param   delta
+     *          The change in the weight of the items this entity is carrying.
+     *
+     * @post    The total weight carried by this entity is increased by the given amount.
+     *          | new.getTotalWeight() == getTotalWeight() + delta
+     *
+     * @note    This is an auxiliary method that should only be called by the anchor points of this entity and the
+     *          items attached to them, at which point the registered total weight is temporarily out of date.
+     */
+    @Model
+    void adjustCarriedWeight(int delta) {
+        if (store == null)
+            carriedWeight += delta;
+        else
+            store.carriedWeights[handle] += delta;
+    }
+
+    /**
+     * Checks whether this entity is able to carry the given equipment item
+     * without exceeding their capacity.
+     * The check is based on the current carried weight and the item's weight.
+     *
+     * @param   item
+     *          The equipment item to check
+     *
+     * @post    The result is true if the current capacity plus the item’s weight
+     *          does not exceed the hero’s maximum capacity.
+     *          | result == (getTotalWeight() + item.getWeight()) <= getCapacity()
+     */
+    public boolean canCarry(Equipment item) {
+        return (getTotalWeight() + item.getWeight()) <= getCapacity();
+    }
+
+    /**********************************************************
+     * Entity store
+     **********************************************************/
+
+    /**
+     * Variable referencing the entity store this entity is attached to, if any.
+     */
+    private EntityStore store = null;
+
+    /**
+     * Variable registering the handle of this entity in its entity store, if it is attached to one.
+     */
+    private int handle = -1;
+
+    /**
+     * Return the entity store this entity is attached to, or null if it is not attached to any.
+     *
+     * @note    While this entity is attached to an entity store, its hitpoints, maximum hitpoints, current
+     *          protection, capacity, fighting status and total weight are registered in the store instead of in
+     *          the entity itself, so that passes over all entities in the store need not visit the entities.
+     */
+    @Basic @Raw
+    public EntityStore getStore() {
+        return store;
+    }
+
+    /**
+     * Return the handle of this entity in its entity store, or -1 if it is not attached to any.
+     */
+    @Basic @Raw
+    public int getHandle() {
+        return handle;
+    }
+
+    /**
+     * Attach this entity to the given entity store, at the given handle.
+     *
+     * @post    | new.getStore() == store && new.getHandle() == handle
+     *
+     * @note    This is an auxiliary method that should only be called by the given store, once it registered the
+     *          state of this entity at the given handle.
+     */
+    @Model @Raw
+    void attachTo(EntityStore store, int handle) {
+        this.store = store;
+        this.handle = handle;
+    }
+
+    /**
+     * Detach this entity from its entity store, registering its state in the entity itself again.
+     *
+     * @post    | new.getStore() == null && new.getHandle() == -1
+     *
+     * @note    This is an auxiliary method that should only be called by the store of this entity, before it reuses
+     *          the handle of this entity.
+     */
+    @Model @Raw
+    void detachFromStore() {
+        hitPoints = store.hitPoints[handle];
+        maxHitPoints = store.maxHitPoints[handle];
+        currentProtection = store.currentProtections[handle];
+        capacity = store.capacities[handle];
+        isFighting = store.fighting[handle];
+        carriedWeight = store.carriedWeights[handle];
+        attachTo(null, -1);
+    }
+
+    /**********************************************************
+     * Anchors
+     **********************************************************/
+
+    /**
+     * Variable referencing a list collecting all anchor points of this entity.
+     *
+     * @invar   Every anchor point knows its slot, which is its (1-based) position in this list.
+     *          | for each I in 1..anchorPoints.size():
+     *          |   anchorPoints.get(I - 1).getSlot() == I
+     */
+    protected List<AnchorPoint> anchorPoints;
+
+    /**
+     * Variable referencing a map from the lower case names of the anchor points of this entity to those anchor points.
+     *
+     * @invar   Every named anchor point can be looked up by its lower case name, unless an anchor point that was
+     *          added earlier has the same name.
+     *          | for each ap in anchorPoints:
+     *          |   ap.getName() == null || anchorPointsByName.get(ap.getName().toLowerCase()).getSlot() <= ap.getSlot()
+     */
+    private Map<String, AnchorPoint> anchorPointsByName;
+
+    /**
+     * Variable referencing a bitmap of the free anchor points of this entity, in which the bit at position
+     * slot - 1 is set if and only if the anchor point in that slot is empty.
+     *
+     * @invar   | for each I in 1..getNbAnchorPoints():
+     *          |   freeSlots.get(I - 1) == getAnchorPointAt(I).isEmpty()
+     */
+    private BitSet freeSlots;
+
+    /**
+     * Variable referencing a map from classes of items to bitmaps of the anchor points of this entity that accept
+     * items of that class, in which the bit at position slot - 1 is set if and only if the anchor point in that slot
+     * accepts them.
+     *
+     * @invar   | for each category in compatibleSlotsByCategory.keySet(), each item of that category:
+     *          |   for each I in 1..getNbAnchorPoints():
+     *          |     compatibleSlotsByCategory.get(category).get(I - 1) == canHaveAsItemAt(item, getAnchorPointAt(I))
+     *
+     * @note    The bitmaps are computed the first time an item of a class is placed, assuming that whether an
+     *          anchor point accepts an item only depends on the class of the item. They are computed again after
+     *          an anchor point is added.
+     */
+    private Map<Class<?>, BitSet> compatibleSlotsByCategory;
+
+    /**
+     * Adds a new anchor point to this entity's collection of anchor points.
+     *
+     * @param   anchorPoint
+     *          The anchor point to add. Must not be null.
+     *
+     * @post    The new anchor point is added to the list of anchor points.
+     *          | new.anchorPoints.contains(anchorPoint)
+     *
+     * @post    The new anchor point belongs to this entity, in the last slot.
+     *          | anchorPoint.getEntity() == this && anchorPoint.getSlot() == new.getNbAnchorPoints()
+     *
+     * @post    The weight of the item attached to the anchor point, if any, is carried by this entity.
+     *          | new.getTotalWeight() == getTotalWeight() + getCarriedWeightOf(anchorPoint.getItem())
+     */
+    public void addAnchorPoint(AnchorPoint anchorPoint){
+        anchorPoints.add(anchorPoint);
+        anchorPoint.setEntity(this, anchorPoints.size());
+        registerOccupancy(anchorPoint);
+        compatibleSlotsByCategory.clear();
+        if (anchorPoint.getName() != null)
+            anchorPointsByName.putIfAbsent(anchorPoint.getName().toLowerCase(Locale.ROOT), anchorPoint);
+        adjustCarriedWeight(getCarriedWeightOf(anchorPoint.getItem()));
+    }
+
+    /**
+     * Remove all anchor points of this entity.
+     *
+     * @pre     No item is attached to an anchor point of this entity.
+     *          | getAllItems().isEmpty()
+     *
+     * @post    | new.getNbAnchorPoints() == 0
+     *
+     * @note    This is an auxiliary method for restoring an entity with the anchor points it had before, instead of
+     *          the ones it was initialized with.
+     */
+    @Model @Raw
+    void removeAllAnchorPoints() {
+        assert getAllItems().isEmpty() : "Anchor points can only be removed while no item is attached.";
+        anchorPoints.clear();
+        anchorPointsByName.clear();
+        freeSlots.clear();
+        compatibleSlotsByCategory.clear();
+    }
+
+    /**
+     * Initializes a random number of anchor points for this entity.
+     *
+     * This method must be implemented by subclasses to set up the
+     * initial anchor points for the entity.
+     */
+    public abstract void initializeAnchorPoints();
+
+    /**********************************************************
+     * Equipment
+     **********************************************************/
+
+    /**
+     * Add the given item to the anchor points registered to this entity.
+     *
+     * @param   item
+     *          The equipment to be added.
+     *
+     * @effect  The equipment is added to available anchor point.
+     *        | addToAnchorPoint(item)
+     *
+     * @throws  IllegalArgumentException
+     *          The item is already stored in this entity.
+     *        | hasAsItem(item)
+
+     * @throws  IllegalStateException
+     *          The reference from the item to this entity has not yet been set.
+     *        | (item != null) && !item.getOwner() == this
+     *
+     * @note    This is an auxiliary method that completes a bidirectional relationship.
+     *          It should only be called from within the controlling class.
+     *          At that point, the other direction of the relationship is already set up,
+     *          so the given item is in a raw state.
+     *          All methods called with this raw item thus require a raw annotation of their parameter.
+     * @note    The throws clauses of the effects are cancelled by the throws clauses of this method.
+     */
+    @Model
+    protected void addAsItem(Equipment item) throws IllegalArgumentException, IllegalStateException {
+        if (hasAsItem(item))
+            throw new IllegalArgumentException("This item is already attached.");
+
+        if (item != null && item.getOwner() != this)
+            throw new IllegalStateException("Item does not reference this entity as its owner.");
+
+        try {
+            addToAnchorPoint(item);
+        } catch (IllegalArgumentException e) {
+            // Should not occur
+            assert false;
+        }
+    }
+
+    /**
+     * Check whether the given item is assigned to this entity.
+     *
+     * @param item
+     *        The equipment to be checked.
+     *
+     * @return True if and only if the given item is attached to one of this entity's anchor points.
+     *         False otherwise
+     *       | result ==
+     *       |   for some I in 1..getNbAnchorPoints():
+     *       |     getAnchorPointAt(i).getItem() == item
+     *
+     * @note   An effective item knows the anchor points it is attached to, so it is checked in constant time.
+     */
+    @Raw
+    public boolean hasAsItem(@Raw Equipment item) {
+        if (item != null)
+            return item.getAnchorPointIn(this) != null;
+
+        return hasFreeAnchorPoint();
+    }
+
+    /**
+     * Return the number of anchor points of this entity.
+     */
+    @Basic @Raw
+    public int getNbAnchorPoints() {
+        return anchorPoints.size();
+    }
+
+    /**
+     * Return the anchor point at the given position in this entity.
+     *
+     * @param index
+     *        The index of the anchor point to be returned.
+     *
+     * @throws IllegalArgumentException
+     *         If the given index is not strictly positive or exceeds the number of anchor points
+     *         registered to this entity.
+     *       | (index < 1) || (index > getNbAnchorPoints())
+     *
+     * @note	We catch the exception that could be thrown when accessing the internal representation
+     * 			and formulate a better suited one for the user of this class.
+     * 			This adds to the encapsulation of the internal representation of this class. *
+     */
+    @Basic @Raw
+    public AnchorPoint getAnchorPointAt(int index) throws IndexOutOfBoundsException {
+        try {
+            return anchorPoints.get(index - 1);
+        } catch (IndexOutOfBoundsException e) {
+            //The exception e contains a message indicating that 'index-1' is out of bounds
+            //Here, we throw a new Exception with the right information
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index);
+        }
+    }
+
+
+    /**
+     * Returns a list of all items currently carried by this entity.
+     *
+     * This list includes only the non-null items contained in the entity's anchor points.
+     * Items are retrieved by iterating over all anchor points and collecting their contents.
+     *
+     * @return  A new list containing all non-null equipment items held in the entity's anchor points.
+     *          | result == [item | i in [1..getNbAnchorPoints()] && (item = getAnchorPointAt(i).getItem()) && item != null]
+     */
+    public List<Equipment> getAllItems() {
+        List<Equipment> equipmentList = new ArrayList<>();
+
+        for (int i = 1; i <= getNbAnchorPoints(); i++) {
+            Equipment item = getAnchorPointAt(i).getItem();
+            if (item != null) {
+                equipmentList.add(item);
+            }
+        }
+
+        return equipmentList;
+    }
+
+
+    /**
+     * Determines whether this entity is allowed to carry the given item
+     * by checking if there exists any anchor point where it can be legally placed
+     *
+     * @param   item
+     *          The item to check
+     *
+     * @return  The result is true there exists at least one anchor point such that:
+     *          the anchor is empty, the capacity is not exceeded and the item can be legally placed at anchorpoint
+     *          | result == (exists ap in anchorPoints:
+     *          |               ap.isEmpty() && canCarry()) && canHaveAsItemAt
+     *
+     *
+     */
+    public boolean canHaveAsItem(Equipment item) {
+        return canCarry(item) && getFirstFreeAnchorPointFor(item) != null;
+    }
+
+    /**
+     * Determines whether this entity can carry the given item at the specified anchor point.
+     *
+     * Checks if the item is allowed to be placed at the given anchor point of this entity.
+     *
+     * @param   item
+     *          The equipment item to check.
+     *
+     * @param   anchorPoint
+     *          The anchor point where the item would be placed.
+     *
+     * @return  True if the item can legally be carried at the given anchor point,
+     *          false otherwise.
+     */
+    public abstract boolean canHaveAsItemAt(Equipment item, AnchorPoint anchorPoint);
+
+    /**
+     * Add the given item to the first anchorpoint of this entity that accepts it.
+     *
+     * @param   item
+     *          The equipment to add.
+     *
+     * @effect  The item is added to the first valid anchor point.
+     *          | anchorpoint.setItem(item)
+     */
+    public void addToAnchorPoint(Equipment item) {
+        AnchorPoint anchorpoint = getFirstFreeAnchorPointFor(item);
+        if (anchorpoint != null)
+            anchorpoint.setItem(item);
+    }
+
+    /**
+     * Return the first empty anchor point of this entity that accepts the given item.
+     *
+     * @param   item
+     *          The item to find an anchor point for.
+     *
+     * @return  The empty anchor point with the lowest slot at which the given item can be placed,
+     *          or null if there is no such anchor point.
+     *          | if (for some I in 1..getNbAnchorPoints():
+     *          |       getAnchorPointAt(I).isEmpty() && canHaveAsItemAt(item, getAnchorPointAt(I)))
+     *          |   then result == the anchor point with the lowest such I
+     *          | else result == null
+     *
+     * @note    The bitmaps of free anchor points and of anchor points accepting the class of the given item are
+     *          intersected word by word, so the search does not visit the anchor points one by one.
+     */
+    @Model
+    AnchorPoint getFirstFreeAnchorPointFor(Equipment item) {
+        if (item == null) {
+            for (int i = freeSlots.nextSetBit(0); i >= 0; i = freeSlots.nextSetBit(i + 1)) {
+                if (canHaveAsItemAt(null, anchorPoints.get(i)))
+                    return anchorPoints.get(i);
+            }
+            return null;
+        }
+
+        int i = getFirstCommonBit(freeSlots, getCompatibleSlots(item));
+        return (i < 0) ? null : anchorPoints.get(i);
+    }
+
+    /**
+     * Return the position of the first bit that is set in both given bitmaps, or -1 if there is none.
+     */
+    @Model
+    private static int getFirstCommonBit(BitSet first, BitSet second) {
+        int i = 0;
+        while ((i = first.nextSetBit(i)) >= 0) {
+            int j = second.nextSetBit(i);
+            if (j < 0 || j == i)
+                return j;
+            i = j;
+        }
+        return -1;
+    }
+
+    /**
+     * Return the bitmap of the anchor points of this entity that accept items of the class of the given item.
+     *
+     * @param   item
+     *          An effective item of the class to return the bitmap for.
+     */
+    @Model
+    private BitSet getCompatibleSlots(Equipment item) {
+        BitSet compatibleSlots = compatibleSlotsByCategory.get(item.getClass());
+        if (compatibleSlots == null) {
+            compatibleSlots = new BitSet(getNbAnchorPoints());
+            for (int i = 0; i < getNbAnchorPoints(); i++) {
+                if (canHaveAsItemAt(item, anchorPoints.get(i)))
+                    compatibleSlots.set(i);
+            }
+            compatibleSlotsByCategory.put(item.getClass(), compatibleSlots);
+        }
+        return compatibleSlots;
+    }
+
+    /**
+     * Register whether the given anchor point of this entity is empty.
+     *
+     * @param   anchorPoint
+     *          The anchor point whose item changed.
+     *
+     * @note    This is an auxiliary method that should only be called by the anchor points of this entity.
+     */
+    @Model
+    void registerOccupancy(AnchorPoint anchorPoint) {
+        freeSlots.set(anchorPoint.getSlot() - 1, anchorPoint.isEmpty());
+    }
+
+
+    /**
+     * Try to attach the given item to this entity, without throwing an exception if it does not fit.
+     *
+     * @param   item
+     *          The item to attach.
+     *
+     * @return  INVALID_ITEM if the item is not effective or destroyed, ALREADY_PLACED if it is attached to this
+     *          entity already, TOO_HEAVY if this entity cannot carry it, NO_FREE_ANCHOR_POINT if no free anchor point
+     *          accepts it, REFUSED if this entity cannot have it in addition to its current items, and PLACED otherwise.
+     *          | if (item == null || item.isDestroyed()) then result == PlacementStatus.INVALID_ITEM
+     *          | else if (hasAsItem(item)) then result == PlacementStatus.ALREADY_PLACED
+     *          | else if (!canCarry(item)) then result == PlacementStatus.TOO_HEAVY
+     *          | else if (!canHaveAsItem(item)) then result == PlacementStatus.NO_FREE_ANCHOR_POINT
+     *          | else if (!canHaveAsAdditionalItem(item, List.of())) then result == PlacementStatus.REFUSED
+     *          | else result == PlacementStatus.PLACED
+     *
+     * @effect  If the result is PLACED, this entity becomes the owner of the item.
+     *          | if (result == PlacementStatus.PLACED) then item.setOwner(this)
+     */
+    public PlacementStatus tryEquip(Equipment item) {
+        if (item == null || item.isDestroyed())
+            return PlacementStatus.INVALID_ITEM;
+        if (hasAsItem(item))
+            return PlacementStatus.ALREADY_PLACED;
+        if (!canCarry(item))
+            return PlacementStatus.TOO_HEAVY;
+        if (getFirstFreeAnchorPointFor(item) == null)
+            return PlacementStatus.NO_FREE_ANCHOR_POINT;
+        if (!canHaveAsAdditionalItem(item, List.of()))
+            return PlacementStatus.REFUSED;
+
+        item.setOwner(this);
+        return PlacementStatus.PLACED;
+    }
+
+    /**
+     * Remove the given item from this entity.
+     *
+     * @param   item
+     *          The equipment to remove.
+     *
+     * @effect  The item is removed from the anchor point it was registered at.
+     *          | anchorpoint.setItem(null)
+     *
+     * @throws  IllegalArgumentException
+     *          Entity does not have the given item.
+     *          | !hasAsItem(item)
+     *
+     * @throws  IllegalStateException
+     *          The reference of the given (effective) item to its owner must already be broken down.
+     *          | (item != null) && item.getOwner() == this
+     *
+     * @note This is an auxiliary method used to break a bidirectional relationship.
+     *       It should only be called from within the controlling class.
+     *       At that point, the reference from the item to this entity must already be cleared.
+     */
+    @Model @Raw
+    protected void removeAsItem(@Raw Equipment item) throws IllegalArgumentException, IllegalStateException {
+        if (!hasAsItem(item))
+            throw new IllegalArgumentException("This entity does not have the item.");
+
+        if (item != null && item.getOwner() == this)
+            throw new IllegalStateException("Item still references this entity as its owner.");
+
+        AnchorPoint anchorpoint = getAnchorPointOfItem(item);
+        if (anchorpoint != null)
+            anchorpoint.setItem(null);
+    }
+
+    /**
+     * Checks whether the entity has at least one free (empty) anchor point.
+     *
+     * @return  true if there is an anchor point without an item attached,
+     *          false otherwise.
+     *          | for some i in 1..getNbAnchorPoints():
+     *          |     getAnchorPointAt(i).isEmpty()
+     */
+    public boolean hasFreeAnchorPoint(){
+        return !freeSlots.isEmpty();
+    }
+
+    /**
+     * Returns the anchor point with the given name, if it exists.
+     *
+     * @param   name
+     *          The name of the anchor point to retrieve
+     *
+     * @return  The matching AnchorPoint, or null if no such anchor exists.
+     *
+     * @post    If an anchor point exists with a name equal to the given name,
+     *          it is returned. Otherwise, the result is null.
+     *          | if (name == null)
+     *          |     then result == null
+     *          | else if (exists ap in anchorPoints where ap.getName().equalsIgnoreCase(name))
+     *          |     then result == the first such ap
+     *          | else result == null
+     */
+    public AnchorPoint getAnchorPoint(String name) {
+        if (name == null) return null;
+        return anchorPointsByName.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * returns the achorpoint to which the item is attached.
+     *
+     * @param   item
+     *          item to return the anchorpoint of.
+     *
+     * @return  if item is attached to anchorpoint in this entity return the anchorpoint,
+     *          return null otherwise.
+     *          |  if (for some I in 1..getNbAnchorPoints()):
+     *          |       getAnchorPointAt(i).getItem() == item
+     *          |       return the first such anchorpoint
+     */
+    public AnchorPoint getAnchorPointOfItem(Equipment item) {
+        if (item == null)
+            return null;
+        return item.getAnchorPointIn(this);
+    }
+
+    /**
+     * Returns a map of all current anchor points and the items assigned to them.
+     *
+     * @return  A map where each key is the name of an anchor point belonging to this entity,
+     *          and the value is the equipment assigned to that anchor point,
+     *          or null if the anchor point is empty.
+     *          | for each ap in anchorPoints:
+     *          |     result.get(ap.getName()) == ap.getItem()
+     */
+    public Map<String, Equipment> getAnchors() {
+        Map<String, Equipment> anchors = new HashMap<>();
+        for (AnchorPoint ap : anchorPoints) {
+            anchors.put(ap.getName(), ap.getItem());
+        }
+        return anchors;
+    }
+
+    /**********************************************************
+     * Transfer
+     **********************************************************/
+
+    /**
+     * Take over all items attached to the anchor points of the given entity.
+     *
+     * @param   source
+     *          The entity to take the items of.
+     *
+     * @param   policy
+     *          What happens to the items that cannot be attached to this entity.
+     *
+     * @return  The result of transferring the items of the given entity, in the order of its anchor points.
+     *          | result == transfer(source.getAllItems(), policy)
+     *
+     * @throws  IllegalArgumentException
+     *          The given source is not effective or is this entity.
+     *          | source == null || source == this
+     */
+    public TransferResult transferAll(Entity source, TransferPolicy policy) throws IllegalArgumentException {
+        if (source == null || source == this)
+            throw new IllegalArgumentException("Cannot transfer the items of the given entity.");
+
+        return transfer(source.getDistinctItems(), policy);
+    }
+
+    /**
+     * Take over the most valuable items attached to the anchor points of the given entity that this entity
+     * can carry.
+     *
+     * @param   source
+     *          The entity to take the items of.
+     *
+     * @param   policy
+     *          What happens to the selected items that cannot be attached to this entity.
+     *
+     * @return  The result of transferring the items of the given entity with the largest total value, of which
+     *          the total carried weight does not exceed the weight this entity can still carry. Unless the policy
+     *          stores items in backpacks and this entity carries one, at most as many items are selected as this
+     *          entity has free anchor points.
+     *          | result == transfer(new LootPlanner(getCapacity() - getTotalWeight(), maxNbItems)
+     *          |                        .select(source.getAllItems()), policy)
+     *
+     * @throws  IllegalArgumentException
+     *          The given source is not effective or is this entity.
+     *          | source == null || source == this
+     *
+     * @note    The selection only accounts for the weight and number of the items, so a selected item may still
+     *          not fit any free anchor point or backpack, in which case the policy decides what happens to it.
+     *          Items that are not selected are left where they are.
+     */
+    public TransferResult transferMostValuable(Entity source, TransferPolicy policy) throws IllegalArgumentException {
+        if (source == null || source == this)
+            throw new IllegalArgumentException("Cannot transfer the items of the given entity.");
+
+        int maxNbItems = freeSlots.cardinality();
+        if (policy != null && policy.isStoringInBackpacks() && !getCarriedBackpacks().isEmpty())
+            maxNbItems = Integer.MAX_VALUE;
+        LootPlanner planner = new LootPlanner(getCapacity() - getTotalWeight(), maxNbItems);
+        return transfer(planner.select(source.getDistinctItems()), policy);
+    }
+
+    /**
+     * Take over the given items.
+     *
+     * All items are first assigned, in the given order, to a free anchor point of this entity, to a backpack it
+     * carries, to destruction, or to be left where they are. Only then are the items moved, so the assignment is
+     * decided for the whole batch at once and every move succeeds.
+     *
+     * @param   items
+     *          The items to take over.
+     *
+     * @param   policy
+     *          What happens to the items that cannot be attached to this entity.
+     *
+     * @effect  Every item that can be attached to this entity, in addition to the items before it in the batch,
+     *          is attached to it.
+     *          | for each item in result.getAccepted(): tryEquip(item)
+     *
+     * @effect  If the policy stores items in backpacks, every other item is stored in a backpack carried by this
+     *          entity, or nested in one it carries, that still has room for it, if any. The backpack is chosen by
+     *          the placement strategy of this entity.
+     *          | for each item in result.getStoredInBackpack():
+     *          |   item.setOwner(null) && (some backpack chosen by getPlacementStrategy()).tryStore(item)
+     *
+     * @effect  If the policy destroys rejected gear, every other weapon and piece of armor is destroyed.
+     *          | for each item in result.getDestroyed(): item.destroy()
+     *
+     * @return  A result listing every non-null item of the given list that is not carried by this entity yet,
+     *          once, by what happened to it.
+     *
+     * @throws  IllegalArgumentException
+     *          The given items or policy are not effective.
+     *          | items == null || policy == null
+     *
+     * @throws  IllegalStateException
+     *          An item was detached from its owner to be stored in a backpack, but the backpack refused it.
+     *
+     * @note    Whether an item can be attached is decided as by canHaveAsItem, against the weight and free anchor
+     *          points this entity would have after taking the items before it. Backpacks are only used for the
+     *          items that cannot be attached, and backpacks that are only taken in the same batch are not used.
+     *
+     * @note    An item that was assigned, but can no longer be attached to this entity or stored in its backpack
+     *          when it is moved, because a subclass decides otherwise than it did while assigning, is left where
+     *          it is and listed as rejected.
+     */
+    public TransferResult transfer(List<? extends Equipment> items, TransferPolicy policy)
+            throws IllegalArgumentException {
+        if (items == null || policy == null)
+            throw new IllegalArgumentException("The items and policy must be effective.");
+
+        TransferResult result = new TransferResult();
+        List<Equipment> accepted = new ArrayList<>();
+        List<Equipment> unattached = new ArrayList<>();
+
+        // Step 1: Assign every item to an anchor point, against the state this entity would be in after the items before it
+        int plannedWeight = getCarriedWeight();
+        BitSet plannedFreeSlots = (BitSet) freeSlots.clone();
+        Set<Equipment> assigned = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Equipment item : items) {
+            if (item == null || item.getOwner() == this || !assigned.add(item))
+                continue;
+
+            int slot = getFirstCommonBit(plannedFreeSlots, getCompatibleSlots(item));
+            if (slot >= 0 && plannedWeight + item.getWeight() <= getCapacity() && canHaveAsAdditionalItem(item, accepted)) {
+                plannedFreeSlots.clear(slot);
+                plannedWeight += getCarriedWeightOf(item);
+                accepted.add(item);
+            }
+            else
+                unattached.add(item);
+        }
+
+        // Step 2: Assign the other items to a backpack, as chosen by the placement strategy
+        Map<Equipment, Backpack> storedIn = Map.of();
+        if (policy.isStoringInBackpacks())
+            storedIn = new BackpackPlacement(getCarriedBackpacks(), getPlacementStrategy()).reserveAll(unattached);
+        List<Equipment> stored = new ArrayList<>();
+        for (Equipment item : unattached) {
+            if (storedIn.containsKey(item))
+                stored.add(item);
+            else if (policy.isDestroyingRejectedGear() && (item instanceof Weapon || item instanceof Armor))
+                result.addDestroyed(item);
+            else
+                result.addRejected(item);
+        }
+
+        // Step 3: Move the items as assigned, leaving an item where it is if it can no longer be moved after all
+        for (Equipment item : accepted) {
+            if (tryEquip(item) == PlacementStatus.PLACED)
+                result.addAccepted(item);
+            else
+                result.addRejected(item);
+        }
+        for (Equipment item : stored) {
+            Backpack backpack = storedIn.get(item);
+            if (item.isDestroyed() || !backpack.canHaveAsItem(item)) {
+                result.addRejected(item);
+                continue;
+            }
+            if (item.getOwner() != null)
+                item.setOwner(null);
+            PlacementStatus status = backpack.tryStore(item);
+            if (status != PlacementStatus.PLACED)
+                throw new IllegalStateException("Item could not be stored as assigned: " + status);
+            result.addStoredInBackpack(item);
+        }
+        for (Equipment item : result.getDestroyed())
+            item.destroy();
+
+        return result;
+    }
+
+    /**
+     * Return the items attached to the anchor points of this entity, in the order of its anchor points, with
+     * every item attached to several anchor points only once.
+     */
+    @Model
+    private List<Equipment> getDistinctItems() {
+        List<Equipment> items = new ArrayList<>();
+        for (AnchorPoint ap : anchorPoints) {
+            Equipment item = ap.getItem();
+            if (item != null && getAnchorPointOfItem(item) == ap)
+                items.add(item);
+        }
+        return items;
+    }
+
+    /**
+     * Check whether this entity can have the given item in addition to its current items and the given items
+     * it is about to take over.
+     *
+     * @param   item
+     *          The item to check.
+     *
+     * @param   additionalItems
+     *          The items this entity is about to take over before the given item.
+     *
+     * @return  True, as entities do not limit the kinds of items they carry beyond their anchor points and capacity.
+     *          | result == true
+     */
+    @Model
+    protected boolean canHaveAsAdditionalItem(Equipment item, List<Equipment> additionalItems) {
+        return true;
+    }
+
+    /**
+     * Return the strategy by which this entity chooses the backpack to store an item in.
+     *
+     * @return  The first fit, as entities store items in the first backpack with room for them.
+     *          | result == PlacementStrategy.FIRST_FIT
+     */
+    public PlacementStrategy getPlacementStrategy() {
+        return PlacementStrategy.FIRST_FIT;
+    }
+
+    /**
+     * Return the backpacks attached to the anchor points of this entity, in the order of its anchor points,
+     * each of them followed by the backpacks nested inside it.
+     */
+    @Model
+    private List<Backpack> getCarriedBackpacks() {
+        List<Backpack> backpacks = new ArrayList<>();
+        Set<Backpack> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Equipment item : getAllItems()) {
+            if (item instanceof Backpack)
+                addWithNestedBackpacks((Backpack) item, backpacks, visited);
+        }
+        return backpacks;
+    }
+
+    // AUXILIARY METHOD: adds the given backpack and, depth first, the backpacks nested in it to the given list,
+    // skipping the backpacks that were visited before
+    private static void addWithNestedBackpacks(Backpack backpack, List<Backpack> backpacks, Set<Backpack> visited) {
+        if (!visited.add(backpack))
+            return;
+        backpacks.add(backpack);
+        for (List<Equipment> itemsWithSameID : backpack.contents.values()) {
+            for (Equipment item : itemsWithSameID) {
+                if (item instanceof Backpack)
+                    addWithNestedBackpacks((Backpack) item, backpacks, visited);
+            }
+        }
+    }
+}
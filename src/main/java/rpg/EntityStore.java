@@ -0,0 +1,307 @@
+package rpg;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Model;
+
+import java.util.Arrays;
+
+/**
+ * A store keeping the hitpoints, maximum hitpoints, current protection, capacity, fighting status and total weight
+ * of the entities attached to it in parallel arrays, one position per entity.
+ *
+ * An entity attached to a store registers these properties in the store instead of in itself, and acts as a view
+ * on its position in the arrays, which is its handle. The handles of the entities in a store run from 0 to the
+ * number of entities in the store, so passes over all of them, such as regenerating their hitpoints or ending
+ * their fights, walk the arrays from start to end without visiting the entities themselves. While changes to the
+ * world are reported to a sink, these passes report the new hitpoints of every entity they change.
+ *
+ * @invar   Every entity in the store is attached to it at its handle.
+ *          | for each handle in 0..getNbEntities()-1:
+ *          |   getEntityAt(handle).getStore() == this && getEntityAt(handle).getHandle() == handle
+ *
+ * @note    Attaching entities to a store and detaching them from it is not thread-safe. Entities attached to the
+ *          same store may be changed by several threads at once, as long as no entity is attached or detached
+ *          meanwhile.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class EntityStore {
+
+    /**********************************************************
+     * Constructors
+     **********************************************************/
+
+    /**
+     * Initialize a new, empty entity store with room for the given number of entities.
+     *
+     * @param   initialCapacity
+     *          The number of entities the store has room for before it needs to grow.
+     *
+     * @post    The new store has no entities.
+     *          | new.getNbEntities() == 0
+     *
+     * @throws  IllegalArgumentException
+     *          The given capacity is negative.
+     *          | initialCapacity < 0
+     */
+    public EntityStore(int initialCapacity) throws IllegalArgumentException {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("The initial capacity cannot be negative.");
+
+        this.entities = new Entity[initialCapacity];
+        this.hitPoints = new int[initialCapacity];
+        this.maxHitPoints = new int[initialCapacity];
+        this.currentProtections = new int[initialCapacity];
+        this.capacities = new int[initialCapacity];
+        this.fighting = new boolean[initialCapacity];
+        this.carriedWeights = new int[initialCapacity];
+    }
+
+    /**
+     * Initialize a new, empty entity store.
+     *
+     * @effect  | this(16)
+     */
+    public EntityStore() {
+        this(16);
+    }
+
+    /**********************************************************
+     * Entities
+     **********************************************************/
+
+    /**
+     * Variable referencing the entities in this store, at their handles.
+     */
+    private Entity[] entities;
+
+    /**
+     * Variables referencing the properties registered for the entities in this store, at their handles. The
+     * entities read and write them directly.
+     */
+    int[] hitPoints;
+    int[] maxHitPoints;
+    int[] currentProtections;
+    int[] capacities;
+    boolean[] fighting;
+    int[] carriedWeights;
+
+    /**
+     * Variable registering the number of entities in this store.
+     */
+    private int nbEntities = 0;
+
+    /**
+     * Return the number of entities in this store.
+     */
+    @Basic
+    public int getNbEntities() {
+        return nbEntities;
+    }
+
+    /**
+     * Return the entity at the given handle in this store.
+     *
+     * @param   handle
+     *          The handle of the entity to return.
+     *
+     * @throws  IndexOutOfBoundsException
+     *          No entity is attached at the given handle.
+     *          | handle < 0 || handle >= getNbEntities()
+     */
+    @Basic
+    public Entity getEntityAt(int handle) throws IndexOutOfBoundsException {
+        if (handle < 0 || handle >= nbEntities)
+            throw new IndexOutOfBoundsException("No entity at handle " + handle + ".");
+        return entities[handle];
+    }
+
+    /**
+     * Check whether the given entity is attached to this store.
+     *
+     * @return  | result == (entity != null && entity.getStore() == this)
+     */
+    public boolean hasAsEntity(Entity entity) {
+        return entity != null && entity.getStore() == this;
+    }
+
+    /**
+     * Attach the given entity to this store, at the end of its entities.
+     *
+     * @param   entity
+     *          The entity to attach.
+     *
+     * @post    The entity is attached to this store at the last handle, with the same properties as before.
+     *          | new.getNbEntities() == getNbEntities() + 1
+     *          | new.getEntityAt(getNbEntities()) == entity
+     *          | (new entity).getHitPoints() == entity.getHitPoints()
+     *          | (new entity).getTotalWeight() == entity.getTotalWeight()
+     *
+     * @return  The handle of the entity in this store.
+     *          | result == getNbEntities()
+     *
+     * @throws  IllegalArgumentException
+     *          The given entity is not effective, or already attached to a store.
+     *          | entity == null || entity.getStore() != null
+     */
+    public int add(Entity entity) throws IllegalArgumentException {
+        if (entity == null)
+            throw new IllegalArgumentException("The entity cannot be null.");
+        if (entity.getStore() != null)
+            throw new IllegalArgumentException("The entity is already attached to a store.");
+
+        if (nbEntities == entities.length)
+            grow();
+        int handle = nbEntities++;
+        entities[handle] = entity;
+        hitPoints[handle] = entity.getHitPoints();
+        maxHitPoints[handle] = entity.getMaxHitPoints();
+        currentProtections[handle] = entity.getRegisteredProtection();
+        capacities[handle] = entity.getCapacity();
+        fighting[handle] = entity.isFighting();
+        carriedWeights[handle] = entity.getTotalWeight();
+        entity.attachTo(this, handle);
+        return handle;
+    }
+
+    /**
+     * Detach the given entity from this store. The last entity of the store takes over its handle.
+     *
+     * @param   entity
+     *          The entity to detach.
+     *
+     * @post    The entity is no longer attached to any store, and keeps the same properties as before.
+     *          | (new entity).getStore() == null
+     *          | (new entity).getHitPoints() == entity.getHitPoints()
+     *
+     * @post    The last entity of this store takes over the handle of the given entity.
+     *          | new.getNbEntities() == getNbEntities() - 1
+     *          | if (entity.getHandle() < getNbEntities() - 1)
+     *          |   then new.getEntityAt(entity.getHandle()) == getEntityAt(getNbEntities() - 1)
+     *
+     * @throws  IllegalArgumentException
+     *          The given entity is not attached to this store.
+     *          | !hasAsEntity(entity)
+     */
+    public void remove(Entity entity) throws IllegalArgumentException {
+        if (!hasAsEntity(entity))
+            throw new IllegalArgumentException("The entity is not attached to this store.");
+
+        int handle = entity.getHandle();
+        entity.detachFromStore();
+        int last = --nbEntities;
+        if (handle != last) {
+            entities[handle] = entities[last];
+            hitPoints[handle] = hitPoints[last];
+            maxHitPoints[handle] = maxHitPoints[last];
+            currentProtections[handle] = currentProtections[last];
+            capacities[handle] = capacities[last];
+            fighting[handle] = fighting[last];
+            carriedWeights[handle] = carriedWeights[last];
+            entities[handle].attachTo(this, handle);
+        }
+        entities[last] = null;
+    }
+
+    // AUXILIARY METHOD: doubles the number of entities the arrays of this store have room for
+    private void grow() {
+        int length = Math.max(16, 2 * entities.length);
+        entities = Arrays.copyOf(entities, length);
+        hitPoints = Arrays.copyOf(hitPoints, length);
+        maxHitPoints = Arrays.copyOf(maxHitPoints, length);
+        currentProtections = Arrays.copyOf(currentProtections, length);
+        capacities = Arrays.copyOf(capacities, length);
+        fighting = Arrays.copyOf(fighting, length);
+        carriedWeights = Arrays.copyOf(carriedWeights, length);
+    }
+
+    /**********************************************************
+     * Passes
+     **********************************************************/
+
+    /**
+     * Regenerate the given number of hitpoints for every living entity in this store.
+     *
+     * @param   amount
+     *          The number of hitpoints to regenerate.
+     *
+     * @effect  | for each entity in getEntityAt(0..getNbEntities()-1):
+     *          |   if (entity.isAlive()) then entity.addHitPoints(amount)
+     *
+     * @note    The new hitpoints are only reported for the entities whose hitpoints changed.
+     *
+     * @return  The number of entities whose hitpoints changed.
+     *
+     * @throws  IllegalArgumentException
+     *          The given amount is negative.
+     *          | amount < 0
+     */
+    public int regenerateHitPoints(int amount) throws IllegalArgumentException {
+        if (amount < 0)
+            throw new IllegalArgumentException("The amount cannot be negative.");
+
+        boolean reporting = WorldEvents.getSink() != WorldEventSink.NONE;
+        int nbChanged = 0;
+        for (int handle = 0; handle < nbEntities; handle++) {
+            int oldHitPoints = hitPoints[handle];
+            if (oldHitPoints <= 0)
+                continue;
+            // The same correction as addHitPoints makes
+            int newHitPoints = oldHitPoints + amount;
+            if (newHitPoints > maxHitPoints[handle])
+                newHitPoints = maxHitPoints[handle];
+            else if (!fighting[handle])
+                newHitPoints = primeAtOrBelow(newHitPoints);
+            if (newHitPoints != oldHitPoints) {
+                hitPoints[handle] = newHitPoints;
+                if (reporting)
+                    WorldEvents.hitPointsChanged(entities[handle], newHitPoints);
+                nbChanged++;
+            }
+        }
+        return nbChanged;
+    }
+
+    /**
+     * End the fight of every fighting entity in this store.
+     *
+     * @effect  | for each entity in getEntityAt(0..getNbEntities()-1):
+     *          |   if (entity.isFighting()) then entity.setFighting(false)
+     *
+     * @note    The new hitpoints are only reported for the entities whose hitpoints changed.
+     *
+     * @return  The number of entities that were fighting.
+     */
+    public int expireFighting() {
+        boolean reporting = WorldEvents.getSink() != WorldEventSink.NONE;
+        int nbExpired = 0;
+        for (int handle = 0; handle < nbEntities; handle++) {
+            if (fighting[handle]) {
+                fighting[handle] = false;
+                int newHitPoints = primeAtOrBelow(hitPoints[handle]);
+                if (newHitPoints != hitPoints[handle]) {
+                    hitPoints[handle] = newHitPoints;
+                    if (reporting)
+                        WorldEvents.hitPointsChanged(entities[handle], newHitPoints);
+                }
+                nbExpired++;
+            }
+        }
+        return nbExpired;
+    }
+
+    /**
+     * Return the given hitpoints if they are valid for an entity that is not fighting, and the closest lower prime
+     * otherwise.
+     *
+     * @return  | if (hitPoints == 0 || PrimeTable.isPrime(hitPoints)) then result == hitPoints
+     *          | else result == PrimeTable.getClosestLowerPrime(hitPoints)
+     */
+    @Model
+    static int primeAtOrBelow(int hitPoints) {
+        if (hitPoints == 0 || PrimeTable.isPrime(hitPoints))
+            return hitPoints;
+        return PrimeTable.getClosestLowerPrime(hitPoints);
+    }
+}
@@ -1,5 +1,8 @@
+package rpg;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
 
 import be.kuleuven.cs.som.annotate.*;
 
@@ -42,13 +45,14 @@ public abstract class Equipment {
      * @post    The given base value is registered as the base value.
      *          | new.getBaseValue() == baseValue
      *
-     * @post    A randomly generated identification number is registered as the identification number.
+     * @post    A randomly generated identification number, that was not yet taken by another piece
+     *          of equipment of the same type, is registered as the identification number.
      *          | new.getIdentification() == generateIdentification();
      *
      * @post    The new equipment is in good condition.
      *          | !new.isDestroyed()
      *
-     * @effect  The identification number is added to the map to keep track of all identification numbers
+     * @effect  The identification number is added to the registry to keep track of all identification numbers
      *          for each equipment type.
      *          | addIdentification(this.getClass(), identification)
      *
@@ -62,6 +66,43 @@ public abstract class Equipment {
      */
     public Equipment(int weight, int baseValue)
             throws IllegalArgumentException {
+        this(weight, baseValue, -1);
+    }
+
+    /**
+     * Initialize a new piece of equipment with the given weight and base value, and with the given identification
+     * number if it is still free.
+     *
+     * @param   weight
+     *          The weight of the new piece of equipment.
+     *
+     * @param   baseValue
+     *          The base value (in dukaten) for the equipment.
+     *
+     * @param   identification
+     *          The identification number to register, or a negative number to generate one.
+     *
+     * @effect  The new piece of equipment is initialized as by the public constructor, except for its
+     *          identification number.
+     *          | this(weight, baseValue)
+     *
+     * @post    If the given identification number is not negative and either not yet taken by another piece of
+     *          equipment of the same type, or reserved for one, it is the identification number of the new piece
+     *          of equipment, which claims its reservation. Otherwise, a newly generated identification number is
+     *          registered.
+     *          | if (identification >= 0 && (isUniqueForType(getClass(), identification)
+     *          |         || equipmentByType.isReserved(getClass(), identification)))
+     *          |     then new.getIdentification() == identification
+     *
+     * @note    Only the uniqueness of the given identification number is checked: it is meant to be one that an
+     *          earlier piece of equipment of the same type had, such as when a saved world is restored.
+     *
+     * @note    If an identification scope is open on the current thread, an identification number that is not
+     *          given is taken over from a discarded piece of equipment of the same type in it if possible, rather
+     *          than generated, and the new piece of equipment is recorded in it.
+     */
+    Equipment(int weight, int baseValue, long identification)
+            throws IllegalArgumentException {
 
         if (!canHaveAsWeight(weight))
             throw new IllegalArgumentException("Weight cannot be negative.");
@@ -71,9 +112,28 @@ public abstract class Equipment {
         this.weight = weight;
         this.baseValue = baseValue;
 
-        // Generates identification number and adds it to map to keep track of all identification numbers for each equipment type.
-        this.identification = generateIdentification();
-        addIdentification(this.getClass(), identification);
+        // Keep the given identification number if it is still free, or reserved for a restored piece of equipment
+        if (identification >= 0 && (addIdentification(this.getClass(), identification)
+                || equipmentByType.claim(this.getClass(), identification))) {
+            this.identification = identification;
+            return;
+        }
+
+        // Within an identification scope, take over the number of a discarded piece of equipment of the same type
+        IdentificationScope scope = IdentificationScope.current();
+        long possibleID = scope == null ? -1 : scope.takeOverIdentification(this.getClass());
+
+        // Generates identification number and adds it to the registry to keep track of all identification numbers for each equipment type.
+        // Another thread may have taken the generated number in the meantime, in which case a new one is generated.
+        if (possibleID < 0) {
+            possibleID = generateIdentification();
+            while (!addIdentification(this.getClass(), possibleID)) {
+                possibleID = generateIdentification();
+            }
+        }
+        this.identification = possibleID;
+        if (scope != null)
+            scope.record(this);
     }
 
     /**********************************************************
@@ -117,9 +177,9 @@ public abstract class Equipment {
     final long identification;
 
     /**
-     * Variable referencing a static set containing all the identification numbers
+     * Variable referencing a static registry containing all the identification numbers, per type of equipment.
      */
-    static final Map<Class<?>, Set<Long>> equipmentByType = new HashMap<>();
+    static final IdentificationRegistry equipmentByType = new IdentificationRegistry();
 
     /**
      * Returns the identification number of this piece of equipment.
@@ -132,9 +192,8 @@ public abstract class Equipment {
     /**
      * Adds a new identification number for a specific type of equipment.
      *
-     * This method ensures that the given identification number is added to the set
-     * of identification numbers for the specified equipment type. If the set of
-     * IDs for the given equipment type does not exist, it is created.
+     * This method ensures that the given identification number is registered in the
+     * identification registry for the specified equipment type.
      *
      * @param   equipmentType
      *          The class type of the equipment for which the identification number is being added.
@@ -142,29 +201,41 @@ public abstract class Equipment {
      * @param   identification
      *          The unique identification number to add for the specified equipment type.
      *
-     * @post    The equipmentByType map will contain the key equipmentType after this method is executed.
+     * @return  True if the identification number was not yet taken for the given equipment type, false otherwise.
+     *          | result == isUniqueForType(equipmentType, identification)
+     *
+     * @effect  The identification number is registered for the given equipment type.
+     *          | equipmentByType.register(equipmentType, identification)
+     *
+     * @post    The equipmentByType registry will contain the key equipmentType after this method is executed.
      *          | equipmentByType.containsKey(equipmentType) == true
      *
      * @post    The set of IDs for the given equipment type will contain the added identification number.
      *          | equipmentByType.get(equipmentType).contains(identification) == true
      *
-     * @post    The size of the set of IDs for the specified equipment type will increase by 1 after adding the new ID.
-     *          | (equipmentByType.get(equipmentType).size() == old(equipmentByType.get(equipmentType).size()) + 1)
+     * @post    If the ID was not yet taken, the size of the set of IDs for the specified equipment type
+     *          will increase by 1 after adding the new ID.
+     *          | if (result) then
+     *          |   (equipmentByType.get(equipmentType).size() == old(equipmentByType.get(equipmentType).size()) + 1)
+     *
+     * @note    Checking and registering the identification number happen atomically, so that pieces of
+     *          equipment can safely be created on several threads at the same time.
      */
     @Model
-    private static void addIdentification(Class<?> equipmentType, long identification) {
-        // Get the existing set of ID's for the given type of equipment
-        Set<Long> existingIDs = equipmentByType.get(equipmentType);
-
-        // If the set does not exist, create a new set associated with the equipmentType in the equipmentByType map
-        if (existingIDs == null) {
-            existingIDs = new HashSet<>();
-            equipmentByType.put(equipmentType, existingIDs);
-        }
-
-        // Add the identification number to the set associated with the equipmentType
-        existingIDs.add(identification);
+    private static boolean addIdentification(Class<?> equipmentType, long identification) {
+        return equipmentByType.register(equipmentType, identification);
+    }
 
+    /**
+     * Release the identification number of this piece of equipment, which is no longer used.
+     *
+     * @effect  | equipmentByType.unregister(getClass(), getIdentification())
+     *
+     * @note    This piece of equipment must not be used afterwards, because another piece of equipment of the same
+     *          type may get its identification number.
+     */
+    void releaseIdentification() {
+        equipmentByType.unregister(getClass(), getIdentification());
     }
 
     /**
@@ -196,25 +267,31 @@ public abstract class Equipment {
      *
      * @return  True if the identification number is unique for the given equipment type;
      *          false if the identification number already exists for that equipment type.
-     *          | result == (existingIDs == null || !existingIDs.contains(identification))
+     *          | result == !equipmentByType.isRegistered(equipmentType, identification)
      */
     public static boolean isUniqueForType(Class<?> equipmentType, long identification) {
-        // Get the existing set of ID's for the given type of equipment
-        Set<Long> existingIDs = equipmentByType.get(equipmentType);
-
-        // Iterate over every ID in the set for this equipment type
-        if (existingIDs != null) {
-            for (Long existingID : existingIDs) {
-                // If the ID already exists, return false
-                if (existingID == identification) {
-                    return false;  // ID is not unique
-                }
-            }
-        }
-
-        // If no matching ID is found, return true (ID is unique)
-        return true;
+        return !equipmentByType.isRegistered(equipmentType, identification);
+    }
 
+    /**
+     * Import the identification numbers pieces of equipment of the given type had, such that pieces of equipment
+     * of that type restored later on keep them.
+     *
+     * @param   equipmentType
+     *          The class type of the equipment.
+     *
+     * @param   identifications
+     *          The identification numbers to import.
+     *
+     * @effect  | equipmentByType.importAll(equipmentType, identifications)
+     *
+     * @note    Only the uniqueness of the identification numbers is checked, not whether they suit the given type,
+     *          such as being a multiple of 6 for weapons: they are meant to be ones that earlier pieces of equipment
+     *          of that type had.
+     */
+    public static void importIdentifications(Class<? extends Equipment> equipmentType, long... identifications)
+            throws IllegalArgumentException {
+        equipmentByType.importAll(equipmentType, identifications);
     }
 
     /**
@@ -230,7 +307,7 @@ public abstract class Equipment {
      *          (via addIdentification()).
      */
     public long generateIdentification() {
-        Random random = new Random();
+        RandomGenerator random = RandomSource.current();
         long possibleID = Math.abs(random.nextLong());
 
         while (!canHaveAsIdentification(this.getClass(), possibleID)) {
@@ -274,6 +351,28 @@ public abstract class Equipment {
         return calculateCurrentValue();
     }
 
+    /**
+     * Pass a change in the current value of this piece of equipment on to the backpack containing it, if any.
+     *
+     * @param   oldValue
+     *          The current value of this piece of equipment before it changed.
+     *
+     * @effect  If this piece of equipment is stored in a backpack, the value of that backpack is adjusted
+     *          by the change in value.
+     *          | if (getBackpack() != null)
+     *          |     then getBackpack().adjustContentsValue(getCurrentValue() - oldValue)
+     *
+     * @note    This is an auxiliary method that should be called by every method changing the current value.
+     */
+    @Model
+    void currentValueChanged(int oldValue) {
+        if (getBackpack() != null) {
+            int delta = getCurrentValue() - oldValue;
+            if (delta != 0)
+                getBackpack().adjustContentsValue(delta);
+        }
+    }
+
     /**
      * Check whether the given value is a valid value for this piece of equipment.
      *
@@ -350,6 +449,9 @@ public abstract class Equipment {
      *          | if (owner != null && getOwner() != owner)
      *          |   then owner.addAsItem(this)
      *
+     * @effect  The change of owner is reported, without the changes made to get there.
+     *          | WorldEvents.ownerChanged(this, owner)
+     *
      * @throws  IllegalArgumentException
      *          The given owner is non-null but cannot have this item.
      *          | owner != null && !owner.canHaveAsItem(this)
@@ -365,6 +467,18 @@ public abstract class Equipment {
         if (owner != null && !owner.canHaveAsItem(this))
             throw new IllegalArgumentException("This item can not belong to the given owner.");
 
+        // Leaving a backpack or the armor slot of a hero is part of changing owner, and is not reported on its own
+        WorldEvents.suspend();
+        try {
+            changeOwner(owner);
+        } finally {
+            WorldEvents.resume();
+        }
+        WorldEvents.ownerChanged(this, owner);
+    }
+
+    // AUXILIARY METHOD: sets the owner of this item to the given owner, which can have it, on both sides
+    private void changeOwner(Entity owner) {
         // Remember the previous owner
         Entity previousOwner = getOwner();
 
@@ -452,6 +566,35 @@ public abstract class Equipment {
         return backpack;
     }
 
+    /**
+     * Variable registering the position of this item in the list of items with the same identification number
+     * in the backpack storing it, or -1 if no backpack registered this item.
+     */
+    private int slotInBackpack = -1;
+
+    /**
+     * Return the position of this item in the list of items with the same identification number in the backpack
+     * storing it, or -1 if no backpack registered this item.
+     */
+    @Model @Raw
+    int getSlotInBackpack() {
+        return slotInBackpack;
+    }
+
+    /**
+     * Register the position of this item in the list of items with the same identification number in the backpack
+     * storing it.
+     *
+     * @param   slot
+     *          The new position of this item, or -1 if it is no longer registered in a backpack.
+     *
+     * @note    This is an auxiliary method that should only be called by the backpack storing this item.
+     */
+    @Model @Raw
+    void setSlotInBackpack(int slot) {
+        this.slotInBackpack = slot;
+    }
+
     /**
      * Sets the backpack in which this item is stored.
      *
@@ -482,6 +625,10 @@ public abstract class Equipment {
      *          | if (backpack != null && old.getBackpack() != backpack)
      *          |     then backpack.addItem(this)
      *
+     * @effect  If the new backpack is different from the current one, the change of backpack is reported.
+     *          | if (old.getBackpack() != backpack)
+     *          |     then WorldEvents.backpackChanged(this, backpack)
+     *
      * @throws  IllegalArgumentException
      *          If the given backpack is non-null and cannot contain this item.
      *          | backpack != null && !backpack.canHaveAsItem(this)
@@ -534,6 +681,120 @@ public abstract class Equipment {
                     assert false;
                 }
             }
+            WorldEvents.backpackChanged(this, backpack);
+        }
+    }
+
+    /**
+     * Store this item in the given backpack, which was checked to be able to contain it when it was saved.
+     *
+     * @param   backpack
+     *          The backpack in which this item should be stored.
+     *
+     * @pre     This item is not stored in a backpack, and the given backpack is effective.
+     *          | getBackpack() == null && backpack != null
+     *
+     * @post    | new.getBackpack() == backpack
+     *
+     * @post    | new.getOwner() == backpack.getOwner()
+     *
+     * @effect  This item is added to the contents of the given backpack.
+     *          | backpack.putItem(this)
+     *
+     * @note    Unlike setBackpack, the capacity of the backpack is not checked. Restoring a saved backpack this way
+     *          from its innermost contents outward, keeps the cost of storing each item constant.
+     */
+    @Raw @Model
+    void restoreBackpack(Backpack backpack) {
+        assert getBackpack() == null && backpack != null;
+        this.backpack = backpack;
+        this.owner = backpack.getOwner();
+        backpack.putItem(this);
+    }
+
+    /**********************************************************
+     * Anchor points
+     **********************************************************/
+
+    /**
+     * Variable referencing the anchor points this item is attached to, or null if it is attached to none.
+     *
+     * @note    An item is normally attached to at most one anchor point, so the list is only created when needed.
+     */
+    private List<AnchorPoint> anchorPoints = null;
+
+    /**
+     * Register that this item is attached to the given anchor point.
+     *
+     * @param   anchorPoint
+     *          The anchor point this item is attached to.
+     *
+     * @note    This is an auxiliary method that should only be called by the anchor point the item is attached to.
+     */
+    @Model
+    void attachTo(AnchorPoint anchorPoint) {
+        if (anchorPoints == null)
+            anchorPoints = new ArrayList<>(1);
+        anchorPoints.add(anchorPoint);
+    }
+
+    /**
+     * Register that this item is no longer attached to the given anchor point.
+     *
+     * @param   anchorPoint
+     *          The anchor point this item was attached to.
+     *
+     * @note    This is an auxiliary method that should only be called by the anchor point the item was attached to.
+     */
+    @Model
+    void detachFrom(AnchorPoint anchorPoint) {
+        if (anchorPoints != null)
+            anchorPoints.remove(anchorPoint);
+    }
+
+    /**
+     * Return the anchor point of the given entity this item is attached to.
+     *
+     * @param   entity
+     *          The entity to look up the anchor point in.
+     *
+     * @return  The anchor point with the lowest slot among the anchor points of the given entity this item
+     *          is attached to, or null if this item is not attached to any anchor point of the given entity.
+     *
+     * @note    An item is normally attached to at most one anchor point, so this takes constant time.
+     */
+    @Model
+    AnchorPoint getAnchorPointIn(Entity entity) {
+        AnchorPoint result = null;
+        if (anchorPoints != null) {
+            for (AnchorPoint anchorPoint : anchorPoints) {
+                if (anchorPoint.getEntity() == entity && (result == null || anchorPoint.getSlot() < result.getSlot()))
+                    result = anchorPoint;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Adjust the carried weight of every entity this item is attached to by the given amount.
+     *
+     * @param   delta
+     *          The change in the total weight of this item.
+     *
+     * @effect  The carried weight of the entity of every anchor point this item is attached to is adjusted.
+     *          | for each anchorPoint this item is attached to:
+     *          |   if (anchorPoint.getEntity() != null) then anchorPoint.getEntity().adjustCarriedWeight(delta)
+     *
+     * @note    This is an auxiliary method that should only be called when the total weight of this item changes,
+     *          which only happens for containers whose contents change.
+     */
+    @Model
+    void adjustCarriedWeightOfHolders(int delta) {
+        if (anchorPoints == null)
+            return;
+        for (AnchorPoint anchorPoint : anchorPoints) {
+            if (anchorPoint.getEntity() != null)
+                anchorPoint.getEntity().adjustCarriedWeight(delta);
         }
     }
 
@@ -613,10 +874,17 @@ public abstract class Equipment {
      *
      * @effect  The condition is set to DESTROYED
      *          | setCondition(Condition.DESTROYED)
+     *
+     * @effect  The destruction is reported.
+     *          | WorldEvents.itemDestroyed(this)
+     *
+     * @note    Subclasses destroy their own properties first, and then invoke this method, so the changes made
+     *          meanwhile, such as emptying a backpack, are reported before the destruction itself.
      */
     @Model
     void destroy() {
         setCondition(Condition.DESTROYED);
+        WorldEvents.itemDestroyed(this);
     }
 
     /**
@@ -1,12 +1,11 @@
+package rpg;
 
 import be.kuleuven.cs.som.annotate.Basic;
 import be.kuleuven.cs.som.annotate.Model;
 import be.kuleuven.cs.som.annotate.Raw;
 
-import java.util.Random;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Map;
 import java.util.HashMap;
 
 
@@ -96,7 +95,7 @@ public class Hero extends Entity {
 
         this.intrinsicStrength = Math.round(strength * 100) / 100.0;
         this.protection = 10;
-        this.capacity = (int)(20 * intrinsicStrength);
+        registerCapacity((int)(20 * intrinsicStrength));
 
     }
 
@@ -362,6 +361,21 @@ public class Hero extends Entity {
         return armor;
     }
 
+    /**
+     * Register the given armor as the armor equipped by this hero, without attaching it to an anchor point.
+     *
+     * @param   armor
+     *          The armor to register.
+     *
+     * @post    | new.getArmor() == armor
+     *
+     * @note    This is an auxiliary method for restoring a hero whose anchor points already hold the given armor.
+     */
+    @Raw @Model
+    void setArmor(Armor armor) {
+        this.armor = armor;
+    }
+
     /**
      * Returns the number of armor items this hero is currently carrying.
      *
@@ -407,14 +421,29 @@ public class Hero extends Entity {
      *         If the armor cannot be equipped (e.g., anchor point is not empty,
      *         or the armor is not valid for the position or weight limit).
      *         | !achorpoint.isEmpty() || !canCarry(armor) || !canHaveAsItemAt(armor, acnhorpoint)
+     *
+     * @effect If the armor is equipped, that is reported, without the changes of owner made to get there.
+     *         | WorldEvents.armorEquipped(this, armor)
      */
     public void equipArmor(Armor armor) {
         if (armor.getOwner() != null && armor.getOwner() != this) {
             throw new IllegalArgumentException("Armor already belongs to another entity.");
         }
 
+        WorldEvents.suspend();
+        try {
+            changeArmor(armor);
+        } finally {
+            WorldEvents.resume();
+        }
+        WorldEvents.armorEquipped(this, armor);
+    }
+
+    // AUXILIARY METHOD: equips the given armor, which belongs to no other entity, restoring the old armor if
+    // equipping it fails
+    private void changeArmor(Armor armor) throws IllegalArgumentException {
         Armor oldArmor = this.armor;
-        AnchorPoint anchorpoint = getAnchorPoint("body");
+        AnchorPoint anchorpoint = getAnchorPoint(HeroAnchor.BODY);
 
         if (oldArmor != null) {
             unequipArmor(oldArmor);
@@ -429,7 +458,7 @@ public class Hero extends Entity {
             if (oldArmor != null) {
                 this.armor = oldArmor;
                 oldArmor.setOwner(this);
-                getAnchorPoint("body").setItem(oldArmor);
+                getAnchorPoint(HeroAnchor.BODY).setItem(oldArmor);
             }
             throw new IllegalArgumentException("Cannot equip armor.");
         }
@@ -446,10 +475,19 @@ public class Hero extends Entity {
      *
      * @post    The armor currently equipped is set to null
      *          | this.armor = null
+     *
+     * @effect  The unequipping is reported, without the change of owner.
+     *          | WorldEvents.armorUnequipped(this, armor)
      */
     public void unequipArmor(Armor armor){
-        armor.setOwner(null);
-        this.armor = null;
+        WorldEvents.suspend();
+        try {
+            armor.setOwner(null);
+            this.armor = null;
+        } finally {
+            WorldEvents.resume();
+        }
+        WorldEvents.armorUnequipped(this, armor);
     }
 
 
@@ -486,8 +524,7 @@ public class Hero extends Entity {
             throw new NullPointerException("Monster target cannot be null.");
         }
 
-        Random r = new Random();
-        int roll = r.nextInt(101); // random getal tussen 0 en 100
+        int roll = getRandom().nextInt(101); // random getal tussen 0 en 100
 
         if (roll >= monster.getCurrentProtection()) {
             int damage = calculateDamage();
@@ -567,8 +604,7 @@ public class Hero extends Entity {
     private void healAfterKill() {
         int missing = getMaxHitPoints() - getHitPoints();
         if (missing <= 0) return;
-        Random d= new Random();
-        int percentage = d.nextInt(101); 
+        int percentage = getRandom().nextInt(101);
         int healAmount = (missing * percentage) / 100;
         addHitPoints(healAmount); 
     }
@@ -584,46 +620,78 @@ public class Hero extends Entity {
      * @param monster
      *        The monster from which to collect treasure. If null, no action is performed.
      *
-     * @post For each non-null item in the monster’s anchors, if setting this hero as owner succeeds,
-     *       then the item’s owner is this hero.
-     *       | if (item != null && item.setOwner(this) succeeds)
-     *       |    then item.getOwner() == this
-     *
-     * @post For each non-null item in the monster’s anchors, if setting this hero as owner throws an exception
-     *       and the item can be placed in a backpack owned by this hero, then the item is placed in such backpack.
-     *       | if (item != null && item.setOwner(this) throws IllegalArgumentException &&
-     *       |     exists Backpack bp in getAllItems() where item.setBackpack(bp) succeeds)
-     *       |    then item.getBackpack() != null && getAllItems().contains(item.getBackpack())
-     *
-     * @post For each non-null item in the monster’s anchors, if neither ownership nor backpack placement succeeds,
-     *       the item remains unassigned (owner and backpack unchanged).
-     *       | if (item != null && item.setOwner(this) throws IllegalArgumentException &&
-     *       |     forall Backpack bp in getAllItems(), item.setBackpack(bp) throws IllegalArgumentException)
-     *       |    then item.getOwner() != this && item.getBackpack() == null
+     * @effect The items of the monster are transferred to this hero. Items that cannot be attached to this hero
+     *         are stored in a backpack of this hero with room for them, as chosen by its placement strategy,
+     *         or are left with the monster. If the hero plans its loot, only the most valuable items it can carry
+     *         are transferred.
+     *         | if (isPlanningLoot()) then transferMostValuable(monster, TransferPolicy.STORE_IN_BACKPACKS)
+     *         | else transferAll(monster, TransferPolicy.STORE_IN_BACKPACKS)
      */
     public void collectTreasureFrom(Monster monster) {
         if (monster == null) return;
 
-        Map<String, Equipment> loot = monster.getAnchors();
+        if (isPlanningLoot())
+            transferMostValuable(monster, TransferPolicy.STORE_IN_BACKPACKS);
+        else
+            transferAll(monster, TransferPolicy.STORE_IN_BACKPACKS);
+    }
 
-        for (Equipment item : loot.values()) {
-            if (item != null) {
-                try {
-                    item.setOwner(this); // stel eigenaar in en checkt ook of dit mag/kan
-                } catch (IllegalArgumentException e) {
-                    // Dit item past niet in de hero, probeer in backpack te steken
-                    for (Equipment heroItem : getAllItems()) {
-                        if (heroItem instanceof Backpack) {
-                            try {
-                                item.setBackpack((Backpack) heroItem); // steek item in backpack als kan/mag
-                            } catch (IllegalArgumentException a) {
-                                // Dit item past niet in de hero, probeer de volgende
-                            }
-                        }
-                    }
-                }
-            }
-        }
+    /**
+     * Variable registering whether the hero selects the most valuable treasure it can carry.
+     */
+    private boolean planningLoot = false;
+
+    /**
+     * Check whether the hero selects the most valuable treasure it can carry, rather than taking the items
+     * of a monster in the order of its anchor points.
+     */
+    @Basic
+    public boolean isPlanningLoot() {
+        return planningLoot;
+    }
+
+    /**
+     * Set whether the hero selects the most valuable treasure it can carry.
+     *
+     * @param  planningLoot
+     *         Whether the hero plans its loot.
+     *
+     * @post   | new.isPlanningLoot() == planningLoot
+     */
+    public void setPlanningLoot(boolean planningLoot) {
+        this.planningLoot = planningLoot;
+    }
+
+    /**
+     * The strategy by which the hero chooses the backpack to store collected treasure in.
+     */
+    private PlacementStrategy placementStrategy = PlacementStrategy.BEST_FIT;
+
+    /**
+     * Return the strategy by which the hero chooses the backpack to store collected treasure in.
+     */
+    @Basic @Override
+    public PlacementStrategy getPlacementStrategy() {
+        return placementStrategy;
+    }
+
+    /**
+     * Set the strategy by which the hero chooses the backpack to store collected treasure in.
+     *
+     * @param  strategy
+     *         The new placement strategy.
+     *
+     * @post   The placement strategy of the hero is set to the given strategy.
+     *         | new.getPlacementStrategy() == strategy
+     *
+     * @throws IllegalArgumentException
+     *         If the given strategy is not effective.
+     *         | strategy == null
+     */
+    public void setPlacementStrategy(PlacementStrategy strategy) throws IllegalArgumentException {
+        if (strategy == null)
+            throw new IllegalArgumentException("The placement strategy must be effective.");
+        this.placementStrategy = strategy;
     }
 
     /**********************************************************
@@ -694,8 +762,10 @@ public class Hero extends Entity {
    /**
     * Initializes the default anchor points for this hero.
     *
-    * @post The hero has exactly five anchor points.
+    * @post The hero has exactly five anchor points, one for every hero anchor in its slot.
     *       | getAnchorPoints().size() == 5
+    *       | for each anchor in HeroAnchor.values():
+    *       |     getAnchorPointAt(anchor.getSlot()).getName().equals(anchor.getName())
     *
     * @post The hero has anchor points named
     *       "leftHand", "rightHand", "back", "body", and "belt".
@@ -705,11 +775,21 @@ public class Hero extends Entity {
     */
     @Override
     public void initializeAnchorPoints() {
-        addAnchorPoint(new AnchorPoint("leftHand"));
-        addAnchorPoint(new AnchorPoint("rightHand"));
-        addAnchorPoint(new AnchorPoint("back"));
-        addAnchorPoint(new AnchorPoint("body"));
-        addAnchorPoint(new AnchorPoint("belt"));
+        for (HeroAnchor anchor : HeroAnchor.values())
+            addAnchorPoint(new AnchorPoint(anchor.getName()));
+    }
+
+    /**
+     * Returns the anchor point of this hero for the given hero anchor.
+     *
+     * @param   anchor
+     *          The hero anchor to return the anchor point of.
+     *
+     * @return  The anchor point in the slot of the given hero anchor.
+     *          | result == getAnchorPointAt(anchor.getSlot())
+     */
+    public AnchorPoint getAnchorPoint(HeroAnchor anchor) {
+        return getAnchorPointAt(anchor.getSlot());
     }
 
     /**
@@ -733,22 +813,16 @@ public class Hero extends Entity {
      */
     @Override
     public void addToAnchorPoint(Equipment item) {
-        for (int i = 1; i <= getNbAnchorPoints(); i++) {
-            AnchorPoint anchorpoint = getAnchorPointAt(i);
-
-            if (anchorpoint.isEmpty()) {
-                if (canHaveAsItemAt(item, anchorpoint)) {
-                    if (anchorpoint.getName().equals("leftHand") && item instanceof Weapon) {
-                        equipLeftHand((Weapon) item);
-                    }
-                    if (anchorpoint.getName().equals("rightHand") && item instanceof Weapon) {
-                        equipRightHand((Weapon) item);
-                    }
-
-                    anchorpoint.setItem(item);
-                    return;
-                }
+        AnchorPoint anchorpoint = getFirstFreeAnchorPointFor(item);
+        if (anchorpoint != null) {
+            if (anchorpoint.getSlot() == HeroAnchor.LEFT_HAND.getSlot() && item instanceof Weapon) {
+                equipLeftHand((Weapon) item);
+            }
+            if (anchorpoint.getSlot() == HeroAnchor.RIGHT_HAND.getSlot() && item instanceof Weapon) {
+                equipRightHand((Weapon) item);
             }
+
+            anchorpoint.setItem(item);
         }
     }
 
@@ -830,6 +904,33 @@ public class Hero extends Entity {
         super.addAsItem(item);
     }
 
+    /**
+     * Check whether this hero can have the given item in addition to its current items and the given items
+     * it is about to take over.
+     *
+     * @param   item
+     *          The item to check.
+     *
+     * @param   additionalItems
+     *          The items this hero is about to take over before the given item.
+     *
+     * @return  False if the item is armor and this hero would carry at least 2 armors before it, true otherwise.
+     *          | result == !(item instanceof Armor &&
+     *          |     getNbArmorsCarried() + (the number of armors in additionalItems) >= 2)
+     */
+    @Model @Override
+    protected boolean canHaveAsAdditionalItem(Equipment item, List<Equipment> additionalItems) {
+        if (!(item instanceof Armor))
+            return true;
+
+        int nbArmors = getNbArmorsCarried();
+        for (Equipment additionalItem : additionalItems) {
+            if (additionalItem instanceof Armor)
+                nbArmors++;
+        }
+        return nbArmors < 2;
+    }
+
    /**
     * Removes the given item from this hero.
     *
@@ -871,23 +972,20 @@ public class Hero extends Entity {
         if (item != null && item.getOwner() == this)
             throw new IllegalStateException("Item still references this entity as its owner.");
 
-        for (int i = 1; i <= getNbAnchorPoints(); i++) {
-            AnchorPoint anchorpoint = getAnchorPointAt(i);
-            if (anchorpoint.getItem() == item) {
-                // Als dit armor was op het body-anker: reset armor-referentie
-                if (anchorpoint.getName().equals("body") && item instanceof Armor) {
-                    unequipArmor((Armor) item);
-                }
-                if (anchorpoint.getName().equals("leftHand") && item instanceof Weapon) {
-                    equipLeftHand(null);
-                }
-                if (anchorpoint.getName().equals("rightHand") && item instanceof Weapon) {
-                    equipRightHand(null);
-                }
-
-                anchorpoint.setItem(null);
-                return;
+        AnchorPoint anchorpoint = getAnchorPointOfItem(item);
+        if (anchorpoint != null) {
+            // Als dit armor was op het body-anker: reset armor-referentie
+            if (anchorpoint.getSlot() == HeroAnchor.BODY.getSlot() && item instanceof Armor) {
+                unequipArmor((Armor) item);
+            }
+            if (anchorpoint.getSlot() == HeroAnchor.LEFT_HAND.getSlot() && item instanceof Weapon) {
+                equipLeftHand(null);
             }
+            if (anchorpoint.getSlot() == HeroAnchor.RIGHT_HAND.getSlot() && item instanceof Weapon) {
+                equipRightHand(null);
+            }
+
+            anchorpoint.setItem(null);
         }
     }
 }
@@ -0,0 +1,60 @@
+package rpg;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Raw;
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * An enumeration of the anchor points of a hero.
+ * Every hero has these anchor points in this order, so each of them is associated with a fixed slot
+ * at which the hero returns it.
+ *
+ * @invar      Each anchor has a valid slot.
+ *             | getSlot() >= 1 && getSlot() <= values().length
+ *
+ * @author     Jitse Vandenberghe
+ * @version    1.0
+ */
+@Value
+public enum HeroAnchor {
+    LEFT_HAND("leftHand"), RIGHT_HAND("rightHand"), BACK("back"), BODY("body"), BELT("belt");
+
+    /**
+     * Initialize a new hero anchor with the given name.
+     *
+     * @param   name
+     *          The name of the anchor point of the new hero anchor.
+     *
+     * @post    The given name is registered as the name of this hero anchor.
+     *          | new.getName() == name
+     */
+    @Raw
+    HeroAnchor(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Return the name of the anchor point of this hero anchor.
+     */
+    @Raw @Basic @Immutable
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Return the slot of the anchor point of this hero anchor in every hero.
+     *
+     * @return  The (1-based) position of this hero anchor in the enumeration.
+     *          | result == ordinal() + 1
+     */
+    @Immutable
+    public int getSlot() {
+        return ordinal() + 1;
+    }
+
+    /**
+     * Variable registering the name of the anchor point of this hero anchor.
+     */
+    private final String name;
+}
@@ -0,0 +1,331 @@
+package rpg;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of registries keeping track of the identification numbers in use, per type of equipment.
+ *
+ * For each type of equipment, the registered identification numbers are stored in a primitive
+ * long set, so that checking whether an identification number is still free and registering
+ * a new identification number both take constant time, independent of the number of pieces
+ * of equipment of that type that were ever created.
+ *
+ * The registry is thread-safe: pieces of equipment can be created on several threads at once.
+ * Registering an identification number is an atomic reserve-if-absent operation, so two threads
+ * can never both obtain the same identification number for the same type of equipment.
+ *
+ * @invar   Each registered type of equipment has an effective set of identification numbers.
+ *          | for each type in registered types:
+ *          |   get(type) != null
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class IdentificationRegistry {
+
+    /**
+     * Variable referencing a map collecting the set of identification numbers for each type of equipment.
+     */
+    private final Map<Class<?>, ConcurrentLongHashSet> identificationsByType = new ConcurrentHashMap<>();
+
+    /**
+     * Variable referencing a map collecting the set of reserved identification numbers for each type of equipment.
+     *
+     * @invar   Every reserved identification number is registered as well.
+     *          | for each type, identification in reservationsByType:
+     *          |   isRegistered(type, identification)
+     */
+    private final Map<Class<?>, ConcurrentLongHashSet> reservationsByType = new ConcurrentHashMap<>();
+
+    /**
+     * Check whether identification numbers have been registered for the given type of equipment.
+     *
+     * @param   equipmentType
+     *          The class type of the equipment to check.
+     *
+     * @return  True if and only if at least one identification number was registered for the given type.
+     */
+    public boolean containsKey(Class<?> equipmentType) {
+        return identificationsByType.containsKey(equipmentType);
+    }
+
+    /**
+     * Return the set of identification numbers registered for the given type of equipment,
+     * or null if no identification number was registered for that type.
+     *
+     * @param   equipmentType
+     *          The class type of the equipment.
+     */
+    @Basic
+    public ConcurrentLongHashSet get(Class<?> equipmentType) {
+        return identificationsByType.get(equipmentType);
+    }
+
+    /**
+     * Check whether the given identification number is registered for the given type of equipment.
+     *
+     * @param   equipmentType
+     *          The class type of the equipment.
+     *
+     * @param   identification
+     *          The identification number to check.
+     *
+     * @return  True if and only if the identification number was registered for the given type.
+     *          | result == (get(equipmentType) != null && get(equipmentType).contains(identification))
+     */
+    public boolean isRegistered(Class<?> equipmentType, long identification) {
+        ConcurrentLongHashSet identifications = identificationsByType.get(equipmentType);
+        return identifications != null && identifications.contains(identification);
+    }
+
+    /**
+     * Register the given identification number for the given type of equipment.
+     *
+     * @param   equipmentType
+     *          The class type of the equipment.
+     *
+     * @param   identification
+     *          The identification number to register.
+     *
+     * @return  True if the identification number was not yet registered for the given type, false otherwise.
+     *          | result == !old.isRegistered(equipmentType, identification)
+     *
+     * @post    The identification number is registered for the given type.
+     *          | new.isRegistered(equipmentType, identification)
+     *
+     * @note    When several threads register the same identification number for the same type
+     *          at the same time, exactly one of them gets true as a result.
+     */
+    public boolean register(Class<?> equipmentType, long identification) {
+        // If the set does not exist, atomically create a new set associated with the equipment type
+        ConcurrentLongHashSet identifications =
+                identificationsByType.computeIfAbsent(equipmentType, type -> new ConcurrentLongHashSet());
+
+        return identifications.add(identification);
+    }
+
+    /**
+     * Unregister the given identification number for the given type of equipment, such that it can be registered
+     * again.
+     *
+     * @param   equipmentType
+     *          The class type of the equipment.
+     *
+     * @param   identification
+     *          The identification number to unregister.
+     *
+     * @return  True if the identification number was registered for the given type, false otherwise.
+     *          | result == old.isRegistered(equipmentType, identification)
+     *
+     * @post    The identification number is not registered for the given type.
+     *          | !new.isRegistered(equipmentType, identification)
+     */
+    public boolean unregister(Class<?> equipmentType, long identification) {
+        ConcurrentLongHashSet identifications = identificationsByType.get(equipmentType);
+        return identifications != null && identifications.remove(identification);
+    }
+
+    /**
+     * Reserve the given identification numbers for the given type of equipment, for pieces of equipment that
+     * do not exist yet but are known to have had them, such as those of a saved world.
+     *
+     * @param   equipmentType
+     *          The class type of the equipment.
+     *
+     * @param   identifications
+     *          The identification numbers to reserve.
+     *
+     * @return  The number of the given identification numbers that are reserved now. The others are taken by
+     *          existing pieces of equipment.
+     *
+     * @post    Each given identification number that was not yet registered, is registered and reserved.
+     *          | for each identification in identifications:
+     *          |   if (!old.isRegistered(equipmentType, identification))
+     *          |     then new.isReserved(equipmentType, identification)
+     *
+     * @note    A reserved identification number is taken, so it is never generated for a new piece of equipment,
+     *          until the one piece of equipment it was reserved for claims it.
+     *
+     * @note    The identification numbers are sorted first, so that one pass over them skips the ones that occur
+     *          more than once and those that are taken, after which the free ones are added to the sets at once.
+     *          | sort(identifications)
+     *          Pieces of equipment of the given type should not be created on other threads meanwhile.
+     */
+    public int reserveAll(Class<?> equipmentType, long[] identifications) {
+        ConcurrentLongHashSet registered =
+                identificationsByType.computeIfAbsent(equipmentType, type -> new ConcurrentLongHashSet());
+        ConcurrentLongHashSet reservations =
+                reservationsByType.computeIfAbsent(equipmentType, type -> new ConcurrentLongHashSet());
+        long[] sorted = sort(identifications);
+
+        // Nothing is taken yet when a saved world is loaded on start-up, so nothing has to be looked up then
+        boolean isEmpty = registered.size() == 0;
+        int nbFree = 0, nbReserved = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            long identification = sorted[i];
+            if (i > 0 && identification == sorted[i - 1])
+                continue;
+            if (isEmpty || !registered.contains(identification))
+                sorted[nbFree++] = identification;
+            else if (reservations.contains(identification))
+                nbReserved++;
+        }
+
+        long[] free = Arrays.copyOf(sorted, nbFree);
+        registered.addAll(free);
+        reservations.addAll(free);
+        return nbReserved + nbFree;
+    }
+
+    /**
+     * Import the given identification numbers for the given type of equipment, as identification numbers that
+     * pieces of equipment restored later on keep.
+     *
+     * @param   equipmentType
+     *          The class type of the equipment.
+     *
+     * @param   identifications
+     *          The identification numbers to import.
+     *
+     * @post    All given identification numbers are registered and reserved.
+     *          | for each identification in identifications:
+     *          |   new.isReserved(equipmentType, identification)
+     *
+     * @throws  IllegalArgumentException
+     *          The given identification numbers are not effective, or one of them is negative, occurs more than
+     *          once, or is registered already. In that case, none of them is imported.
+     *          | identifications == null
+     *          | || for some identification in identifications:
+     *          |      identification < 0 || isRegistered(equipmentType, identification)
+     *
+     * @note    The identification numbers are sorted first, so that their uniqueness is verified in one pass over
+     *          them, comparing each one with the next. After that, they are added to the sets at once, without
+     *          checking them one by one again. Pieces of equipment of the given type should not be created on other
+     *          threads meanwhile.
+     *          | sort(identifications)
+     */
+    public void importAll(Class<?> equipmentType, long[] identifications) throws IllegalArgumentException {
+        if (identifications == null)
+            throw new IllegalArgumentException("The identification numbers cannot be null.");
+        long[] sorted = sort(identifications);
+        if (sorted.length > 0 && sorted[0] < 0)
+            throw new IllegalArgumentException("Identification numbers cannot be negative.");
+
+        ConcurrentLongHashSet registered =
+                identificationsByType.computeIfAbsent(equipmentType, type -> new ConcurrentLongHashSet());
+        boolean isEmpty = registered.size() == 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i > 0 && sorted[i] == sorted[i - 1])
+                throw new IllegalArgumentException("Identification number " + sorted[i] + " occurs more than once.");
+            if (!isEmpty && registered.contains(sorted[i]))
+                throw new IllegalArgumentException("Identification number " + sorted[i] + " is taken.");
+        }
+
+        registered.addAll(sorted);
+        reservationsByType.computeIfAbsent(equipmentType, type -> new ConcurrentLongHashSet()).addAll(sorted);
+    }
+
+    /**
+     * Return a sorted copy of the given identification numbers.
+     *
+     * @param   identifications
+     *          The identification numbers to sort.
+     *
+     * @return  The given identification numbers in ascending order.
+     *          | Arrays.equals(result, Arrays.stream(identifications).sorted().toArray())
+     *
+     * @note    The identification numbers are sorted by their digits in base 2048, the least significant digit
+     *          first, instead of by comparing them with each other: every digit takes two sequential passes over
+     *          them, and digits in which all identification numbers agree, such as the highest ones of small
+     *          identification numbers, are skipped.
+     */
+    @Model
+    static long[] sort(long[] identifications) {
+        long[] sorted = identifications.clone();
+        long[] buffer = new long[sorted.length];
+        int[] counts = new int[1 << DIGIT_BITS];
+        for (int shift = 0; shift < Long.SIZE; shift += DIGIT_BITS) {
+            Arrays.fill(counts, 0);
+            for (long identification : sorted)
+                counts[digitOf(identification, shift)]++;
+            // Digits in which all identification numbers agree leave their order as it is
+            if (sorted.length == 0 || counts[digitOf(sorted[0], shift)] == sorted.length)
+                continue;
+
+            for (int digit = 0, start = 0; digit < counts.length; digit++) {
+                int count = counts[digit];
+                counts[digit] = start;
+                start += count;
+            }
+            for (long identification : sorted)
+                buffer[counts[digitOf(identification, shift)]++] = identification;
+            long[] swap = sorted;
+            sorted = buffer;
+            buffer = swap;
+        }
+        return sorted;
+    }
+
+    /**
+     * The number of bits of the digits by which identification numbers are sorted.
+     */
+    private static final int DIGIT_BITS = 11;
+
+    // AUXILIARY METHOD: returns the digit of the given identification number that starts at the given bit, with
+    // its sign bit flipped so that negative numbers come first
+    private static int digitOf(long identification, int shift) {
+        return (int) (((identification ^ Long.MIN_VALUE) >>> shift) & ((1 << DIGIT_BITS) - 1));
+    }
+
+    /**
+     * Check whether the given identification number is reserved for the given type of equipment.
+     *
+     * @param   equipmentType
+     *          The class type of the equipment.
+     *
+     * @param   identification
+     *          The identification number to check.
+     */
+    public boolean isReserved(Class<?> equipmentType, long identification) {
+        ConcurrentLongHashSet reservations = reservationsByType.get(equipmentType);
+        return reservations != null && reservations.contains(identification);
+    }
+
+    /**
+     * Claim the reservation of the given identification number for the given type of equipment.
+     *
+     * @param   equipmentType
+     *          The class type of the equipment.
+     *
+     * @param   identification
+     *          The identification number to claim.
+     *
+     * @return  True if the identification number was reserved, false otherwise.
+     *          | result == old.isReserved(equipmentType, identification)
+     *
+     * @post    The identification number is no longer reserved, but stays registered.
+     *          | !new.isReserved(equipmentType, identification)
+     *
+     * @note    When several threads claim the same reservation at the same time, exactly one of them gets true
+     *          as a result.
+     */
+    public boolean claim(Class<?> equipmentType, long identification) {
+        ConcurrentLongHashSet reservations = reservationsByType.get(equipmentType);
+        return reservations != null && reservations.remove(identification);
+    }
+
+    /**
+     * Remove all identification numbers and reservations from this registry.
+     *
+     * @post    No identification numbers are registered for any type of equipment.
+     *          | for each type: !new.containsKey(type)
+     */
+    public void clear() {
+        identificationsByType.clear();
+        reservationsByType.clear();
+    }
+}
@@ -0,0 +1,166 @@
+package rpg;
+
+import be.kuleuven.cs.som.annotate.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A class of scopes within which the pieces of equipment created by a thread hand their identification numbers
+ * on, once they are discarded, to the pieces of equipment of the same type created after them.
+ *
+ * Every piece of equipment that generates its identification number while a scope is open on the current thread
+ * is recorded in it. Discarding the recorded pieces of equipment keeps their identification numbers registered,
+ * but lets new pieces of equipment of the same type take them over instead of generating new ones. Closing the
+ * scope unregisters the identification numbers of all pieces of equipment recorded in it, such that a thread
+ * creating pieces of equipment over and over again, such as for simulated battles, only ever holds as many
+ * identification numbers as it has pieces of equipment in use at once.
+ *
+ * @invar   Every piece of equipment recorded in a scope is either in use or discarded, but not both.
+ *
+ * @note    A scope is only used by the thread that opened it. The pieces of equipment recorded in it must not be
+ *          used after they are discarded, because another piece of equipment may have their identification number.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+final class IdentificationScope implements AutoCloseable {
+
+    /**
+     * Variable referencing the scope that is open on each thread, if any.
+     */
+    private static final ThreadLocal<IdentificationScope> openScope = new ThreadLocal<>();
+
+    /**********************************************************
+     * Constructors
+     **********************************************************/
+
+    /**
+     * Initialize a new scope, to be opened on the current thread in place of the given scope.
+     */
+    private IdentificationScope(IdentificationScope previous) {
+        this.previous = previous;
+    }
+
+    /**
+     * Open a new scope on the current thread.
+     *
+     * @return  The new scope, which is the open scope of the current thread until it is closed.
+     *          | current() == result
+     *
+     * @note    A scope that was open on the current thread already is open again once the new scope is closed.
+     */
+    static IdentificationScope open() {
+        IdentificationScope scope = new IdentificationScope(openScope.get());
+        openScope.set(scope);
+        return scope;
+    }
+
+    /**
+     * Return the scope that is open on the current thread, or null if there is none.
+     */
+    @Basic
+    static IdentificationScope current() {
+        return openScope.get();
+    }
+
+    /**
+     * Variable referencing the scope that was open on the thread of this scope before it, if any.
+     */
+    private final IdentificationScope previous;
+
+    /**********************************************************
+     * Equipment
+     **********************************************************/
+
+    /**
+     * Variable referencing the pieces of equipment recorded in this scope that are in use.
+     */
+    private final List<Equipment> inUse = new ArrayList<>();
+
+    /**
+     * Variable referencing the pieces of equipment recorded in this scope that were discarded, per type of equipment.
+     */
+    private final Map<Class<?>, ArrayDeque<Equipment>> discardedByType = new HashMap<>();
+
+    /**
+     * Return the number of pieces of equipment recorded in this scope, whether they are in use or discarded.
+     */
+    int getNbRecorded() {
+        int nbRecorded = inUse.size();
+        for (ArrayDeque<Equipment> discarded : discardedByType.values())
+            nbRecorded += discarded.size();
+        return nbRecorded;
+    }
+
+    /**
+     * Record the given piece of equipment as in use.
+     *
+     * @param   item
+     *          The piece of equipment that generated its identification number, or took it over.
+     */
+    void record(@Raw Equipment item) {
+        inUse.add(item);
+    }
+
+    /**
+     * Return the identification number of a discarded piece of equipment of the given type, which no longer counts
+     * as recorded in this scope, or -1 if there is none.
+     *
+     * @param   equipmentType
+     *          The class type of the equipment that takes over the identification number.
+     *
+     * @note    The identification number stays registered for the given type, so the piece of equipment taking it
+     *          over should not register it again.
+     */
+    long takeOverIdentification(Class<?> equipmentType) {
+        ArrayDeque<Equipment> discarded = discardedByType.get(equipmentType);
+        if (discarded == null || discarded.isEmpty())
+            return -1;
+        return discarded.pop().getIdentification();
+    }
+
+    /**
+     * Discard all pieces of equipment in use in this scope, such that pieces of equipment created afterwards can take
+     * over their identification numbers.
+     */
+    void discardAll() {
+        for (Equipment item : inUse)
+            discardedByType.computeIfAbsent(item.getClass(), type -> new ArrayDeque<>()).push(item);
+        inUse.clear();
+    }
+
+    /**
+     * Close this scope, releasing the identification numbers of all pieces of equipment recorded in it.
+     *
+     * @effect  | discardAll()
+     *
+     * @effect  Every piece of equipment recorded in this scope releases its identification number.
+     *          | for each item recorded in this scope: item.releaseIdentification()
+     *
+     * @post    The scope that was open on the current thread before this scope is open again.
+     *
+     * @throws  IllegalStateException
+     *          This scope is not the open scope of the current thread.
+     *          | current() != this
+     */
+    @Override
+    public void close() throws IllegalStateException {
+        if (openScope.get() != this)
+            throw new IllegalStateException("This scope is not open on the current thread.");
+
+        discardAll();
+        for (ArrayDeque<Equipment> discarded : discardedByType.values()) {
+            for (Equipment item : discarded)
+                item.releaseIdentification();
+        }
+        discardedByType.clear();
+        if (previous == null)
+            openScope.remove();
+        else
+            openScope.set(previous);
+    }
+}
@@ -0,0 +1,176 @@
+package rpg;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of sequences of identification numbers that are all strictly positive multiples of a given step.
+ *
+ * The n-th number of a sequence is the step multiplied by a seeded permutation of n, so the numbers
+ * look random, but no number is ever produced twice, and two sequences with the same step and seed
+ * produce exactly the same numbers in the same order. Producing the next number takes constant time
+ * and does not allocate any objects.
+ *
+ * Each thread reserves a block of consecutive positions of the sequence at a time, so that threads
+ * only have to synchronize once per block. When all numbers are taken on a single thread, that thread
+ * gets them in the order of the sequence, which makes such a run reproducible under a fixed seed.
+ *
+ * @invar   The step is strictly positive.
+ *          | getStep() > 0
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class IdentificationSequence {
+
+    /**********************************************************
+     * Constructors
+     **********************************************************/
+
+    /**
+     * Initialize a new sequence of multiples of the given step, permuted using the given seed.
+     *
+     * @param   step
+     *          The number of which all identification numbers in the sequence are a multiple.
+     *
+     * @param   seed
+     *          The seed determining the order of the identification numbers.
+     *
+     * @post    The step of the new sequence is set to the given step.
+     *          | new.getStep() == step
+     *
+     * @post    The seed of the new sequence is set to the given seed.
+     *          | new.getSeed() == seed
+     *
+     * @throws  IllegalArgumentException
+     *          The given step is not strictly positive.
+     *          | step <= 0
+     */
+    public IdentificationSequence(long step, long seed)
+            throws IllegalArgumentException {
+        if (step <= 0)
+            throw new IllegalArgumentException("The step must be strictly positive.");
+
+        this.step = step;
+        this.seed = seed;
+
+        // Use as many bits as possible, without letting step * value overflow
+        this.bits = Long.numberOfLeadingZeros(step) - 1;
+        this.mask = (1L << bits) - 1;
+        this.shift = (bits + 1) / 2;
+    }
+
+    /**********************************************************
+     * Step and seed
+     **********************************************************/
+
+    /**
+     * Variable referencing the number of which all identification numbers in this sequence are a multiple.
+     */
+    private final long step;
+
+    /**
+     * Variable referencing the seed determining the order of the identification numbers.
+     */
+    private final long seed;
+
+    /**
+     * Variable referencing the number of bits of the values that are multiplied by the step.
+     */
+    private final int bits;
+
+    /**
+     * Variable referencing the mask selecting the lowest bits of a value.
+     */
+    private final long mask;
+
+    /**
+     * Variable referencing the distance over which values are shifted while they are permuted.
+     */
+    private final int shift;
+
+    /**
+     * Return the number of which all identification numbers in this sequence are a multiple.
+     */
+    @Basic @Immutable
+    public long getStep() {
+        return step;
+    }
+
+    /**
+     * Return the seed determining the order of the identification numbers in this sequence.
+     */
+    @Basic @Immutable
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Return the value at the given position of the permutation defined by the seed.
+     *
+     * @param   position
+     *          The position in the sequence.
+     *
+     * @return  A value consisting of the given number of bits. Different positions
+     *          always result in different values.
+     *
+     * @note    Every step (xor with a constant, multiplication by an odd constant, xor with a right shift
+     *          of itself) can be undone when only the lowest bits are kept, so the whole is a permutation.
+     */
+    @Model
+    private long permute(long position) {
+        long value = (position ^ seed) & mask;
+        value = (value * 0xBF58476D1CE4E5B9L) & mask;
+        value ^= value >>> shift;
+        value = (value * 0x94D049BB133111EBL) & mask;
+        value ^= value >>> shift;
+        return value;
+    }
+
+    /**********************************************************
+     * Blocks
+     **********************************************************/
+
+    /**
+     * Variable referencing the number of positions reserved by a thread at once.
+     */
+    private static final int BLOCK_SIZE = 1024;
+
+    /**
+     * Variable referencing the first position of the sequence that has not been reserved by any thread.
+     */
+    private final AtomicLong nextFreePosition = new AtomicLong();
+
+    /**
+     * Variable referencing, for each thread, its next position (index 0) and the end of its block (index 1).
+     */
+    private final ThreadLocal<long[]> blocks = ThreadLocal.withInitial(() -> new long[2]);
+
+    /**
+     * Return the next identification number of this sequence.
+     *
+     * @return  A strictly positive multiple of the step, never returned before by this sequence.
+     *          | result > 0 && result % getStep() == 0
+     *
+     * @throws  IllegalStateException
+     *          All positions of the sequence have been used.
+     */
+    public long next() throws IllegalStateException {
+        long[] block = blocks.get();
+        long value;
+        do {
+            if (block[0] == block[1]) {
+                // Reserve a new block of positions for this thread
+                long start = nextFreePosition.getAndAdd(BLOCK_SIZE);
+                if (start < 0 || start > mask)
+                    throw new IllegalStateException("All identification numbers of this sequence have been used.");
+                block[0] = start;
+                block[1] = Math.min(start + BLOCK_SIZE, mask + 1);
+            }
+            value = permute(block[0]++);
+        } while (value == 0); // exactly one position results in 0, which is not strictly positive
+
+        return step * value;
+    }
+}
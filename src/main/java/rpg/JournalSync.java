@@ -0,0 +1,53 @@
+package rpg;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Raw;
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * An enumeration of the moments at which a world journal forces the changes it wrote to its file onto the storage
+ * device. Forcing them guards against losing them when the system crashes, but takes far longer than writing them.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+@Value
+public enum JournalSync {
+    /**
+     * The changes are only forced onto the storage device when the journal is closed. Batches written before a
+     * crash of the system, rather than of the program, may be lost.
+     */
+    ON_CLOSE(false),
+
+    /**
+     * The changes are forced onto the storage device after every batch, before recording the next change.
+     */
+    EVERY_BATCH(true);
+
+    /**
+     * Initialize a new journal sync.
+     *
+     * @param   syncingEveryBatch
+     *          Whether every batch is forced onto the storage device.
+     *
+     * @post    | new.isSyncingEveryBatch() == syncingEveryBatch
+     */
+    @Raw
+    JournalSync(boolean syncingEveryBatch) {
+        this.syncingEveryBatch = syncingEveryBatch;
+    }
+
+    /**
+     * Check whether every batch is forced onto the storage device once it is written.
+     */
+    @Basic @Immutable
+    public boolean isSyncingEveryBatch() {
+        return syncingEveryBatch;
+    }
+
+    /**
+     * Variable registering whether every batch is forced onto the storage device.
+     */
+    private final boolean syncingEveryBatch;
+}
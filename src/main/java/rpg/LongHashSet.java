@@ -0,0 +1,304 @@
+package rpg;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of sets of primitive long values, backed by an open-addressing hash table.
+ *
+ * The values are stored unboxed in a single long array using linear probing,
+ * so that both lookups and insertions take constant expected time, independent of
+ * the number of values in the set.
+ *
+ * @invar   The number of values in the set is never negative.
+ *          | size() >= 0
+ *
+ * @invar   The length of the internal table is always a power of two.
+ *          | Integer.bitCount(table.length) == 1
+ *
+ * @note    The value 0 is used to mark free slots in the table. Whether the set contains
+ *          the value 0 itself is therefore registered separately.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class LongHashSet {
+
+    /**********************************************************
+     * Constructors
+     **********************************************************/
+
+    /**
+     * Initialize a new, empty set of long values.
+     *
+     * @post    The new set is empty.
+     *          | new.size() == 0
+     */
+    public LongHashSet() {
+        this.table = new long[INITIAL_CAPACITY];
+    }
+
+    /**********************************************************
+     * Table
+     **********************************************************/
+
+    /**
+     * Variable referencing the initial number of slots in the table.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Variable referencing the table storing all non-zero values of this set.
+     * Free slots contain the value 0.
+     */
+    private long[] table;
+
+    /**
+     * Variable registering whether the value 0 belongs to this set.
+     */
+    private boolean containsZero = false;
+
+    /**
+     * Variable registering the number of values in this set.
+     */
+    private int size = 0;
+
+    /**
+     * Return the number of values in this set.
+     */
+    @Basic
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check whether this set is empty.
+     *
+     * @return  True if and only if this set contains no values.
+     *          | result == (size() == 0)
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Return the slot at which the search for the given value starts.
+     *
+     * @param   value
+     *          The value to compute the slot for.
+     *
+     * @param   mask
+     *          The mask selecting a slot in a table with a length of (mask + 1).
+     *
+     * @note    The value is scrambled first, so that values that only differ in their
+     *          higher bits (e.g. multiples of 6) do not all end up in the same region.
+     */
+    @Model
+    private static int slotOf(long value, int mask) {
+        long hash = value * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**********************************************************
+     * Values
+     **********************************************************/
+
+    /**
+     * Check whether the given value belongs to this set.
+     *
+     * @param   value
+     *          The value to check.
+     *
+     * @return  True if and only if the given value was added to this set.
+     */
+    public boolean contains(long value) {
+        if (value == 0)
+            return containsZero;
+
+        int mask = table.length - 1;
+        int slot = slotOf(value, mask);
+
+        // Probe until the value or a free slot is found
+        while (table[slot] != 0) {
+            if (table[slot] == value)
+                return true;
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Add the given value to this set.
+     *
+     * @param   value
+     *          The value to add.
+     *
+     * @return  True if the value was not yet part of this set, false otherwise.
+     *          | result == !old.contains(value)
+     *
+     * @post    The given value belongs to this set.
+     *          | new.contains(value)
+     *
+     * @post    If the value was not yet part of this set, the size is increased by 1.
+     *          | if (result) then new.size() == old.size() + 1
+     */
+    public boolean add(long value) {
+        if (value == 0) {
+            if (containsZero)
+                return false;
+            containsZero = true;
+            size++;
+            return true;
+        }
+
+        int mask = table.length - 1;
+        int slot = slotOf(value, mask);
+
+        while (table[slot] != 0) {
+            if (table[slot] == value)
+                return false;
+            slot = (slot + 1) & mask;
+        }
+
+        table[slot] = value;
+        size++;
+
+        // Keep the load factor below one half, so that probe sequences remain short
+        if (2 * size > table.length)
+            grow();
+        return true;
+    }
+
+    /**
+     * Add the given values to this set, growing the table at most once.
+     *
+     * @param   values
+     *          The array holding the values to add.
+     *
+     * @param   from
+     *          The index of the first value to add.
+     *
+     * @param   to
+     *          The index following the last value to add.
+     *
+     * @return  The number of given values that were not yet part of this set, counting values that occur more
+     *          than once only once.
+     *
+     * @post    All given values belong to this set.
+     *          | for each i in from..to-1: new.contains(values[i])
+     *
+     * @note    The table is first made large enough for all given values, instead of being doubled over and over
+     *          while they are added one by one.
+     */
+    public int addAll(long[] values, int from, int to) {
+        long minLength = 2L * ((long) size + (to - from));
+        if (minLength > table.length)
+            resize((int) Math.min(Long.highestOneBit(minLength - 1) << 1, 1 << 30));
+
+        int nbAdded = 0;
+        int mask = table.length - 1;
+        for (int i = from; i < to; i++) {
+            long value = values[i];
+            if (value == 0) {
+                if (!containsZero) {
+                    containsZero = true;
+                    nbAdded++;
+                }
+                continue;
+            }
+            int slot = slotOf(value, mask);
+            while (table[slot] != 0 && table[slot] != value)
+                slot = (slot + 1) & mask;
+            if (table[slot] == 0) {
+                table[slot] = value;
+                nbAdded++;
+            }
+        }
+        size += nbAdded;
+        return nbAdded;
+    }
+
+    /**
+     * Remove the given value from this set.
+     *
+     * @param   value
+     *          The value to remove.
+     *
+     * @return  True if the value was part of this set, false otherwise.
+     *          | result == old.contains(value)
+     *
+     * @post    The given value no longer belongs to this set.
+     *          | !new.contains(value)
+     *
+     * @post    If the value was part of this set, the size is decreased by 1.
+     *          | if (result) then new.size() == old.size() - 1
+     *
+     * @note    The values following the removed one in its probe sequence are shifted back, instead of leaving a
+     *          marker, so that lookups never probe longer than they would have without the removed value.
+     */
+    public boolean remove(long value) {
+        if (value == 0) {
+            if (!containsZero)
+                return false;
+            containsZero = false;
+            size--;
+            return true;
+        }
+
+        int mask = table.length - 1;
+        int slot = slotOf(value, mask);
+        while (table[slot] != value) {
+            if (table[slot] == 0)
+                return false;
+            slot = (slot + 1) & mask;
+        }
+
+        // Move every later value of the same run whose search starts at or before the freed slot into it
+        int free = slot;
+        for (int next = (free + 1) & mask; table[next] != 0; next = (next + 1) & mask) {
+            int start = slotOf(table[next], mask);
+            if (((next - start) & mask) >= ((next - free) & mask)) {
+                table[free] = table[next];
+                free = next;
+            }
+        }
+        table[free] = 0;
+        size--;
+        return true;
+    }
+
+    /**
+     * Double the number of slots in the table and re-insert all values.
+     *
+     * @post    The table is twice as large, and still contains all values.
+     *          | new.table.length == 2 * old.table.length
+     */
+    @Model
+    private void grow() {
+        resize(table.length * 2);
+    }
+
+    /**
+     * Replace the table by one with the given number of slots, and re-insert all values.
+     *
+     * @param   length
+     *          The number of slots of the new table, a power of two larger than twice the size of this set.
+     *
+     * @post    | new.table.length == length
+     */
+    @Model
+    private void resize(int length) {
+        long[] oldTable = table;
+        long[] newTable = new long[length];
+        int mask = newTable.length - 1;
+
+        for (long value : oldTable) {
+            if (value != 0) {
+                int slot = slotOf(value, mask);
+                while (newTable[slot] != 0)
+                    slot = (slot + 1) & mask;
+                newTable[slot] = value;
+            }
+        }
+        table = newTable;
+    }
+}
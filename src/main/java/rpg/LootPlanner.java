@@ -0,0 +1,280 @@
+package rpg;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A class of planners selecting the most valuable items an entity can take, within a capacity and a maximum
+ * number of items.
+ *
+ * The selection is a knapsack problem, solved by branch and bound: the items are considered in decreasing order
+ * of value per unit of weight, first taking and then leaving every item, and a branch is abandoned as soon as
+ * even taking fractions of the remaining items cannot beat the best selection found so far. The first selection
+ * found is the greedy one, so the search only ever improves on it.
+ *
+ * The weight of an item is its carried weight, including the contents of backpacks and purses, and its value
+ * is its current value.
+ *
+ * @invar   The capacity and the maximum number of items are not negative.
+ *          | getCapacity() >= 0 && getMaxNbItems() >= 0
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+class LootPlanner {
+
+    /**
+     * The largest number of branches explored for a single selection.
+     *
+     * @note    This bounds the time a selection takes. In the worst case, where no branch is ever abandoned because
+     *          all items have the same value per unit of weight, selecting from 100 items explores all of these
+     *          branches, which takes about 0.65 ms.
+     */
+    static final int MAX_NB_BRANCHES = 40_000;
+
+    /**
+     * Initialize a new loot planner with the given capacity and maximum number of items.
+     *
+     * @param   capacity
+     *          The total weight the selected items may have.
+     *
+     * @param   maxNbItems
+     *          The number of items that may be selected.
+     *
+     * @post    The capacity and maximum number of items are set to the given values, or to zero if negative.
+     *          | new.getCapacity() == Math.max(0, capacity)
+     *          | new.getMaxNbItems() == Math.max(0, maxNbItems)
+     */
+    LootPlanner(int capacity, int maxNbItems) {
+        this.capacity = Math.max(0, capacity);
+        this.maxNbItems = Math.max(0, maxNbItems);
+    }
+
+    /**
+     * Return the total weight the selected items may have.
+     */
+    @Basic @Immutable
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Return the number of items that may be selected.
+     */
+    @Basic @Immutable
+    int getMaxNbItems() {
+        return maxNbItems;
+    }
+
+    /**
+     * Select the most valuable items among the given items.
+     *
+     * @param   items
+     *          The items to select from.
+     *
+     * @return  Items of the given list, in their order in that list, with a total weight of at most the capacity
+     *          and a number of at most the maximum number of items, of which the total value is maximal.
+     *          Items that are not effective or have no value are never selected.
+     *          | sum(Entity.getCarriedWeightOf(item) for item in result) <= getCapacity()
+     *          | result.size() <= getMaxNbItems()
+     *
+     * @note    After MAX_NB_BRANCHES branches, the best selection found so far is returned, which is at least as
+     *          valuable as the one taking the items greedily in decreasing order of value per unit of weight.
+     */
+    List<Equipment> select(List<? extends Equipment> items) {
+        // Only the items that could be selected on their own take part
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            Equipment item = items.get(i);
+            if (item != null && item.getCurrentValue() > 0 && Entity.getCarriedWeightOf(item) <= capacity)
+                candidates.add(i);
+        }
+
+        int nbCandidates = candidates.size();
+        long[] weights = new long[nbCandidates];
+        long[] values = new long[nbCandidates];
+        for (int c = 0; c < nbCandidates; c++) {
+            Equipment item = items.get(candidates.get(c));
+            weights[c] = Entity.getCarriedWeightOf(item);
+            values[c] = item.getCurrentValue();
+        }
+        Integer[] order = new Integer[nbCandidates];
+        for (int c = 0; c < nbCandidates; c++)
+            order[c] = c;
+        Arrays.sort(order, byDecreasingValueDensity(weights, values));
+
+        Search search = new Search(nbCandidates);
+        for (int c = 0; c < nbCandidates; c++) {
+            search.weights[c] = weights[order[c]];
+            search.values[c] = values[order[c]];
+            search.weightsBefore[c + 1] = search.weightsBefore[c] + search.weights[c];
+            search.valuesBefore[c + 1] = search.valuesBefore[c] + search.values[c];
+        }
+        search.explore(0, 0, 0, 0, 0);
+
+        // Report the selected items in the order of the given list
+        boolean[] selected = new boolean[items.size()];
+        for (int c = 0; c < nbCandidates; c++) {
+            if (search.best[c])
+                selected[candidates.get(order[c])] = true;
+        }
+        List<Equipment> result = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (selected[i])
+                result.add(items.get(i));
+        }
+        return result;
+    }
+
+    // AUXILIARY METHOD: returns an ordering of positions by decreasing value per unit of weight of the given
+    // weights and values, in which weightless positions come first
+    private static Comparator<Integer> byDecreasingValueDensity(long[] weights, long[] values) {
+        return (first, second) -> {
+            if (weights[first] == 0 || weights[second] == 0) {
+                if (weights[first] != weights[second])
+                    return weights[first] == 0 ? -1 : 1;
+                return Long.compare(values[second], values[first]);
+            }
+            return Long.compare(values[second] * weights[first], values[first] * weights[second]);
+        };
+    }
+
+    /**
+     * A class of searches through the selections of candidates, ordered by decreasing value per unit of weight.
+     */
+    private class Search {
+
+        Search(int nbCandidates) {
+            weights = new long[nbCandidates];
+            values = new long[nbCandidates];
+            weightsBefore = new long[nbCandidates + 1];
+            valuesBefore = new long[nbCandidates + 1];
+            taken = new boolean[nbCandidates];
+            best = new boolean[nbCandidates];
+        }
+
+        /**
+         * Explore the selections that agree with the current one on the candidates before the given position.
+         *
+         * @param   position
+         *          The position of the next candidate to decide on.
+         *
+         * @param   weight
+         *          The total weight of the candidates taken so far.
+         *
+         * @param   value
+         *          The total value of the candidates taken so far.
+         *
+         * @param   nbTaken
+         *          The number of candidates taken so far.
+         *
+         * @param   split
+         *          A position no further than the first candidate from the given position on that does not fit
+         *          entirely, together with the candidates between them, in the capacity left.
+         */
+        void explore(int position, long weight, long value, int nbTaken, int split) {
+            if (value > bestValue) {
+                bestValue = value;
+                System.arraycopy(taken, 0, best, 0, taken.length);
+            }
+            if (position == weights.length || nbTaken == maxNbItems || nbBranches >= MAX_NB_BRANCHES)
+                return;
+            split = getSplitPosition(position, weight, split);
+            if (getUpperBound(position, weight, value, split) <= bestValue)
+                return;
+            nbBranches++;
+
+            // Taking the candidate leaves the split where it is, and leaving it can only move the split further
+            if (weight + weights[position] <= capacity) {
+                taken[position] = true;
+                explore(position + 1, weight + weights[position], value + values[position], nbTaken + 1, split);
+                taken[position] = false;
+            }
+            explore(position + 1, weight, value, nbTaken, split);
+        }
+
+        /**
+         * Return the first position from the given position on at which the candidate does not fit entirely,
+         * together with the candidates between them, in the capacity left after the given weight, or the number
+         * of candidates if they all fit.
+         *
+         * @param   from
+         *          A position no further than the position to return, from which the search starts.
+         */
+        @Model
+        private int getSplitPosition(int position, long weight, int from) {
+            long limit = weightsBefore[position] + capacity - weight;
+            int split = Math.max(from, position);
+            while (split < weights.length && weightsBefore[split + 1] <= limit)
+                split++;
+            return split;
+        }
+
+        /**
+         * Return an upper bound on the value of the selections that agree with the current one on the candidates
+         * before the given position, by filling the remaining capacity with the next candidates, the last one
+         * of them only partly.
+         *
+         * @param   split
+         *          The first position from the given position on at which the candidate does not fit entirely.
+         *
+         * @note    The bound ignores the maximum number of items, and is rounded down as values are integral.
+         *
+         * @note    The candidates that fit entirely are summed from the total weights and values of the candidates
+         *          before every position, so the bound takes constant time once the split is known.
+         */
+        @Model
+        private long getUpperBound(int position, long weight, long value, int split) {
+            long bound = value + valuesBefore[split] - valuesBefore[position];
+            if (split == weights.length)
+                return bound;
+            long roomLeft = weightsBefore[position] + capacity - weight - weightsBefore[split];
+            return bound + values[split] * roomLeft / weights[split];
+        }
+
+        /**
+         * Variables referencing the weights and values of the candidates, in the order of the search.
+         */
+        final long[] weights;
+        final long[] values;
+
+        /**
+         * Variables referencing the total weight and value of the candidates before every position, up to and
+         * including the position after the last candidate.
+         */
+        final long[] weightsBefore;
+        final long[] valuesBefore;
+
+        /**
+         * Variables referencing the candidates taken in the current and in the best selection.
+         */
+        final boolean[] taken;
+        final boolean[] best;
+
+        /**
+         * Variable registering the total value of the best selection found so far.
+         */
+        long bestValue = 0;
+
+        /**
+         * Variable registering the number of branches explored so far.
+         */
+        int nbBranches = 0;
+    }
+
+    /**
+     * Variable registering the total weight the selected items may have.
+     */
+    private final int capacity;
+
+    /**
+     * Variable registering the number of items that may be selected.
+     */
+    private final int maxNbItems;
+}
@@ -1,4 +1,5 @@
-import java.util.Random;
+package rpg;
+
 import java.util.List;
 import java.util.ArrayList;
 
@@ -63,7 +64,7 @@ public class Monster extends Entity {
      *          | distributeInitialItems(initialItems)
      *
      * @post    The new capacity is set to a number larger than the total weight of the initial items.
-     *          | new.getCapacity() = rand.nextInt(Integer.MAX_VALUE) + getTotalWeight()
+     *          | new.getCapacity() = getRandom().nextInt(Integer.MAX_VALUE) + getTotalWeight()
      *
      * @throws  IllegalArgumentException
      *          If the given damage is invalid.
@@ -83,8 +84,57 @@ public class Monster extends Entity {
 
         distributeInitialItems(initialItems);
 
-        Random rand = new Random();
-        this.capacity = rand.nextInt(Integer.MAX_VALUE) + getTotalWeight();
+        registerCapacity(getRandom().nextInt(Integer.MAX_VALUE) + getTotalWeight());
+    }
+
+    /**
+     * Initialize a new monster to be restored with the given name, maximum hitpoints, damage, type and capacity,
+     * without anchor points and without drawing from its random generator.
+     *
+     * @param   name
+     *          The name of the monster.
+     *
+     * @param   maxHitPoints
+     *          The maximum hitpoints of the monster.
+     *
+     * @param   damage
+     *          Damage the monster deals.
+     *
+     * @param   type
+     *          The type of this monster (tough / thick / scaly).
+     *
+     * @param   capacity
+     *          The capacity of the monster.
+     *
+     * @effect  The monster is initialized as an entity with the given name and max hitpoints, without anchor points.
+     *          | super(name, maxHitPoints, false)
+     *
+     * @post    | new.getType() == type && new.getMaximalProtection() == type.getMaxProtection()
+     *          | new.getCurrentProtection() == new.getMaximalProtection()
+     *          | new.getDamage() == damage && new.getCapacity() == capacity
+     *          | new.getNbAnchorPoints() == 0
+     *
+     * @throws  IllegalArgumentException
+     *          If the given damage is invalid.
+     *          |!isValidDamage(damage)
+     *
+     * @note    Unlike the public constructor, this constructor leaves the random generator of the current thread
+     *          untouched, so restoring monsters does not change the random numbers drawn after it.
+     */
+    Monster(String name, int maxHitPoints, int damage, SkinType type, int capacity)
+            throws IllegalArgumentException {
+        super(name, maxHitPoints, false);
+
+        if (!isValidDamage(damage))
+            throw new IllegalArgumentException("Damage cannot be negative, must be below the maximum damage and must be a multiple of 7.");
+
+        this.type = type;
+        this.maximalProtection = type.getMaxProtection();
+        setCurrentProtection(maximalProtection);
+
+        setDamage(damage);
+
+        registerCapacity(capacity);
     }
 
     /**********************************************************
@@ -131,8 +181,7 @@ public class Monster extends Entity {
      */
     @Override
     public void initializeAnchorPoints() {
-        Random random = new Random();
-        int amount = random.nextInt(101);
+        int amount = getRandom().nextInt(101);
 
         for (int i = 1; i <= amount; i++) {
             addAnchorPoint(new AnchorPoint("anchor_" + i));
@@ -160,7 +209,7 @@ public class Monster extends Entity {
         for (int i = 1; i <= maxItems; i++) {
             Equipment item = items.get(i-1);
             if (item != null) {
-                this.capacity += item.getWeight(); // zodat monster altijd item kan dragen
+                registerCapacity(getCapacity() + item.getWeight()); // zodat monster altijd item kan dragen
                 item.setOwner(this);
             }
         }
@@ -290,7 +339,7 @@ public class Monster extends Entity {
             throws IllegalArgumentException {
         if (!isValidCurrentProtection(currentProtection))
             throw new IllegalArgumentException("The current protection must be between 0 and " + maximalProtection);
-        this.currentProtection = currentProtection;
+        registerProtection(currentProtection);
     }
 
     /**
@@ -347,9 +396,7 @@ public class Monster extends Entity {
      *          | if impact < opponent.getProtection() then opponent.getHitPoints() == old opponent.getHitPoints()
      */
     public void hit(Entity opponent) {
-        Random random = new Random();
-
-        int impact = random.nextInt(101); // between 0 (inclusive) and bound value '101' (exclusive)
+        int impact = getRandom().nextInt(101); // between 0 (inclusive) and bound value '101' (exclusive)
 
 
         if (impact >= getHitPoints()) {
@@ -423,6 +470,9 @@ public class Monster extends Entity {
      *
      * @post    The monster may have looted up to its available capacity.
      *          | getNbItemsCarried() <= getNbAnchorPoints()
+     *
+     * @effect  The shiny items of the opponent, followed by the other items, are transferred as one batch.
+     *          | transfer(shinyLoot + nonShinyLoot, TransferPolicy.DESTROY_REJECTED_GEAR)
      */
     public void loot(Entity opponent) {
         List<Equipment> shinyLoot = new ArrayList<>();
@@ -442,32 +492,9 @@ public class Monster extends Entity {
         }
 
 
-        // Step 2: Try to loot shiny weapons/armors
-        for (Equipment item : shinyLoot) {
-            try {
-                item.setOwner(this); // stel eigenaar in en checkt ook of dit mag/kan
-            } catch (IllegalArgumentException e) {
-                // Destroy non-looted weapons and armors only
-                if ((item instanceof Weapon || item instanceof Armor)) {
-                    // Destroy non-looted weapons and armors only
-                    item.destroy();
-                }
-                // Backpacks and purses not looted remain on the ground, do nothing
-            }
-        }
-
-        // Step 3: Try to loot non-shiny weapons/armors or backpacks and purses
-        for (Equipment item : nonShinyLoot) {
-            try {
-                item.setOwner(this); // stel eigenaar in en checkt ook of dit mag/kan
-            } catch (IllegalArgumentException e) {
-                // Destroy non-looted weapons and armors only
-                if ((item instanceof Weapon || item instanceof Armor)) {
-                    // Destroy non-looted weapons and armors only
-                    item.destroy();
-                }
-                // Backpacks and purses not looted remain on the ground, do nothing
-            }
-        }
+        // Step 2: Loot shiny items first, then the others, and destroy the weapons and armors that do not fit
+        List<Equipment> loot = new ArrayList<>(shinyLoot);
+        loot.addAll(nonShinyLoot);
+        transfer(loot, TransferPolicy.DESTROY_REJECTED_GEAR);
     }
 }
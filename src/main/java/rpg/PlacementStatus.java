@@ -0,0 +1,51 @@
+package rpg;
+
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * An enumeration of the outcomes of trying to place an item with an entity or in a backpack.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+@Value
+public enum PlacementStatus {
+    /**
+     * Indicates that the item was placed.
+     */
+    PLACED,
+
+    /**
+     * Indicates that the item was already placed there, and nothing changed.
+     */
+    ALREADY_PLACED,
+
+    /**
+     * Indicates that the item is not effective or is destroyed, and cannot be placed anywhere.
+     */
+    INVALID_ITEM,
+
+    /**
+     * Indicates that the item would exceed the capacity.
+     */
+    TOO_HEAVY,
+
+    /**
+     * Indicates that no free anchor point accepts the item.
+     */
+    NO_FREE_ANCHOR_POINT,
+
+    /**
+     * Indicates that the item is refused for another reason, such as a limit on the number of items of its kind.
+     */
+    REFUSED;
+
+    /**
+     * Check whether this status means the item ended up where it was meant to go.
+     *
+     * @return  | result == (this == PLACED || this == ALREADY_PLACED)
+     */
+    public boolean isSuccess() {
+        return this == PLACED || this == ALREADY_PLACED;
+    }
+}
@@ -0,0 +1,75 @@
+package rpg;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Raw;
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * An enumeration of the ways in which an entity chooses the backpack to store an item in, among the backpacks
+ * it carries, including the backpacks nested inside them.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+@Value
+public enum PlacementStrategy {
+    /**
+     * Every item is stored in the first backpack that has room for it, in the order of the anchor points,
+     * with every backpack followed by the backpacks nested inside it.
+     */
+    FIRST_FIT(false, false),
+
+    /**
+     * Every item is stored in the backpack with the least room left that still has room for it.
+     */
+    BEST_FIT(true, false),
+
+    /**
+     * The items with the highest value per unit of weight are stored first, each of them in the backpack with
+     * the least room left that still has room for it.
+     */
+    VALUE_DENSITY(true, true);
+
+    /**
+     * Initialize a new placement strategy.
+     *
+     * @param   choosingTightestFit
+     *          Whether items are stored in the backpack with the least room left for them.
+     *
+     * @param   orderingByValueDensity
+     *          Whether items are stored in decreasing order of their value per unit of weight.
+     *
+     * @post    | new.isChoosingTightestFit() == choosingTightestFit
+     *          | new.isOrderingByValueDensity() == orderingByValueDensity
+     */
+    @Raw
+    PlacementStrategy(boolean choosingTightestFit, boolean orderingByValueDensity) {
+        this.choosingTightestFit = choosingTightestFit;
+        this.orderingByValueDensity = orderingByValueDensity;
+    }
+
+    /**
+     * Check whether items are stored in the backpack with the least room left for them, rather than in the
+     * first backpack with room for them.
+     */
+    @Basic @Immutable
+    public boolean isChoosingTightestFit() {
+        return choosingTightestFit;
+    }
+
+    /**
+     * Check whether items are stored in decreasing order of their value per unit of weight, rather than in
+     * the order in which they are offered.
+     */
+    @Basic @Immutable
+    public boolean isOrderingByValueDensity() {
+        return orderingByValueDensity;
+    }
+
+    /**
+     * Variables registering how backpacks and items are chosen.
+     */
+    private final boolean choosingTightestFit;
+    private final boolean orderingByValueDensity;
+}
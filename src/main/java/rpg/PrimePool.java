@@ -0,0 +1,272 @@
+package rpg;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of pools of prime numbers, from which each prime number can be taken at most once, until it is
+ * returned to the pool.
+ *
+ * The pool sieves the natural numbers segment by segment (segmented sieve of Eratosthenes) and
+ * keeps all primes found so far that have not yet been handed out in a free list. Taking a prime
+ * from the pool picks a random entry of that free list and swaps the last entry into its place,
+ * which takes constant time. Only when the free list runs empty, the next segment is sieved.
+ *
+ * The pool picks its entries with a generator of its own, rather than with the generator of the current thread,
+ * so that taking primes does not shift the random numbers drawn by a battle with a fixed seed, however many primes
+ * other threads or earlier battles took.
+ *
+ * @invar   The pool never sieves beyond its maximum.
+ *          | getSievedLimit() <= getMaximum()
+ *
+ * @invar   The number of free primes is never negative.
+ *          | getNbFreePrimes() >= 0
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class PrimePool {
+
+    /**********************************************************
+     * Constructors
+     **********************************************************/
+
+    /**
+     * Initialize a new pool of prime numbers below the given maximum.
+     *
+     * @param   segmentSize
+     *          The amount of numbers that is sieved at once when the pool needs more primes.
+     *
+     * @param   maximum
+     *          The upper bound (exclusive) for the primes in this pool.
+     *
+     * @post    The segment size is set to the given segment size.
+     *          | new.getSegmentSize() == segmentSize
+     *
+     * @post    The maximum is set to the given maximum.
+     *          | new.getMaximum() == maximum
+     *
+     * @post    Nothing has been sieved yet.
+     *          | new.getSievedLimit() == 0 && new.getNbFreePrimes() == 0
+     *
+     * @throws  IllegalArgumentException
+     *          The given segment size is not strictly positive, or the given maximum is negative.
+     *          | segmentSize <= 0 || maximum < 0
+     */
+    public PrimePool(int segmentSize, int maximum)
+            throws IllegalArgumentException {
+        if (segmentSize <= 0)
+            throw new IllegalArgumentException("The segment size must be strictly positive.");
+        if (maximum < 0)
+            throw new IllegalArgumentException("The maximum cannot be negative.");
+
+        this.segmentSize = segmentSize;
+        this.maximum = maximum;
+        this.basePrimes = sieve((int) Math.sqrt(maximum) + 1);
+    }
+
+    /**********************************************************
+     * Range
+     **********************************************************/
+
+    /**
+     * Variable referencing the amount of numbers that is sieved at once.
+     */
+    private final int segmentSize;
+
+    /**
+     * Variable referencing the upper bound (exclusive) for the primes in this pool.
+     */
+    private final int maximum;
+
+    /**
+     * Variable referencing the upper bound (exclusive) of the numbers sieved so far.
+     */
+    private int sievedLimit = 0;
+
+    /**
+     * Return the amount of numbers that is sieved at once.
+     */
+    @Basic @Immutable
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Return the upper bound (exclusive) for the primes in this pool.
+     */
+    @Basic @Immutable
+    public int getMaximum() {
+        return maximum;
+    }
+
+    /**
+     * Return the upper bound (exclusive) of the numbers sieved so far.
+     */
+    @Basic
+    public synchronized int getSievedLimit() {
+        return sievedLimit;
+    }
+
+    /**********************************************************
+     * Primes
+     **********************************************************/
+
+    /**
+     * Variable referencing all primes up to the square root of the maximum,
+     * used to cross out the composite numbers of each segment.
+     */
+    private final int[] basePrimes;
+
+    /**
+     * Variable referencing the free list: the first nbFreePrimes entries are the primes
+     * found so far that have not yet been handed out.
+     */
+    private int[] freePrimes = new int[0];
+
+    /**
+     * Variable registering the number of primes in the free list.
+     */
+    private int nbFreePrimes = 0;
+
+    /**
+     * Variable referencing the generator picking the free primes to hand out, which is only used while holding the
+     * lock of this pool.
+     */
+    private final RandomGenerator random = new SplittableRandom();
+
+    /**
+     * Return the number of primes that were already found, but not yet handed out.
+     */
+    @Basic
+    public synchronized int getNbFreePrimes() {
+        return nbFreePrimes;
+    }
+
+    /**
+     * Check whether all primes below the maximum have been handed out.
+     *
+     * @return  True if and only if no free primes are left and everything below the maximum has been sieved.
+     *          | result == (getNbFreePrimes() == 0 && getSievedLimit() >= getMaximum())
+     */
+    public synchronized boolean isExhausted() {
+        return nbFreePrimes == 0 && sievedLimit >= maximum;
+    }
+
+    /**
+     * Take a random prime from this pool. The returned prime is not handed out again, unless it is released.
+     *
+     * @return  A prime number below the maximum that is not handed out by this pool at the moment.
+     *          | result < getMaximum()
+     *
+     * @effect  If no free primes are left, the next segments are sieved until new primes are found.
+     *          | while (getNbFreePrimes() == 0 && !isExhausted()) extend()
+     *
+     * @throws  IllegalStateException
+     *          All primes below the maximum have already been handed out.
+     *          | isExhausted()
+     */
+    public synchronized long take() throws IllegalStateException {
+        while (nbFreePrimes == 0) {
+            if (sievedLimit >= maximum)
+                throw new IllegalStateException("All prime numbers below " + maximum + " have been handed out.");
+            extend();
+        }
+
+        // Pick a random free prime and fill its place with the last free prime
+        int index = random.nextInt(nbFreePrimes);
+        int prime = freePrimes[index];
+        freePrimes[index] = freePrimes[--nbFreePrimes];
+        return prime;
+    }
+
+    /**
+     * Return the given prime to this pool, such that it can be handed out again.
+     *
+     * @param   prime
+     *          The prime to return.
+     *
+     * @pre     The given prime was taken from this pool, and was not returned since.
+     *
+     * @post    The given prime is free again.
+     *          | new.getNbFreePrimes() == getNbFreePrimes() + 1
+     *
+     * @throws  IllegalArgumentException
+     *          The given number is not below the limit this pool has sieved.
+     *          | prime < 2 || prime >= getSievedLimit()
+     */
+    public synchronized void release(long prime) throws IllegalArgumentException {
+        if (prime < 2 || prime >= sievedLimit)
+            throw new IllegalArgumentException("The number " + prime + " was not taken from this pool.");
+        if (nbFreePrimes == freePrimes.length)
+            freePrimes = Arrays.copyOf(freePrimes, Math.max(16, 2 * freePrimes.length));
+        freePrimes[nbFreePrimes++] = (int) prime;
+    }
+
+    /**
+     * Sieve the next segment of numbers and add the primes found to the free list.
+     *
+     * @post    The sieved limit is raised by the segment size, but not beyond the maximum.
+     *          | new.getSievedLimit() == Math.min(old.getSievedLimit() + getSegmentSize(), getMaximum())
+     */
+    @Model
+    private void extend() {
+        int low = sievedLimit;
+        int high = (int) Math.min((long) low + segmentSize, maximum);
+        boolean[] composite = new boolean[high - low];
+
+        // Cross out all multiples of the base primes within [low, high)
+        for (int prime : basePrimes) {
+            long square = (long) prime * prime;
+            if (square >= high)
+                break;
+            long first = Math.max(square, ((low + prime - 1L) / prime) * prime);
+            for (long multiple = first; multiple < high; multiple += prime) {
+                composite[(int) (multiple - low)] = true;
+            }
+        }
+
+        for (int number = Math.max(low, 2); number < high; number++) {
+            if (!composite[number - low]) {
+                if (nbFreePrimes == freePrimes.length)
+                    freePrimes = Arrays.copyOf(freePrimes, Math.max(16, 2 * freePrimes.length));
+                freePrimes[nbFreePrimes++] = number;
+            }
+        }
+
+        sievedLimit = high;
+    }
+
+    /**
+     * Return all primes below the given limit, using the sieve of Eratosthenes.
+     *
+     * @param   limit
+     *          The upper bound (exclusive) for the primes.
+     *
+     * @return  An ascending array of all primes below the given limit.
+     */
+    @Model
+    private static int[] sieve(int limit) {
+        boolean[] composite = new boolean[Math.max(limit, 2)];
+        int count = 0;
+        for (int number = 2; number < limit; number++) {
+            if (!composite[number]) {
+                count++;
+                for (long multiple = (long) number * number; multiple < limit; multiple += number) {
+                    composite[(int) multiple] = true;
+                }
+            }
+        }
+
+        int[] primes = new int[count];
+        int index = 0;
+        for (int number = 2; number < limit; number++) {
+            if (!composite[number])
+                primes[index++] = number;
+        }
+        return primes;
+    }
+}
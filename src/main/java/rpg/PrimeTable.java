@@ -0,0 +1,212 @@
+package rpg;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class offering shared lookup tables for prime numbers.
+ *
+ * The tables record, for every number below their limit, whether that number is prime and
+ * which prime is the closest one below it. Both questions are thus answered by a single array
+ * read. The tables are computed with a sieve of Eratosthenes the first time a number beyond
+ * their limit is asked for, and then grow to the next power of two, up to a fixed maximum.
+ * Numbers beyond that maximum are handled by trial division.
+ *
+ * The tables are shared by all threads: they are replaced as a whole when they grow,
+ * and are never modified after they have been published.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public final class PrimeTable {
+
+    /**
+     * This class only offers static methods and cannot be instantiated.
+     */
+    private PrimeTable() {
+    }
+
+    /**********************************************************
+     * Tables
+     **********************************************************/
+
+    /**
+     * Variable referencing the initial limit of the tables.
+     */
+    private static final int INITIAL_LIMIT = 1 << 10;
+
+    /**
+     * Variable referencing the maximal limit of the tables.
+     *
+     * @note    With this limit, the tables take about 4.5 megabytes, which covers all
+     *          realistic amounts of hit points.
+     */
+    private static final int MAXIMAL_LIMIT = 1 << 20;
+
+    /**
+     * A class of immutable snapshots of the tables below a given limit.
+     */
+    private static final class Tables {
+
+        /**
+         * Variable referencing the limit (exclusive) of the numbers in these tables.
+         */
+        final int limit;
+
+        /**
+         * Variable referencing a bit set in which the bit at position n is set if and only if n is prime.
+         */
+        final long[] primeBits;
+
+        /**
+         * Variable referencing an array in which position n holds the largest prime below n,
+         * or 2 if there is no such prime.
+         */
+        final int[] closestLowerPrime;
+
+        /**
+         * Compute the tables for all numbers below the given limit.
+         *
+         * @param   limit
+         *          The limit (exclusive) of the numbers in the new tables.
+         */
+        Tables(int limit) {
+            this.limit = limit;
+            this.primeBits = new long[(limit + 63) >>> 6];
+            this.closestLowerPrime = new int[limit];
+
+            // Sieve of Eratosthenes, marking the composite numbers
+            boolean[] composite = new boolean[limit];
+            for (int number = 2; (long) number * number < limit; number++) {
+                if (!composite[number]) {
+                    for (int multiple = number * number; multiple < limit; multiple += number) {
+                        composite[multiple] = true;
+                    }
+                }
+            }
+
+            int lastPrime = 2;
+            for (int number = 0; number < limit; number++) {
+                closestLowerPrime[number] = lastPrime;
+                if (number >= 2 && !composite[number]) {
+                    primeBits[number >>> 6] |= 1L << number;
+                    lastPrime = number;
+                }
+            }
+        }
+
+        /**
+         * Check whether the given number, which must be below the limit, is prime.
+         */
+        boolean isPrime(int number) {
+            return (primeBits[number >>> 6] & (1L << number)) != 0;
+        }
+    }
+
+    /**
+     * Variable referencing the current snapshot of the tables.
+     */
+    private static volatile Tables tables = new Tables(INITIAL_LIMIT);
+
+    /**
+     * Return tables covering the given number, growing them if needed.
+     *
+     * @param   number
+     *          A non-negative number below the maximal limit.
+     *
+     * @return  Tables of which the limit exceeds the given number.
+     */
+    @Model
+    private static Tables tablesCovering(int number) {
+        Tables current = tables;
+        if (number < current.limit)
+            return current;
+
+        synchronized (PrimeTable.class) {
+            current = tables;
+            if (number >= current.limit) {
+                // Grow to the next power of two that covers the number
+                current = new Tables(Math.min(Integer.highestOneBit(number) << 1, MAXIMAL_LIMIT));
+                tables = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Return the limit (exclusive) of the numbers currently covered by the tables.
+     */
+    public static int getLimit() {
+        return tables.limit;
+    }
+
+    /**********************************************************
+     * Primes
+     **********************************************************/
+
+    /**
+     * Check whether the given number is prime.
+     *
+     * @param   number
+     *          The number to check.
+     *
+     * @return  True if and only if the given number is prime.
+     *          | result == (number >= 2 && for no i in 2..number-1: number % i == 0)
+     */
+    public static boolean isPrime(int number) {
+        if (number < 2)
+            return false;
+        if (number < MAXIMAL_LIMIT)
+            return tablesCovering(number).isPrime(number);
+        return isPrimeByTrialDivision(number);
+    }
+
+    /**
+     * Return the largest prime below the given number, or 2 if there is no such prime.
+     *
+     * @param   number
+     *          The number to start from.
+     *
+     * @return  The largest prime strictly smaller than the given number, or 2 if no prime is smaller.
+     *          | if (number <= 3) then result == 2
+     *          | else result == max { p | p < number && isPrime(p) }
+     */
+    public static int getClosestLowerPrime(int number) {
+        if (number <= 2)
+            return 2;
+
+        // Beyond the tables, walk down until a prime is found or the tables are reached
+        int candidate = number - 1;
+        while (candidate >= MAXIMAL_LIMIT) {
+            if (isPrimeByTrialDivision(candidate))
+                return candidate;
+            candidate--;
+        }
+        Tables current = tablesCovering(candidate);
+        if (current.isPrime(candidate))
+            return candidate;
+        return current.closestLowerPrime[candidate];
+    }
+
+    /**
+     * Check whether the given number is prime, without using the tables.
+     *
+     * @param   number
+     *          The number to check.
+     *
+     * @return  True if and only if the given number is prime.
+     */
+    @Model
+    private static boolean isPrimeByTrialDivision(int number) {
+        if (number < 2)
+            return false;
+        if (number % 2 == 0)
+            return number == 2;
+
+        // Only odd divisors up to the square root have to be checked
+        for (int divisor = 3; (long) divisor * divisor <= number; divisor += 2) {
+            if (number % divisor == 0)
+                return false;
+        }
+        return true;
+    }
+}
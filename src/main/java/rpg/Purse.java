@@ -1,3 +1,5 @@
+package rpg;
+
 import be.kuleuven.cs.som.annotate.*;
 
 /**
@@ -33,7 +35,21 @@ public class Purse extends StorageItem {
      * @note    The owner of the purse is initialized to null.
      */
     public Purse(int weight, int capacity) {
-        super(weight, 0, capacity);
+        this(weight, capacity, -1);
+    }
+
+    /**
+     * Initialize a new purse with the given weight and capacity, and with the given identification number
+     * if it is still free.
+     *
+     * @param   identification
+     *          The identification number to register, or a negative number to generate one.
+     *
+     * @effect  The purse is initialized as a storage item with the given identification number.
+     *          | super(weight, 0, capacity, identification)
+     */
+    Purse(int weight, int capacity, long identification) {
+        super(weight, 0, capacity, identification);
     }
 
     /**********************************************************
@@ -71,22 +87,53 @@ public class Purse extends StorageItem {
      * 			|			 	then new.getContents() == 0
      * 			|				else new.getContents() == 0 and new.getCondition = Condtion.DESTROYED
      *
+     * @effect  If this purse is stored in a backpack, the total weight of that backpack is adjusted
+     *          by the weight of the change in contents.
+     *          | if (getBackpack() != null)
+     *          |     then getBackpack().adjustTotalWeight(50 * (new.getContents() - getContents()))
+     *
+     * @effect  The weight carried by every entity this purse is attached to is adjusted by the same amount.
+     *          | adjustCarriedWeightOfHolders(50 * (new.getContents() - getContents()))
+     *
+     * @effect  The change in value is passed on to the backpack containing this purse.
+     *          | currentValueChanged(getContents())
+     *
+     * @effect  If the contents changed without destroying this purse, the new contents is reported.
+     *          | if (new.getContents() != getContents() && !new.isDestroyed())
+     *          |     then WorldEvents.contentsChanged(this, new.getContents())
+     *
      * @note	The setters should always ensure that the class invariants are not violated.
      * 			Their job is to only set the value if it is allowed.
      *
-     * @note 	The setter is made private. Instead, we want the user to use the other methods to change
-     * 			the contents of this purse (add/extract amount).
+     * @note 	The setter is only visible within the package, to replay recorded contents. Instead, we want the user
+     * 			to use the other methods to change the contents of this purse (add/extract amount).
      *
      */
     @Model
-    private void setContents(int amount) {
+    void setContents(int amount) {
+        int oldContents = this.contents;
+
         if(amount >= 0 && amount <= getCapacity())
             this.contents = amount;
         else {
             if(amount < 0)
                 this.contents = 0;
-            else // amount > capacity
+            else { // amount > capacity
+                // Destroying the purse empties it, which already passes on the change in contents
                 this.destroy();
+                return;
+            }
+        }
+
+        // The contents weigh on the backpack containing this purse, and on the entity carrying it,
+        // and add to the value of the backpack
+        if (this.contents != oldContents) {
+            int delta = 50 * (this.contents - oldContents);
+            if (getBackpack() != null)
+                getBackpack().adjustTotalWeight(delta);
+            adjustCarriedWeightOfHolders(delta);
+            currentValueChanged(oldContents);
+            WorldEvents.contentsChanged(this, this.contents);
         }
     }
 
@@ -246,16 +293,22 @@ public class Purse extends StorageItem {
     /**
      * Set this purse to destroyed and empty its contents.
      *
-     * @effect  The contents of the purse is set to zero.
+     * @effect  The contents of the purse is set to zero, which is not reported on its own.
      *          | empty()
      *
-     * @effect  The condition is set to DESTROYED
-     *          | setCondition(Condition.DESTROYED)
+     * @effect  This item is destroyed as a piece of equipment.
+     *          | super.destroy()
      */
     @Override @Model
     void destroy() {
-        empty();
-        setCondition(Condition.DESTROYED);
+        // Replaying the destruction empties the purse again
+        WorldEvents.suspend();
+        try {
+            empty();
+        } finally {
+            WorldEvents.resume();
+        }
+        super.destroy();
     }
 
 }
@@ -0,0 +1,100 @@
+package rpg;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * A class providing the random generators used throughout the game.
+ *
+ * By default, every thread draws its random numbers from its own ThreadLocalRandom, which is
+ * neither allocated nor seeded per call and never contended between threads. A thread can
+ * instead be given a generator with a fixed seed, such that everything it simulates from then
+ * on can be replayed exactly by setting the same seed again.
+ *
+ * Entities and battles take the generator of the thread creating them, and keep using it for
+ * their whole lifetime. A generator with a fixed seed is not thread-safe, so entities and battles
+ * created after setting a seed should only be used by the thread that created them.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public final class RandomSource {
+
+    /**
+     * Variable referencing the generator with a fixed seed of each thread, if any.
+     */
+    private static final ThreadLocal<RandomGenerator> seededGenerator = new ThreadLocal<>();
+
+    /**
+     * Prevent the instantiation of this class, which only has static methods.
+     */
+    private RandomSource() {
+    }
+
+    /**
+     * Return the random generator of the current thread.
+     *
+     * @return  The generator with a fixed seed of the current thread if it was given one,
+     *          or the ThreadLocalRandom of the current thread otherwise.
+     *          | if (isSeeded()) then result == the generator set by the last call to setSeed
+     *          | else result == ThreadLocalRandom.current()
+     */
+    public static RandomGenerator current() {
+        RandomGenerator generator = seededGenerator.get();
+        if (generator != null)
+            return generator;
+        return ThreadLocalRandom.current();
+    }
+
+    /**
+     * Check whether the current thread was given a generator with a fixed seed.
+     */
+    public static boolean isSeeded() {
+        return seededGenerator.get() != null;
+    }
+
+    /**
+     * Give the current thread a new generator with the given seed.
+     *
+     * @param   seed
+     *          The seed of the new generator.
+     *
+     * @post    The current thread draws its random numbers from a new SplittableRandom with the given seed.
+     *          | isSeeded() && current() == new SplittableRandom(seed)
+     *
+     * @note    Setting the same seed again restarts the same sequence of random numbers.
+     */
+    public static void setSeed(long seed) {
+        seededGenerator.set(new SplittableRandom(seed));
+    }
+
+    /**
+     * Give the current thread the given generator in place of its generator with a fixed seed, if any.
+     *
+     * @param   generator
+     *          The new generator of the current thread, or null to let it use its ThreadLocalRandom.
+     *
+     * @return  The generator with a fixed seed the current thread had before, or null if it had none.
+     *
+     * @note    This allows a generator to be set temporarily, and the previous one to be restored afterwards.
+     */
+    static RandomGenerator replaceSeeded(RandomGenerator generator) {
+        RandomGenerator previous = seededGenerator.get();
+        if (generator == null)
+            seededGenerator.remove();
+        else
+            seededGenerator.set(generator);
+        return previous;
+    }
+
+    /**
+     * Let the current thread draw its random numbers from its ThreadLocalRandom again.
+     *
+     * @post    The current thread was not given a generator with a fixed seed.
+     *          | !isSeeded() && current() == ThreadLocalRandom.current()
+     */
+    public static void clearSeed() {
+        seededGenerator.remove();
+    }
+}
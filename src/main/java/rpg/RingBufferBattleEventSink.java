@@ -0,0 +1,264 @@
+package rpg;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+import java.util.Arrays;
+
+/**
+ * A sink keeping the most recent turns of battles in memory.
+ *
+ * The turns are kept in fixed arrays that are overwritten in a circular way once they are full,
+ * so recording a turn never allocates memory, however many battles are fought. Only the last
+ * turns, up to the capacity of the sink, can be inspected.
+ *
+ * @invar   The number of turns recorded never exceeds the capacity.
+ *          | 0 <= getNbTurnsRecorded() <= getCapacity()
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class RingBufferBattleEventSink implements BattleEventSink {
+
+    /**********************************************************
+     * Constructor
+     **********************************************************/
+
+    /**
+     * Initialize a new, empty sink keeping the given number of turns.
+     *
+     * @param   capacity
+     *          The number of most recent turns to keep.
+     *
+     * @post    The capacity of the new sink is the given capacity.
+     *          | new.getCapacity() == capacity
+     *
+     * @post    The new sink has not recorded any turn.
+     *          | new.getNbTurnsRecorded() == 0
+     *
+     * @throws  IllegalArgumentException
+     *          The given capacity is not strictly positive.
+     *          | capacity <= 0
+     */
+    public RingBufferBattleEventSink(int capacity) throws IllegalArgumentException {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("The capacity must be strictly positive.");
+
+        this.turns = new int[capacity];
+        this.attackers = new Entity[capacity];
+        this.defenders = new Entity[capacity];
+        this.hitPointsBefore = new int[capacity];
+        this.hitPointsAfter = new int[capacity];
+    }
+
+    /**********************************************************
+     * Turns
+     **********************************************************/
+
+    /**
+     * Variables referencing the recorded turns, one position per turn.
+     */
+    private final int[] turns;
+    private final Entity[] attackers;
+    private final Entity[] defenders;
+    private final int[] hitPointsBefore;
+    private final int[] hitPointsAfter;
+
+    /**
+     * Variable referencing the total number of turns received since this sink was created or cleared.
+     */
+    private long nbTurnsReceived = 0;
+
+    /**
+     * Return the number of turns this sink keeps.
+     */
+    @Basic @Immutable
+    public int getCapacity() {
+        return turns.length;
+    }
+
+    /**
+     * Return the total number of turns this sink received since it was created or cleared,
+     * including the ones that are no longer kept.
+     */
+    @Basic
+    public long getNbTurnsReceived() {
+        return nbTurnsReceived;
+    }
+
+    /**
+     * Return the number of turns this sink currently keeps.
+     *
+     * @return  The number of turns received, up to the capacity.
+     *          | result == min(getNbTurnsReceived(), getCapacity())
+     */
+    public int getNbTurnsRecorded() {
+        return (int) Math.min(nbTurnsReceived, getCapacity());
+    }
+
+    // AUXILIARY METHOD: returns the position in the arrays of the turn at the given index
+    private int positionOf(int index) throws IndexOutOfBoundsException {
+        if (index < 1 || index > getNbTurnsRecorded())
+            throw new IndexOutOfBoundsException("No turn recorded at index " + index + ".");
+        long oldest = nbTurnsReceived - getNbTurnsRecorded();
+        return (int) ((oldest + index - 1) % getCapacity());
+    }
+
+    /**
+     * Return the number within its battle of the turn at the given index.
+     *
+     * @param   index
+     *          The index of the turn, from 1 for the oldest turn kept to getNbTurnsRecorded() for the newest.
+     *
+     * @throws  IndexOutOfBoundsException
+     *          No turn is kept at the given index.
+     *          | index < 1 || index > getNbTurnsRecorded()
+     */
+    public int getTurnAt(int index) throws IndexOutOfBoundsException {
+        return turns[positionOf(index)];
+    }
+
+    /**
+     * Return the attacker of the turn at the given index.
+     *
+     * @param   index
+     *          The index of the turn, from 1 for the oldest turn kept to getNbTurnsRecorded() for the newest.
+     *
+     * @throws  IndexOutOfBoundsException
+     *          No turn is kept at the given index.
+     *          | index < 1 || index > getNbTurnsRecorded()
+     */
+    public Entity getAttackerAt(int index) throws IndexOutOfBoundsException {
+        return attackers[positionOf(index)];
+    }
+
+    /**
+     * Return the defender of the turn at the given index.
+     *
+     * @param   index
+     *          The index of the turn, from 1 for the oldest turn kept to getNbTurnsRecorded() for the newest.
+     *
+     * @throws  IndexOutOfBoundsException
+     *          No turn is kept at the given index.
+     *          | index < 1 || index > getNbTurnsRecorded()
+     */
+    public Entity getDefenderAt(int index) throws IndexOutOfBoundsException {
+        return defenders[positionOf(index)];
+    }
+
+    /**
+     * Return the hit points of the defender before the attack of the turn at the given index.
+     *
+     * @param   index
+     *          The index of the turn, from 1 for the oldest turn kept to getNbTurnsRecorded() for the newest.
+     *
+     * @throws  IndexOutOfBoundsException
+     *          No turn is kept at the given index.
+     *          | index < 1 || index > getNbTurnsRecorded()
+     */
+    public int getHitPointsBeforeAt(int index) throws IndexOutOfBoundsException {
+        return hitPointsBefore[positionOf(index)];
+    }
+
+    /**
+     * Return the hit points of the defender after the attack of the turn at the given index.
+     *
+     * @param   index
+     *          The index of the turn, from 1 for the oldest turn kept to getNbTurnsRecorded() for the newest.
+     *
+     * @throws  IndexOutOfBoundsException
+     *          No turn is kept at the given index.
+     *          | index < 1 || index > getNbTurnsRecorded()
+     */
+    public int getHitPointsAfterAt(int index) throws IndexOutOfBoundsException {
+        return hitPointsAfter[positionOf(index)];
+    }
+
+    /**
+     * Forget all turns and battles received so far.
+     *
+     * @post    This sink has not recorded any turn.
+     *          | new.getNbTurnsRecorded() == 0 && new.getNbTurnsReceived() == 0
+     *
+     * @post    This sink has not recorded any battle.
+     *          | new.getNbBattlesEnded() == 0 && new.getLastWinner() == null
+     */
+    public void clear() {
+        Arrays.fill(attackers, null);
+        Arrays.fill(defenders, null);
+        nbTurnsReceived = 0;
+        nbBattlesEnded = 0;
+        lastWinner = null;
+    }
+
+    /**********************************************************
+     * Battles
+     **********************************************************/
+
+    /**
+     * Variable referencing the number of battles that ended since this sink was created or cleared.
+     */
+    private long nbBattlesEnded = 0;
+
+    /**
+     * Variable referencing the winner of the last battle that ended, if any.
+     */
+    private Entity lastWinner = null;
+
+    /**
+     * Return the number of battles that ended since this sink was created or cleared.
+     */
+    @Basic
+    public long getNbBattlesEnded() {
+        return nbBattlesEnded;
+    }
+
+    /**
+     * Return the winner of the last battle that ended, or null if no battle ended yet.
+     */
+    @Basic
+    public Entity getLastWinner() {
+        return lastWinner;
+    }
+
+    /**********************************************************
+     * Events
+     **********************************************************/
+
+    /**
+     * Record the given turn, overwriting the oldest turn kept if this sink is full.
+     *
+     * @post    The given turn is the newest turn kept.
+     *          | new.getTurnAt(new.getNbTurnsRecorded()) == turn
+     *          |   && new.getAttackerAt(new.getNbTurnsRecorded()) == attacker
+     *          |   && new.getDefenderAt(new.getNbTurnsRecorded()) == defender
+     *
+     * @post    The number of turns received is incremented by 1.
+     *          | new.getNbTurnsReceived() == getNbTurnsReceived() + 1
+     */
+    @Override
+    public void turnTaken(int turn, Entity attacker, Entity defender, int hitPointsBefore, int hitPointsAfter) {
+        int position = (int) (nbTurnsReceived % getCapacity());
+        this.turns[position] = turn;
+        this.attackers[position] = attacker;
+        this.defenders[position] = defender;
+        this.hitPointsBefore[position] = hitPointsBefore;
+        this.hitPointsAfter[position] = hitPointsAfter;
+        nbTurnsReceived++;
+    }
+
+    /**
+     * Record the end of a battle won by the given winner.
+     *
+     * @post    The given winner is the last winner.
+     *          | new.getLastWinner() == winner
+     *
+     * @post    The number of battles ended is incremented by 1.
+     *          | new.getNbBattlesEnded() == getNbBattlesEnded() + 1
+     */
+    @Override
+    public void battleEnded(Entity winner, int nbTurns) {
+        lastWinner = winner;
+        nbBattlesEnded++;
+    }
+}
@@ -0,0 +1,81 @@
+package rpg;
+
+/**
+ * A class collecting the constants of the binary snapshot format shared by snapshot writers and readers.
+ *
+ * A snapshot starts with the magic number and the version of the format, followed by a sequence of records and
+ * an end marker. Every record starts with a tag. Integers are written as variable-length quantities of seven bits
+ * per byte, least significant group first, where signed integers are first zigzag-encoded so that small negative
+ * numbers stay short as well. Strings are written as their length in UTF-8 bytes, plus one, followed by those
+ * bytes, where a length of zero stands for a string that is not effective.
+ *
+ * Every entity and item written in full receives the next index of its kind, starting from zero. Later
+ * occurrences of the same entity or item are written as a reference to that index, so items attached to several
+ * anchor points, and owners, are restored as the same objects.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+final class SnapshotFormat {
+
+    /**
+     * The magic number every snapshot starts with, the characters "RPGS".
+     */
+    static final int MAGIC = 0x52504753;
+
+    /**
+     * The version of the format written by snapshot writers, and the latest version snapshot readers can read.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The tags of the records.
+     */
+    static final byte END = 0;
+    static final byte NONE = 1;
+    static final byte ITEM_REFERENCE = 2;
+    static final byte ENTITY_REFERENCE = 3;
+    static final byte WEAPON = 4;
+    static final byte ARMOR = 5;
+    static final byte PURSE = 6;
+    static final byte BACKPACK = 7;
+    static final byte HERO = 8;
+    static final byte MONSTER = 9;
+
+    /**
+     * The flags of items.
+     */
+    static final int DESTROYED = 1;
+    static final int SHINY = 2;
+
+    /**
+     * The flags of entities.
+     */
+    static final int FIGHTING = 1;
+    static final int PLANNING_LOOT = 2;
+
+    /**
+     * The size of the buffers through which snapshots are written and read.
+     */
+    static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Check whether the given tag starts the record of an entity.
+     */
+    static boolean isEntityTag(byte tag) {
+        return tag == HERO || tag == MONSTER || tag == ENTITY_REFERENCE;
+    }
+
+    /**
+     * Check whether the given tag starts the record of an item.
+     */
+    static boolean isItemTag(byte tag) {
+        return tag == WEAPON || tag == ARMOR || tag == PURSE || tag == BACKPACK || tag == ITEM_REFERENCE;
+    }
+
+    /**
+     * Snapshot formats cannot be instantiated.
+     */
+    private SnapshotFormat() {
+    }
+}
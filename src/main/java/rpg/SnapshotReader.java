@@ -0,0 +1,494 @@
+package rpg;
+
+import be.kuleuven.cs.som.annotate.Basic;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A class of readers restoring entities and items from a channel in the binary snapshot format.
+ *
+ * Entities and items are restored in the order in which they were written, as new objects in the same state:
+ * every entity has the anchor points it had, with the same items attached to them, and every backpack contains
+ * the same items. Entities and items that were written as a reference are restored as the object restored before.
+ *
+ * Every item keeps the identification number it had, unless another item of the same type already took it, such
+ * as when a snapshot is restored while the world it was taken from still exists. The random generators of the
+ * entities are not part of a snapshot: restored entities draw their random numbers from the generator of the
+ * current thread.
+ *
+ * @invar   The channel of this reader is effective.
+ *          | getChannel() != null
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class SnapshotReader implements Closeable {
+
+    /**********************************************************
+     * Constructor
+     **********************************************************/
+
+    /**
+     * Initialize a new reader reading a snapshot from the given channel.
+     *
+     * @param   channel
+     *          The channel to read the snapshot from.
+     *
+     * @post    | new.getChannel() == channel
+     *
+     * @throws  IllegalArgumentException
+     *          The given channel is not effective.
+     *          | channel == null
+     *
+     * @throws  IOException
+     *          The channel failed, or it does not start with the magic number and a version of the format this
+     *          reader can read.
+     */
+    public SnapshotReader(ReadableByteChannel channel) throws IllegalArgumentException, IOException {
+        if (channel == null)
+            throw new IllegalArgumentException("The channel cannot be null.");
+
+        this.channel = channel;
+        buffer.limit(0);
+        require(4);
+        if (buffer.getInt() != SnapshotFormat.MAGIC)
+            throw new IOException("The channel does not contain a snapshot.");
+        long version = readVarLong();
+        if (version < 1 || version > SnapshotFormat.VERSION)
+            throw new IOException("Unsupported snapshot version: " + version);
+    }
+
+    /**********************************************************
+     * Channel
+     **********************************************************/
+
+    /**
+     * Variable referencing the channel of this reader.
+     */
+    private final ReadableByteChannel channel;
+
+    /**
+     * Variable referencing the buffer holding the bytes read from the channel but not decoded yet.
+     */
+    private final ByteBuffer buffer = ByteBuffer.allocate(SnapshotFormat.BUFFER_SIZE);
+
+    /**
+     * Return the channel of this reader.
+     */
+    @Basic
+    public ReadableByteChannel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Close the channel of this reader.
+     *
+     * @throws  IOException
+     *          The channel failed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**********************************************************
+     * Records
+     **********************************************************/
+
+    /**
+     * Variables referencing the entities and items restored so far, by index.
+     */
+    private final Map<Integer, Entity> entities = new HashMap<>();
+    private final List<Equipment> items = new ArrayList<>();
+
+    /**
+     * Variable referencing the items of which the owner was not restored yet, by the index of that owner.
+     */
+    private final Map<Integer, List<Equipment>> itemsByPendingOwner = new HashMap<>();
+
+    /**
+     * Variables referencing the items of which the owner is restored once the current record is complete,
+     * and the index of that owner plus one, or zero if the item has no owner.
+     */
+    private final List<Equipment> ownedItems = new ArrayList<>();
+    private final List<Integer> owners = new ArrayList<>();
+
+    /**
+     * Variables referencing the purses of which the contents are restored once the current record is complete,
+     * and those contents.
+     */
+    private final List<Purse> purses = new ArrayList<>();
+    private final List<Integer> pursesContents = new ArrayList<>();
+
+    /**
+     * Check whether another entity or item follows.
+     *
+     * @throws  IOException
+     *          The channel failed, or the snapshot ends without an end marker, or it ends while an item refers to
+     *          an owner that it does not contain.
+     */
+    public boolean hasNext() throws IOException {
+        byte tag = peekTag();
+        if (tag == SnapshotFormat.END && !itemsByPendingOwner.isEmpty())
+            throw new IOException("The snapshot refers to an owner it does not contain.");
+        return tag != SnapshotFormat.END;
+    }
+
+    /**
+     * Check whether an entity follows.
+     *
+     * @throws  IOException
+     *          The channel failed, or the snapshot ends without an end marker.
+     */
+    public boolean hasNextEntity() throws IOException {
+        return SnapshotFormat.isEntityTag(peekTag());
+    }
+
+    /**
+     * Check whether an item follows.
+     *
+     * @throws  IOException
+     *          The channel failed, or the snapshot ends without an end marker.
+     */
+    public boolean hasNextItem() throws IOException {
+        return SnapshotFormat.isItemTag(peekTag());
+    }
+
+    /**
+     * Return the number of entities restored so far.
+     */
+    public int getNbEntities() {
+        return entities.size();
+    }
+
+    /**
+     * Return the number of items restored so far.
+     */
+    public int getNbItems() {
+        return items.size();
+    }
+
+    /**
+     * Restore the next entity, with its anchor points and the items attached to them.
+     *
+     * @return  The restored entity, or the entity restored before if the entity was written as a reference.
+     *
+     * @throws  IllegalStateException
+     *          No entity follows.
+     *          | !hasNextEntity()
+     *
+     * @throws  IOException
+     *          The channel failed, or the snapshot is malformed.
+     */
+    public Entity readEntity() throws IllegalStateException, IOException {
+        if (!hasNextEntity())
+            throw new IllegalStateException("The next record is not an entity.");
+
+        // Restoring an entity is not a change of the world
+        Entity entity;
+        WorldEvents.suspend();
+        try {
+            if (buffer.get() == SnapshotFormat.ENTITY_REFERENCE)
+                entity = getEntity(readIndex());
+            else {
+                buffer.position(buffer.position() - 1);
+                entity = readEntityRecord();
+            }
+            completeRecord();
+        } finally {
+            WorldEvents.resume();
+        }
+        return entity;
+    }
+
+    /**
+     * Restore the next item, with all items it contains.
+     *
+     * @return  The restored item, or the item restored before if the item was written as a reference.
+     *
+     * @throws  IllegalStateException
+     *          No item follows.
+     *          | !hasNextItem()
+     *
+     * @throws  IOException
+     *          The channel failed, or the snapshot is malformed.
+     */
+    public Equipment readItem() throws IllegalStateException, IOException {
+        if (!hasNextItem())
+            throw new IllegalStateException("The next record is not an item.");
+
+        Equipment item;
+        WorldEvents.suspend();
+        try {
+            item = readItemOrReference();
+            completeRecord();
+        } finally {
+            WorldEvents.resume();
+        }
+        return item;
+    }
+
+    // AUXILIARY METHOD: restores the entity of which the record follows
+    private Entity readEntityRecord() throws IOException {
+        byte tag = buffer.get();
+        int index = readIndex();
+        if (entities.containsKey(index))
+            throw new IOException("Entity " + index + " is restored twice.");
+        String name = readString();
+        require(1);
+        int flags = buffer.get();
+        int maxHitPoints = readInt();
+        int hitPoints = readInt();
+        int currentProtection = readInt();
+        int capacity = readInt();
+
+        Entity entity;
+        try {
+            if (tag == SnapshotFormat.HERO) {
+                int protection = readInt();
+                long strength = unzigzag(readVarLong());
+                PlacementStrategy strategy = readOrdinal(PlacementStrategy.values());
+                Hero hero = new Hero(name, maxHitPoints, strength / 100.0);
+                hero.setProtection(protection);
+                hero.setPlacementStrategy(strategy);
+                hero.setPlanningLoot((flags & SnapshotFormat.PLANNING_LOOT) != 0);
+                entity = hero;
+            }
+            else {
+                int damage = readInt();
+                SkinType type = readOrdinal(SkinType.values());
+                entity = new Monster(name, maxHitPoints, damage, type, capacity);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Entity " + index + " cannot be restored.", e);
+        }
+        entities.put(index, entity);
+        if ((flags & SnapshotFormat.FIGHTING) != 0)
+            entity.setFighting(true);
+        entity.setHitPoints(hitPoints);
+        entity.registerProtection(currentProtection);
+        entity.registerCapacity(capacity);
+
+        // Restore the anchor points it had, instead of the ones it was initialized with
+        entity.removeAllAnchorPoints();
+        long nbAnchorPoints = readVarLong();
+        for (long slot = 1; slot <= nbAnchorPoints; slot++) {
+            AnchorPoint anchorPoint = new AnchorPoint(readString());
+            entity.addAnchorPoint(anchorPoint);
+            anchorPoint.setItem(readItemOrReference());
+        }
+
+        if (entity instanceof Hero) {
+            Hero hero = (Hero) entity;
+            hero.equipLeftHand(readItemOrReference(Weapon.class));
+            hero.equipRightHand(readItemOrReference(Weapon.class));
+            hero.setArmor(readItemOrReference(Armor.class));
+        }
+
+        // Items that referred to this entity before it was restored, are owned by it now
+        List<Equipment> pendingItems = itemsByPendingOwner.remove(index);
+        if (pendingItems != null) {
+            for (Equipment item : pendingItems)
+                item.owner = entity;
+        }
+        return entity;
+    }
+
+    // AUXILIARY METHOD: restores the item of which the record follows, if it is of the given class
+    private <T extends Equipment> T readItemOrReference(Class<T> itemClass) throws IOException {
+        Equipment item = readItemOrReference();
+        if (item != null && !itemClass.isInstance(item))
+            throw new IOException("Item " + item.getIdentification() + " is not a " + itemClass.getSimpleName() + ".");
+        return itemClass.cast(item);
+    }
+
+    // AUXILIARY METHOD: restores the item of which the record follows, or returns the item restored before if it
+    // was written as a reference, or null if no item was written
+    private Equipment readItemOrReference() throws IOException {
+        require(1);
+        byte tag = buffer.get();
+        if (tag == SnapshotFormat.NONE)
+            return null;
+        if (tag == SnapshotFormat.ITEM_REFERENCE) {
+            int index = readIndex();
+            if (index >= items.size())
+                throw new IOException("Item " + index + " is referred to before it is restored.");
+            return items.get(index);
+        }
+
+        long identification = readVarLong();
+        int weight = readInt();
+        require(1);
+        int flags = buffer.get();
+        int owner = readIndex();
+
+        Equipment item;
+        try {
+            switch (tag) {
+                case SnapshotFormat.WEAPON:
+                    Weapon weapon = new Weapon(weight, 7, identification);
+                    weapon.setDamage(readInt());
+                    item = weapon;
+                    break;
+                case SnapshotFormat.ARMOR:
+                    int armorValue = readInt();
+                    ArmorType type = readOrdinal(ArmorType.values());
+                    Armor armor = new Armor(weight, armorValue, type, identification);
+                    armor.setCurrentProtection(readInt());
+                    item = armor;
+                    break;
+                case SnapshotFormat.PURSE:
+                    Purse purse = new Purse(weight, readInt(), identification);
+                    purses.add(purse);
+                    pursesContents.add(readInt());
+                    item = purse;
+                    break;
+                case SnapshotFormat.BACKPACK:
+                    int backpackValue = readInt();
+                    Backpack backpack = new Backpack(weight, backpackValue, readInt(), identification);
+                    items.add(backpack);
+                    long nbItems = readVarLong();
+                    for (long i = 0; i < nbItems; i++) {
+                        Equipment content = readItemOrReference();
+                        if (content == null)
+                            throw new IOException("Backpack " + identification + " contains no item.");
+                        content.setBackpack(backpack);
+                    }
+                    item = backpack;
+                    break;
+                default:
+                    throw new IOException("Unknown record: " + tag);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Item " + identification + " cannot be restored.", e);
+        }
+        if (tag != SnapshotFormat.BACKPACK)
+            items.add(item);
+
+        item.setShiny((flags & SnapshotFormat.SHINY) != 0);
+        if ((flags & SnapshotFormat.DESTROYED) != 0)
+            item.setCondition(Condition.DESTROYED);
+        ownedItems.add(item);
+        owners.add(owner);
+        return item;
+    }
+
+    // AUXILIARY METHOD: restores what was deferred until the current record is complete, that is the owners of
+    // its items, which storing them in backpacks changes, and the contents of its purses, which could otherwise
+    // keep items from being stored in the backpacks they were in
+    private void completeRecord() throws IOException {
+        for (int i = 0; i < ownedItems.size(); i++) {
+            Equipment item = ownedItems.get(i);
+            int owner = owners.get(i);
+            item.owner = owner == 0 ? null : entities.get(owner - 1);
+            if (owner != 0 && item.owner == null)
+                itemsByPendingOwner.computeIfAbsent(owner - 1, index -> new ArrayList<>()).add(item);
+        }
+        ownedItems.clear();
+        owners.clear();
+
+        for (int i = 0; i < purses.size(); i++)
+            purses.get(i).addToContents(pursesContents.get(i));
+        purses.clear();
+        pursesContents.clear();
+    }
+
+    // AUXILIARY METHOD: returns the entity restored with the given index
+    private Entity getEntity(int index) throws IOException {
+        Entity entity = entities.get(index);
+        if (entity == null)
+            throw new IOException("Entity " + index + " is referred to before it is restored.");
+        return entity;
+    }
+
+    /**********************************************************
+     * Decoding
+     **********************************************************/
+
+    // AUXILIARY METHOD: returns the tag of the next record, without consuming it
+    private byte peekTag() throws IOException {
+        require(1);
+        return buffer.get(buffer.position());
+    }
+
+    // AUXILIARY METHOD: makes sure the buffer holds at least the given number of bytes, reading from the channel
+    private void require(int nbBytes) throws IOException {
+        if (buffer.remaining() >= nbBytes)
+            return;
+        buffer.compact();
+        while (buffer.position() < nbBytes) {
+            if (channel.read(buffer) < 0) {
+                buffer.flip();
+                throw new EOFException("The snapshot ends unexpectedly.");
+            }
+        }
+        buffer.flip();
+    }
+
+    // AUXILIARY METHOD: reads a number written in groups of seven bits
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            require(1);
+            byte next = buffer.get();
+            value |= (long) (next & 0x7F) << shift;
+            if (next >= 0)
+                return value;
+        }
+        throw new IOException("Malformed number.");
+    }
+
+    // AUXILIARY METHOD: reads a zigzag-encoded number that fits in an int
+    private int readInt() throws IOException {
+        long value = readVarLong();
+        if ((value & ~0xFFFFFFFFL) != 0)
+            throw new IOException("Malformed number.");
+        return (int) unzigzag(value);
+    }
+
+    // AUXILIARY METHOD: reads a non-negative number that fits in an int
+    private int readIndex() throws IOException {
+        long value = readVarLong();
+        if (value > Integer.MAX_VALUE)
+            throw new IOException("Malformed index.");
+        return (int) value;
+    }
+
+    // AUXILIARY METHOD: returns the number of which the given number is the zigzag encoding
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // AUXILIARY METHOD: reads the ordinal of a constant of the given constants
+    private <E extends Enum<E>> E readOrdinal(E[] constants) throws IOException {
+        require(1);
+        int ordinal = buffer.get();
+        if (ordinal < 0 || ordinal >= constants.length)
+            throw new IOException("Malformed constant.");
+        return constants[ordinal];
+    }
+
+    // AUXILIARY METHOD: reads a string written as its length plus one and its UTF-8 bytes, or zero for no string
+    private String readString() throws IOException {
+        int length = readIndex() - 1;
+        if (length < 0)
+            return null;
+        byte[] bytes = new byte[length];
+        for (int offset = 0; offset < length; ) {
+            require(1);
+            int chunk = Math.min(buffer.remaining(), length - offset);
+            buffer.get(bytes, offset, chunk);
+            offset += chunk;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
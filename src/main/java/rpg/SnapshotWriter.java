@@ -0,0 +1,411 @@
+package rpg;
+
+import be.kuleuven.cs.som.annotate.Basic;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A class of writers streaming entities and items to a channel in the binary snapshot format.
+ *
+ * An entity is written with all of its anchor points and the items attached to them, and a backpack with all of
+ * the items it contains, so writing every hero and monster of a world writes the whole world. Every entity or item
+ * that was written before, or that is reached again through another anchor point or as an owner, is written as a
+ * reference, and is restored as the same object.
+ *
+ * Records are collected in a buffer and only reach the channel once the buffer is full, or the writer is flushed
+ * or closed.
+ *
+ * @invar   The channel of this writer is effective.
+ *          | getChannel() != null
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class SnapshotWriter implements Closeable {
+
+    /**********************************************************
+     * Constructor
+     **********************************************************/
+
+    /**
+     * Initialize a new writer writing a snapshot to the given channel.
+     *
+     * @param   channel
+     *          The channel to write the snapshot to.
+     *
+     * @post    | new.getChannel() == channel
+     *
+     * @effect  The magic number and the version of the format are written.
+     *
+     * @throws  IllegalArgumentException
+     *          The given channel is not effective.
+     *          | channel == null
+     */
+    public SnapshotWriter(WritableByteChannel channel) throws IllegalArgumentException {
+        if (channel == null)
+            throw new IllegalArgumentException("The channel cannot be null.");
+
+        this.channel = channel;
+        buffer.putInt(SnapshotFormat.MAGIC);
+        writeVarLong(SnapshotFormat.VERSION);
+    }
+
+    /**********************************************************
+     * Channel
+     **********************************************************/
+
+    /**
+     * Variable referencing the channel of this writer.
+     */
+    private final WritableByteChannel channel;
+
+    /**
+     * Variable referencing the buffer collecting the records until they are written to the channel.
+     */
+    private final ByteBuffer buffer = ByteBuffer.allocate(SnapshotFormat.BUFFER_SIZE);
+
+    /**
+     * Return the channel of this writer.
+     */
+    @Basic
+    public WritableByteChannel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Write all buffered records to the channel.
+     *
+     * @throws  IOException
+     *          The channel failed.
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Complete the snapshot and close the channel.
+     *
+     * @effect  Every entity that owns a written item, but was not written itself, is written.
+     *
+     * @effect  The end marker is written, all buffered records are written to the channel, and the channel is
+     *          closed.
+     *
+     * @throws  IOException
+     *          The channel failed.
+     *
+     * @note    Closing a writer that is already closed has no effect.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+        try {
+            while (!referencedEntities.isEmpty()) {
+                Entity entity = referencedEntities.poll();
+                if (!writtenEntities.contains(entity))
+                    writeEntityRecord(entity);
+            }
+            ensureRoom(1);
+            buffer.put(SnapshotFormat.END);
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Variable registering whether this writer is closed.
+     */
+    private boolean closed = false;
+
+    /**********************************************************
+     * Records
+     **********************************************************/
+
+    /**
+     * Variables referencing the indices of the entities and items that were given one, by identity.
+     */
+    private final Map<Entity, Integer> entityIndices = new IdentityHashMap<>();
+    private final Map<Equipment, Integer> itemIndices = new IdentityHashMap<>();
+
+    /**
+     * Variable referencing the entities that were written in full.
+     */
+    private final Set<Entity> writtenEntities = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Variable referencing the entities that were referenced as an owner, and may not have been written yet.
+     */
+    private final Deque<Entity> referencedEntities = new ArrayDeque<>();
+
+    /**
+     * Return the number of entities written in full so far.
+     */
+    public int getNbEntities() {
+        return writtenEntities.size();
+    }
+
+    /**
+     * Return the number of items written in full so far.
+     */
+    public int getNbItems() {
+        return itemIndices.size();
+    }
+
+    /**
+     * Write the given entity, with its anchor points and the items attached to them.
+     *
+     * @param   entity
+     *          The entity to write.
+     *
+     * @effect  If the entity was written before, a reference to it is written instead.
+     *
+     * @throws  IllegalArgumentException
+     *          The given entity is not effective, or is neither a hero nor a monster, or one of its items is not a
+     *          weapon, piece of armor, purse or backpack.
+     *
+     * @throws  IllegalStateException
+     *          This writer is closed.
+     *
+     * @throws  IOException
+     *          The channel failed.
+     */
+    public void writeEntity(Entity entity) throws IllegalArgumentException, IllegalStateException, IOException {
+        if (entity == null)
+            throw new IllegalArgumentException("The entity cannot be null.");
+        if (closed)
+            throw new IllegalStateException("The writer is closed.");
+
+        if (writtenEntities.contains(entity)) {
+            ensureRoom(11);
+            buffer.put(SnapshotFormat.ENTITY_REFERENCE);
+            writeVarLong(entityIndices.get(entity));
+        }
+        else
+            writeEntityRecord(entity);
+    }
+
+    /**
+     * Write the given item, with all items it contains.
+     *
+     * @param   item
+     *          The item to write.
+     *
+     * @effect  If the item was written before, a reference to it is written instead.
+     *
+     * @throws  IllegalArgumentException
+     *          The given item is not effective, or it or an item it contains is not a weapon, piece of armor,
+     *          purse or backpack.
+     *
+     * @throws  IllegalStateException
+     *          This writer is closed.
+     *
+     * @throws  IOException
+     *          The channel failed.
+     */
+    public void writeItem(Equipment item) throws IllegalArgumentException, IllegalStateException, IOException {
+        if (item == null)
+            throw new IllegalArgumentException("The item cannot be null.");
+        if (closed)
+            throw new IllegalStateException("The writer is closed.");
+
+        writeItemOrReference(item);
+    }
+
+    // AUXILIARY METHOD: writes the full record of the given entity, which was not written before
+    private void writeEntityRecord(Entity entity) throws IOException {
+        byte tag;
+        if (entity instanceof Hero)
+            tag = SnapshotFormat.HERO;
+        else if (entity instanceof Monster)
+            tag = SnapshotFormat.MONSTER;
+        else
+            throw new IllegalArgumentException("Only heroes and monsters can be written.");
+        writtenEntities.add(entity);
+
+        ensureRoom(1 + 11);
+        buffer.put(tag);
+        writeVarLong(getEntityIndex(entity));
+        writeString(entity.getName());
+
+        int flags = entity.isFighting() ? SnapshotFormat.FIGHTING : 0;
+        if (entity instanceof Hero && ((Hero) entity).isPlanningLoot())
+            flags |= SnapshotFormat.PLANNING_LOOT;
+        ensureRoom(1 + 4 * 10 + 10 + 1);
+        buffer.put((byte) flags);
+        writeInt(entity.getMaxHitPoints());
+        writeInt(entity.getHitPoints());
+        writeInt(entity.getRegisteredProtection());
+        writeInt(entity.getCapacity());
+        if (entity instanceof Hero) {
+            Hero hero = (Hero) entity;
+            writeInt(hero.getProtection());
+            writeVarLong(zigzag(Math.round(hero.getIntrinsicStrength() * 100)));
+            buffer.put((byte) hero.getPlacementStrategy().ordinal());
+        }
+        else {
+            Monster monster = (Monster) entity;
+            writeInt(monster.getDamage());
+            buffer.put((byte) monster.getType().ordinal());
+        }
+
+        ensureRoom(10);
+        writeVarLong(entity.getNbAnchorPoints());
+        for (int slot = 1; slot <= entity.getNbAnchorPoints(); slot++) {
+            AnchorPoint anchorPoint = entity.getAnchorPointAt(slot);
+            writeString(anchorPoint.getName());
+            writeItemOrReference(anchorPoint.getItem());
+        }
+
+        if (entity instanceof Hero) {
+            Hero hero = (Hero) entity;
+            writeItemOrReference(hero.getLeftHandWeapon());
+            writeItemOrReference(hero.getRightHandWeapon());
+            writeItemOrReference(hero.getArmor());
+        }
+    }
+
+    // AUXILIARY METHOD: writes the full record of the given item if it was not written before, a reference to it
+    // if it was, and the absence of an item if it is not effective
+    private void writeItemOrReference(Equipment item) throws IOException {
+        ensureRoom(1 + 10);
+        if (item == null) {
+            buffer.put(SnapshotFormat.NONE);
+            return;
+        }
+        Integer index = itemIndices.get(item);
+        if (index != null) {
+            buffer.put(SnapshotFormat.ITEM_REFERENCE);
+            writeVarLong(index);
+            return;
+        }
+
+        byte tag;
+        if (item instanceof Weapon)
+            tag = SnapshotFormat.WEAPON;
+        else if (item instanceof Armor)
+            tag = SnapshotFormat.ARMOR;
+        else if (item instanceof Purse)
+            tag = SnapshotFormat.PURSE;
+        else if (item instanceof Backpack)
+            tag = SnapshotFormat.BACKPACK;
+        else
+            throw new IllegalArgumentException("Only weapons, armor, purses and backpacks can be written.");
+        itemIndices.put(item, itemIndices.size());
+
+        int flags = (item.isDestroyed() ? SnapshotFormat.DESTROYED : 0) | (item.isShiny() ? SnapshotFormat.SHINY : 0);
+        ensureRoom(1 + 10 + 10 + 1 + 10 + 3 * 10 + 1);
+        buffer.put(tag);
+        writeVarLong(item.getIdentification());
+        writeInt(item.getWeight());
+        buffer.put((byte) flags);
+        writeVarLong(item.getOwner() == null ? 0 : getEntityIndex(item.getOwner()) + 1L);
+
+        switch (tag) {
+            case SnapshotFormat.WEAPON:
+                writeInt(((Weapon) item).getDamage());
+                break;
+            case SnapshotFormat.ARMOR:
+                Armor armor = (Armor) item;
+                writeInt(armor.getBaseValue());
+                buffer.put((byte) armor.getType().ordinal());
+                writeInt(armor.getCurrentProtection());
+                break;
+            case SnapshotFormat.PURSE:
+                Purse purse = (Purse) item;
+                writeInt(purse.getCapacity());
+                writeInt(purse.getContents());
+                break;
+            default:
+                Backpack backpack = (Backpack) item;
+                writeInt(backpack.getBaseValue());
+                writeInt(backpack.getCapacity());
+                int nbItems = 0;
+                for (List<Equipment> itemsWithSameID : backpack.contents.values())
+                    nbItems += itemsWithSameID.size();
+                writeVarLong(nbItems);
+                for (List<Equipment> itemsWithSameID : backpack.contents.values()) {
+                    for (Equipment content : itemsWithSameID)
+                        writeItemOrReference(content);
+                }
+        }
+    }
+
+    // AUXILIARY METHOD: returns the index of the given entity, giving it the next index if it has none yet
+    private int getEntityIndex(Entity entity) {
+        Integer index = entityIndices.get(entity);
+        if (index == null) {
+            index = entityIndices.size();
+            entityIndices.put(entity, index);
+            referencedEntities.add(entity);
+        }
+        return index;
+    }
+
+    /**********************************************************
+     * Encoding
+     **********************************************************/
+
+    // AUXILIARY METHOD: makes sure the buffer has room for the given number of bytes
+    private void ensureRoom(int nbBytes) throws IOException {
+        if (buffer.remaining() < nbBytes)
+            flush();
+    }
+
+    // AUXILIARY METHOD: writes the given non-negative number in groups of seven bits, which takes at most 10 bytes
+    private void writeVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    // AUXILIARY METHOD: writes the given number zigzag-encoded, which takes at most 5 bytes
+    private void writeInt(int value) {
+        writeVarLong(zigzag(value) & 0xFFFFFFFFL);
+    }
+
+    // AUXILIARY METHOD: returns the zigzag encoding of the given number, mapping 0, -1, 1, -2, ... to 0, 1, 2, 3, ...
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    // AUXILIARY METHOD: returns the zigzag encoding of the given number
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    // AUXILIARY METHOD: writes the length of the given string plus one and its UTF-8 bytes, or zero for no string
+    private void writeString(String string) throws IOException {
+        ensureRoom(10);
+        if (string == null) {
+            writeVarLong(0);
+            return;
+        }
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length + 1L);
+        for (int offset = 0; offset < bytes.length; ) {
+            if (!buffer.hasRemaining())
+                flush();
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+}
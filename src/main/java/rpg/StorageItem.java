@@ -1,3 +1,4 @@
+package rpg;
 
 /**
  * A class of storage items, involving capacity.
@@ -40,7 +41,23 @@ public abstract class StorageItem extends Equipment{
      */
     public StorageItem(int weight, int baseValue, int capacity)
             throws IllegalArgumentException {
-        super(weight, baseValue);
+        this(weight, baseValue, capacity, -1);
+    }
+
+    /**
+     * Initialize a new storage item with the given weight, base value and capacity, and with the given
+     * identification number if it is still free.
+     *
+     * @param   identification
+     *          The identification number to register, or a negative number to generate one.
+     *
+     * @effect  The storage item is initialized as a piece of equipment with the given identification number,
+     *          and with the given capacity.
+     *          | super(weight, baseValue, identification)
+     */
+    StorageItem(int weight, int baseValue, int capacity, long identification)
+            throws IllegalArgumentException {
+        super(weight, baseValue, identification);
 
         if (!isValidCapacity(capacity))
             throw new IllegalArgumentException("Capacity cannot be negative.");
@@ -0,0 +1,73 @@
+package rpg;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Raw;
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * An enumeration of the ways in which an entity can take over a batch of items.
+ * Every item is first attached to a free anchor point of the entity if possible. The policy determines
+ * what happens to the items that cannot be attached.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+@Value
+public enum TransferPolicy {
+    /**
+     * Items that cannot be attached are left where they are.
+     */
+    ANCHORS_ONLY(false, false),
+
+    /**
+     * Items that cannot be attached are stored in a backpack the entity carries, if one has room for them,
+     * and are left where they are otherwise.
+     */
+    STORE_IN_BACKPACKS(true, false),
+
+    /**
+     * Weapons and armor that cannot be attached are destroyed, other items are left where they are.
+     */
+    DESTROY_REJECTED_GEAR(false, true);
+
+    /**
+     * Initialize a new transfer policy.
+     *
+     * @param   storingInBackpacks
+     *          Whether items that cannot be attached are stored in backpacks.
+     *
+     * @param   destroyingRejectedGear
+     *          Whether weapons and armor that cannot be attached are destroyed.
+     *
+     * @post    | new.isStoringInBackpacks() == storingInBackpacks
+     *          | new.isDestroyingRejectedGear() == destroyingRejectedGear
+     */
+    @Raw
+    TransferPolicy(boolean storingInBackpacks, boolean destroyingRejectedGear) {
+        this.storingInBackpacks = storingInBackpacks;
+        this.destroyingRejectedGear = destroyingRejectedGear;
+    }
+
+    /**
+     * Check whether items that cannot be attached are stored in the backpacks of the entity.
+     */
+    @Basic @Immutable
+    public boolean isStoringInBackpacks() {
+        return storingInBackpacks;
+    }
+
+    /**
+     * Check whether weapons and armor that cannot be attached are destroyed.
+     */
+    @Basic @Immutable
+    public boolean isDestroyingRejectedGear() {
+        return destroyingRejectedGear;
+    }
+
+    /**
+     * Variables registering what happens to items that cannot be attached.
+     */
+    private final boolean storingInBackpacks;
+    private final boolean destroyingRejectedGear;
+}
@@ -0,0 +1,105 @@
+package rpg;
+
+import be.kuleuven.cs.som.annotate.Basic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A class of results of transferring a batch of items to an entity.
+ *
+ * Every item of the batch ends up in exactly one of four lists: the items attached to an anchor point of the
+ * entity, the items stored in one of its backpacks, the items destroyed, and the items left where they were.
+ * Within each list, the items keep the order of the batch.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class TransferResult {
+
+    /**
+     * Variables referencing the items of the batch, by what happened to them.
+     */
+    private final List<Equipment> accepted = new ArrayList<>();
+    private final List<Equipment> storedInBackpack = new ArrayList<>();
+    private final List<Equipment> destroyed = new ArrayList<>();
+    private final List<Equipment> rejected = new ArrayList<>();
+
+    /**
+     * Initialize a new result without any items.
+     *
+     * @note    Results are only created by the entity performing the transfer.
+     */
+    TransferResult() {
+    }
+
+    /**
+     * Return the items attached to an anchor point of the entity.
+     */
+    @Basic
+    public List<Equipment> getAccepted() {
+        return Collections.unmodifiableList(accepted);
+    }
+
+    /**
+     * Return the items stored in a backpack of the entity.
+     */
+    @Basic
+    public List<Equipment> getStoredInBackpack() {
+        return Collections.unmodifiableList(storedInBackpack);
+    }
+
+    /**
+     * Return the items destroyed because the entity could not take them.
+     */
+    @Basic
+    public List<Equipment> getDestroyed() {
+        return Collections.unmodifiableList(destroyed);
+    }
+
+    /**
+     * Return the items left where they were.
+     */
+    @Basic
+    public List<Equipment> getRejected() {
+        return Collections.unmodifiableList(rejected);
+    }
+
+    /**
+     * Return the number of items the entity took, either attached to an anchor point or stored in a backpack.
+     *
+     * @return  | result == getAccepted().size() + getStoredInBackpack().size()
+     */
+    public int getNbTransferred() {
+        return accepted.size() + storedInBackpack.size();
+    }
+
+    /**
+     * Register the given item as attached to an anchor point of the entity.
+     */
+    void addAccepted(Equipment item) {
+        accepted.add(item);
+    }
+
+    /**
+     * Register the given item as stored in a backpack of the entity.
+     */
+    void addStoredInBackpack(Equipment item) {
+        storedInBackpack.add(item);
+    }
+
+    /**
+     * Register the given item as destroyed.
+     */
+    void addDestroyed(Equipment item) {
+        destroyed.add(item);
+    }
+
+    /**
+     * Register the given item as left where it was.
+     */
+    void addRejected(Equipment item) {
+        rejected.add(item);
+    }
+}
@@ -1,4 +1,6 @@
-import java.util.*;
+package rpg;
+
+import java.util.concurrent.ThreadLocalRandom;
 
 import be.kuleuven.cs.som.annotate.*;
 
@@ -44,7 +46,22 @@ public class Weapon extends Equipment {
      *          |!isValidDamge(damage)
      */
     public Weapon(int weight, int damage) {
-        super(weight, 0);
+        this(weight, damage, -1);
+    }
+
+    /**
+     * Initialize a new weapon with the given weight and damage, and with the given identification number
+     * if it is still free.
+     *
+     * @param   identification
+     *          The identification number to register, or a negative number to generate one.
+     *
+     * @effect  The weapon is initialized as a piece of equipment with the given identification number,
+     *          and with the given damage.
+     *          | super(weight, 0, identification)
+     */
+    Weapon(int weight, int damage, long identification) {
+        super(weight, 0, identification);
 
         if (!isValidDamage(damage))
             throw new IllegalArgumentException("Damage cannot be negative, must be below the maximum damage and must be a multiple of 7.");
@@ -80,6 +97,29 @@ public class Weapon extends Equipment {
                 && identification % 3 == 0;
     }
 
+    /**
+     * Variable referencing the sequence from which the identification numbers of all weapons are taken.
+     */
+    private static volatile IdentificationSequence identificationSequence =
+            new IdentificationSequence(6, ThreadLocalRandom.current().nextLong());
+
+    /**
+     * Restart the identification numbers of weapons with a sequence determined by the given seed.
+     *
+     * @param   seed
+     *          The seed determining the order of the identification numbers of new weapons.
+     *
+     * @post    Weapons created from now on take their identification numbers from a new sequence
+     *          of multiples of 6, determined by the given seed.
+     *          | identificationSequence == new IdentificationSequence(6, seed)
+     *
+     * @note    Replaying the creation of weapons (on a single thread) after setting the same seed
+     *          results in the same identification numbers, provided none of them are registered yet.
+     */
+    public static void setIdentificationSeed(long seed) {
+        identificationSequence = new IdentificationSequence(6, seed);
+    }
+
     /**
      * Generates a valid and unique identification number for this weapon.
      *
@@ -91,15 +131,17 @@ public class Weapon extends Equipment {
      *
      * @note   The identification number is not automatically added to the registry; this must be done separately
      *         (via addIdentification()).
+     *
+     * @note   The sequence only produces positive multiples of 6 that it never produced before, so another
+     *         number is only needed if the number was already registered by other means.
      */
     @Override
     public long generateIdentification() {
-        Random random = new Random();
-        long possibleID = Math.abs(random.nextLong())*6;
+        long possibleID = identificationSequence.next();
 
         // Keep generating a new number until we find a valid identification number
         while (!canHaveAsIdentification(this.getClass(), possibleID)) {
-            possibleID = Math.abs(random.nextLong())*6; // Generate a new number if it's not prime
+            possibleID = identificationSequence.next();
         }
 
         return possibleID;
@@ -141,9 +183,14 @@ public class Weapon extends Equipment {
      *
      * @post    The given damage is registered as the damage of this weapon.
      *          | new.getDamage() == damage
+     *
+     * @effect  The change in value is passed on to the backpack containing this weapon.
+     *          | currentValueChanged(getCurrentValue())
      */
     public void setDamage(int damage) {
+        int oldValue = getCurrentValue();
         this.damage = damage;
+        currentValueChanged(oldValue);
     }
 
     /**
@@ -214,13 +261,13 @@ public class Weapon extends Equipment {
      * @effect  The damage of the purse is set to zero.
      *          | setDamage(0)
      *
-     * @effect  The condition is set to DESTROYED
-     *          | setCondition(Condition.DESTROYED)
+     * @effect  This item is destroyed as a piece of equipment.
+     *          | super.destroy()
      */
     @Override @Model
     void destroy() {
         setDamage(0);
-        setCondition(Condition.DESTROYED);
+        super.destroy();
     }
 }
 
@@ -0,0 +1,101 @@
+package rpg;
+
+/**
+ * An interface for receivers of the changes made to the items and entities of a world.
+ *
+ * The changes are reported after they were made, through the world events, and only by the method a change
+ * was asked for: a change that is part of another reported change, such as the owner of armor changing while it is
+ * equipped, is not reported on its own. As for battle event sinks, the changes are passed as plain arguments rather
+ * than as event objects, and every change is ignored by default.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public interface WorldEventSink {
+
+    /**
+     * A sink ignoring all changes, for worlds of which the changes need not be recorded.
+     */
+    WorldEventSink NONE = new WorldEventSink() {};
+
+    /**
+     * Receive the change of the owner of the given item.
+     *
+     * @param   item
+     *          The item of which the owner changed.
+     *
+     * @param   owner
+     *          The new owner of the item, or null if it has no owner anymore.
+     */
+    default void ownerChanged(Equipment item, Entity owner) {
+    }
+
+    /**
+     * Receive the change of the backpack storing the given item.
+     *
+     * @param   item
+     *          The item of which the backpack changed.
+     *
+     * @param   backpack
+     *          The new backpack storing the item, or null if no backpack stores it anymore.
+     */
+    default void backpackChanged(Equipment item, Backpack backpack) {
+    }
+
+    /**
+     * Receive the destruction of the given item.
+     *
+     * @param   item
+     *          The item that was destroyed.
+     */
+    default void itemDestroyed(Equipment item) {
+    }
+
+    /**
+     * Receive the change of the hit points of the given entity.
+     *
+     * @param   entity
+     *          The entity of which the hit points changed.
+     *
+     * @param   hitPoints
+     *          The new hit points of the entity.
+     */
+    default void hitPointsChanged(Entity entity, int hitPoints) {
+    }
+
+    /**
+     * Receive the change of the contents of the given purse.
+     *
+     * @param   purse
+     *          The purse whose contents changed.
+     *
+     * @param   contents
+     *          The new contents of the purse.
+     */
+    default void contentsChanged(Purse purse, int contents) {
+    }
+
+    /**
+     * Receive the equipping of the given armor by the given hero.
+     *
+     * @param   hero
+     *          The hero that equipped the armor.
+     *
+     * @param   armor
+     *          The armor that was equipped.
+     */
+    default void armorEquipped(Hero hero, Armor armor) {
+    }
+
+    /**
+     * Receive the unequipping of the given armor by the given hero.
+     *
+     * @param   hero
+     *          The hero that unequipped the armor.
+     *
+     * @param   armor
+     *          The armor that was unequipped.
+     */
+    default void armorUnequipped(Hero hero, Armor armor) {
+    }
+}
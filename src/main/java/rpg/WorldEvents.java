@@ -0,0 +1,159 @@
+package rpg;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class through which the items and entities of the world report their changes to a single sink.
+ *
+ * The methods that change the world report every change to the sink once it was made. Methods that make their
+ * change through other reporting methods suspend the reporting meanwhile, so that only the change that was asked
+ * for is reported, and replaying the reported changes in order makes them exactly once.
+ *
+ * @note    Reporting is suspended for the calling thread only, so a change made by one thread is reported even
+ *          while another thread is in the middle of a change it suspended reporting for. The sink itself is shared,
+ *          so while a sink other than the one ignoring all changes is set, the world should only be changed by one
+ *          thread at a time, and the sink should only be set while no change is being made.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public final class WorldEvents {
+
+    /**
+     * Variable referencing the sink all changes are reported to.
+     */
+    private static WorldEventSink sink = WorldEventSink.NONE;
+
+    /**
+     * Variable registering, for every thread, how many times reporting is suspended by that thread.
+     */
+    private static final ThreadLocal<int[]> nbSuspensions = ThreadLocal.withInitial(() -> new int[1]);
+
+    /**
+     * Return the sink all changes are reported to.
+     */
+    @Basic
+    public static WorldEventSink getSink() {
+        return sink;
+    }
+
+    /**
+     * Set the sink all changes are reported to.
+     *
+     * @param   sink
+     *          The new sink. Use WorldEventSink.NONE for changes that need not be reported.
+     *
+     * @post    | getSink() == sink
+     *
+     * @throws  IllegalArgumentException
+     *          The given sink is not effective.
+     *          | sink == null
+     */
+    public static void setSink(WorldEventSink sink) throws IllegalArgumentException {
+        if (sink == null)
+            throw new IllegalArgumentException("The sink cannot be null.");
+        WorldEvents.sink = sink;
+    }
+
+    /**
+     * Suspend reporting changes made by the calling thread, until it is resumed as many times as it was suspended.
+     */
+    static void suspend() {
+        nbSuspensions.get()[0]++;
+    }
+
+    /**
+     * Resume reporting changes made by the calling thread, after it was suspended.
+     */
+    static void resume() {
+        int[] depth = nbSuspensions.get();
+        if (depth[0] > 0)
+            depth[0]--;
+    }
+
+    /**
+     * Check whether changes made by the calling thread are reported.
+     *
+     * @return  True if and only if the calling thread resumed reporting as many times as it suspended it.
+     */
+    @Model
+    static boolean isReporting() {
+        return nbSuspensions.get()[0] == 0;
+    }
+
+    /**
+     * Report the change of the owner of the given item, unless reporting is suspended.
+     *
+     * @effect  | if (isReporting()) then getSink().ownerChanged(item, owner)
+     */
+    static void ownerChanged(Equipment item, Entity owner) {
+        if (isReporting())
+            sink.ownerChanged(item, owner);
+    }
+
+    /**
+     * Report the change of the backpack storing the given item, unless reporting is suspended.
+     *
+     * @effect  | if (isReporting()) then getSink().backpackChanged(item, backpack)
+     */
+    static void backpackChanged(Equipment item, Backpack backpack) {
+        if (isReporting())
+            sink.backpackChanged(item, backpack);
+    }
+
+    /**
+     * Report the destruction of the given item, unless reporting is suspended.
+     *
+     * @effect  | if (isReporting()) then getSink().itemDestroyed(item)
+     */
+    static void itemDestroyed(Equipment item) {
+        if (isReporting())
+            sink.itemDestroyed(item);
+    }
+
+    /**
+     * Report the change of the hit points of the given entity, unless reporting is suspended.
+     *
+     * @effect  | if (isReporting()) then getSink().hitPointsChanged(entity, hitPoints)
+     */
+    static void hitPointsChanged(Entity entity, int hitPoints) {
+        if (isReporting())
+            sink.hitPointsChanged(entity, hitPoints);
+    }
+
+    /**
+     * Report the change of the contents of the given purse to the given contents, unless reporting is suspended.
+     *
+     * @effect  | if (isReporting()) then getSink().contentsChanged(purse, contents)
+     */
+    static void contentsChanged(Purse purse, int contents) {
+        if (isReporting())
+            sink.contentsChanged(purse, contents);
+    }
+
+    /**
+     * Report the equipping of the given armor by the given hero, unless reporting is suspended.
+     *
+     * @effect  | if (isReporting()) then getSink().armorEquipped(hero, armor)
+     */
+    static void armorEquipped(Hero hero, Armor armor) {
+        if (isReporting())
+            sink.armorEquipped(hero, armor);
+    }
+
+    /**
+     * Report the unequipping of the given armor by the given hero, unless reporting is suspended.
+     *
+     * @effect  | if (isReporting()) then getSink().armorUnequipped(hero, armor)
+     */
+    static void armorUnequipped(Hero hero, Armor armor) {
+        if (isReporting())
+            sink.armorUnequipped(hero, armor);
+    }
+
+    /**
+     * World events cannot be instantiated.
+     */
+    private WorldEvents() {
+    }
+}
@@ -0,0 +1,704 @@
+package rpg;
+
+import be.kuleuven.cs.som.annotate.*;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.CRC32;
+
+/**
+ * A class of world journals, recording the changes made to a saved world in a file they only append to, such that
+ * the world can be recovered from its world file and the changes made since it was saved.
+ *
+ * A journal file consists of a header followed by batches of records. Every batch starts with the number of its
+ * records and a checksum of them, and every record describes one change in a fixed number of bytes: the kind of
+ * change, the index of the entity changed, the tag and identification number of the item changed, and an argument
+ * such as the new hit points. Entities are referred to by their index in the world file, and items by the tag of
+ * their type and the identification number they had when the world was saved.
+ *
+ * Changes are collected in a buffer and written to the file through its channel one batch at a time, when the batch
+ * is full or the journal is flushed. Replaying a journal stops at the first batch that is incomplete or does not
+ * match its checksum, such as a batch that was being written when the program crashed, so the changes recovered
+ * are those of all batches before it.
+ *
+ * Only the changes reported through the world events are recorded: changing the owner or backpack of an item,
+ * destroying it, changing the hit points of an entity, changing the contents of a purse, and equipping and
+ * unequipping armor. Changes of entities that were not saved are skipped when they are recorded, and changes of items
+ * that were not saved when they are replayed. Any other change, such as the wear of armor, is only kept by the next
+ * checkpoint.
+ *
+ * @invar   The number of changes recorded and skipped is never negative.
+ *          | getNbChangesRecorded() >= 0 && getNbChangesSkipped() >= 0
+ *
+ * @note    World journals are not thread-safe.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class WorldJournal implements WorldEventSink, Closeable {
+
+    /**********************************************************
+     * Layout
+     **********************************************************/
+
+    /**
+     * The magic number every journal file starts with, the characters "RPGJ", and the version of the layout.
+     */
+    static final int MAGIC = 0x5250474A;
+    static final int VERSION = 2;
+
+    /**
+     * The size of the header: the magic number, the version, the number of entities of the world and the number of
+     * the checkpoint of the world file.
+     */
+    static final int HEADER_SIZE = 16;
+
+    /**
+     * The size of the header of a batch: the number of its records and the checksum of those records.
+     */
+    static final int BATCH_HEADER_SIZE = 8;
+
+    /**
+     * The size of a record, and the position of its fields.
+     *
+     * @note    The index of the entity is -1 for changes of an item only, and the tag is 0 for changes of an entity
+     *          only. The argument is the identification number of the new backpack, or -1 for no backpack, the new
+     *          hit points, or the new contents of a purse.
+     */
+    static final int RECORD_SIZE = 24;
+    private static final int RECORD_KIND = 0, RECORD_TAG = 1, RECORD_ENTITY = 4, RECORD_IDENTIFICATION = 8,
+            RECORD_ARGUMENT = 16;
+
+    /**
+     * The kinds of changes.
+     */
+    static final byte OWNER_CHANGED = 1;
+    static final byte BACKPACK_CHANGED = 2;
+    static final byte ITEM_DESTROYED = 3;
+    static final byte HIT_POINTS_CHANGED = 4;
+    static final byte CONTENTS_CHANGED = 5;
+    static final byte ARMOR_EQUIPPED = 6;
+    static final byte ARMOR_UNEQUIPPED = 7;
+
+    /**
+     * The largest number of records of a batch.
+     */
+    public static final int MAX_BATCH_SIZE = 1 << 20;
+
+    /**********************************************************
+     * Constructors
+     **********************************************************/
+
+    /**
+     * Initialize a new world journal at the given path, for a world file of the given entities saved by
+     * WorldStore.save.
+     *
+     * @param   path
+     *          The path of the journal file, which is replaced if it exists.
+     *
+     * @param   entities
+     *          The entities of the world file, in the order in which they were saved.
+     *
+     * @param   batchSize
+     *          The number of changes written to the file at once.
+     *
+     * @param   sync
+     *          The moments at which the changes written are forced onto the storage device.
+     *
+     * @effect  | this(path, entities, batchSize, sync, 0)
+     */
+    public WorldJournal(Path path, Collection<? extends Entity> entities, int batchSize, JournalSync sync)
+            throws IllegalArgumentException, IOException {
+        this(path, entities, batchSize, sync, 0);
+    }
+
+    /**
+     * Initialize a new world journal at the given path, for a world file of the given entities saved for the
+     * checkpoint with the given number.
+     *
+     * @param   path
+     *          The path of the journal file, which is replaced if it exists.
+     *
+     * @param   entities
+     *          The entities of the world file, in the order in which they were saved. Entities that occur more than
+     *          once get the index of their first occurrence, as in world files.
+     *
+     * @param   batchSize
+     *          The number of changes written to the file at once.
+     *
+     * @param   sync
+     *          The moments at which the changes written are forced onto the storage device.
+     *
+     * @param   checkpoint
+     *          The number of the checkpoint the world file was saved for.
+     *
+     * @post    | new.getBatchSize() == batchSize && new.getSync() == sync
+     *
+     * @post    No changes are recorded yet.
+     *          | new.getNbChangesRecorded() == 0 && new.getNbChangesSkipped() == 0
+     *
+     * @throws  IllegalArgumentException
+     *          The given path, entities or sync are not effective, one of the entities is not effective, or the
+     *          given batch size is not strictly positive or exceeds the largest batch size.
+     *          | path == null || entities == null || sync == null || entities.contains(null)
+     *          | || batchSize <= 0 || batchSize > MAX_BATCH_SIZE
+     *
+     * @throws  IOException
+     *          The journal file cannot be written.
+     */
+    WorldJournal(Path path, Collection<? extends Entity> entities, int batchSize, JournalSync sync, int checkpoint)
+            throws IllegalArgumentException, IOException {
+        if (path == null || entities == null || sync == null)
+            throw new IllegalArgumentException("The path, entities and sync cannot be null.");
+        if (batchSize <= 0 || batchSize > MAX_BATCH_SIZE)
+            throw new IllegalArgumentException("The batch size must lie between 1 and " + MAX_BATCH_SIZE + ".");
+        for (Entity entity : entities) {
+            if (entity == null)
+                throw new IllegalArgumentException("The entities cannot be null.");
+            entityIndices.putIfAbsent(entity, entityIndices.size());
+        }
+
+        this.batchSize = batchSize;
+        this.sync = sync;
+        this.batch = ByteBuffer.allocateDirect(BATCH_HEADER_SIZE + batchSize * RECORD_SIZE)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(entityIndices.size()).putInt(checkpoint).flip();
+            while (header.hasRemaining())
+                channel.write(header);
+            channel.force(false);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        batch.position(BATCH_HEADER_SIZE);
+    }
+
+    /**
+     * Save the given entities to a world file at the given path, and start a new world journal for it at the given
+     * path.
+     *
+     * @param   worldPath
+     *          The path of the world file, which is replaced if it exists.
+     *
+     * @param   journalPath
+     *          The path of the journal file, which is replaced if it exists.
+     *
+     * @param   entities
+     *          The entities to save.
+     *
+     * @param   batchSize
+     *          The number of changes written to the journal file at once.
+     *
+     * @param   sync
+     *          The moments at which the changes written are forced onto the storage device.
+     *
+     * @return  A new world journal for the saved world file, of a checkpoint with a new number.
+     *          | WorldStore.save(worldPath, entities, checkpoint)
+     *          | && result == new WorldJournal(journalPath, entities, batchSize, sync, checkpoint)
+     *
+     * @throws  IllegalArgumentException
+     *          One of the given arguments is not valid for saving a world file or starting a journal.
+     *
+     * @throws  IOException
+     *          The world file or journal file cannot be written.
+     *
+     * @note    The world file is saved first. If the program crashes before the new journal is started, the old
+     *          journal belongs to another checkpoint and cannot be replayed, but the world file already holds all
+     *          changes it recorded.
+     */
+    public static WorldJournal checkpoint(Path worldPath, Path journalPath, Collection<? extends Entity> entities,
+            int batchSize, JournalSync sync) throws IllegalArgumentException, IOException {
+        if (journalPath == null || sync == null || batchSize <= 0 || batchSize > MAX_BATCH_SIZE)
+            throw new IllegalArgumentException("The journal cannot be started.");
+
+        int checkpoint;
+        do {
+            checkpoint = ThreadLocalRandom.current().nextInt();
+        } while (checkpoint == 0);
+        WorldStore.save(worldPath, entities, checkpoint);
+        return new WorldJournal(journalPath, entities, batchSize, sync, checkpoint);
+    }
+
+    /**********************************************************
+     * File
+     **********************************************************/
+
+    /**
+     * Variable referencing the channel to the journal file, and the buffer collecting the current batch.
+     */
+    private final FileChannel channel;
+    private final ByteBuffer batch;
+
+    /**
+     * Variable referencing the checksum computed for every batch.
+     */
+    private final CRC32 checksum = new CRC32();
+
+    /**
+     * Variable registering the number of changes written to the file at once.
+     */
+    private final int batchSize;
+
+    /**
+     * Return the number of changes written to the journal file at once.
+     */
+    @Basic @Immutable
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Variable referencing the moments at which changes written are forced onto the storage device.
+     */
+    private final JournalSync sync;
+
+    /**
+     * Return the moments at which the changes written are forced onto the storage device.
+     */
+    @Basic @Immutable
+    public JournalSync getSync() {
+        return sync;
+    }
+
+    /**
+     * Check whether this journal is closed.
+     */
+    public boolean isClosed() {
+        return !channel.isOpen();
+    }
+
+    /**
+     * Write the changes of the current batch to the journal file, even if the batch is not full.
+     *
+     * @effect  If this journal syncs every batch, the batch is forced onto the storage device.
+     *
+     * @throws  IllegalStateException
+     *          This journal is closed.
+     *          | isClosed()
+     *
+     * @throws  IOException
+     *          The journal file cannot be written.
+     */
+    public void flush() throws IllegalStateException, IOException {
+        if (isClosed())
+            throw new IllegalStateException("The journal is closed.");
+
+        int nbRecords = (batch.position() - BATCH_HEADER_SIZE) / RECORD_SIZE;
+        if (nbRecords == 0)
+            return;
+        batch.flip();
+        checksum.reset();
+        checksum.update(batch.slice(BATCH_HEADER_SIZE, nbRecords * RECORD_SIZE));
+        batch.putInt(0, nbRecords).putInt(4, (int) checksum.getValue());
+        while (batch.hasRemaining())
+            channel.write(batch);
+        batch.clear().position(BATCH_HEADER_SIZE);
+        if (sync.isSyncingEveryBatch())
+            channel.force(false);
+    }
+
+    /**
+     * Close this journal, after writing the current batch and forcing all changes onto the storage device.
+     *
+     * @post    | new.isClosed()
+     *
+     * @effect  If this journal is the sink of the world events, changes are no longer reported.
+     *          | if (WorldEvents.getSink() == this) then WorldEvents.setSink(WorldEventSink.NONE)
+     *
+     * @throws  IOException
+     *          The journal file cannot be written. The journal is closed nonetheless.
+     */
+    @Override
+    public void close() throws IOException {
+        if (isClosed())
+            return;
+        if (WorldEvents.getSink() == this)
+            WorldEvents.setSink(WorldEventSink.NONE);
+        try (FileChannel channel = this.channel) {
+            flush();
+            channel.force(false);
+        }
+    }
+
+    /**********************************************************
+     * Changes
+     **********************************************************/
+
+    /**
+     * Variable referencing the indices of the entities of the world file.
+     */
+    private final Map<Entity, Integer> entityIndices = new IdentityHashMap<>();
+
+    /**
+     * Variables registering the number of changes recorded and skipped.
+     */
+    private long nbChangesRecorded = 0, nbChangesSkipped = 0;
+
+    /**
+     * Return the number of changes this journal recorded.
+     */
+    @Basic
+    public long getNbChangesRecorded() {
+        return nbChangesRecorded;
+    }
+
+    /**
+     * Return the number of changes this journal skipped, because they concerned an entity that was not saved, or
+     * an item that is neither a weapon, armor, purse nor backpack.
+     */
+    @Basic
+    public long getNbChangesSkipped() {
+        return nbChangesSkipped;
+    }
+
+    /**
+     * Record the change of the owner of the given item.
+     *
+     * @throws  IllegalStateException
+     *          This journal is closed.
+     *
+     * @throws  UncheckedIOException
+     *          The journal file cannot be written.
+     */
+    @Override
+    public void ownerChanged(Equipment item, Entity owner) throws IllegalStateException, UncheckedIOException {
+        record(OWNER_CHANGED, owner, item, 0);
+    }
+
+    /**
+     * Record the change of the backpack storing the given item.
+     *
+     * @throws  IllegalStateException
+     *          This journal is closed.
+     *
+     * @throws  UncheckedIOException
+     *          The journal file cannot be written.
+     */
+    @Override
+    public void backpackChanged(Equipment item, Backpack backpack) throws IllegalStateException, UncheckedIOException {
+        record(BACKPACK_CHANGED, null, item, backpack == null ? -1 : backpack.getIdentification());
+    }
+
+    /**
+     * Record the destruction of the given item.
+     *
+     * @throws  IllegalStateException
+     *          This journal is closed.
+     *
+     * @throws  UncheckedIOException
+     *          The journal file cannot be written.
+     */
+    @Override
+    public void itemDestroyed(Equipment item) throws IllegalStateException, UncheckedIOException {
+        record(ITEM_DESTROYED, null, item, 0);
+    }
+
+    /**
+     * Record the change of the hit points of the given entity.
+     *
+     * @throws  IllegalStateException
+     *          This journal is closed.
+     *
+     * @throws  UncheckedIOException
+     *          The journal file cannot be written.
+     */
+    @Override
+    public void hitPointsChanged(Entity entity, int hitPoints) throws IllegalStateException, UncheckedIOException {
+        record(HIT_POINTS_CHANGED, entity, null, hitPoints);
+    }
+
+    /**
+     * Record the change of the contents of the given purse to the given contents.
+     *
+     * @throws  IllegalStateException
+     *          This journal is closed.
+     *
+     * @throws  UncheckedIOException
+     *          The journal file cannot be written.
+     */
+    @Override
+    public void contentsChanged(Purse purse, int contents) throws IllegalStateException, UncheckedIOException {
+        record(CONTENTS_CHANGED, null, purse, contents);
+    }
+
+    /**
+     * Record the equipping of the given armor by the given hero.
+     *
+     * @throws  IllegalStateException
+     *          This journal is closed.
+     *
+     * @throws  UncheckedIOException
+     *          The journal file cannot be written.
+     */
+    @Override
+    public void armorEquipped(Hero hero, Armor armor) throws IllegalStateException, UncheckedIOException {
+        record(ARMOR_EQUIPPED, hero, armor, 0);
+    }
+
+    /**
+     * Record the unequipping of the given armor by the given hero.
+     *
+     * @throws  IllegalStateException
+     *          This journal is closed.
+     *
+     * @throws  UncheckedIOException
+     *          The journal file cannot be written.
+     */
+    @Override
+    public void armorUnequipped(Hero hero, Armor armor) throws IllegalStateException, UncheckedIOException {
+        record(ARMOR_UNEQUIPPED, hero, armor, 0);
+    }
+
+    // AUXILIARY METHOD: adds a record of a change of the given kind of the given entity and item, each of which may
+    // be null, with the given argument to the current batch, writing the batch if it is full, or skips the change if
+    // the entity or item cannot be referred to
+    private void record(byte kind, Entity entity, Equipment item, long argument) {
+        if (isClosed())
+            throw new IllegalStateException("The journal is closed.");
+
+        Integer entityIndex = entity == null ? Integer.valueOf(-1) : entityIndices.get(entity);
+        byte tag = item == null ? 0 : tagOf(item);
+        if (entityIndex == null || tag < 0) {
+            nbChangesSkipped++;
+            return;
+        }
+
+        int position = batch.position();
+        batch.put(position + RECORD_KIND, kind).put(position + RECORD_TAG, tag)
+                .putShort(position + RECORD_TAG + 1, (short) 0).putInt(position + RECORD_ENTITY, entityIndex)
+                .putLong(position + RECORD_IDENTIFICATION, item == null ? 0 : item.getIdentification())
+                .putLong(position + RECORD_ARGUMENT, argument);
+        batch.position(position + RECORD_SIZE);
+        nbChangesRecorded++;
+
+        if (!batch.hasRemaining()) {
+            try {
+                flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // AUXILIARY METHOD: returns the tag of the type of the given item, or -1 if it cannot be saved
+    private static byte tagOf(Equipment item) {
+        if (item instanceof Weapon)
+            return SnapshotFormat.WEAPON;
+        if (item instanceof Armor)
+            return SnapshotFormat.ARMOR;
+        if (item instanceof Purse)
+            return SnapshotFormat.PURSE;
+        if (item instanceof Backpack)
+            return SnapshotFormat.BACKPACK;
+        return -1;
+    }
+
+    /**********************************************************
+     * Replaying
+     **********************************************************/
+
+    /**
+     * Replay the changes recorded in the journal file at the given path on the entities and items of the given
+     * world store, in the order in which they were made.
+     *
+     * @param   store
+     *          The world store of the world file the journal was started for.
+     *
+     * @param   path
+     *          The path of the journal file.
+     *
+     * @return  The number of changes replayed, which excludes the changes of items that were not saved.
+     *
+     * @effect  The changes of all complete batches that match their checksum, up to the first batch that does not,
+     *          are made again, creating the entities and items they concern, without being reported.
+     *
+     * @throws  IllegalArgumentException
+     *          The given store or path is not effective.
+     *          | store == null || path == null
+     *
+     * @throws  IllegalStateException
+     *          The given world store is closed.
+     *          | store.isClosed()
+     *
+     * @throws  IOException
+     *          The journal file cannot be read, is not a journal file, was started for another world file, or
+     *          records a change that cannot be made. The changes replayed before are kept in that case.
+     *
+     * @note    The journal file is read through a buffer, so a batch of any size takes few reads.
+     */
+    public static long replay(WorldStore store, Path path)
+            throws IllegalArgumentException, IllegalStateException, IOException {
+        if (store == null || path == null)
+            throw new IllegalArgumentException("The store and path cannot be null.");
+        if (store.isClosed())
+            throw new IllegalStateException("The world store is closed.");
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Replay replay = new Replay(store, channel);
+            if (!replay.fill(HEADER_SIZE) || replay.buffer.getInt() != MAGIC)
+                throw new IOException("The file is not a journal file.");
+            int version = replay.buffer.getInt();
+            if (version != VERSION)
+                throw new IOException("Journal files of version " + version + " cannot be replayed.");
+            if (replay.buffer.getInt() != store.getNbEntities() || replay.buffer.getInt() != store.getCheckpoint())
+                throw new IOException("The journal was not started for this world file.");
+
+            WorldEvents.suspend();
+            try {
+                return replay.replayBatches();
+            } finally {
+                WorldEvents.resume();
+            }
+        }
+    }
+
+    /**
+     * A class of replays of a journal file on a world store.
+     */
+    private static final class Replay {
+
+        /**
+         * Variables referencing the world store replayed on, the channel of the journal file, and the buffer holding
+         * the bytes of the journal file read but not yet replayed.
+         */
+        private final WorldStore store;
+        private final FileChannel channel;
+        private ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN).limit(0);
+
+        /**
+         * Variable referencing the checksum computed for every batch.
+         */
+        private final CRC32 checksum = new CRC32();
+
+        /**
+         * Variable registering the number of changes replayed.
+         */
+        private long nbReplayed = 0;
+
+        private Replay(WorldStore store, FileChannel channel) {
+            this.store = store;
+            this.channel = channel;
+        }
+
+        /**
+         * Replay all complete batches that match their checksum, and return the number of changes replayed.
+         */
+        private long replayBatches() throws IOException {
+            while (fill(BATCH_HEADER_SIZE)) {
+                int nbRecords = buffer.getInt();
+                int expectedChecksum = buffer.getInt();
+                if (nbRecords <= 0 || nbRecords > MAX_BATCH_SIZE || !fill(nbRecords * RECORD_SIZE))
+                    break;
+                checksum.reset();
+                checksum.update(buffer.slice(buffer.position(), nbRecords * RECORD_SIZE));
+                if ((int) checksum.getValue() != expectedChecksum)
+                    break;
+                for (int i = 0; i < nbRecords; i++) {
+                    replayRecord(buffer.position());
+                    buffer.position(buffer.position() + RECORD_SIZE);
+                }
+            }
+            return nbReplayed;
+        }
+
+        /**
+         * Make sure the buffer holds at least the given number of bytes after its position, reading more of the
+         * journal file if needed, and return whether the journal file holds that many bytes.
+         */
+        private boolean fill(int nbBytes) throws IOException {
+            if (buffer.remaining() >= nbBytes)
+                return true;
+            if (nbBytes > buffer.capacity()) {
+                ByteBuffer larger = ByteBuffer.allocate(nbBytes).order(ByteOrder.LITTLE_ENDIAN);
+                buffer = larger.put(buffer).flip();
+            }
+            buffer.compact();
+            while (buffer.position() < nbBytes && channel.read(buffer) >= 0);
+            buffer.flip();
+            return buffer.remaining() >= nbBytes;
+        }
+
+        /**
+         * Make the change of the record at the given position of the buffer again.
+         */
+        private void replayRecord(int position) throws IOException {
+            byte kind = buffer.get(position + RECORD_KIND);
+            byte tag = buffer.get(position + RECORD_TAG);
+            int entityIndex = buffer.getInt(position + RECORD_ENTITY);
+            long argument = buffer.getLong(position + RECORD_ARGUMENT);
+            if (kind < OWNER_CHANGED || kind > ARMOR_UNEQUIPPED || entityIndex < -1
+                    || entityIndex >= store.getNbEntities() || (tag == 0) != (kind == HIT_POINTS_CHANGED)
+                    || (kind == HIT_POINTS_CHANGED && entityIndex < 0)
+                    || (kind == CONTENTS_CHANGED && tag != SnapshotFormat.PURSE)
+                    || ((kind == ARMOR_EQUIPPED || kind == ARMOR_UNEQUIPPED) && tag != SnapshotFormat.ARMOR))
+                throw new IOException("Change " + nbReplayed + " is malformed.");
+
+            Entity entity = entityIndex < 0 ? null : store.getEntity(entityIndex);
+            Equipment item = tag == 0 ? null : getItem(tag, buffer.getLong(position + RECORD_IDENTIFICATION));
+            Backpack backpack = kind != BACKPACK_CHANGED || argument < 0 ? null
+                    : (Backpack) getItem(SnapshotFormat.BACKPACK, argument);
+            if ((tag != 0 && item == null) || (kind == BACKPACK_CHANGED && argument >= 0 && backpack == null))
+                return;
+
+            try {
+                switch (kind) {
+                    case OWNER_CHANGED:
+                        item.setOwner(entity);
+                        break;
+                    case BACKPACK_CHANGED:
+                        item.setBackpack(backpack);
+                        break;
+                    case ITEM_DESTROYED:
+                        item.destroy();
+                        break;
+                    case HIT_POINTS_CHANGED:
+                        entity.setHitPoints((int) argument);
+                        break;
+                    case CONTENTS_CHANGED:
+                        ((Purse) item).setContents((int) argument);
+                        break;
+                    case ARMOR_EQUIPPED:
+                        hero(entity).equipArmor((Armor) item);
+                        break;
+                    default:
+                        hero(entity).unequipArmor((Armor) item);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Change " + nbReplayed + " cannot be made.", e);
+            }
+            nbReplayed++;
+        }
+
+        /**
+         * Return the item with the given tag that had the given identification number when the world was saved, or
+         * null if the world has no such item.
+         */
+        private Equipment getItem(byte tag, long identification) {
+            int index = store.indexOfItem(tag, identification);
+            return index < 0 ? null : store.getItem(index);
+        }
+
+        /**
+         * Return the given entity as a hero.
+         */
+        private Hero hero(Entity entity) throws IOException {
+            if (!(entity instanceof Hero))
+                throw new IOException("Change " + nbReplayed + " equips armor on a monster.");
+            return (Hero) entity;
+        }
+    }
+}
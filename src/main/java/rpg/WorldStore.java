@@ -0,0 +1,1001 @@
+package rpg;
+
+import be.kuleuven.cs.som.annotate.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * A class of world stores, giving access to the entities and items of a world saved in a memory-mapped file.
+ *
+ * A world file consists of a header followed by four tables of fixed-size records and the names they refer to:
+ * one record per entity, one per anchor point, one per item and one per item stored in a backpack. The i-th record
+ * of a table starts at a fixed position, so any entity or item can be found without reading the ones before it.
+ *
+ * Opening a world store only maps the file, checks that its records refer to each other consistently and reserves
+ * the identification numbers of all items in bulk, so that no new item takes them. Entities and items are only
+ * created when they are first asked for: an entity is created together with every item it carries, and an item
+ * together with the entity carrying it. Items are stored in their backpacks from the innermost contents outward,
+ * without checking capacities again, so every item is stored in constant time.
+ *
+ * Every item keeps the identification number it had, unless an item of the same type already existed with that
+ * identification number when the world store was opened. The random generators of the entities are not part of a
+ * world file: restored entities draw their random numbers from the generator of the current thread.
+ *
+ * @invar   Each created entity is the entity at its index for as long as this world store exists.
+ *          | for each index in 0..getNbEntities()-1:
+ *          |   if (isCreated(index)) then getEntity(index) == getEntity(index)
+ *
+ * @note    World stores are not thread-safe.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class WorldStore implements Closeable {
+
+    /**********************************************************
+     * Layout
+     **********************************************************/
+
+    /**
+     * The magic number every world file starts with, the characters "RPGW", and the version of the layout.
+     */
+    static final int MAGIC = 0x52504757;
+    static final int VERSION = 1;
+
+    /**
+     * The size of the header: the magic number, the version, the number of entities, anchor points, items and
+     * stored items, the length of the names, and the number of the checkpoint the world file was saved for.
+     */
+    static final int HEADER_SIZE = 32;
+
+    /**
+     * The size of an entity record, and the position of its fields.
+     *
+     * @note    The third byte is the ordinal of the placement strategy of heroes and of the skin type of monsters.
+     *          The fifth integer is the protection of heroes and the damage of monsters. Items are referred to by
+     *          their index, or -1 for no item.
+     */
+    static final int ENTITY_RECORD_SIZE = 64;
+    private static final int ENTITY_TAG = 0, ENTITY_FLAGS = 1, ENTITY_ORDINAL = 2, ENTITY_MAX_HIT_POINTS = 4,
+            ENTITY_HIT_POINTS = 8, ENTITY_CURRENT_PROTECTION = 12, ENTITY_CAPACITY = 16, ENTITY_PROTECTION = 20,
+            ENTITY_STRENGTH = 24, ENTITY_NAME = 32, ENTITY_FIRST_ANCHOR_POINT = 40, ENTITY_NB_ANCHOR_POINTS = 44,
+            ENTITY_LEFT_HAND = 48, ENTITY_RIGHT_HAND = 52, ENTITY_ARMOR = 56;
+
+    /**
+     * The size of an anchor point record, and the position of its fields.
+     */
+    static final int ANCHOR_POINT_RECORD_SIZE = 12;
+    private static final int ANCHOR_POINT_NAME = 0, ANCHOR_POINT_ITEM = 8;
+
+    /**
+     * The size of an item record, and the position of its fields.
+     *
+     * @note    The holder is the entity carrying the item, directly or in a backpack. The meaning of the four
+     *          properties depends on the type of item: the damage of weapons; the base value and current protection
+     *          of armor; the capacity and contents of purses; and the base value, capacity, first stored item and
+     *          number of stored items of backpacks.
+     */
+    static final int ITEM_RECORD_SIZE = 40;
+    private static final int ITEM_TAG = 0, ITEM_FLAGS = 1, ITEM_ORDINAL = 2, ITEM_WEIGHT = 4, ITEM_IDENTIFICATION = 8,
+            ITEM_OWNER = 16, ITEM_HOLDER = 20, ITEM_PROPERTY_A = 24, ITEM_PROPERTY_B = 28, ITEM_PROPERTY_C = 32,
+            ITEM_PROPERTY_D = 36;
+
+    /**
+     * The size of the record of an item stored in a backpack, which is the index of that item.
+     */
+    static final int CONTENT_RECORD_SIZE = 4;
+
+    /**********************************************************
+     * Constructor
+     **********************************************************/
+
+    /**
+     * Initialize a new world store on the given world file.
+     *
+     * @param   path
+     *          The path of the world file.
+     *
+     * @post    No entity or item of the new world store is created yet.
+     *
+     * @effect  The identification numbers of all items of the world are reserved.
+     *          | for each index in 0..getNbItems()-1:
+     *          |   Equipment.equipmentByType.reserveAll(type of item at index, getIdentificationAt(index))
+     *
+     * @throws  IllegalArgumentException
+     *          The given path is not effective.
+     *          | path == null
+     *
+     * @throws  IOException
+     *          The file cannot be mapped, or is not a consistent world file.
+     */
+    public WorldStore(Path path) throws IllegalArgumentException, IOException {
+        if (path == null)
+            throw new IllegalArgumentException("The path cannot be null.");
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE)
+                throw new IOException("The file is not a world file.");
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException("The world file is too large to be mapped.");
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buffer.getInt(0) != MAGIC)
+            throw new IOException("The file is not a world file.");
+        if (buffer.getInt(4) != VERSION)
+            throw new IOException("World files of version " + buffer.getInt(4) + " cannot be opened.");
+        int nbEntities = buffer.getInt(8);
+        int nbAnchorPoints = buffer.getInt(12);
+        int nbItems = buffer.getInt(16);
+        int nbContents = buffer.getInt(20);
+        int namesLength = buffer.getInt(24);
+        if (nbEntities < 0 || nbAnchorPoints < 0 || nbItems < 0 || nbContents < 0 || namesLength < 0)
+            throw new IOException("The header of the world file is malformed.");
+
+        entitiesStart = HEADER_SIZE;
+        anchorPointsStart = entitiesStart + (long) nbEntities * ENTITY_RECORD_SIZE;
+        itemsStart = anchorPointsStart + (long) nbAnchorPoints * ANCHOR_POINT_RECORD_SIZE;
+        contentsStart = itemsStart + (long) nbItems * ITEM_RECORD_SIZE;
+        namesStart = contentsStart + (long) nbContents * CONTENT_RECORD_SIZE;
+        if (namesStart + namesLength != buffer.capacity())
+            throw new IOException("The size of the world file does not match its header.");
+
+        this.checkpoint = buffer.getInt(28);
+        this.nbAnchorPoints = nbAnchorPoints;
+        this.nbContents = nbContents;
+        this.namesLength = namesLength;
+        this.entities = new Entity[nbEntities];
+        this.items = new Equipment[nbItems];
+
+        checkEntities();
+        checkItemsAndReserveIdentifications();
+    }
+
+    /**********************************************************
+     * File
+     **********************************************************/
+
+    /**
+     * Variable referencing the mapped world file, or null if this world store is closed.
+     */
+    private MappedByteBuffer buffer;
+
+    /**
+     * Variables registering the positions at which the tables and names of the world file start.
+     */
+    private final long entitiesStart, anchorPointsStart, itemsStart, contentsStart, namesStart;
+
+    /**
+     * Variables registering the number of anchor points, the number of items stored in backpacks, and the length of
+     * the names of the world file.
+     */
+    private final int nbAnchorPoints, nbContents, namesLength;
+
+    /**
+     * Variable registering the number of the checkpoint the world file was saved for.
+     */
+    private final int checkpoint;
+
+    /**
+     * Return the number of the checkpoint the world file was saved for, which is 0 for world files that were not
+     * saved for a checkpoint.
+     *
+     * @note    World journals started at a checkpoint record its number, such that a journal is never replayed on a
+     *          world file that was saved for another checkpoint.
+     */
+    @Basic @Immutable @Model
+    int getCheckpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * Check whether this world store is closed.
+     */
+    public boolean isClosed() {
+        return buffer == null;
+    }
+
+    /**
+     * Close this world store.
+     *
+     * @post    | new.isClosed()
+     *
+     * @note    Created entities and items stay valid. The identification numbers reserved for items that were not
+     *          created stay reserved, so items restored from the same world later on can still claim them.
+     */
+    @Override
+    public void close() {
+        buffer = null;
+    }
+
+    /**********************************************************
+     * Entities
+     **********************************************************/
+
+    /**
+     * Variable referencing the created entities, by index, where null stands for an entity not created yet.
+     */
+    private final Entity[] entities;
+
+    /**
+     * Return the number of entities of the world.
+     */
+    @Basic @Immutable
+    public int getNbEntities() {
+        return entities.length;
+    }
+
+    /**
+     * Check whether the entity at the given index was created already.
+     *
+     * @param   index
+     *          The index of the entity.
+     *
+     * @throws  IllegalArgumentException
+     *          The given index is not the index of an entity.
+     *          | index < 0 || index >= getNbEntities()
+     */
+    public boolean isCreated(int index) throws IllegalArgumentException {
+        if (index < 0 || index >= getNbEntities())
+            throw new IllegalArgumentException("There is no entity at index " + index + ".");
+        return entities[index] != null;
+    }
+
+    /**
+     * Return the name of the entity at the given index, without creating it.
+     *
+     * @param   index
+     *          The index of the entity.
+     *
+     * @return  | result == getEntity(index).getName()
+     *
+     * @throws  IllegalArgumentException
+     *          The given index is not the index of an entity.
+     *          | index < 0 || index >= getNbEntities()
+     *
+     * @throws  IllegalStateException
+     *          This world store is closed.
+     *          | isClosed()
+     */
+    public String getNameAt(int index) throws IllegalArgumentException, IllegalStateException {
+        return readName(getEntityRecord(index) + ENTITY_NAME);
+    }
+
+    /**
+     * Return the entity at the given index, creating it with all items it carries if it was not created yet.
+     *
+     * @param   index
+     *          The index of the entity.
+     *
+     * @throws  IllegalArgumentException
+     *          The given index is not the index of an entity.
+     *          | index < 0 || index >= getNbEntities()
+     *
+     * @throws  IllegalStateException
+     *          The entity was not created yet and this world store is closed.
+     *          | !isCreated(index) && isClosed()
+     */
+    public Entity getEntity(int index) throws IllegalArgumentException, IllegalStateException {
+        if (isCreated(index))
+            return entities[index];
+
+        // Restoring an entity is not a change of the world
+        WorldEvents.suspend();
+        try {
+            return createEntity(index);
+        } finally {
+            WorldEvents.resume();
+        }
+    }
+
+    // AUXILIARY METHOD: returns the position of the record of the entity at the given index
+    private int getEntityRecord(int index) {
+        if (index < 0 || index >= getNbEntities())
+            throw new IllegalArgumentException("There is no entity at index " + index + ".");
+        if (isClosed())
+            throw new IllegalStateException("The world store is closed.");
+        return (int) (entitiesStart + (long) index * ENTITY_RECORD_SIZE);
+    }
+
+    // AUXILIARY METHOD: creates the entity at the given index, with its anchor points and the items attached to them
+    private Entity createEntity(int index) {
+        int record = getEntityRecord(index);
+        byte tag = buffer.get(record + ENTITY_TAG);
+        int flags = buffer.get(record + ENTITY_FLAGS);
+        int ordinal = buffer.get(record + ENTITY_ORDINAL);
+        String name = readName(record + ENTITY_NAME);
+        int maxHitPoints = buffer.getInt(record + ENTITY_MAX_HIT_POINTS);
+
+        Entity entity;
+        try {
+            if (tag == SnapshotFormat.HERO) {
+                Hero hero = new Hero(name, maxHitPoints, buffer.getLong(record + ENTITY_STRENGTH) / 100.0);
+                hero.setProtection(buffer.getInt(record + ENTITY_PROTECTION));
+                hero.setPlacementStrategy(PlacementStrategy.values()[ordinal]);
+                hero.setPlanningLoot((flags & SnapshotFormat.PLANNING_LOOT) != 0);
+                entity = hero;
+            }
+            else {
+                entity = new Monster(name, maxHitPoints, buffer.getInt(record + ENTITY_PROTECTION),
+                        SkinType.values()[ordinal], buffer.getInt(record + ENTITY_CAPACITY));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Entity " + index + " cannot be restored.", e);
+        }
+        entities[index] = entity;
+        if ((flags & SnapshotFormat.FIGHTING) != 0)
+            entity.setFighting(true);
+        entity.setHitPoints(buffer.getInt(record + ENTITY_HIT_POINTS));
+        entity.registerProtection(buffer.getInt(record + ENTITY_CURRENT_PROTECTION));
+        entity.registerCapacity(buffer.getInt(record + ENTITY_CAPACITY));
+
+        // Restore the anchor points it had, instead of the ones it was initialized with
+        List<Integer> createdItems = new ArrayList<>();
+        entity.removeAllAnchorPoints();
+        int firstAnchorPoint = buffer.getInt(record + ENTITY_FIRST_ANCHOR_POINT);
+        int nbAnchorPoints = buffer.getInt(record + ENTITY_NB_ANCHOR_POINTS);
+        for (int i = firstAnchorPoint; i < firstAnchorPoint + nbAnchorPoints; i++) {
+            int anchorPointRecord = (int) (anchorPointsStart + (long) i * ANCHOR_POINT_RECORD_SIZE);
+            AnchorPoint anchorPoint = new AnchorPoint(readName(anchorPointRecord + ANCHOR_POINT_NAME));
+            entity.addAnchorPoint(anchorPoint);
+            anchorPoint.setItem(createItem(buffer.getInt(anchorPointRecord + ANCHOR_POINT_ITEM), createdItems));
+        }
+
+        if (entity instanceof Hero) {
+            Hero hero = (Hero) entity;
+            hero.equipLeftHand((Weapon) createItem(buffer.getInt(record + ENTITY_LEFT_HAND), createdItems));
+            hero.equipRightHand((Weapon) createItem(buffer.getInt(record + ENTITY_RIGHT_HAND), createdItems));
+            hero.setArmor((Armor) createItem(buffer.getInt(record + ENTITY_ARMOR), createdItems));
+        }
+
+        // The owners are restored last, because storing items in backpacks changes them
+        for (int item : createdItems)
+            items[item].owner = getOwner(item);
+        List<Equipment> pendingItems = itemsByPendingOwner.remove(index);
+        if (pendingItems != null) {
+            for (Equipment item : pendingItems)
+                item.owner = entity;
+        }
+        return entity;
+    }
+
+    /**
+     * Variable referencing the created items of which the owner is not created yet, by the index of that owner.
+     */
+    private final Map<Integer, List<Equipment>> itemsByPendingOwner = new HashMap<>();
+
+    // AUXILIARY METHOD: returns the owner the created item at the given index had, remembering the item if that
+    // owner is not created yet
+    private Entity getOwner(int item) {
+        int owner = buffer.getInt(getItemRecord(item) + ITEM_OWNER);
+        if (owner < 0)
+            return null;
+        if (entities[owner] == null)
+            itemsByPendingOwner.computeIfAbsent(owner, index -> new ArrayList<>()).add(items[item]);
+        return entities[owner];
+    }
+
+    /**********************************************************
+     * Items
+     **********************************************************/
+
+    /**
+     * Variable referencing the created items, by index, where null stands for an item not created yet.
+     */
+    private final Equipment[] items;
+
+    /**
+     * Return the number of items of the world.
+     */
+    @Basic @Immutable
+    public int getNbItems() {
+        return items.length;
+    }
+
+    /**
+     * Return the identification number of the item at the given index, without creating it.
+     *
+     * @param   index
+     *          The index of the item.
+     *
+     * @return  The identification number the item had when the world was saved.
+     *
+     * @throws  IllegalArgumentException
+     *          The given index is not the index of an item.
+     *          | index < 0 || index >= getNbItems()
+     *
+     * @throws  IllegalStateException
+     *          This world store is closed.
+     *          | isClosed()
+     */
+    public long getIdentificationAt(int index) throws IllegalArgumentException, IllegalStateException {
+        return buffer().getLong(getItemRecord(index) + ITEM_IDENTIFICATION);
+    }
+
+    /**
+     * Return the item at the given index, creating the entity carrying it if it was not created yet.
+     *
+     * @param   index
+     *          The index of the item.
+     *
+     * @return  | result == the item at the given index of the entity carrying it
+     *
+     * @throws  IllegalArgumentException
+     *          The given index is not the index of an item.
+     *          | index < 0 || index >= getNbItems()
+     *
+     * @throws  IllegalStateException
+     *          The item was not created yet and this world store is closed.
+     */
+    public Equipment getItem(int index) throws IllegalArgumentException, IllegalStateException {
+        if (index < 0 || index >= getNbItems())
+            throw new IllegalArgumentException("There is no item at index " + index + ".");
+        if (items[index] == null)
+            getEntity(buffer().getInt(getItemRecord(index) + ITEM_HOLDER));
+        if (items[index] == null)
+            throw new IllegalStateException("Item " + index + " is not carried by the entity holding it.");
+        return items[index];
+    }
+
+    /**
+     * Return the index of the item with the given tag that had the given identification number when the world was
+     * saved.
+     *
+     * @param   tag
+     *          The tag of the type of the item, as in snapshots.
+     *
+     * @param   identification
+     *          The identification number the item had.
+     *
+     * @return  The index of the item, or -1 if the world has no such item.
+     *          | if (for some index in 0..getNbItems()-1: the item at index has the given tag
+     *          |       && getIdentificationAt(index) == identification)
+     *          |   then the item at result has the given tag && getIdentificationAt(result) == identification
+     *          | else result == -1
+     *
+     * @throws  IllegalStateException
+     *          This world store is closed.
+     *          | isClosed()
+     *
+     * @note    The items are looked up in a table of their indices, built when the first item is looked up, which
+     *          takes four bytes per item and compares the tags and identification numbers in the world file.
+     */
+    @Model
+    int indexOfItem(byte tag, long identification) throws IllegalStateException {
+        MappedByteBuffer buffer = buffer();
+        if (itemsByIdentification == null)
+            itemsByIdentification = buildItemTable();
+
+        int mask = itemsByIdentification.length - 1;
+        int slot = slotOf(tag, identification, mask);
+        while (itemsByIdentification[slot] != 0) {
+            int index = itemsByIdentification[slot] - 1;
+            int record = getItemRecord(index);
+            if (buffer.getLong(record + ITEM_IDENTIFICATION) == identification && buffer.get(record + ITEM_TAG) == tag)
+                return index;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Variable referencing the table of the indices of the items, plus one, in the slot of their tag and
+     * identification number, where 0 marks a free slot, or null if no item was looked up yet.
+     */
+    private int[] itemsByIdentification = null;
+
+    // AUXILIARY METHOD: returns a table of the indices of all items, plus one, at most half full
+    private int[] buildItemTable() {
+        int[] table = new int[Math.max(16, Integer.highestOneBit(Math.max(1, 2 * getNbItems() - 1)) << 1)];
+        int mask = table.length - 1;
+        for (int index = 0; index < getNbItems(); index++) {
+            int record = getItemRecord(index);
+            int slot = slotOf(buffer.get(record + ITEM_TAG), buffer.getLong(record + ITEM_IDENTIFICATION), mask);
+            while (table[slot] != 0)
+                slot = (slot + 1) & mask;
+            table[slot] = index + 1;
+        }
+        return table;
+    }
+
+    // AUXILIARY METHOD: returns the slot at which the search for the item with the given tag and identification
+    // number starts, in a table with a length of (mask + 1)
+    private static int slotOf(byte tag, long identification, int mask) {
+        long hash = (identification + tag) * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    // AUXILIARY METHOD: returns the position of the record of the item at the given index
+    private int getItemRecord(int index) {
+        if (index < 0 || index >= getNbItems())
+            throw new IllegalArgumentException("There is no item at index " + index + ".");
+        return (int) (itemsStart + (long) index * ITEM_RECORD_SIZE);
+    }
+
+    // AUXILIARY METHOD: returns the mapped world file, if this world store is not closed
+    private MappedByteBuffer buffer() {
+        if (isClosed())
+            throw new IllegalStateException("The world store is closed.");
+        return buffer;
+    }
+
+    // AUXILIARY METHOD: returns the item at the given index, or null for a negative index, creating it and all
+    // items it contains if it was not created yet, and adding the indices of the items created to the given list
+    private Equipment createItem(int index, List<Integer> createdItems) {
+        if (index < 0)
+            return null;
+        if (items[index] != null) {
+            if (backpacksBeingFilled.contains(items[index]))
+                throw new IllegalStateException("Backpack " + index + " contains itself.");
+            return items[index];
+        }
+
+        int record = getItemRecord(index);
+        byte tag = buffer.get(record + ITEM_TAG);
+        int flags = buffer.get(record + ITEM_FLAGS);
+        int weight = buffer.getInt(record + ITEM_WEIGHT);
+        long identification = buffer.getLong(record + ITEM_IDENTIFICATION);
+        int propertyA = buffer.getInt(record + ITEM_PROPERTY_A);
+        int propertyB = buffer.getInt(record + ITEM_PROPERTY_B);
+
+        Equipment item;
+        try {
+            switch (tag) {
+                case SnapshotFormat.WEAPON:
+                    Weapon weapon = new Weapon(weight, 7, identification);
+                    weapon.setDamage(propertyA);
+                    item = weapon;
+                    break;
+                case SnapshotFormat.ARMOR:
+                    Armor armor = new Armor(weight, propertyA, ArmorType.values()[buffer.get(record + ITEM_ORDINAL)],
+                            identification);
+                    armor.setCurrentProtection(propertyB);
+                    item = armor;
+                    break;
+                case SnapshotFormat.PURSE:
+                    Purse purse = new Purse(weight, propertyA, identification);
+                    purse.addToContents(propertyB);
+                    item = purse;
+                    break;
+                default:
+                    item = new Backpack(weight, propertyA, propertyB, identification);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Item " + index + " cannot be restored.", e);
+        }
+        items[index] = item;
+        createdItems.add(index);
+
+        // Store the contents, each of them filled before it is stored itself
+        if (item instanceof Backpack) {
+            Backpack backpack = (Backpack) item;
+            backpacksBeingFilled.add(backpack);
+            int firstContent = buffer.getInt(record + ITEM_PROPERTY_C);
+            int nbContents = buffer.getInt(record + ITEM_PROPERTY_D);
+            for (int i = firstContent; i < firstContent + nbContents; i++) {
+                int contentIndex = buffer.getInt((int) (contentsStart + (long) i * CONTENT_RECORD_SIZE));
+                Equipment content = createItem(contentIndex, createdItems);
+                if (content.getBackpack() != null)
+                    throw new IllegalStateException("Item " + contentIndex + " is stored twice.");
+                content.restoreBackpack(backpack);
+            }
+            backpacksBeingFilled.remove(backpack);
+        }
+
+        // The condition is restored last, because destroyed items cannot be stored in backpacks
+        item.setShiny((flags & SnapshotFormat.SHINY) != 0);
+        if ((flags & SnapshotFormat.DESTROYED) != 0)
+            item.setCondition(Condition.DESTROYED);
+        return item;
+    }
+
+    /**
+     * Variable referencing the backpacks of which the contents are being stored.
+     */
+    private final Set<Equipment> backpacksBeingFilled = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**********************************************************
+     * Checking
+     **********************************************************/
+
+    // AUXILIARY METHOD: checks that every entity record refers to existing anchor points, items and names, and that
+    // every anchor point record refers to an existing item and name
+    private void checkEntities() throws IOException {
+        for (int index = 0; index < getNbEntities(); index++) {
+            int record = getEntityRecord(index);
+            byte tag = buffer.get(record + ENTITY_TAG);
+            int ordinal = buffer.get(record + ENTITY_ORDINAL);
+            if (tag == SnapshotFormat.HERO)
+                checkOrdinal(ordinal, PlacementStrategy.values().length);
+            else if (tag == SnapshotFormat.MONSTER)
+                checkOrdinal(ordinal, SkinType.values().length);
+            else
+                throw new IOException("Entity " + index + " is of an unknown type.");
+            checkName(record + ENTITY_NAME);
+            int first = buffer.getInt(record + ENTITY_FIRST_ANCHOR_POINT);
+            int number = buffer.getInt(record + ENTITY_NB_ANCHOR_POINTS);
+            if (first < 0 || number < 0 || (long) first + number > nbAnchorPoints)
+                throw new IOException("Entity " + index + " refers to missing anchor points.");
+            checkItemReference(buffer.getInt(record + ENTITY_LEFT_HAND), SnapshotFormat.WEAPON);
+            checkItemReference(buffer.getInt(record + ENTITY_RIGHT_HAND), SnapshotFormat.WEAPON);
+            checkItemReference(buffer.getInt(record + ENTITY_ARMOR), SnapshotFormat.ARMOR);
+        }
+        for (int index = 0; index < nbAnchorPoints; index++) {
+            int record = (int) (anchorPointsStart + (long) index * ANCHOR_POINT_RECORD_SIZE);
+            checkName(record + ANCHOR_POINT_NAME);
+            checkItemReference(buffer.getInt(record + ANCHOR_POINT_ITEM), (byte) -1);
+        }
+    }
+
+    // AUXILIARY METHOD: checks that every item record is of a known type and refers to existing entities and items,
+    // and reserves the identification numbers of all items, per type
+    private void checkItemsAndReserveIdentifications() throws IOException {
+        long[][] identifications = new long[SnapshotFormat.BACKPACK + 1][];
+        int[] nbIdentifications = new int[SnapshotFormat.BACKPACK + 1];
+        for (byte tag = SnapshotFormat.WEAPON; tag <= SnapshotFormat.BACKPACK; tag++)
+            identifications[tag] = new long[16];
+
+        for (int index = 0; index < getNbItems(); index++) {
+            int record = getItemRecord(index);
+            byte tag = buffer.get(record + ITEM_TAG);
+            if (tag < SnapshotFormat.WEAPON || tag > SnapshotFormat.BACKPACK)
+                throw new IOException("Item " + index + " is of an unknown type.");
+            if (tag == SnapshotFormat.ARMOR)
+                checkOrdinal(buffer.get(record + ITEM_ORDINAL), ArmorType.values().length);
+            int owner = buffer.getInt(record + ITEM_OWNER);
+            int holder = buffer.getInt(record + ITEM_HOLDER);
+            if (owner < -1 || owner >= getNbEntities() || holder < 0 || holder >= getNbEntities())
+                throw new IOException("Item " + index + " refers to a missing entity.");
+            if (tag == SnapshotFormat.BACKPACK) {
+                int first = buffer.getInt(record + ITEM_PROPERTY_C);
+                int number = buffer.getInt(record + ITEM_PROPERTY_D);
+                if (first < 0 || number < 0 || (long) first + number > nbContents)
+                    throw new IOException("Item " + index + " refers to missing contents.");
+            }
+            long identification = buffer.getLong(record + ITEM_IDENTIFICATION);
+            if (identification < 0)
+                throw new IOException("Item " + index + " has a negative identification number.");
+            if (nbIdentifications[tag] == identifications[tag].length)
+                identifications[tag] = Arrays.copyOf(identifications[tag], 2 * nbIdentifications[tag]);
+            identifications[tag][nbIdentifications[tag]++] = identification;
+        }
+        for (int index = 0; index < nbContents; index++)
+            checkItemReference(buffer.getInt((int) (contentsStart + (long) index * CONTENT_RECORD_SIZE)), (byte) -1);
+
+        Equipment.equipmentByType.reserveAll(Weapon.class,
+                Arrays.copyOf(identifications[SnapshotFormat.WEAPON], nbIdentifications[SnapshotFormat.WEAPON]));
+        Equipment.equipmentByType.reserveAll(Armor.class,
+                Arrays.copyOf(identifications[SnapshotFormat.ARMOR], nbIdentifications[SnapshotFormat.ARMOR]));
+        Equipment.equipmentByType.reserveAll(Purse.class,
+                Arrays.copyOf(identifications[SnapshotFormat.PURSE], nbIdentifications[SnapshotFormat.PURSE]));
+        Equipment.equipmentByType.reserveAll(Backpack.class,
+                Arrays.copyOf(identifications[SnapshotFormat.BACKPACK], nbIdentifications[SnapshotFormat.BACKPACK]));
+    }
+
+    // AUXILIARY METHOD: checks that the given index refers to an item of the given type, or any type if it is
+    // negative, or is -1 for no item
+    private void checkItemReference(int index, byte tag) throws IOException {
+        if (index < -1 || index >= getNbItems())
+            throw new IOException("Item " + index + " is missing.");
+        if (index >= 0 && tag >= 0 && buffer.get(getItemRecord(index) + ITEM_TAG) != tag)
+            throw new IOException("Item " + index + " is not of the expected type.");
+    }
+
+    // AUXILIARY METHOD: checks that the given ordinal is the ordinal of one of the given number of constants
+    private static void checkOrdinal(int ordinal, int nbConstants) throws IOException {
+        if (ordinal < 0 || ordinal >= nbConstants)
+            throw new IOException("Malformed constant.");
+    }
+
+    // AUXILIARY METHOD: checks that the name at the given position lies within the names of the world file
+    private void checkName(int position) throws IOException {
+        int offset = buffer.getInt(position);
+        int length = buffer.getInt(position + 4);
+        if (length >= 0 && (offset < 0 || (long) offset + length > namesLength))
+            throw new IOException("Malformed name.");
+    }
+
+    // AUXILIARY METHOD: reads the name of which the offset and length are at the given position, where a negative
+    // length stands for a name that is not effective
+    private String readName(int position) {
+        int length = buffer.getInt(position + 4);
+        if (length < 0)
+            return null;
+        byte[] bytes = new byte[length];
+        buffer.get((int) (namesStart + buffer.getInt(position)), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**********************************************************
+     * Saving
+     **********************************************************/
+
+    /**
+     * Save the given entities, with all items they carry, to a world file at the given path.
+     *
+     * @param   path
+     *          The path of the world file, which is replaced if it exists.
+     *
+     * @param   entities
+     *          The entities to save, in the order of their index. Entities that occur more than once are saved once.
+     *
+     * @post    Opening a world store on the given path gives access to entities and items in the same state as the
+     *          given entities and the items they carry.
+     *
+     * @throws  IllegalArgumentException
+     *          The given path or entities are not effective, or one of the entities is not effective, or is neither
+     *          a hero nor a monster, or carries an item that is not a weapon, armor, purse or backpack.
+     *
+     * @throws  IOException
+     *          The file cannot be written, or the world is too large to be mapped.
+     */
+    public static void save(Path path, Collection<? extends Entity> entities)
+            throws IllegalArgumentException, IOException {
+        save(path, entities, 0);
+    }
+
+    /**
+     * Save the given entities, with all items they carry, to a world file at the given path, for the checkpoint
+     * with the given number.
+     *
+     * @param   checkpoint
+     *          The number of the checkpoint.
+     *
+     * @effect  | save(path, entities)
+     *
+     * @post    | (new WorldStore(path)).getCheckpoint() == checkpoint
+     */
+    static void save(Path path, Collection<? extends Entity> entities, int checkpoint)
+            throws IllegalArgumentException, IOException {
+        if (path == null || entities == null)
+            throw new IllegalArgumentException("The path and entities cannot be null.");
+
+        WorldLayout layout = new WorldLayout(entities);
+        long size = HEADER_SIZE + (long) layout.entities.size() * ENTITY_RECORD_SIZE
+                + (long) layout.anchorPoints.size() * ANCHOR_POINT_RECORD_SIZE
+                + (long) layout.items.size() * ITEM_RECORD_SIZE
+                + (long) layout.nbContents * CONTENT_RECORD_SIZE + layout.names.size();
+        if (size > Integer.MAX_VALUE)
+            throw new IOException("The world is too large to be mapped.");
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            file.order(ByteOrder.LITTLE_ENDIAN);
+            layout.writeTo(file, checkpoint);
+            file.force();
+        }
+    }
+
+    /**
+     * A class collecting the records of a world before it is saved.
+     */
+    private static final class WorldLayout {
+
+        /**
+         * Variables referencing the entities, anchor points and items of the world, by index.
+         */
+        private final List<Entity> entities = new ArrayList<>();
+        private final List<AnchorPoint> anchorPoints = new ArrayList<>();
+        private final List<Equipment> items = new ArrayList<>();
+
+        /**
+         * Variables referencing the indices of the entities and items, and the entity holding each item.
+         */
+        private final Map<Entity, Integer> entityIndices = new IdentityHashMap<>();
+        private final Map<Equipment, Integer> itemIndices = new IdentityHashMap<>();
+        private int[] holders = new int[16];
+
+        /**
+         * Variables referencing the indices of the items stored in backpacks, grouped per backpack, and the position
+         * of the first of them and their number for each backpack, by item index.
+         */
+        private int[] contents = new int[16];
+        private int nbContents = 0;
+        private final Map<Integer, int[]> contentRanges = new HashMap<>();
+
+        /**
+         * Variables referencing the names of the world, each stored once, and their offsets.
+         */
+        private final ByteArrayOutputStream names = new ByteArrayOutputStream();
+        private final Map<String, Integer> nameOffsets = new HashMap<>();
+
+        /**
+         * Collect the records of the given entities and the items they carry.
+         */
+        private WorldLayout(Collection<? extends Entity> entities) {
+            for (Entity entity : entities) {
+                if (entity == null)
+                    throw new IllegalArgumentException("The entities cannot be null.");
+                if (!(entity instanceof Hero) && !(entity instanceof Monster))
+                    throw new IllegalArgumentException("Only heroes and monsters can be saved.");
+                if (!entityIndices.containsKey(entity)) {
+                    entityIndices.put(entity, this.entities.size());
+                    this.entities.add(entity);
+                }
+            }
+            for (int index = 0; index < this.entities.size(); index++) {
+                Entity entity = this.entities.get(index);
+                for (int slot = 1; slot <= entity.getNbAnchorPoints(); slot++) {
+                    AnchorPoint anchorPoint = entity.getAnchorPointAt(slot);
+                    anchorPoints.add(anchorPoint);
+                    addItem(anchorPoint.getItem(), index);
+                    addName(anchorPoint.getName());
+                }
+                if (entity instanceof Hero) {
+                    Hero hero = (Hero) entity;
+                    addItem(hero.getLeftHandWeapon(), index);
+                    addItem(hero.getRightHandWeapon(), index);
+                    addItem(hero.getArmor(), index);
+                }
+                addName(entity.getName());
+            }
+        }
+
+        // AUXILIARY METHOD: gives the given item and the items it contains the next indices, if they have none yet,
+        // and returns the index of the given item, or -1 if it is not effective
+        private int addItem(Equipment item, int holder) {
+            if (item == null)
+                return -1;
+            Integer index = itemIndices.get(item);
+            if (index != null)
+                return index;
+            if (!(item instanceof Weapon) && !(item instanceof Armor) && !(item instanceof Purse)
+                    && !(item instanceof Backpack))
+                throw new IllegalArgumentException("Only weapons, armor, purses and backpacks can be saved.");
+
+            index = items.size();
+            itemIndices.put(item, index);
+            items.add(item);
+            if (index == holders.length)
+                holders = Arrays.copyOf(holders, 2 * index);
+            holders[index] = holder;
+
+            if (item instanceof Backpack) {
+                // The contents of nested backpacks are grouped first, so that the contents of this one stay together
+                List<Equipment> backpackContents = new ArrayList<>();
+                for (List<Equipment> itemsWithSameID : ((Backpack) item).contents.values())
+                    backpackContents.addAll(itemsWithSameID);
+                int[] contentIndices = new int[backpackContents.size()];
+                for (int i = 0; i < contentIndices.length; i++)
+                    contentIndices[i] = addItem(backpackContents.get(i), holder);
+                contentRanges.put(index, new int[] {nbContents, contentIndices.length});
+                if (nbContents + contentIndices.length > contents.length)
+                    contents = Arrays.copyOf(contents, Math.max(2 * contents.length, nbContents + contentIndices.length));
+                System.arraycopy(contentIndices, 0, contents, nbContents, contentIndices.length);
+                nbContents += contentIndices.length;
+            }
+            return index;
+        }
+
+        // AUXILIARY METHOD: stores the given name once, and returns its offset
+        private int addName(String name) {
+            if (name == null)
+                return -1;
+            Integer offset = nameOffsets.get(name);
+            if (offset == null) {
+                offset = names.size();
+                nameOffsets.put(name, offset);
+                names.writeBytes(name.getBytes(StandardCharsets.UTF_8));
+            }
+            return offset;
+        }
+
+        // AUXILIARY METHOD: writes the offset and length of the given name, stored before
+        private void putName(ByteBuffer file, String name) {
+            if (name == null) {
+                file.putInt(0);
+                file.putInt(-1);
+            }
+            else {
+                file.putInt(nameOffsets.get(name));
+                file.putInt(name.getBytes(StandardCharsets.UTF_8).length);
+            }
+        }
+
+        // AUXILIARY METHOD: returns the index of the given item, or -1 if it is not effective
+        private int indexOf(Equipment item) {
+            return item == null ? -1 : itemIndices.get(item);
+        }
+
+        /**
+         * Write the header, records and names of this layout to the given file, from its start, for the checkpoint
+         * with the given number.
+         */
+        private void writeTo(ByteBuffer file, int checkpoint) {
+            file.putInt(MAGIC).putInt(VERSION).putInt(entities.size()).putInt(anchorPoints.size())
+                    .putInt(items.size()).putInt(nbContents).putInt(names.size()).putInt(checkpoint);
+
+            int firstAnchorPoint = 0;
+            for (Entity entity : entities) {
+                int flags = entity.isFighting() ? SnapshotFormat.FIGHTING : 0;
+                if (entity instanceof Hero) {
+                    Hero hero = (Hero) entity;
+                    if (hero.isPlanningLoot())
+                        flags |= SnapshotFormat.PLANNING_LOOT;
+                    file.put(SnapshotFormat.HERO).put((byte) flags).put((byte) hero.getPlacementStrategy().ordinal())
+                            .put((byte) 0);
+                }
+                else
+                    file.put(SnapshotFormat.MONSTER).put((byte) flags)
+                            .put((byte) ((Monster) entity).getType().ordinal()).put((byte) 0);
+                file.putInt(entity.getMaxHitPoints()).putInt(entity.getHitPoints())
+                        .putInt(entity.getRegisteredProtection()).putInt(entity.getCapacity());
+                if (entity instanceof Hero) {
+                    Hero hero = (Hero) entity;
+                    file.putInt(hero.getProtection()).putLong(Math.round(hero.getIntrinsicStrength() * 100));
+                }
+                else
+                    file.putInt(((Monster) entity).getDamage()).putLong(0);
+                putName(file, entity.getName());
+                file.putInt(firstAnchorPoint).putInt(entity.getNbAnchorPoints());
+                firstAnchorPoint += entity.getNbAnchorPoints();
+                if (entity instanceof Hero) {
+                    Hero hero = (Hero) entity;
+                    file.putInt(indexOf(hero.getLeftHandWeapon())).putInt(indexOf(hero.getRightHandWeapon()))
+                            .putInt(indexOf(hero.getArmor()));
+                }
+                else
+                    file.putInt(-1).putInt(-1).putInt(-1);
+                file.putInt(0);
+            }
+
+            for (AnchorPoint anchorPoint : anchorPoints) {
+                putName(file, anchorPoint.getName());
+                file.putInt(indexOf(anchorPoint.getItem()));
+            }
+
+            for (int index = 0; index < items.size(); index++) {
+                Equipment item = items.get(index);
+                int flags = (item.isDestroyed() ? SnapshotFormat.DESTROYED : 0)
+                        | (item.isShiny() ? SnapshotFormat.SHINY : 0);
+                Integer owner = item.getOwner() == null ? null : entityIndices.get(item.getOwner());
+                int propertyA = 0, propertyB = 0, propertyC = 0, propertyD = 0;
+                byte tag, ordinal = 0;
+                if (item instanceof Weapon) {
+                    tag = SnapshotFormat.WEAPON;
+                    propertyA = ((Weapon) item).getDamage();
+                }
+                else if (item instanceof Armor) {
+                    Armor armor = (Armor) item;
+                    tag = SnapshotFormat.ARMOR;
+                    ordinal = (byte) armor.getType().ordinal();
+                    propertyA = armor.getBaseValue();
+                    propertyB = armor.getCurrentProtection();
+                }
+                else if (item instanceof Purse) {
+                    Purse purse = (Purse) item;
+                    tag = SnapshotFormat.PURSE;
+                    propertyA = purse.getCapacity();
+                    propertyB = purse.getContents();
+                }
+                else {
+                    Backpack backpack = (Backpack) item;
+                    tag = SnapshotFormat.BACKPACK;
+                    propertyA = backpack.getBaseValue();
+                    propertyB = backpack.getCapacity();
+                    propertyC = contentRanges.get(index)[0];
+                    propertyD = contentRanges.get(index)[1];
+                }
+                file.put(tag).put((byte) flags).put(ordinal).put((byte) 0).putInt(item.getWeight())
+                        .putLong(item.getIdentification()).putInt(owner == null ? -1 : owner).putInt(holders[index])
+                        .putInt(propertyA).putInt(propertyB).putInt(propertyC).putInt(propertyD);
+            }
+
+            for (int i = 0; i < nbContents; i++)
+                file.putInt(contents[i]);
+            file.put(names.toByteArray());
+        }
+    }
+}
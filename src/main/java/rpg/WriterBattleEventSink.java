@@ -0,0 +1,132 @@
+package rpg;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * A sink writing the events of a battle through a buffer to a writer, one line per event.
+ *
+ * The lines are the same as those printed by the console sink. They only reach the underlying
+ * writer once the buffer is full or the sink is flushed, so a batch of battles can be logged
+ * without writing to a file or terminal for every turn.
+ *
+ * @invar   The buffered writer of this sink is effective.
+ *          | getWriter() != null
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class WriterBattleEventSink implements BattleEventSink {
+
+    /**********************************************************
+     * Constructor
+     **********************************************************/
+
+    /**
+     * Initialize a new sink writing to the given writer.
+     *
+     * @param   writer
+     *          The writer to write the events to.
+     *
+     * @post    The new sink writes to the given writer, through a buffer.
+     *          | if (writer instanceof BufferedWriter) then new.getWriter() == writer
+     *
+     * @throws  IllegalArgumentException
+     *          The given writer is not effective.
+     *          | writer == null
+     */
+    public WriterBattleEventSink(Writer writer) throws IllegalArgumentException {
+        if (writer == null)
+            throw new IllegalArgumentException("The writer cannot be null.");
+
+        if (writer instanceof BufferedWriter)
+            this.writer = (BufferedWriter) writer;
+        else
+            this.writer = new BufferedWriter(writer);
+    }
+
+    /**********************************************************
+     * Writer
+     **********************************************************/
+
+    /**
+     * Variable referencing the buffered writer of this sink.
+     */
+    private final BufferedWriter writer;
+
+    /**
+     * Return the buffered writer of this sink.
+     */
+    @Basic @Immutable
+    public BufferedWriter getWriter() {
+        return writer;
+    }
+
+    /**
+     * Write all buffered events to the underlying writer.
+     *
+     * @throws  UncheckedIOException
+     *          The underlying writer failed.
+     */
+    public void flush() throws UncheckedIOException {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // AUXILIARY METHOD: writes the given line, followed by a line separator
+    private void writeLine(String line) throws UncheckedIOException {
+        try {
+            writer.write(line);
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**********************************************************
+     * Events
+     **********************************************************/
+
+    /**
+     * Write the names of the hero and monster starting the battle.
+     *
+     * @throws  UncheckedIOException
+     *          The underlying writer failed.
+     */
+    @Override
+    public void battleStarted(Hero hero, Monster monster) throws UncheckedIOException {
+        writeLine("Battle starts between " + hero.getName() + " and " + monster.getName());
+    }
+
+    /**
+     * Write the names of the attacker and defender of the turn.
+     *
+     * @throws  UncheckedIOException
+     *          The underlying writer failed.
+     */
+    @Override
+    public void turnTaken(int turn, Entity attacker, Entity defender, int hitPointsBefore, int hitPointsAfter)
+            throws UncheckedIOException {
+        writeLine(attacker.getName() + " attacks " + defender.getName());
+    }
+
+    /**
+     * Write the name and the remaining hit points of the winner.
+     *
+     * @throws  UncheckedIOException
+     *          The underlying writer failed.
+     */
+    @Override
+    public void battleEnded(Entity winner, int nbTurns) throws UncheckedIOException {
+        writeLine("Winner: " + winner.getName());
+        writeLine("Remaining hit points: " + winner.getHitPoints());
+    }
+}
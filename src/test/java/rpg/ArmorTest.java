@@ -1,3 +1,5 @@
+package rpg;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.AfterEach;
@@ -152,6 +154,25 @@ public class ArmorTest {
         assertTrue(armor_A.canHaveAsIdentification(armor_A.getClass(), identification));
     }
 
+    @Test
+    public void testGenerateIdentification_PrimeFromPool_ShouldNotCheckPrimality() {
+        int[] nbPrimalityChecks = {0};
+        Armor armor = new Armor(20, 80, ArmorType.TIN) {
+            @Override
+            public boolean isPrime(long number) {
+                nbPrimalityChecks[0]++;
+                return super.isPrime(number);
+            }
+        };
+        nbPrimalityChecks[0] = 0;
+
+        long identification = armor.generateIdentification();
+
+        assertEquals(0, nbPrimalityChecks[0]);
+        assertTrue(armor.isPrime(identification));
+        assertTrue(armor.canHaveAsIdentification(armor.getClass(), identification));
+    }
+
     /**
      * PROTECTION
      */
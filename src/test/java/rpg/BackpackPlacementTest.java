@@ -0,0 +1,110 @@
+package rpg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A JUnit (5) test class for testing the non-private methods of the BackpackPlacement Class.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class BackpackPlacementTest {
+
+    // BACKPACKS, with room for 10, 4 and 6 units of weight
+    private Backpack backpack_A;
+    private Backpack backpack_B;
+    private Backpack backpack_C;
+
+    @BeforeEach
+    public void setUpBackpacks() {
+        backpack_A = new Backpack(1, 10, 11);
+        backpack_B = new Backpack(1, 10, 5);
+        backpack_C = new Backpack(1, 10, 7);
+    }
+
+    /**
+     * FIRST FIT
+     */
+
+    @Test
+    void testReserve_FirstFit_ShouldChooseFirstBackpackWithRoom() {
+        BackpackPlacement placement = new BackpackPlacement(List.of(backpack_B, backpack_A, backpack_C), PlacementStrategy.FIRST_FIT);
+
+        assertSame(backpack_A, placement.reserve(new Weapon(5, 7)));
+        assertSame(backpack_B, placement.reserve(new Weapon(4, 7)));
+        // backpack_A has 5 left, backpack_B none
+        assertSame(backpack_A, placement.reserve(new Weapon(5, 7)));
+        assertSame(backpack_C, placement.reserve(new Weapon(1, 7)));
+        assertNull(placement.reserve(new Weapon(6, 7)));
+    }
+
+    /**
+     * BEST FIT
+     */
+
+    @Test
+    void testReserve_BestFit_ShouldChooseTightestBackpack() {
+        BackpackPlacement placement = new BackpackPlacement(List.of(backpack_A, backpack_B, backpack_C), PlacementStrategy.BEST_FIT);
+
+        assertSame(backpack_B, placement.reserve(new Weapon(3, 7)));
+        assertSame(backpack_C, placement.reserve(new Weapon(5, 7)));
+        // backpack_B and backpack_C have 1 left: the first of them is chosen
+        assertSame(backpack_B, placement.reserve(new Weapon(1, 7)));
+        assertSame(backpack_A, placement.reserve(new Weapon(2, 7)));
+        assertNull(placement.reserve(new Weapon(9, 7)));
+    }
+
+    @Test
+    void testReserve_NestedBackpack_ShouldTakeRoomOfEnclosingBackpack() {
+        // backpack_B weighs 1 in backpack_A, which has 9 left
+        backpack_B.setBackpack(backpack_A);
+        BackpackPlacement placement = new BackpackPlacement(List.of(backpack_A, backpack_B), PlacementStrategy.BEST_FIT);
+
+        assertSame(backpack_B, placement.reserve(new Weapon(4, 7)));
+        // backpack_A has 5 left
+        assertNull(placement.reserve(new Weapon(6, 7)));
+        assertSame(backpack_A, placement.reserve(new Weapon(5, 7)));
+    }
+
+    @Test
+    void testReserve_NoBackpacks_ShouldReturnNull() {
+        BackpackPlacement placement = new BackpackPlacement(List.of(), PlacementStrategy.FIRST_FIT);
+        assertEquals(0, placement.getNbBackpacks());
+        assertNull(placement.reserve(new Weapon(0, 7)));
+    }
+
+    /**
+     * VALUE DENSITY
+     */
+
+    @Test
+    void testReserveAll_ValueDensity_ShouldPreferDenseItems() {
+        BackpackPlacement placement = new BackpackPlacement(List.of(backpack_B), PlacementStrategy.VALUE_DENSITY);
+        Weapon light = new Weapon(2, 7);
+        Weapon heavy = new Weapon(4, 7);
+        Weapon valuable = new Weapon(2, 14);
+
+        Map<Equipment, Backpack> reservations = placement.reserveAll(List.of(heavy, light, valuable));
+
+        assertEquals(2, reservations.size());
+        assertSame(backpack_B, reservations.get(valuable));
+        assertSame(backpack_B, reservations.get(light));
+        assertFalse(reservations.containsKey(heavy));
+    }
+
+    @Test
+    void testReserveAll_BestFit_ShouldKeepGivenOrder() {
+        BackpackPlacement placement = new BackpackPlacement(List.of(backpack_B), PlacementStrategy.BEST_FIT);
+        Weapon heavy = new Weapon(4, 7);
+
+        Map<Equipment, Backpack> reservations = placement.reserveAll(List.of(heavy, new Weapon(2, 14)));
+
+        assertEquals(Map.of(heavy, backpack_B), reservations);
+    }
+}
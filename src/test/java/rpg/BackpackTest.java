@@ -1,9 +1,13 @@
+package rpg;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.function.Supplier;
+
 /**
  * A JUnit (5) test class for testing the non-private methods of the Backpack Class.
  *
@@ -185,6 +189,53 @@ public class BackpackTest {
         assertFalse(backpack2Items.hasAsItem(weapon790));
     }
 
+    @Test
+    public void testRemoveItem_LastItemWithID_ShouldReclaimList() {
+        long id = weapon490.getIdentification();
+        weapon490.setBackpack(null);
+
+        assertEquals(0, fullBackpack500.getNbItemsWithID(id));
+        assertFalse(fullBackpack500.contents.containsKey(id));
+        assertFalse(fullBackpack500.containsItemWithIdentification(id));
+    }
+
+    @Test
+    public void testRemoveItem_ItemsWithSameID_ShouldKeepOthersFindable() {
+        Backpack backpack = new Backpack(1, 10, 10_000);
+        // A fresh seed, such that no purse or backpack took the resulting identification number yet
+        long seed = System.nanoTime();
+        Purse purse = createWithSeed(seed, () -> new Purse(1, 10));
+        Backpack innerBackpack = createWithSeed(seed, () -> new Backpack(1, 10, 10));
+        long id = purse.getIdentification();
+        assertEquals(id, innerBackpack.getIdentification());
+
+        purse.setBackpack(backpack);
+        innerBackpack.setBackpack(backpack);
+        assertEquals(2, backpack.getNbItemsWithID(id));
+
+        // 1. The item that was stored last takes the place of the removed item
+        purse.setBackpack(null);
+        assertFalse(backpack.hasAsItem(purse));
+        assertTrue(backpack.hasAsItem(innerBackpack));
+        assertEquals(1, backpack.getNbItemsWithID(id));
+        assertSame(innerBackpack, backpack.getItemAtWithID(id, 1));
+
+        // 2. The removed item can be stored again
+        purse.setBackpack(backpack);
+        assertTrue(backpack.hasAsItem(purse));
+        assertSame(purse, backpack.getItemAtWithID(id, 2));
+    }
+
+    // AUXILIARY METHOD: creates an item while the current thread draws its random numbers from the given seed
+    private static <T extends Equipment> T createWithSeed(long seed, Supplier<T> factory) {
+        RandomSource.setSeed(seed);
+        try {
+            return factory.get();
+        } finally {
+            RandomSource.clearSeed();
+        }
+    }
+
     @Test
     public void testContainsItemWithIdentification_AllCases() {
         assertTrue(fullBackpack500.containsItemWithIdentification(weapon490.getIdentification()));
@@ -209,6 +260,79 @@ public class BackpackTest {
         assertEquals(10, emptyBackpack300.getTotalWeight());
     }
 
+    @Test
+    public void testGetTotalWeight_NestedBackpack_ShouldIncludeNestedContents() {
+        Backpack outer = new Backpack(5, 10, 10_000);
+        Backpack middle = new Backpack(3, 10, 10_000);
+        middle.setBackpack(outer);
+        backpack_A.setBackpack(middle);
+
+        weapon115.setBackpack(backpack_A);
+
+        assertEquals(15 + 115, backpack_A.getTotalWeight());
+        assertEquals(3 + 15 + 115, middle.getTotalWeight());
+        assertEquals(5 + 3 + 15 + 115, outer.getTotalWeight());
+        assertEquals(outer.calculateTotalWeight(), outer.getTotalWeight());
+    }
+
+    @Test
+    public void testGetTotalWeight_ItemRemovedFromNestedBackpack_ShouldDecreaseAllAncestors() {
+        Backpack outer = new Backpack(5, 10, 10_000);
+        backpack_A.setBackpack(outer);
+        weapon115.setBackpack(backpack_A);
+
+        weapon115.setBackpack(null);
+
+        assertEquals(15, backpack_A.getTotalWeight());
+        assertEquals(5 + 15, outer.getTotalWeight());
+    }
+
+    @Test
+    public void testGetTotalWeight_ItemMovedBetweenNestedBackpacks_ShouldMoveWeight() {
+        Backpack outer = new Backpack(5, 10, 10_000);
+        backpack_A.setBackpack(outer);
+        emptyBackpack500.setBackpack(outer);
+        weapon115.setBackpack(backpack_A);
+
+        weapon115.setBackpack(emptyBackpack500);
+
+        assertEquals(15, backpack_A.getTotalWeight());
+        assertEquals(10 + 115, emptyBackpack500.getTotalWeight());
+        assertEquals(5 + 15 + 10 + 115, outer.getTotalWeight());
+    }
+
+    @Test
+    public void testGetTotalWeight_PurseContentsChanged_ShouldUpdateAllAncestors() {
+        Backpack outer = new Backpack(5, 10, 10_000);
+        backpack_A.setBackpack(outer);
+        Purse purse = new Purse(2, 100);
+        purse.setBackpack(backpack_A);
+
+        purse.addToContents(3);
+        assertEquals(15 + 2 + 150, backpack_A.getTotalWeight());
+        assertEquals(5 + 15 + 2 + 150, outer.getTotalWeight());
+
+        purse.removeFromContents(1);
+        assertEquals(5 + 15 + 2 + 100, outer.getTotalWeight());
+
+        purse.empty();
+        assertEquals(5 + 15 + 2, outer.getTotalWeight());
+    }
+
+    @Test
+    public void testTryStore_AllCases() {
+        // 1. Invalid items
+        assertEquals(PlacementStatus.INVALID_ITEM, backpack_A.tryStore(null));
+        assertEquals(PlacementStatus.INVALID_ITEM, backpack_A.tryStore(backpack_A));
+        // 2. Placed, and a second time already placed
+        assertEquals(PlacementStatus.PLACED, backpack_A.tryStore(weapon115));
+        assertSame(backpack_A, weapon115.getBackpack());
+        assertEquals(PlacementStatus.ALREADY_PLACED, backpack_A.tryStore(weapon115));
+        // 3. Too heavy
+        assertEquals(PlacementStatus.TOO_HEAVY, backpack_A.tryStore(weapon490));
+        assertSame(fullBackpack500, weapon490.getBackpack());
+    }
+
     /**
      * VALUE
      */
@@ -223,6 +347,57 @@ public class BackpackTest {
         assertEquals(530, backpack2Items.getCurrentValue());
     }
 
+    @Test
+    public void testCalculateCurrentValue_NestedBackpack_ShouldIncludeNestedContents() {
+        Backpack outer = new Backpack(5, 10, 10_000);
+        backpack_A.setBackpack(outer);
+        weapon115.setBackpack(backpack_A);
+
+        assertEquals(250 + 140, backpack_A.getCurrentValue());
+        assertEquals(10 + 250 + 140, outer.getCurrentValue());
+
+        weapon115.setBackpack(null);
+        assertEquals(10 + 250, outer.getCurrentValue());
+    }
+
+    @Test
+    public void testCalculateCurrentValue_ItemValueChanged_ShouldUpdateAllAncestors() {
+        Backpack outer = new Backpack(5, 10, 10_000);
+        backpack_A.setBackpack(outer);
+        Armor armor = new Armor(5, 90, ArmorType.BRONZE);
+        armor.setBackpack(backpack_A);
+        weapon115.setBackpack(backpack_A);
+        Purse purse = new Purse(2, 100);
+        purse.setBackpack(backpack_A);
+        assertEquals(10 + 250 + 90 + 140, outer.getCurrentValue());
+
+        // 1. Armor protection
+        armor.setCurrentProtection(45);
+        assertEquals(10 + 250 + 45 + 140, outer.getCurrentValue());
+
+        // 2. Weapon damage
+        weapon115.setDamage(35);
+        assertEquals(10 + 250 + 45 + 70, outer.getCurrentValue());
+
+        // 3. Purse contents
+        purse.addToContents(30);
+        assertEquals(10 + 250 + 45 + 70 + 30, outer.getCurrentValue());
+        assertEquals(250 + 45 + 70 + 30, backpack_A.getCurrentValue());
+    }
+
+    @Test
+    public void testCalculateCurrentValue_PurseOverflowing_ShouldDropItsValueOnce() {
+        Purse purse = new Purse(2, 100);
+        purse.setBackpack(backpack_A);
+        purse.addToContents(60);
+        assertEquals(250 + 60, backpack_A.getCurrentValue());
+        assertEquals(15 + 2 + 60 * 50, backpack_A.getTotalWeight());
+
+        purse.addToContents(60);
+        assertEquals(250, backpack_A.getCurrentValue());
+        assertEquals(15 + 2, backpack_A.getTotalWeight());
+    }
+
     /**
      * CONDITION
      */
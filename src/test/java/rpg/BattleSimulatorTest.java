@@ -0,0 +1,151 @@
+package rpg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * A JUnit (5) test class for testing the parallel battle simulator.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class BattleSimulatorTest {
+
+    // TEMPLATES
+    private static final Supplier<Hero> STRONG_HERO = () -> new Hero("StrongHero", 100, 30.0);
+    private static final Supplier<Hero> EVEN_HERO = () -> new Hero("EvenHero", 100, 20.0);
+    private static final Supplier<Monster> WEAK_MONSTER =
+            () -> new Monster("WeakMonster", 30, 7, new ArrayList<Equipment>(), SkinType.SCALY);
+    private static final Supplier<Hero> ARMORED_HERO =
+            () -> new Hero("ArmoredHero", 100, 20.0, new Armor(20, 80, ArmorType.TIN));
+    private static final Supplier<Monster> EVEN_MONSTER =
+            () -> new Monster("EvenMonster", 100, 14, new ArrayList<Equipment>(), SkinType.TOUGH);
+
+    /** CONSTRUCTOR */
+
+    @Test
+    void testConstructor_NullArguments_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new BattleSimulator(null, WEAK_MONSTER));
+        assertThrows(IllegalArgumentException.class, () -> new BattleSimulator(STRONG_HERO, null));
+        assertThrows(IllegalArgumentException.class, () -> new BattleSimulator(STRONG_HERO, WEAK_MONSTER, null));
+    }
+
+    @Test
+    void testConstructor_WithoutPool_ShouldUseCommonPool() {
+        BattleSimulator simulator = new BattleSimulator(STRONG_HERO, WEAK_MONSTER);
+
+        assertSame(STRONG_HERO, simulator.getHeroTemplate());
+        assertSame(WEAK_MONSTER, simulator.getMonsterTemplate());
+        assertSame(ForkJoinPool.commonPool(), simulator.getPool());
+    }
+
+    /** SIMULATE */
+
+    @Test
+    void testSimulate_ShouldFightAllBattles() {
+        BattleStatistics statistics = new BattleSimulator(EVEN_HERO, EVEN_MONSTER).simulate(1_000);
+
+        assertEquals(1_000, statistics.getNbBattles());
+        assertEquals(1_000, statistics.getNbHeroWins() + statistics.getNbMonsterWins());
+
+        long counted = 0;
+        for (int nbTurns = 0; nbTurns <= statistics.getMaximumNbTurns(); nbTurns++)
+            counted += statistics.getNbBattlesTaking(nbTurns);
+        assertEquals(1_000, counted);
+    }
+
+    @Test
+    void testSimulate_StrongHero_ShouldWinEveryBattle() {
+        BattleStatistics statistics = new BattleSimulator(STRONG_HERO, WEAK_MONSTER).simulate(500);
+
+        assertEquals(1.0, statistics.getHeroWinRate());
+        assertTrue(statistics.getAverageHeroHitPointsLeft() > 0);
+    }
+
+    @Test
+    void testSimulate_NoBattles_ShouldReturnEmptyStatistics() {
+        BattleStatistics statistics = new BattleSimulator(STRONG_HERO, WEAK_MONSTER).simulate(0);
+
+        assertEquals(0, statistics.getNbBattles());
+    }
+
+    @Test
+    void testSimulate_NegativeNumberOfBattles_ShouldThrowException() {
+        BattleSimulator simulator = new BattleSimulator(STRONG_HERO, WEAK_MONSTER);
+
+        assertThrows(IllegalArgumentException.class, () -> simulator.simulate(-1));
+        assertThrows(IllegalArgumentException.class, () -> simulator.simulate(-1, 42));
+    }
+
+    @Test
+    void testSimulate_ReportingChanges_ShouldThrowException() {
+        BattleSimulator simulator = new BattleSimulator(STRONG_HERO, WEAK_MONSTER);
+
+        WorldEvents.setSink(new WorldEventSink() {});
+        try {
+            assertThrows(IllegalStateException.class, () -> simulator.simulate(10));
+            assertThrows(IllegalStateException.class, () -> simulator.simulate(10, 42));
+        } finally {
+            WorldEvents.setSink(WorldEventSink.NONE);
+        }
+        assertEquals(10, simulator.simulate(10).getNbBattles());
+    }
+
+    @Test
+    void testSimulate_SameSeed_ShouldNotDependOnNumberOfThreads() {
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool several = new ForkJoinPool(4);
+        try {
+            BattleStatistics serial = new BattleSimulator(EVEN_HERO, EVEN_MONSTER, single).simulate(2_000, 7);
+            BattleStatistics parallel = new BattleSimulator(EVEN_HERO, EVEN_MONSTER, several).simulate(2_000, 7);
+
+            assertEquals(serial.getNbHeroWins(), parallel.getNbHeroWins());
+            assertEquals(serial.getAverageNbTurns(), parallel.getAverageNbTurns());
+            assertEquals(serial.getAverageHeroHitPointsLeft(), parallel.getAverageHeroHitPointsLeft());
+            assertEquals(serial.getAverageMonsterHitPointsLeft(), parallel.getAverageMonsterHitPointsLeft());
+            for (int nbTurns = 0; nbTurns <= serial.getMaximumNbTurns(); nbTurns++)
+                assertEquals(serial.getNbBattlesTaking(nbTurns), parallel.getNbBattlesTaking(nbTurns));
+        } finally {
+            single.shutdown();
+            several.shutdown();
+        }
+    }
+
+    @Test
+    void testSimulate_SameSeedWithArmor_ShouldNotDependOnArmorTakenBefore() {
+        BattleSimulator simulator = new BattleSimulator(ARMORED_HERO, EVEN_MONSTER);
+        BattleStatistics first = simulator.simulate(500, 11);
+        for (int i = 0; i < 1_000; i++)
+            new Armor(20, 80, ArmorType.TIN);
+        BattleStatistics second = simulator.simulate(500, 11);
+
+        assertEquals(first.getNbHeroWins(), second.getNbHeroWins());
+        assertEquals(first.getAverageNbTurns(), second.getAverageNbTurns());
+        assertEquals(first.getAverageHeroHitPointsLeft(), second.getAverageHeroHitPointsLeft());
+    }
+
+    @Test
+    void testSimulate_ManyArmoredBattles_ShouldNotKeepIdentifications() {
+        new Armor(20, 80, ArmorType.TIN);
+        int nbArmorIdentifications = Equipment.equipmentByType.get(Armor.class).size();
+
+        new BattleSimulator(ARMORED_HERO, EVEN_MONSTER).simulate(5_000, 3);
+        new BattleSimulator(ARMORED_HERO, EVEN_MONSTER).simulate(5_000);
+
+        assertEquals(nbArmorIdentifications, Equipment.equipmentByType.get(Armor.class).size());
+        assertNull(IdentificationScope.current());
+    }
+
+    @Test
+    void testSimulate_Seeded_ShouldRestoreSeedOfCallingThread() {
+        RandomSource.clearSeed();
+        new BattleSimulator(EVEN_HERO, EVEN_MONSTER).simulate(200, 7);
+
+        assertFalse(RandomSource.isSeeded());
+    }
+}
@@ -0,0 +1,96 @@
+package rpg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * A JUnit (5) test class for testing the statistics of a number of battles.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class BattleStatisticsTest {
+
+    private BattleStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = new BattleStatistics();
+    }
+
+    /** CONSTRUCTOR */
+
+    @Test
+    void testConstructor_ShouldHaveNoBattles() {
+        assertEquals(0, statistics.getNbBattles());
+        assertEquals(0, statistics.getHeroWinRate());
+        assertEquals(0, statistics.getAverageNbTurns());
+        assertEquals(0, statistics.getMaximumNbTurns());
+        assertEquals(0, statistics.getNbTurnsAtFraction(0.5));
+    }
+
+    /** RECORD */
+
+    @Test
+    void testRecord_ShouldCountWinsTurnsAndHitPoints() {
+        statistics.record(true, 4, 50);
+        statistics.record(true, 6, 30);
+        statistics.record(false, 200, 11);
+
+        assertEquals(3, statistics.getNbBattles());
+        assertEquals(2, statistics.getNbHeroWins());
+        assertEquals(1, statistics.getNbMonsterWins());
+        assertEquals(2.0 / 3, statistics.getHeroWinRate());
+        assertEquals(70.0, statistics.getAverageNbTurns());
+        assertEquals(200, statistics.getMaximumNbTurns());
+        assertEquals(1, statistics.getNbBattlesTaking(200));
+        assertEquals(0, statistics.getNbBattlesTaking(5));
+        assertEquals(40.0, statistics.getAverageHeroHitPointsLeft());
+        assertEquals(11.0, statistics.getAverageMonsterHitPointsLeft());
+    }
+
+    @Test
+    void testRecord_NegativeNumberOfTurns_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> statistics.record(true, -1, 10));
+    }
+
+    /** FRACTION */
+
+    @Test
+    void testGetNbTurnsAtFraction_ShouldReturnSmallestNumberCoveringFraction() {
+        for (int nbTurns = 1; nbTurns <= 10; nbTurns++)
+            statistics.record(true, nbTurns, 10);
+
+        assertEquals(1, statistics.getNbTurnsAtFraction(0.0));
+        assertEquals(5, statistics.getNbTurnsAtFraction(0.5));
+        assertEquals(9, statistics.getNbTurnsAtFraction(0.9));
+        assertEquals(10, statistics.getNbTurnsAtFraction(1.0));
+        assertThrows(IllegalArgumentException.class, () -> statistics.getNbTurnsAtFraction(1.5));
+    }
+
+    /** MERGE */
+
+    @Test
+    void testMerge_ShouldAddAllBattles() {
+        BattleStatistics other = new BattleStatistics();
+        statistics.record(true, 3, 20);
+        other.record(false, 3, 10);
+        other.record(true, 500, 40);
+
+        statistics.merge(other);
+
+        assertEquals(3, statistics.getNbBattles());
+        assertEquals(2, statistics.getNbHeroWins());
+        assertEquals(2, statistics.getNbBattlesTaking(3));
+        assertEquals(1, statistics.getNbBattlesTaking(500));
+        assertEquals(30.0, statistics.getAverageHeroHitPointsLeft());
+    }
+
+    @Test
+    void testMerge_InvalidStatistics_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> statistics.merge(null));
+        assertThrows(IllegalArgumentException.class, () -> statistics.merge(statistics));
+    }
+}
@@ -0,0 +1,147 @@
+package rpg;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BattleTest {
+
+    private Hero strongHero;
+    private Hero weakHero;
+    private Monster strongMonster;
+    private Monster weakMonster;
+
+    @BeforeEach
+    void setUp() {
+        strongHero = new Hero("StrongHero", 100, 30.0);
+        weakHero = new Hero("WeakHero", 20, 1.0);
+
+        // Monster constructor requires name, maxHitPoints, and initialItems
+        strongMonster = new Monster("StrongMonster", 100, 49, new ArrayList<Equipment>(), SkinType.SCALY);
+        strongMonster.setDamage(21); // must be a multiple of 7 and <= 100
+
+        weakMonster = new Monster("WeakMonster", 30, 49, new ArrayList<Equipment>(), SkinType.SCALY);
+        weakMonster.setDamage(7); // minimum valid damage
+    }
+
+    @Test
+    void testFight_StrongHeroShouldBeatWeakMonster_() {
+        Battle battle = new Battle(strongHero, weakMonster);
+        battle.fight();
+
+        assertTrue(strongHero.isAlive(), "Strong hero should survive");
+        assertFalse(weakMonster.isAlive(), "Weak monster should be defeated");
+    }
+
+    @Test
+    void testFight_StrongMonsterShouldBeatWeakHero() {
+        Battle battle = new Battle(weakHero, strongMonster);
+        battle.fight();
+
+        assertFalse(weakHero.isAlive(), "Weak hero should die");
+        assertTrue(strongMonster.isAlive(), "Strong monster should survive");
+    }
+
+    @Test
+    void testFight_ShouldTerminateAndDeclareWinner() {
+        Battle battle = new Battle(strongHero, strongMonster);
+
+        // Only one entity should be alive after the fight
+        boolean heroAlive = strongHero.isAlive();
+        boolean monsterAlive = strongMonster.isAlive();
+
+        assertTrue(heroAlive | monsterAlive);
+    }
+
+    @Test
+    void testConstructor_InvalidArguments_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new Battle(null, weakMonster));
+        assertThrows(IllegalArgumentException.class, () -> new Battle(strongHero, null));
+    }
+
+    @Test
+    void testConstructor_ValidArguments_ShouldInitializeFields() {
+        Battle battle = new Battle(strongHero, weakMonster);
+
+        assertEquals(strongHero, battle.getHero());
+        assertEquals(weakMonster, battle.getMonster());
+    }
+
+    @Test
+    void testConstructor_NullEventSink_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new Battle(strongHero, weakMonster, null));
+    }
+
+    @Test
+    void testConstructor_WithoutEventSink_ShouldReportToConsole() {
+        Battle battle = new Battle(strongHero, weakMonster);
+
+        assertTrue(battle.getEventSink() instanceof ConsoleBattleEventSink);
+    }
+
+    /** EVENTS */
+
+    @Test
+    void testFight_RingBufferSink_ShouldRecordEveryTurnInOrder() {
+        RingBufferBattleEventSink sink = new RingBufferBattleEventSink(10_000);
+        new Battle(strongHero, weakMonster, sink).fight();
+
+        assertEquals(1, sink.getNbBattlesEnded());
+        assertSame(strongHero, sink.getLastWinner());
+        assertTrue(sink.getNbTurnsRecorded() > 0);
+        for (int i = 1; i <= sink.getNbTurnsRecorded(); i++) {
+            assertEquals(i, sink.getTurnAt(i));
+            assertNotSame(sink.getAttackerAt(i), sink.getDefenderAt(i));
+        }
+
+        // The last turn is the fatal attack of the winner.
+        int last = sink.getNbTurnsRecorded();
+        assertSame(strongHero, sink.getAttackerAt(last));
+        assertSame(weakMonster, sink.getDefenderAt(last));
+        assertEquals(0, sink.getHitPointsAfterAt(last));
+    }
+
+    @Test
+    void testFight_NoEventSink_ShouldStillDecideWinner() {
+        new Battle(weakHero, strongMonster, BattleEventSink.NONE).fight();
+
+        assertFalse(weakHero.isAlive());
+        assertTrue(strongMonster.isAlive());
+    }
+
+    @Test
+    void testFight_WriterSink_ShouldWriteSameLinesAsConsole() {
+        PrintStream console = System.out;
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        RingBufferBattleEventSink turns = new RingBufferBattleEventSink(10_000);
+
+        // Replay the recorded events to both line-based sinks.
+        new Battle(strongHero, weakMonster, turns).fight();
+        StringWriter written = new StringWriter();
+        WriterBattleEventSink writerSink = new WriterBattleEventSink(written);
+        ConsoleBattleEventSink consoleSink = new ConsoleBattleEventSink();
+        try {
+            System.setOut(new PrintStream(printed, true));
+            for (BattleEventSink sink : List.of(writerSink, consoleSink)) {
+                sink.battleStarted(strongHero, weakMonster);
+                for (int i = 1; i <= turns.getNbTurnsRecorded(); i++)
+                    sink.turnTaken(turns.getTurnAt(i), turns.getAttackerAt(i), turns.getDefenderAt(i),
+                            turns.getHitPointsBeforeAt(i), turns.getHitPointsAfterAt(i));
+                sink.battleEnded(turns.getLastWinner(), turns.getNbTurnsRecorded());
+            }
+        } finally {
+            System.setOut(console);
+        }
+        writerSink.flush();
+
+        assertEquals(printed.toString(), written.toString());
+        assertTrue(written.toString().startsWith("Battle starts between StrongHero and WeakMonster"));
+    }
+}
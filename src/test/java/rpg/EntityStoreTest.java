@@ -0,0 +1,194 @@
+package rpg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+/**
+ * A JUnit (5) test class for testing the non-private methods of the EntityStore Class.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class EntityStoreTest {
+
+    private EntityStore store;
+
+    // ENTITIES
+    private Hero hero_A, hero_B;
+    private Monster monster_A;
+
+    // EQUIPMENT
+    private Weapon weapon_A;
+    private Backpack backpack_A;
+
+    @BeforeEach
+    public void setUpStore() {
+        store = new EntityStore(1);
+        hero_A = new Hero("Ben", 100, 45.25);
+        hero_B = new Hero("Ann", 50, 20);
+        monster_A = new Monster("Tom", 70, 49, new ArrayList<>(), SkinType.THICK);
+        weapon_A = new Weapon(10, 35);
+        backpack_A = new Backpack(5, 30, 200);
+        weapon_A.setOwner(hero_A);
+    }
+
+    /**
+     * ATTACHING AND DETACHING
+     */
+
+    @Test
+    void testAdd_Entities_ShouldKeepTheirState() {
+        int protection = monster_A.getCurrentProtection();
+        int capacity = monster_A.getCapacity();
+
+        assertEquals(0, store.add(hero_A));
+        assertEquals(1, store.add(monster_A));
+
+        assertEquals(2, store.getNbEntities());
+        assertSame(store, hero_A.getStore());
+        assertEquals(1, monster_A.getHandle());
+        assertSame(monster_A, store.getEntityAt(1));
+        assertTrue(store.hasAsEntity(hero_A));
+        assertFalse(store.hasAsEntity(hero_B));
+        assertEquals(97, hero_A.getHitPoints());
+        assertEquals(100, hero_A.getMaxHitPoints());
+        assertEquals(10, hero_A.getTotalWeight());
+        assertEquals(protection, monster_A.getCurrentProtection());
+        assertEquals(capacity, monster_A.getCapacity());
+    }
+
+    @Test
+    void testAttachedEntity_Changes_ShouldBeRegisteredInStore() {
+        store.add(hero_A);
+        store.add(monster_A);
+
+        hero_A.setFighting(true);
+        hero_A.setHitPoints(40);
+        backpack_A.setOwner(hero_A);
+        monster_A.setCurrentProtection(3);
+
+        assertEquals(40, store.hitPoints[hero_A.getHandle()]);
+        assertTrue(store.fighting[hero_A.getHandle()]);
+        assertEquals(15, hero_A.getTotalWeight());
+        assertEquals(15, store.carriedWeights[hero_A.getHandle()]);
+        assertEquals(3, store.currentProtections[monster_A.getHandle()]);
+
+        hero_A.setFighting(false);
+        assertEquals(37, hero_A.getHitPoints());
+        hero_A.removeHitPoints(10);
+        assertEquals(23, hero_A.getHitPoints());
+    }
+
+    @Test
+    void testAttachedEntity_RegisteredCapacityAndProtection_ShouldSurviveDetaching() {
+        store.add(monster_A);
+
+        monster_A.registerCapacity(1000);
+        monster_A.registerProtection(4);
+        assertEquals(1000, store.capacities[monster_A.getHandle()]);
+        assertEquals(4, store.currentProtections[monster_A.getHandle()]);
+
+        store.remove(monster_A);
+        assertEquals(1000, monster_A.getCapacity());
+        assertEquals(4, monster_A.getCurrentProtection());
+    }
+
+    @Test
+    void testRemove_AttachedEntity_ShouldRestoreStateAndMoveLastEntity() {
+        store.add(hero_A);
+        store.add(hero_B);
+        store.add(monster_A);
+        hero_A.setFighting(true);
+        hero_A.setHitPoints(40);
+        monster_A.setHitPoints(13);
+
+        store.remove(hero_A);
+
+        assertNull(hero_A.getStore());
+        assertEquals(-1, hero_A.getHandle());
+        assertEquals(40, hero_A.getHitPoints());
+        assertTrue(hero_A.isFighting());
+        assertEquals(10, hero_A.getTotalWeight());
+        assertEquals(2, store.getNbEntities());
+        assertSame(monster_A, store.getEntityAt(0));
+        assertEquals(0, monster_A.getHandle());
+        assertEquals(13, monster_A.getHitPoints());
+        assertEquals(47, hero_B.getHitPoints());
+
+        // A detached entity can be attached again
+        hero_A.setHitPoints(31);
+        assertEquals(2, store.add(hero_A));
+        assertEquals(31, hero_A.getHitPoints());
+    }
+
+    /**
+     * PASSES
+     */
+
+    @Test
+    void testRegenerateHitPoints_AllEntities_ShouldActLikeAddHitPoints() {
+        Hero hero_C = new Hero("Eve", 100, 30);
+        Hero hero_D = new Hero("Rik", 100, 30);
+        hero_A.setHitPoints(0);
+        hero_B.setHitPoints(43);
+        hero_C.setFighting(true);
+        hero_C.setHitPoints(40);
+        hero_D.setHitPoints(89);
+        for (Entity entity : new Entity[] {hero_A, hero_B, hero_C, hero_D})
+            store.add(entity);
+
+        assertEquals(3, store.regenerateHitPoints(20));
+
+        assertEquals(0, hero_A.getHitPoints());
+        assertEquals(50, hero_B.getHitPoints());
+        assertEquals(60, hero_C.getHitPoints());
+        assertEquals(100, hero_D.getHitPoints());
+        Hero reference = new Hero("Ann", 50, 20);
+        reference.setHitPoints(43);
+        reference.addHitPoints(20);
+        assertEquals(reference.getHitPoints(), hero_B.getHitPoints());
+        assertThrows(IllegalArgumentException.class, () -> store.regenerateHitPoints(-1));
+    }
+
+    @Test
+    void testExpireFighting_FightingEntities_ShouldActLikeSetFighting() {
+        hero_A.setFighting(true);
+        hero_A.setHitPoints(40);
+        hero_B.setFighting(true);
+        hero_B.setHitPoints(0);
+        store.add(hero_A);
+        store.add(hero_B);
+        store.add(monster_A);
+
+        assertEquals(2, store.expireFighting());
+
+        assertFalse(hero_A.isFighting());
+        assertFalse(hero_B.isFighting());
+        assertEquals(37, hero_A.getHitPoints());
+        assertEquals(0, hero_B.getHitPoints());
+        assertEquals(0, store.expireFighting());
+    }
+
+    /**
+     * ILLEGAL CASES
+     */
+
+    @Test
+    void testStore_IllegalCases_ShouldThrowException() {
+        EntityStore otherStore = new EntityStore();
+        store.add(hero_A);
+
+        assertThrows(IllegalArgumentException.class, () -> new EntityStore(-1));
+        assertThrows(IllegalArgumentException.class, () -> store.add(null));
+        assertThrows(IllegalArgumentException.class, () -> store.add(hero_A));
+        assertThrows(IllegalArgumentException.class, () -> otherStore.add(hero_A));
+        assertThrows(IllegalArgumentException.class, () -> store.remove(hero_B));
+        assertThrows(IllegalArgumentException.class, () -> otherStore.remove(hero_A));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.getEntityAt(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.getEntityAt(-1));
+    }
+}
@@ -0,0 +1,146 @@
+package rpg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * A JUnit (5) stress test class for creating equipment on several threads at the same time.
+ * All threads start creating equipment at the same moment, so that they continuously
+ * compete for the identification registry.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+@Tag("stress")
+public class EquipmentConcurrencyTest {
+
+    // NUMBER OF THREADS
+    private static final int NB_THREADS = 8;
+
+    // NUMBER OF ITEMS CREATED PER THREAD
+    private static final int NB_ITEMS_PER_THREAD = 1_000;
+
+    // AUXILIARY METHOD
+    // Creates items on all threads simultaneously and returns the identification numbers of all created items.
+    private List<Long> createConcurrently(Supplier<Equipment> factory) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(NB_THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+
+        try {
+            List<Future<List<Long>>> futures = new ArrayList<>();
+            for (int t = 0; t < NB_THREADS; t++) {
+                Callable<List<Long>> task = () -> {
+                    startSignal.await();
+                    List<Long> identifications = new ArrayList<>();
+                    for (int i = 0; i < NB_ITEMS_PER_THREAD; i++) {
+                        identifications.add(factory.get().getIdentification());
+                    }
+                    return identifications;
+                };
+                futures.add(executor.submit(task));
+            }
+
+            startSignal.countDown();
+
+            List<Long> allIdentifications = new ArrayList<>();
+            for (Future<List<Long>> future : futures) {
+                allIdentifications.addAll(future.get());
+            }
+            return allIdentifications;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // AUXILIARY METHOD
+    private void assertAllUniqueAndRegistered(Class<?> equipmentType, List<Long> identifications) {
+        Set<Long> distinct = new HashSet<>(identifications);
+
+        // 1. no two items of the same type got the same identification number
+        assertEquals(NB_THREADS * NB_ITEMS_PER_THREAD, identifications.size());
+        assertEquals(identifications.size(), distinct.size());
+
+        // 2. every identification number ended up in the registry
+        for (long identification : identifications) {
+            assertTrue(Equipment.equipmentByType.isRegistered(equipmentType, identification));
+        }
+    }
+
+    /**
+     * IDENTIFICATION
+     */
+
+    @Test
+    void testConcurrentCreation_Weapons_ShouldHaveUniqueIdentifications() throws Exception {
+        List<Long> identifications = createConcurrently(() -> new Weapon(10, 70));
+        assertAllUniqueAndRegistered(Weapon.class, identifications);
+        for (long identification : identifications) {
+            assertEquals(0, identification % 6);
+        }
+    }
+
+    @Test
+    void testConcurrentCreation_Armors_ShouldHaveUniqueIdentifications() throws Exception {
+        List<Long> identifications = createConcurrently(() -> new Armor(50, 100, ArmorType.TIN));
+        assertAllUniqueAndRegistered(Armor.class, identifications);
+    }
+
+    @Test
+    void testConcurrentCreation_Backpacks_ShouldHaveUniqueIdentifications() throws Exception {
+        List<Long> identifications = createConcurrently(() -> new Backpack(10, 50, 150));
+        assertAllUniqueAndRegistered(Backpack.class, identifications);
+    }
+
+    @Test
+    void testConcurrentCreation_Purses_ShouldHaveUniqueIdentifications() throws Exception {
+        List<Long> identifications = createConcurrently(() -> new Purse(10, 100));
+        assertAllUniqueAndRegistered(Purse.class, identifications);
+    }
+
+    @Test
+    void testConcurrentRegistration_SameIdentification_ShouldSucceedExactlyOnce() throws Exception {
+        IdentificationRegistry registry = new IdentificationRegistry();
+        ExecutorService executor = Executors.newFixedThreadPool(NB_THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < NB_THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    int nbSucceeded = 0;
+                    // every thread tries to reserve the same identification numbers
+                    for (long identification = 0; identification < NB_ITEMS_PER_THREAD; identification++) {
+                        if (registry.register(Backpack.class, identification))
+                            nbSucceeded++;
+                    }
+                    return nbSucceeded;
+                }));
+            }
+
+            startSignal.countDown();
+
+            int totalSucceeded = 0;
+            for (Future<Integer> future : futures) {
+                totalSucceeded += future.get();
+            }
+            assertEquals(NB_ITEMS_PER_THREAD, totalSucceeded);
+            assertEquals(NB_ITEMS_PER_THREAD, registry.get(Backpack.class).size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
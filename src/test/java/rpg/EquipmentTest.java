@@ -1,3 +1,5 @@
+package rpg;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.AfterEach;
@@ -438,7 +440,7 @@ public class EquipmentTest {
         // 3.1 postcondition on contents of list
         assertFalse(backpack_A.hasAsItem(weapon_A));
         // 3.2 postcondition on size of list
-        assertEquals(oldSizeA-1, backpack_A.contents.get(weapon_A.getIdentification()).size());
+        assertEquals(oldSizeA-1, backpack_A.getNbItemsWithID(weapon_A.getIdentification()));
 
         // 4. effect addItem on new backpack
         assertTrue(backpack_B.hasAsItem(weapon_A));
@@ -514,7 +516,7 @@ public class EquipmentTest {
         // 3.1 postcondition on contents of list
         assertFalse(backpack_A.hasAsItem(weapon_A));
         // 3.2 postcondition on size of list
-        assertEquals(oldSizeA-1, backpack_A.contents.get(weapon_A.getIdentification()).size());
+        assertEquals(oldSizeA-1, backpack_A.getNbItemsWithID(weapon_A.getIdentification()));
 
         // 4. effect addItem on new backpack
         // not applicable
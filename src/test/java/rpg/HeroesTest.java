@@ -1,3 +1,5 @@
+package rpg;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -316,6 +318,87 @@ public class HeroesTest {
         });
     }
 
+    /********************************************************************
+     *                     COLLECT TREASURES TEST
+     ********************************************************************/
+
+    @Test
+    void testGetPlacementStrategy_NewHero_ShouldBeBestFit() {
+        assertEquals(PlacementStrategy.BEST_FIT, hero_A.getPlacementStrategy());
+    }
+
+    @Test
+    void testSetPlacementStrategy_NullStrategy_ShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> hero_A.setPlacementStrategy(null));
+        assertEquals(PlacementStrategy.BEST_FIT, hero_A.getPlacementStrategy());
+    }
+
+    @Test
+    void testCollectTreasureFrom_BestFit_ShouldStoreInTightestNestedBackpack() {
+        Backpack small = fillHandsAndBackWithBackpacks(hero);
+        Weapon loot = new Weapon(5, 7);
+        Monster monster = createMonsterCarrying(loot);
+
+        hero.collectTreasureFrom(monster);
+
+        assertSame(small, loot.getBackpack());
+        assertNull(monster.getAnchorPointOfItem(loot));
+    }
+
+    @Test
+    void testCollectTreasureFrom_FirstFit_ShouldStoreInOutermostBackpack() {
+        Backpack small = fillHandsAndBackWithBackpacks(hero);
+        hero.setPlacementStrategy(PlacementStrategy.FIRST_FIT);
+        Weapon loot = new Weapon(5, 7);
+        Monster monster = createMonsterCarrying(loot);
+
+        hero.collectTreasureFrom(monster);
+
+        assertSame(small.getBackpack(), loot.getBackpack());
+    }
+
+    @Test
+    void testCollectTreasureFrom_PlanningLoot_ShouldTakeMostValuableItems() {
+        // hero_C can carry 100, so either the heavy weapon or both light ones
+        Weapon heavy = new Weapon(60, 98);
+        Weapon light_A = new Weapon(50, 84);
+        Weapon light_B = new Weapon(50, 84);
+        Monster monster = createMonsterCarrying(heavy, light_A, light_B);
+        hero_C.setPlanningLoot(true);
+
+        hero_C.collectTreasureFrom(monster);
+
+        assertTrue(hero_C.isPlanningLoot());
+        assertSame(hero_C, light_A.getOwner());
+        assertSame(hero_C, light_B.getOwner());
+        assertSame(monster, heavy.getOwner());
+    }
+
+    // AUXILIARY METHOD: returns a monster with exactly one anchor point for each of the given items, carrying them,
+    // as the number of anchor points a monster is initialized with is random
+    private static Monster createMonsterCarrying(Equipment... items) {
+        Monster monster = new Monster("Tom", 70, 49, new ArrayList<>(), SkinType.SCALY);
+        monster.removeAllAnchorPoints();
+        for (int i = 0; i < items.length; i++)
+            monster.addAnchorPoint(new AnchorPoint("claw" + i));
+        monster.registerCapacity(1000);
+        for (Equipment item : items)
+            item.setOwner(monster);
+        return monster;
+    }
+
+    // AUXILIARY METHOD: occupies the hands and back of the given hero, with a large backpack in the left hand
+    // holding a small one, and returns the small backpack
+    private static Backpack fillHandsAndBackWithBackpacks(Hero hero) {
+        Backpack large = new Backpack(1, 10, 100);
+        Backpack small = new Backpack(1, 10, 10);
+        small.setBackpack(large);
+        large.setOwner(hero);
+        new Weapon(1, 7).setOwner(hero);
+        new Weapon(1, 7).setOwner(hero);
+        return small;
+    }
+
     /********************************************************************
      *                        WEAPON EQUIPMENT TEST
      ********************************************************************/
@@ -424,4 +507,28 @@ public class HeroesTest {
         assertFalse(hero_A.canHaveAsItemAt(weapon_A, null));
     }
 
+    @Test
+    void testGetAnchorPoint_HeroAnchor_ShouldReturnAnchorPointInSlot() {
+        for (HeroAnchor anchor : HeroAnchor.values()) {
+            AnchorPoint anchorpoint = hero_A.getAnchorPoint(anchor);
+            assertEquals(anchor.getName(), anchorpoint.getName());
+            assertEquals(anchor.getSlot(), anchorpoint.getSlot());
+            assertSame(anchorpoint, hero_A.getAnchorPoint(anchor.getName().toUpperCase()));
+        }
+    }
+
+    @Test
+    void testRemoveAsItem_WeaponInRightHand_ShouldClearRightHandWeapon() {
+        weapon_A.setOwner(hero_A);
+        weapon_B.setOwner(hero_A);
+        assertSame(hero_A.getAnchorPoint(HeroAnchor.RIGHT_HAND), hero_A.getAnchorPointOfItem(weapon_B));
+
+        weapon_B.setOwner(null);
+
+        assertNull(hero_A.getRightHandWeapon());
+        assertSame(weapon_A, hero_A.getLeftHandWeapon());
+        assertNull(hero_A.getAnchorPointOfItem(weapon_B));
+        assertTrue(hero_A.getAnchorPoint(HeroAnchor.RIGHT_HAND).isEmpty());
+    }
+
 }
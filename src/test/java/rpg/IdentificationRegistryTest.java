@@ -0,0 +1,210 @@
+package rpg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A JUnit (5) test class for testing the non-private methods of the IdentificationRegistry Class.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class IdentificationRegistryTest {
+
+    // REGISTRY
+    private IdentificationRegistry registry_A;
+
+    @BeforeEach
+    public void setUpRegistry() {
+        registry_A = new IdentificationRegistry();
+    }
+
+    /**
+     * CONSTRUCTORS
+     */
+
+    @Test
+    void testConstructor_ShouldBeEmpty() {
+        assertFalse(registry_A.containsKey(Weapon.class));
+        assertNull(registry_A.get(Weapon.class));
+        assertFalse(registry_A.isRegistered(Weapon.class, 6));
+    }
+
+    /**
+     * REGISTRATION
+     */
+
+    @Test
+    void testRegister_NewIdentification_ShouldBeRegistered() {
+        assertTrue(registry_A.register(Weapon.class, 6));
+
+        assertTrue(registry_A.containsKey(Weapon.class));
+        assertTrue(registry_A.isRegistered(Weapon.class, 6));
+        assertEquals(1, registry_A.get(Weapon.class).size());
+    }
+
+    @Test
+    void testRegister_ExistingIdentification_ShouldReturnFalse() {
+        registry_A.register(Weapon.class, 6);
+
+        assertFalse(registry_A.register(Weapon.class, 6));
+        assertEquals(1, registry_A.get(Weapon.class).size());
+    }
+
+    @Test
+    void testRegister_SameIdentificationOtherType_ShouldBeIndependent() {
+        registry_A.register(Weapon.class, 6);
+
+        assertFalse(registry_A.isRegistered(Backpack.class, 6));
+        assertTrue(registry_A.register(Backpack.class, 6));
+        assertTrue(registry_A.isRegistered(Backpack.class, 6));
+    }
+
+    @Test
+    void testUnregister_RegisteredIdentification_ShouldBeFreeAgain() {
+        registry_A.register(Weapon.class, 6);
+        registry_A.register(Weapon.class, 12);
+
+        assertTrue(registry_A.unregister(Weapon.class, 6));
+        assertFalse(registry_A.isRegistered(Weapon.class, 6));
+        assertTrue(registry_A.isRegistered(Weapon.class, 12));
+        assertFalse(registry_A.unregister(Weapon.class, 6));
+        assertFalse(registry_A.unregister(Backpack.class, 12));
+        assertTrue(registry_A.register(Weapon.class, 6));
+    }
+
+    @Test
+    void testClear_ShouldRemoveAllTypes() {
+        registry_A.register(Weapon.class, 6);
+        registry_A.register(Armor.class, 7);
+
+        registry_A.clear();
+
+        assertFalse(registry_A.containsKey(Weapon.class));
+        assertFalse(registry_A.containsKey(Armor.class));
+        assertFalse(registry_A.isRegistered(Armor.class, 7));
+    }
+
+    /**
+     * RESERVATIONS
+     */
+
+    @Test
+    void testReserveAll_FreeIdentifications_ShouldBeRegisteredAndReserved() {
+        assertEquals(3, registry_A.reserveAll(Weapon.class, new long[] {6, 12, 18}));
+
+        assertTrue(registry_A.isRegistered(Weapon.class, 12));
+        assertTrue(registry_A.isReserved(Weapon.class, 12));
+        assertFalse(registry_A.isReserved(Backpack.class, 12));
+        assertEquals(3, registry_A.get(Weapon.class).size());
+    }
+
+    @Test
+    void testReserveAll_TakenIdentification_ShouldNotBeReserved() {
+        registry_A.register(Weapon.class, 12);
+        registry_A.reserveAll(Weapon.class, new long[] {6});
+
+        assertEquals(2, registry_A.reserveAll(Weapon.class, new long[] {6, 12, 18}));
+
+        assertFalse(registry_A.isReserved(Weapon.class, 12));
+        assertTrue(registry_A.isReserved(Weapon.class, 6));
+    }
+
+    @Test
+    void testClaim_ReservedIdentification_ShouldSucceedOnce() {
+        registry_A.reserveAll(Weapon.class, new long[] {6});
+
+        assertTrue(registry_A.claim(Weapon.class, 6));
+        assertFalse(registry_A.claim(Weapon.class, 6));
+        assertFalse(registry_A.isReserved(Weapon.class, 6));
+        assertTrue(registry_A.isRegistered(Weapon.class, 6));
+        assertFalse(registry_A.claim(Armor.class, 6));
+    }
+
+    @Test
+    void testClear_Reservations_ShouldBeRemoved() {
+        registry_A.reserveAll(Weapon.class, new long[] {6});
+
+        registry_A.clear();
+
+        assertFalse(registry_A.isReserved(Weapon.class, 6));
+        assertFalse(registry_A.isRegistered(Weapon.class, 6));
+    }
+
+    @Test
+    void testReserveAll_RepeatedIdentification_ShouldCountOnce() {
+        assertEquals(2, registry_A.reserveAll(Weapon.class, new long[] {12, 6, 12}));
+
+        assertEquals(2, registry_A.get(Weapon.class).size());
+        assertTrue(registry_A.isReserved(Weapon.class, 12));
+    }
+
+    /**
+     * IMPORT
+     */
+
+    @Test
+    void testSort_LargeAndNegativeIdentifications_ShouldSortAscending() {
+        Random random = new Random(6);
+        long[] identifications = new long[10_000];
+        for (int i = 0; i < identifications.length; i++) {
+            identifications[i] = random.nextLong();
+        }
+        identifications[0] = Long.MIN_VALUE;
+        identifications[1] = Long.MAX_VALUE;
+        long[] expected = identifications.clone();
+        Arrays.sort(expected);
+
+        assertArrayEquals(expected, IdentificationRegistry.sort(identifications));
+        assertArrayEquals(new long[] {6, 12, 12}, IdentificationRegistry.sort(new long[] {12, 6, 12}));
+        assertEquals(0, IdentificationRegistry.sort(new long[0]).length);
+    }
+
+    @Test
+    void testImportAll_ValidCase_ShouldRegisterAndReserveAll() {
+        long[] identifications = new long[100_000];
+        for (int i = 0; i < identifications.length; i++) {
+            identifications[i] = 6L * (identifications.length - i);
+        }
+
+        registry_A.importAll(Weapon.class, identifications);
+
+        assertEquals(identifications.length, registry_A.get(Weapon.class).size());
+        for (long identification : identifications) {
+            assertTrue(registry_A.isRegistered(Weapon.class, identification));
+            assertTrue(registry_A.isReserved(Weapon.class, identification));
+        }
+        assertFalse(registry_A.isRegistered(Weapon.class, 0));
+        assertTrue(registry_A.claim(Weapon.class, 600));
+        assertFalse(registry_A.register(Weapon.class, 600));
+    }
+
+    @Test
+    void testImportAll_NonEmptyRegistry_ShouldKeepExistingIdentifications() {
+        registry_A.register(Weapon.class, 6);
+
+        registry_A.importAll(Weapon.class, new long[] {18, 12});
+
+        assertEquals(3, registry_A.get(Weapon.class).size());
+        assertFalse(registry_A.isReserved(Weapon.class, 6));
+        assertTrue(registry_A.isReserved(Weapon.class, 18));
+    }
+
+    @Test
+    void testImportAll_IllegalCases_ShouldImportNothing() {
+        registry_A.register(Weapon.class, 6);
+
+        assertThrows(IllegalArgumentException.class, () -> registry_A.importAll(Weapon.class, null));
+        assertThrows(IllegalArgumentException.class, () -> registry_A.importAll(Weapon.class, new long[] {12, -6}));
+        assertThrows(IllegalArgumentException.class, () -> registry_A.importAll(Weapon.class, new long[] {12, 18, 12}));
+        assertThrows(IllegalArgumentException.class, () -> registry_A.importAll(Weapon.class, new long[] {12, 6}));
+
+        assertEquals(1, registry_A.get(Weapon.class).size());
+        assertFalse(registry_A.isRegistered(Weapon.class, 12));
+    }
+}
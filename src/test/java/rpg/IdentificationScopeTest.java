@@ -0,0 +1,103 @@
+package rpg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * A JUnit (5) test class for testing the non-private methods of the IdentificationScope Class.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class IdentificationScopeTest {
+
+    @AfterEach
+    public void closeScopes() {
+        while (IdentificationScope.current() != null)
+            IdentificationScope.current().close();
+    }
+
+    /**
+     * OPENING AND CLOSING
+     */
+
+    @Test
+    void testOpen_NestedScopes_ShouldRestorePreviousScope() {
+        assertNull(IdentificationScope.current());
+        IdentificationScope outer = IdentificationScope.open();
+        IdentificationScope inner = IdentificationScope.open();
+
+        assertSame(inner, IdentificationScope.current());
+        assertThrows(IllegalStateException.class, outer::close);
+        inner.close();
+        assertSame(outer, IdentificationScope.current());
+        outer.close();
+        assertNull(IdentificationScope.current());
+    }
+
+    @Test
+    void testClose_OtherThread_ShouldThrowException() throws InterruptedException {
+        IdentificationScope scope = IdentificationScope.open();
+        Throwable[] thrown = new Throwable[1];
+
+        Thread other = new Thread(() -> thrown[0] = assertThrows(IllegalStateException.class, scope::close));
+        other.start();
+        other.join();
+
+        assertNotNull(thrown[0]);
+        assertSame(scope, IdentificationScope.current());
+    }
+
+    /**
+     * RECORDING AND RELEASING
+     */
+
+    @Test
+    void testDiscardAll_NewEquipmentOfSameType_ShouldTakeOverIdentifications() {
+        IdentificationScope scope = IdentificationScope.open();
+        Armor armor_A = new Armor(20, 80, ArmorType.TIN);
+        Weapon weapon_A = new Weapon(5, 14);
+        assertEquals(2, scope.getNbRecorded());
+
+        scope.discardAll();
+        Armor armor_B = new Armor(20, 80, ArmorType.TIN);
+        Backpack backpack_A = new Backpack(5, 30, 200);
+
+        assertEquals(armor_A.getIdentification(), armor_B.getIdentification());
+        assertFalse(Equipment.isUniqueForType(Weapon.class, weapon_A.getIdentification()));
+        assertFalse(Equipment.isUniqueForType(Armor.class, armor_B.getIdentification()));
+        assertFalse(Equipment.isUniqueForType(Backpack.class, backpack_A.getIdentification()));
+        assertEquals(3, scope.getNbRecorded());
+    }
+
+    @Test
+    void testClose_RecordedEquipment_ShouldReleaseIdentifications() {
+        Weapon outside = new Weapon(5, 14);
+        IdentificationScope scope = IdentificationScope.open();
+        Armor armor_A = new Armor(20, 80, ArmorType.TIN);
+        Weapon weapon_A = new Weapon(5, 14);
+        scope.discardAll();
+        Purse purse_A = new Purse(1, 5);
+
+        scope.close();
+
+        assertTrue(Equipment.isUniqueForType(Armor.class, armor_A.getIdentification()));
+        assertTrue(Equipment.isUniqueForType(Weapon.class, weapon_A.getIdentification()));
+        assertTrue(Equipment.isUniqueForType(Purse.class, purse_A.getIdentification()));
+        assertFalse(Equipment.isUniqueForType(Weapon.class, outside.getIdentification()));
+        assertEquals(0, scope.getNbRecorded());
+    }
+
+    @Test
+    void testConstructor_GivenIdentification_ShouldNotBeRecorded() {
+        IdentificationScope scope = IdentificationScope.open();
+        Weapon weapon_A = new Weapon(5, 14);
+        Weapon weapon_B = new Weapon(5, 14, weapon_A.getIdentification() + 6_000_000_000L);
+
+        assertEquals(1, scope.getNbRecorded());
+        scope.close();
+        assertFalse(Equipment.isUniqueForType(Weapon.class, weapon_B.getIdentification()));
+    }
+}
@@ -0,0 +1,95 @@
+package rpg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A JUnit (5) test class for testing the non-private methods of the IdentificationSequence Class.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class IdentificationSequenceTest {
+
+    // SEQUENCES
+    private IdentificationSequence sequence_A, sequence_B;
+
+    @BeforeEach
+    public void setUpSequences() {
+        sequence_A = new IdentificationSequence(6, 42);
+        sequence_B = new IdentificationSequence(6, 42);
+    }
+
+    /**
+     * CONSTRUCTORS
+     */
+
+    @Test
+    void testConstructor_ValidArguments_ShouldInitializeFields() {
+        assertEquals(6, sequence_A.getStep());
+        assertEquals(42, sequence_A.getSeed());
+    }
+
+    @Test
+    void testConstructor_InvalidStep_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new IdentificationSequence(0, 42));
+        assertThrows(IllegalArgumentException.class, () -> new IdentificationSequence(-6, 42));
+    }
+
+    /**
+     * NEXT
+     */
+
+    @Test
+    void testNext_ShouldReturnUniquePositiveMultiples() {
+        Set<Long> seen = new HashSet<>();
+        // spans several blocks
+        for (int i = 0; i < 10_000; i++) {
+            long identification = sequence_A.next();
+            assertTrue(identification > 0);
+            assertEquals(0, identification % 6);
+            assertTrue(seen.add(identification));
+        }
+    }
+
+    @Test
+    void testNext_SameSeed_ShouldBeReproducible() {
+        for (int i = 0; i < 5_000; i++) {
+            assertEquals(sequence_A.next(), sequence_B.next());
+        }
+    }
+
+    @Test
+    void testNext_OtherSeed_ShouldDiffer() {
+        IdentificationSequence sequence_C = new IdentificationSequence(6, 43);
+        assertNotEquals(sequence_A.next(), sequence_C.next());
+    }
+
+    @Test
+    void testNext_LargeStep_ShouldNotOverflow() {
+        long step = Long.MAX_VALUE / 5;
+        IdentificationSequence sequence = new IdentificationSequence(step, 7);
+        Set<Long> seen = new HashSet<>();
+        // only the multiples 1, 2 and 3 of the step are used, so that they fit in a long
+        for (int i = 0; i < 3; i++) {
+            long identification = sequence.next();
+            assertTrue(identification > 0);
+            assertEquals(0, identification % step);
+            assertTrue(seen.add(identification));
+        }
+    }
+
+    @Test
+    void testNext_AllPositionsUsed_ShouldThrowException() {
+        // a step this large only leaves the positions 0 and 1, of which one results in 0
+        IdentificationSequence sequence = new IdentificationSequence(Long.MAX_VALUE / 3, 7);
+        long identification = sequence.next();
+        assertEquals(Long.MAX_VALUE / 3, identification);
+        assertThrows(IllegalStateException.class, sequence::next);
+    }
+}
@@ -0,0 +1,157 @@
+package rpg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * A JUnit (5) test class for testing the non-private methods of the LongHashSet Class.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class LongHashSetTest {
+
+    // SET
+    private LongHashSet set_A;
+
+    @BeforeEach
+    public void setUpSet() {
+        set_A = new LongHashSet();
+    }
+
+    /**
+     * CONSTRUCTORS
+     */
+
+    @Test
+    void testConstructor_ShouldBeEmpty() {
+        assertEquals(0, set_A.size());
+        assertTrue(set_A.isEmpty());
+        assertFalse(set_A.contains(0));
+        assertFalse(set_A.contains(42));
+    }
+
+    /**
+     * VALUES
+     */
+
+    @Test
+    void testAdd_NewValue_ShouldBeContained() {
+        assertTrue(set_A.add(42));
+        assertTrue(set_A.contains(42));
+        assertEquals(1, set_A.size());
+    }
+
+    @Test
+    void testAdd_ExistingValue_ShouldNotChangeSize() {
+        set_A.add(42);
+        assertFalse(set_A.add(42));
+        assertEquals(1, set_A.size());
+    }
+
+    @Test
+    void testAdd_Zero_ShouldBeContained() {
+        // 0 marks free slots internally, so it is registered separately
+        assertTrue(set_A.add(0));
+        assertFalse(set_A.add(0));
+        assertTrue(set_A.contains(0));
+        assertEquals(1, set_A.size());
+    }
+
+    @Test
+    void testAdd_ExtremeValues_ShouldBeContained() {
+        assertTrue(set_A.add(Long.MAX_VALUE));
+        assertTrue(set_A.add(Long.MIN_VALUE));
+        assertTrue(set_A.add(-1));
+        assertTrue(set_A.contains(Long.MAX_VALUE));
+        assertTrue(set_A.contains(Long.MIN_VALUE));
+        assertTrue(set_A.contains(-1));
+        assertEquals(3, set_A.size());
+    }
+
+    @Test
+    void testAdd_ManyValues_ShouldGrowAndKeepAllValues() {
+        // Multiples of 6, as used for weapons
+        for (long i = 0; i < 100_000; i++) {
+            assertTrue(set_A.add(6 * i));
+        }
+        assertEquals(100_000, set_A.size());
+
+        for (long i = 0; i < 100_000; i++) {
+            assertTrue(set_A.contains(6 * i));
+            assertFalse(set_A.contains(6 * i + 1));
+        }
+    }
+
+    @Test
+    void testRemove_ExistingValue_ShouldNoLongerBeContained() {
+        set_A.add(42);
+        set_A.add(0);
+
+        assertTrue(set_A.remove(42));
+        assertTrue(set_A.remove(0));
+        assertFalse(set_A.contains(42));
+        assertFalse(set_A.contains(0));
+        assertTrue(set_A.isEmpty());
+    }
+
+    @Test
+    void testRemove_MissingValue_ShouldReturnFalse() {
+        set_A.add(42);
+
+        assertFalse(set_A.remove(43));
+        assertFalse(set_A.remove(0));
+        assertEquals(1, set_A.size());
+    }
+
+    @Test
+    void testRemove_ManyValues_ShouldKeepOtherValuesContained() {
+        // Removing every other value leaves gaps in the probe sequences of the values that remain
+        for (long i = 0; i < 100_000; i++) {
+            set_A.add(6 * i);
+        }
+        for (long i = 0; i < 100_000; i += 2) {
+            assertTrue(set_A.remove(6 * i));
+        }
+        assertEquals(50_000, set_A.size());
+
+        for (long i = 0; i < 100_000; i++) {
+            assertEquals(i % 2 == 1, set_A.contains(6 * i));
+        }
+        assertTrue(set_A.add(0));
+    }
+
+    @Test
+    void testAddAll_NewAndExistingValues_ShouldCountNewValuesOnce() {
+        set_A.add(12);
+
+        assertEquals(3, set_A.addAll(new long[] {99, 0, 6, 12, 6, 18, 99}, 1, 6));
+
+        assertEquals(4, set_A.size());
+        assertTrue(set_A.contains(0));
+        assertTrue(set_A.contains(6));
+        assertTrue(set_A.contains(18));
+        assertFalse(set_A.contains(99));
+    }
+
+    @Test
+    void testAddAll_ManyValues_ShouldKeepAllValues() {
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 6L * i;
+        }
+        set_A.add(6);
+
+        assertEquals(values.length - 1, set_A.addAll(values, 0, values.length));
+
+        assertEquals(values.length, set_A.size());
+        for (long i = 0; i < 100_000; i++) {
+            assertTrue(set_A.contains(6 * i));
+            assertFalse(set_A.contains(6 * i + 1));
+        }
+        assertFalse(set_A.add(6 * 99_999));
+        assertTrue(set_A.add(6 * 100_000));
+    }
+}
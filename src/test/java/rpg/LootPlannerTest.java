@@ -0,0 +1,99 @@
+package rpg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A JUnit (5) test class for testing the non-private methods of the LootPlanner Class.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class LootPlannerTest {
+
+    /**
+     * CONSTRUCTORS
+     */
+
+    @Test
+    void testConstructor_NegativeArguments_ShouldBeZero() {
+        LootPlanner planner = new LootPlanner(-5, -1);
+        assertEquals(0, planner.getCapacity());
+        assertEquals(0, planner.getMaxNbItems());
+    }
+
+    /**
+     * SELECTION
+     */
+
+    @Test
+    void testSelect_GreedyNotOptimal_ShouldSelectMostValuableItems() {
+        // weapon_X has the highest value per unit of weight, but leaves no room for the others
+        Weapon weapon_X = new Weapon(6, 70);
+        Weapon weapon_Y = new Weapon(5, 56);
+        Weapon weapon_Z = new Weapon(5, 56);
+
+        List<Equipment> selection = new LootPlanner(10, Integer.MAX_VALUE).select(List.of(weapon_X, weapon_Y, weapon_Z));
+
+        assertEquals(List.of(weapon_Y, weapon_Z), selection);
+    }
+
+    @Test
+    void testSelect_MaxNbItems_ShouldSelectAtMostThatManyItems() {
+        Weapon weapon_X = new Weapon(6, 70);
+        Weapon weapon_Y = new Weapon(5, 56);
+        Weapon weapon_Z = new Weapon(5, 56);
+
+        List<Equipment> selection = new LootPlanner(100, 1).select(List.of(weapon_Y, weapon_X, weapon_Z));
+
+        assertEquals(List.of(weapon_X), selection);
+    }
+
+    @Test
+    void testSelect_InvalidItems_ShouldBeSkipped() {
+        Weapon weightless = new Weapon(0, 7);
+        Weapon tooHeavy = new Weapon(20, 98);
+        List<Equipment> items = new ArrayList<>(Arrays.asList(null, tooHeavy, weightless));
+
+        assertEquals(List.of(weightless), new LootPlanner(0, 5).select(items));
+        assertTrue(new LootPlanner(10, 5).select(List.of()).isEmpty());
+    }
+
+    @Test
+    void testSelect_ManyItems_ShouldMatchDynamicProgramming() {
+        long seed = System.nanoTime();
+        Random random = new Random(seed);
+        List<Equipment> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+            items.add(new Weapon(1 + random.nextInt(20), 7 * (1 + random.nextInt(14))));
+        int capacity = 150;
+
+        List<Equipment> selection = new LootPlanner(capacity, Integer.MAX_VALUE).select(items);
+
+        int weight = 0;
+        int value = 0;
+        for (Equipment item : selection) {
+            weight += item.getWeight();
+            value += item.getCurrentValue();
+        }
+        assertTrue(weight <= capacity, "seed " + seed);
+        assertEquals(getMaximalValue(items, capacity), value, "seed " + seed);
+    }
+
+    // AUXILIARY METHOD: returns the largest total value of the given items within the given capacity,
+    // by dynamic programming over the weights
+    private static int getMaximalValue(List<Equipment> items, int capacity) {
+        int[] best = new int[capacity + 1];
+        for (Equipment item : items) {
+            for (int room = capacity; room >= item.getWeight(); room--)
+                best[room] = Math.max(best[room], best[room - item.getWeight()] + item.getCurrentValue());
+        }
+        return best[capacity];
+    }
+}
@@ -1,3 +1,5 @@
+package rpg;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.ArrayList;
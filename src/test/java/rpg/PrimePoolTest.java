@@ -0,0 +1,151 @@
+package rpg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * A JUnit (5) test class for testing the non-private methods of the PrimePool Class.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class PrimePoolTest {
+
+    // AUXILIARY METHOD
+    private boolean isPrime(long number) {
+        if (number < 2) return false;
+        for (long i = 2; i * i <= number; i++) {
+            if (number % i == 0) return false;
+        }
+        return true;
+    }
+
+    // POOLS
+    private PrimePool pool_100, pool_segmented;
+
+    @BeforeEach
+    public void setUpPools() {
+        // 25 primes below 100
+        pool_100 = new PrimePool(100, 100);
+        // the same primes, but sieved in segments of 7 numbers
+        pool_segmented = new PrimePool(7, 100);
+    }
+
+    /**
+     * CONSTRUCTORS
+     */
+
+    @Test
+    void testConstructor_ValidArguments_ShouldInitializeFields() {
+        assertEquals(100, pool_100.getSegmentSize());
+        assertEquals(100, pool_100.getMaximum());
+        assertEquals(0, pool_100.getSievedLimit());
+        assertEquals(0, pool_100.getNbFreePrimes());
+        assertFalse(pool_100.isExhausted());
+    }
+
+    @Test
+    void testConstructor_InvalidArguments_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new PrimePool(0, 100));
+        assertThrows(IllegalArgumentException.class, () -> new PrimePool(10, -1));
+    }
+
+    /**
+     * PRIMES
+     */
+
+    @Test
+    void testTake_ShouldReturnEveryPrimeExactlyOnce() {
+        Set<Long> taken = new HashSet<>();
+        for (int i = 0; i < 25; i++) {
+            long prime = pool_100.take();
+            assertTrue(isPrime(prime));
+            assertTrue(prime < 100);
+            assertTrue(taken.add(prime));
+        }
+        assertTrue(pool_100.isExhausted());
+    }
+
+    @Test
+    void testTake_Exhausted_ShouldThrowException() {
+        for (int i = 0; i < 25; i++) {
+            pool_100.take();
+        }
+        assertThrows(IllegalStateException.class, () -> pool_100.take());
+        // exhaustion is reported every time, the pool does not start over
+        assertThrows(IllegalStateException.class, () -> pool_100.take());
+    }
+
+    @Test
+    void testRelease_TakenPrimes_ShouldBeHandedOutAgain() {
+        Set<Long> taken = new HashSet<>();
+        for (int i = 0; i < 25; i++) {
+            taken.add(pool_100.take());
+        }
+        pool_100.release(97);
+        pool_100.release(2);
+
+        assertEquals(2, pool_100.getNbFreePrimes());
+        assertFalse(pool_100.isExhausted());
+        Set<Long> again = Set.of(pool_100.take(), pool_100.take());
+        assertEquals(Set.of(2L, 97L), again);
+        assertThrows(IllegalStateException.class, () -> pool_100.take());
+    }
+
+    @Test
+    void testRelease_NumbersNotSieved_ShouldThrowException() {
+        pool_segmented.take();
+
+        assertThrows(IllegalArgumentException.class, () -> pool_segmented.release(1));
+        assertThrows(IllegalArgumentException.class, () -> pool_segmented.release(7));
+        assertThrows(IllegalArgumentException.class, () -> pool_100.release(2));
+    }
+
+    @Test
+    void testTake_Segmented_ShouldExtendOnDemand() {
+        long first = pool_segmented.take();
+        // only the first segment(s) containing a prime have been sieved
+        assertTrue(pool_segmented.getSievedLimit() < 100);
+        assertTrue(isPrime(first));
+
+        Set<Long> taken = new HashSet<>();
+        taken.add(first);
+        for (int i = 1; i < 25; i++) {
+            long prime = pool_segmented.take();
+            assertTrue(isPrime(prime));
+            assertTrue(taken.add(prime));
+        }
+        assertThrows(IllegalStateException.class, () -> pool_segmented.take());
+        assertEquals(100, pool_segmented.getSievedLimit());
+    }
+
+    @Test
+    void testTake_LargeRange_ShouldOnlyReturnPrimes() {
+        PrimePool pool = new PrimePool(1_000, 2_000_000);
+        for (int i = 0; i < 10_000; i++) {
+            long prime = pool.take();
+            assertTrue(isPrime(prime));
+        }
+        // 10 000 primes do not fit below 100 000, so the pool must have been extended
+        assertTrue(pool.getSievedLimit() > 100_000);
+    }
+
+    @Test
+    void testTake_SeededThread_ShouldNotDrawFromGeneratorOfThread() {
+        SplittableRandom expected = new SplittableRandom(42);
+        RandomSource.setSeed(42);
+        try {
+            for (int i = 0; i < 10; i++)
+                pool_100.take();
+            assertEquals(expected.nextLong(), RandomSource.current().nextLong());
+        } finally {
+            RandomSource.clearSeed();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package rpg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * A JUnit (5) test class for testing the non-private methods of the PrimeTable Class.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class PrimeTableTest {
+
+    // AUXILIARY METHOD
+    private boolean isPrimeNaive(int number) {
+        if (number < 2) return false;
+        for (int i = 2; (long) i * i <= number; i++) {
+            if (number % i == 0) return false;
+        }
+        return true;
+    }
+
+    // AUXILIARY METHOD
+    private int closestLowerPrimeNaive(int start) {
+        for (int i = start - 1; i >= 2; i--) {
+            if (isPrimeNaive(i)) return i;
+        }
+        return 2;
+    }
+
+    /**
+     * PRIMES
+     */
+
+    @Test
+    void testIsPrime_SmallNumbers_ShouldMatchTrialDivision() {
+        for (int number = -10; number < 5_000; number++) {
+            assertEquals(isPrimeNaive(number), PrimeTable.isPrime(number), "number " + number);
+        }
+    }
+
+    @Test
+    void testIsPrime_ShouldGrowTables() {
+        // 999983 is the largest prime below one million
+        assertTrue(PrimeTable.isPrime(999_983));
+        assertFalse(PrimeTable.isPrime(999_981));
+        assertTrue(PrimeTable.getLimit() > 999_983);
+    }
+
+    @Test
+    void testIsPrime_BeyondTables_ShouldUseFallback() {
+        // 2147483647 is the largest int and a (Mersenne) prime
+        assertTrue(PrimeTable.isPrime(Integer.MAX_VALUE));
+        assertFalse(PrimeTable.isPrime(Integer.MAX_VALUE - 1));
+        for (int number = 5_000_000; number < 5_001_000; number++) {
+            assertEquals(isPrimeNaive(number), PrimeTable.isPrime(number), "number " + number);
+        }
+    }
+
+    @Test
+    void testGetClosestLowerPrime_SmallNumbers_ShouldMatchWalkingDown() {
+        for (int start = -10; start < 5_000; start++) {
+            assertEquals(closestLowerPrimeNaive(start), PrimeTable.getClosestLowerPrime(start), "start " + start);
+        }
+    }
+
+    @Test
+    void testGetClosestLowerPrime_AroundTableBoundary_ShouldMatchWalkingDown() {
+        for (int start = (1 << 20) - 100; start < (1 << 20) + 100; start++) {
+            assertEquals(closestLowerPrimeNaive(start), PrimeTable.getClosestLowerPrime(start), "start " + start);
+        }
+    }
+
+    @Test
+    void testGetClosestLowerPrime_BeyondTables_ShouldUseFallback() {
+        assertEquals(closestLowerPrimeNaive(Integer.MAX_VALUE), PrimeTable.getClosestLowerPrime(Integer.MAX_VALUE));
+        assertEquals(closestLowerPrimeNaive(5_000_000), PrimeTable.getClosestLowerPrime(5_000_000));
+    }
+}
@@ -0,0 +1,110 @@
+package rpg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A JUnit (5) test class for testing the random generators provided to the game.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class RandomSourceTest {
+
+    @AfterEach
+    void tearDown() {
+        RandomSource.clearSeed();
+    }
+
+    // AUXILIARY METHOD
+    // Fights a battle between a new hero and monster on the current thread, and returns the recorded turns.
+    private RingBufferBattleEventSink fightRecordedBattle() {
+        Hero hero = new Hero("Hero", 100, 20.0);
+        Monster monster = new Monster("Monster", 100, 14, new ArrayList<Equipment>(), SkinType.TOUGH);
+        RingBufferBattleEventSink sink = new RingBufferBattleEventSink(10_000);
+        new Battle(hero, monster, sink).fight();
+        return sink;
+    }
+
+    /** CURRENT */
+
+    @Test
+    void testCurrent_NotSeeded_ShouldBeThreadLocalRandom() {
+        assertFalse(RandomSource.isSeeded());
+        assertSame(ThreadLocalRandom.current(), RandomSource.current());
+    }
+
+    @Test
+    void testCurrent_Seeded_ShouldFollowSeed() {
+        RandomSource.setSeed(42);
+        SplittableRandom expected = new SplittableRandom(42);
+
+        assertTrue(RandomSource.isSeeded());
+        for (int i = 0; i < 100; i++)
+            assertEquals(expected.nextLong(), RandomSource.current().nextLong());
+    }
+
+    @Test
+    void testClearSeed_ShouldReturnToThreadLocalRandom() {
+        RandomSource.setSeed(42);
+        RandomSource.clearSeed();
+
+        assertFalse(RandomSource.isSeeded());
+        assertSame(ThreadLocalRandom.current(), RandomSource.current());
+    }
+
+    @Test
+    void testSetSeed_OtherThread_ShouldNotBeAffected() throws Exception {
+        RandomSource.setSeed(42);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertFalse(executor.submit(RandomSource::isSeeded).get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /** ENTITIES */
+
+    @Test
+    void testEntity_ShouldTakeGeneratorOfCreatingThread() {
+        RandomSource.setSeed(42);
+        Hero hero = new Hero("Hero", 100, 20.0);
+
+        assertSame(RandomSource.current(), hero.getRandom());
+    }
+
+    @Test
+    void testSetRandom_NullGenerator_ShouldThrowException() {
+        Hero hero = new Hero("Hero", 100, 20.0);
+
+        assertThrows(IllegalArgumentException.class, () -> hero.setRandom(null));
+    }
+
+    /** REPLAY */
+
+    @Test
+    void testReplay_SameSeed_ShouldFightSameBattle() {
+        RandomSource.setSeed(2024);
+        RingBufferBattleEventSink original = fightRecordedBattle();
+        RandomSource.setSeed(2024);
+        RingBufferBattleEventSink replay = fightRecordedBattle();
+
+        assertEquals(original.getNbTurnsRecorded(), replay.getNbTurnsRecorded());
+        for (int i = 1; i <= original.getNbTurnsRecorded(); i++) {
+            assertEquals(original.getAttackerAt(i).getName(), replay.getAttackerAt(i).getName());
+            assertEquals(original.getHitPointsBeforeAt(i), replay.getHitPointsBeforeAt(i));
+            assertEquals(original.getHitPointsAfterAt(i), replay.getHitPointsAfterAt(i));
+        }
+        assertEquals(original.getLastWinner().getName(), replay.getLastWinner().getName());
+    }
+}
@@ -0,0 +1,106 @@
+package rpg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+/**
+ * A JUnit (5) test class for testing the in-memory ring buffer of battle events.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class RingBufferBattleEventSinkTest {
+
+    private Hero hero;
+    private Monster monster;
+    private RingBufferBattleEventSink sink;
+
+    @BeforeEach
+    void setUp() {
+        hero = new Hero("Hero", 100, 10.0);
+        monster = new Monster("Monster", 100, 7, new ArrayList<Equipment>(), SkinType.TOUGH);
+        sink = new RingBufferBattleEventSink(3);
+    }
+
+    /** CONSTRUCTOR */
+
+    @Test
+    void testConstructor_ValidCapacity_ShouldBeEmpty() {
+        assertEquals(3, sink.getCapacity());
+        assertEquals(0, sink.getNbTurnsRecorded());
+        assertEquals(0, sink.getNbTurnsReceived());
+        assertEquals(0, sink.getNbBattlesEnded());
+        assertNull(sink.getLastWinner());
+    }
+
+    @Test
+    void testConstructor_NonPositiveCapacity_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBufferBattleEventSink(0));
+        assertThrows(IllegalArgumentException.class, () -> new RingBufferBattleEventSink(-1));
+    }
+
+    /** TURNS */
+
+    @Test
+    void testTurnTaken_BelowCapacity_ShouldKeepAllTurns() {
+        sink.turnTaken(1, hero, monster, 100, 90);
+        sink.turnTaken(2, monster, hero, 97, 90);
+
+        assertEquals(2, sink.getNbTurnsRecorded());
+        assertEquals(1, sink.getTurnAt(1));
+        assertSame(hero, sink.getAttackerAt(1));
+        assertSame(monster, sink.getDefenderAt(1));
+        assertEquals(100, sink.getHitPointsBeforeAt(1));
+        assertEquals(90, sink.getHitPointsAfterAt(1));
+        assertEquals(2, sink.getTurnAt(2));
+        assertSame(monster, sink.getAttackerAt(2));
+    }
+
+    @Test
+    void testTurnTaken_BeyondCapacity_ShouldKeepMostRecentTurns() {
+        for (int turn = 1; turn <= 7; turn++)
+            sink.turnTaken(turn, hero, monster, 100 - turn, 99 - turn);
+
+        assertEquals(7, sink.getNbTurnsReceived());
+        assertEquals(3, sink.getNbTurnsRecorded());
+        assertEquals(5, sink.getTurnAt(1));
+        assertEquals(6, sink.getTurnAt(2));
+        assertEquals(7, sink.getTurnAt(3));
+        assertEquals(92, sink.getHitPointsAfterAt(3));
+    }
+
+    @Test
+    void testGetTurnAt_InvalidIndex_ShouldThrowException() {
+        sink.turnTaken(1, hero, monster, 100, 90);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> sink.getTurnAt(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> sink.getTurnAt(2));
+    }
+
+    /** BATTLES */
+
+    @Test
+    void testBattleEnded_ShouldRememberLastWinner() {
+        sink.battleEnded(hero, 4);
+        sink.battleEnded(monster, 6);
+
+        assertEquals(2, sink.getNbBattlesEnded());
+        assertSame(monster, sink.getLastWinner());
+    }
+
+    @Test
+    void testClear_ShouldForgetTurnsAndBattles() {
+        sink.turnTaken(1, hero, monster, 100, 90);
+        sink.battleEnded(hero, 1);
+        sink.clear();
+
+        assertEquals(0, sink.getNbTurnsRecorded());
+        assertEquals(0, sink.getNbTurnsReceived());
+        assertEquals(0, sink.getNbBattlesEnded());
+        assertNull(sink.getLastWinner());
+    }
+}
@@ -0,0 +1,311 @@
+package rpg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A JUnit (5) test class for testing the non-private methods of the SnapshotReader Class, by restoring what
+ * snapshot writers wrote.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class SnapshotReaderTest {
+
+    // ENTITIES
+    private Hero hero_A;
+    private Monster monster_A;
+
+    // EQUIPMENT
+    private Weapon weapon_A, weapon_B;
+    private Armor armor_A;
+    private Purse purse_A, purse_B;
+    private Backpack backpack_A, backpack_B;
+
+    @BeforeEach
+    public void setUpWorld() {
+        hero_A = new Hero("Ben", 100, 45.25);
+        weapon_A = new Weapon(10, 35);
+        weapon_B = new Weapon(5, 14);
+        armor_A = new Armor(20, 80, ArmorType.TIN);
+        purse_A = new Purse(2, 10);
+        purse_B = new Purse(1, 5);
+        backpack_A = new Backpack(5, 30, 200);
+        backpack_B = new Backpack(3, 10, 100);
+
+        // The hero holds a weapon and a backpack with a nested backpack, and wears armor and a purse
+        weapon_A.setOwner(hero_A);
+        backpack_A.setOwner(hero_A);
+        backpack_B.setBackpack(backpack_A);
+        weapon_B.setBackpack(backpack_B);
+        purse_B.setBackpack(backpack_B);
+        purse_B.addToContents(1);
+        hero_A.equipArmor(armor_A);
+        purse_A.setOwner(hero_A);
+        purse_A.addToContents(7);
+        hero_A.setHitPoints(42);
+        hero_A.setPlacementStrategy(PlacementStrategy.VALUE_DENSITY);
+
+        monster_A = new Monster("Tom", 70, 49, new ArrayList<>(), SkinType.THICK);
+        for (int i = monster_A.getNbAnchorPoints() + 1; i <= 3; i++)
+            monster_A.addAnchorPoint(new AnchorPoint("anchor_" + i));
+        monster_A.registerCapacity(1000);
+    }
+
+    /**
+     * ROUND TRIPS
+     */
+
+    @Test
+    void testReadEntity_Hero_ShouldRestoreSameState() throws IOException {
+        SnapshotReader reader = readerOf(write(hero_A));
+
+        Hero restored = (Hero) reader.readEntity();
+
+        assertNotSame(hero_A, restored);
+        assertSameState(hero_A, restored);
+        assertEquals(42, restored.getHitPoints());
+        assertEquals(45.25, restored.getIntrinsicStrength());
+        assertEquals(PlacementStrategy.VALUE_DENSITY, restored.getPlacementStrategy());
+        // The armor is attached to two anchor points, and restored once
+        assertSame(restored.getArmor(), restored.getAnchorPoint(HeroAnchor.BODY).getItem());
+        assertEquals(restored.getNbArmorsCarried(), hero_A.getNbArmorsCarried());
+        assertSame(restored.getLeftHandWeapon(), restored.getAnchorPoint(HeroAnchor.LEFT_HAND).getItem());
+        assertEquals(hero_A.getAttackPower(), restored.getAttackPower());
+        assertFalse(reader.hasNext());
+        assertEquals(1, reader.getNbEntities());
+    }
+
+    @Test
+    void testReadEntity_Monster_ShouldRestoreAnchorPointsAndItems() throws IOException {
+        weapon_B.setOwner(null);
+        weapon_B.setOwner(monster_A);
+        monster_A.setDamage(28);
+        monster_A.setFighting(true);
+        monster_A.setHitPoints(30);
+
+        Monster restored = (Monster) readerOf(write(monster_A)).readEntity();
+
+        assertSameState(monster_A, restored);
+        assertEquals(28, restored.getDamage());
+        assertEquals(SkinType.THICK, restored.getType());
+        assertTrue(restored.isFighting());
+        assertEquals(30, restored.getHitPoints());
+        assertEquals(1000, restored.getCapacity());
+    }
+
+    @Test
+    void testReadEntity_Monster_ShouldNotDrawFromGeneratorOfThread() throws IOException {
+        byte[] snapshot = write(monster_A);
+        SplittableRandom expected = new SplittableRandom(42);
+        RandomSource.setSeed(42);
+        try {
+            Monster restored = (Monster) readerOf(snapshot).readEntity();
+
+            assertEquals(monster_A.getNbAnchorPoints(), restored.getNbAnchorPoints());
+            assertEquals(expected.nextLong(), RandomSource.current().nextLong());
+        } finally {
+            RandomSource.clearSeed();
+        }
+    }
+
+    @Test
+    void testReadItem_OwnedItem_ShouldRestoreOwnerWrittenAfterIt() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (SnapshotWriter writer = new SnapshotWriter(Channels.newChannel(bytes))) {
+            writer.writeItem(weapon_A);
+        }
+        SnapshotReader reader = readerOf(bytes.toByteArray());
+
+        Equipment weapon = reader.readItem();
+        assertNull(weapon.getOwner());
+        assertTrue(reader.hasNextEntity());
+        Hero hero = (Hero) reader.readEntity();
+
+        assertSame(hero, weapon.getOwner());
+        assertSame(weapon, hero.getAnchorPointOfItem(weapon).getItem());
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    void testReadEntity_WrittenTwice_ShouldRestoreSameEntity() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (SnapshotWriter writer = new SnapshotWriter(Channels.newChannel(bytes))) {
+            writer.writeEntity(monster_A);
+            writer.writeEntity(hero_A);
+            writer.writeEntity(monster_A);
+            writer.writeItem(backpack_B);
+        }
+        SnapshotReader reader = readerOf(bytes.toByteArray());
+
+        Entity monster = reader.readEntity();
+        Hero hero = (Hero) reader.readEntity();
+        assertSame(monster, reader.readEntity());
+        Equipment backpack = reader.readItem();
+
+        assertSame(hero, backpack.getOwner());
+        assertSame(backpack.getBackpack(), hero.getAnchorPointOfItem(backpack.getBackpack()).getItem());
+        assertEquals(2, reader.getNbEntities());
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    void testReadItem_DestroyedAndNestedItems_ShouldRestoreConditionAndOwners() throws IOException {
+        Weapon destroyed = new Weapon(1, 7);
+        weapon_B.setBackpack(null);
+        destroyed.setBackpack(backpack_B);
+        destroyed.destroy();
+        destroyed.setShiny(false);
+
+        SnapshotReader reader = readerOf(write(backpack_A));
+        Backpack restored = (Backpack) reader.readItem();
+
+        // The originals still exist, so the restored items take new identification numbers
+        Backpack nested = (Backpack) onlyItemOf(restored, Backpack.class);
+        assertNotEquals(backpack_B.getIdentification(), nested.getIdentification());
+        assertEquals(backpack_B.getTotalWeight(), nested.getTotalWeight());
+        Weapon weapon = (Weapon) onlyItemOf(nested, Weapon.class);
+        assertTrue(weapon.isDestroyed());
+        assertFalse(weapon.isShiny());
+        assertEquals(0, weapon.getDamage());
+        // The owner is written after the backpack, and becomes the owner of the nested backpack as well
+        assertNull(nested.getOwner());
+        Entity hero = reader.readEntity();
+        assertSame(hero, restored.getOwner());
+        assertSame(hero, nested.getOwner());
+        assertEquals(backpack_A.getTotalWeight(), restored.getTotalWeight());
+        assertEquals(backpack_A.getCurrentValue(), restored.getCurrentValue());
+    }
+
+    @Test
+    void testReadItem_TakenIdentification_ShouldTakeNewIdentification() throws IOException {
+        Equipment copy = readerOf(write(weapon_B)).readItem();
+
+        assertNotSame(weapon_B, copy);
+        assertNotEquals(weapon_B.getIdentification(), copy.getIdentification());
+        assertEquals(0, copy.getIdentification() % 6);
+        assertEquals(weapon_B.getDamage(), ((Weapon) copy).getDamage());
+    }
+
+    @Test
+    void testConstructor_FreeIdentification_ShouldKeepIdentification() {
+        long free = 6L * 1_000_003;
+        while (!weapon_A.canHaveAsIdentification(Weapon.class, free))
+            free += 6;
+
+        Weapon weapon = new Weapon(1, 7, free);
+        Weapon other = new Weapon(1, 7, free);
+
+        assertEquals(free, weapon.getIdentification());
+        assertNotEquals(free, other.getIdentification());
+    }
+
+    /**
+     * MALFORMED SNAPSHOTS
+     */
+
+    @Test
+    void testConstructor_NotASnapshot_ShouldThrowIOException() {
+        assertThrows(IOException.class, () -> readerOf(new byte[] {1, 2, 3, 4, 1}));
+        assertThrows(EOFException.class, () -> readerOf(new byte[] {0x52}));
+        assertThrows(IllegalArgumentException.class, () -> new SnapshotReader(null));
+    }
+
+    @Test
+    void testConstructor_NewerVersion_ShouldThrowIOException() throws IOException {
+        byte[] snapshot = write(weapon_A);
+        snapshot[4] = (byte) (SnapshotFormat.VERSION + 1);
+        assertThrows(IOException.class, () -> readerOf(snapshot));
+    }
+
+    @Test
+    void testReadEntity_TruncatedSnapshot_ShouldThrowEOFException() throws IOException {
+        byte[] snapshot = write(hero_A);
+        SnapshotReader reader = readerOf(Arrays.copyOf(snapshot, snapshot.length / 2));
+        assertThrows(EOFException.class, reader::readEntity);
+    }
+
+    @Test
+    void testReadItem_NextIsEntity_ShouldThrowIllegalStateException() throws IOException {
+        SnapshotReader reader = readerOf(write(hero_A));
+        assertFalse(reader.hasNextItem());
+        assertThrows(IllegalStateException.class, reader::readItem);
+        assertNotNull(reader.readEntity());
+        assertThrows(IllegalStateException.class, reader::readEntity);
+    }
+
+    // AUXILIARY METHOD: returns a snapshot of the given entity or item
+    private static byte[] write(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (SnapshotWriter writer = new SnapshotWriter(Channels.newChannel(bytes))) {
+            if (object instanceof Entity)
+                writer.writeEntity((Entity) object);
+            else
+                writer.writeItem((Equipment) object);
+        }
+        return bytes.toByteArray();
+    }
+
+    // AUXILIARY METHOD: returns the only item of the given type in the given backpack
+    private static Equipment onlyItemOf(Backpack backpack, Class<? extends Equipment> type) {
+        Equipment found = null;
+        for (ArrayList<Equipment> items : backpack.contents.values())
+            for (Equipment item : items)
+                if (type.isInstance(item)) {
+                    assertNull(found);
+                    found = item;
+                }
+        assertNotNull(found);
+        return found;
+    }
+
+    // AUXILIARY METHOD: returns a reader of the given snapshot
+    private static SnapshotReader readerOf(byte[] snapshot) throws IOException {
+        return new SnapshotReader(Channels.newChannel(new ByteArrayInputStream(snapshot)));
+    }
+
+    // AUXILIARY METHOD: checks that the given entities are in the same state, with items in the same state
+    private static void assertSameState(Entity expected, Entity actual) {
+        assertEquals(expected.getClass(), actual.getClass());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getMaxHitPoints(), actual.getMaxHitPoints());
+        assertEquals(expected.getHitPoints(), actual.getHitPoints());
+        assertEquals(expected.getCurrentProtection(), actual.getCurrentProtection());
+        assertEquals(expected.getCapacity(), actual.getCapacity());
+        assertEquals(expected.getTotalWeight(), actual.getTotalWeight());
+        assertEquals(expected.getNbAnchorPoints(), actual.getNbAnchorPoints());
+        for (int slot = 1; slot <= expected.getNbAnchorPoints(); slot++) {
+            AnchorPoint expectedAnchorPoint = expected.getAnchorPointAt(slot);
+            AnchorPoint actualAnchorPoint = actual.getAnchorPointAt(slot);
+            assertEquals(expectedAnchorPoint.getName(), actualAnchorPoint.getName());
+            assertSameState(expectedAnchorPoint.getItem(), actualAnchorPoint.getItem());
+            if (actualAnchorPoint.getItem() != null)
+                assertSame(actual, actualAnchorPoint.getItem().getOwner());
+        }
+    }
+
+    // AUXILIARY METHOD: checks that the given items are in the same state
+    private static void assertSameState(Equipment expected, Equipment actual) {
+        if (expected == null) {
+            assertNull(actual);
+            return;
+        }
+        assertEquals(expected.getClass(), actual.getClass());
+        assertEquals(expected.getWeight(), actual.getWeight());
+        assertEquals(expected.getCurrentValue(), actual.getCurrentValue());
+        assertEquals(expected.getCondition(), actual.getCondition());
+        assertEquals(expected.isShiny(), actual.isShiny());
+        assertEquals(Entity.getCarriedWeightOf(expected), Entity.getCarriedWeightOf(actual));
+    }
+}
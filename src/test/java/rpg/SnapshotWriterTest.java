@@ -0,0 +1,111 @@
+package rpg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+
+/**
+ * A JUnit (5) test class for testing the non-private methods of the SnapshotWriter Class.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class SnapshotWriterTest {
+
+    private ByteArrayOutputStream bytes;
+    private SnapshotWriter writer;
+    private Hero hero_A;
+    private Weapon weapon_A, weapon_B;
+
+    @BeforeEach
+    public void setUpWriter() {
+        bytes = new ByteArrayOutputStream();
+        writer = new SnapshotWriter(Channels.newChannel(bytes));
+        hero_A = new Hero("Ben", 100, 10);
+        weapon_A = new Weapon(10, 35);
+        weapon_B = new Weapon(5, 14);
+        weapon_A.setOwner(hero_A);
+    }
+
+    /**
+     * CONSTRUCTOR
+     */
+
+    @Test
+    void testConstructor_NullChannel_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new SnapshotWriter(null));
+    }
+
+    /**
+     * WRITING
+     */
+
+    @Test
+    void testWriteEntity_ValidCase_ShouldCountEntitiesAndItemsOnce() throws IOException {
+        writer.writeEntity(hero_A);
+        writer.writeEntity(hero_A);
+        writer.writeItem(weapon_A);
+        writer.writeItem(weapon_B);
+
+        assertEquals(1, writer.getNbEntities());
+        assertEquals(2, writer.getNbItems());
+    }
+
+    @Test
+    void testWriteItem_OwnedItem_ShouldWriteOwnerOnClose() throws IOException {
+        writer.writeItem(weapon_A);
+        assertEquals(0, writer.getNbEntities());
+
+        writer.close();
+
+        assertEquals(1, writer.getNbEntities());
+        ByteBuffer snapshot = ByteBuffer.wrap(bytes.toByteArray());
+        assertEquals(SnapshotFormat.MAGIC, snapshot.getInt());
+        assertEquals(SnapshotFormat.END, bytes.toByteArray()[bytes.size() - 1]);
+    }
+
+    @Test
+    void testFlush_ValidCase_ShouldWriteBufferedRecords() throws IOException {
+        writer.writeItem(weapon_B);
+        int sizeBeforeFlush = bytes.size();
+
+        writer.flush();
+
+        assertTrue(bytes.size() > sizeBeforeFlush);
+    }
+
+    @Test
+    void testWriteEntity_IllegalCases_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> writer.writeEntity(null));
+        assertThrows(IllegalArgumentException.class, () -> writer.writeItem(null));
+        Entity unknown = new Entity("Unknown", 10) {
+            public boolean canHaveAsName(String name) { return name != null; }
+            public void initializeAnchorPoints() { }
+            public boolean canHaveAsItemAt(Equipment item, AnchorPoint anchorPoint) { return false; }
+        };
+        assertThrows(IllegalArgumentException.class, () -> writer.writeEntity(unknown));
+    }
+
+    /**
+     * CLOSING
+     */
+
+    @Test
+    void testClose_ClosedWriter_ShouldRefuseRecords() throws IOException {
+        writer.close();
+        int size = bytes.size();
+
+        writer.close();
+
+        assertEquals(size, bytes.size());
+        assertFalse(writer.getChannel().isOpen());
+        assertThrows(IllegalStateException.class, () -> writer.writeEntity(hero_A));
+        assertThrows(IllegalStateException.class, () -> writer.writeItem(weapon_B));
+    }
+}
@@ -1,3 +1,5 @@
+package rpg;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.AfterEach;
@@ -1,3 +1,5 @@
+package rpg;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.AfterEach;
@@ -104,6 +106,43 @@ public class WeaponTest {
         assertTrue(weapon_A.canHaveAsIdentification(weapon_A.getClass(), identification));
     }
 
+    @Test
+    public void testSetIdentificationSeed_SameSeed_ShouldBeReproducible() {
+        Weapon.setIdentificationSeed(20240501L);
+        long identification_A = weapon_A.generateIdentification();
+        long identification_B = weapon_A.generateIdentification();
+
+        Weapon.setIdentificationSeed(20240501L);
+        // 1. the same seed results in the same identification numbers, in the same order
+        assertEquals(identification_A, weapon_A.generateIdentification());
+        assertEquals(identification_B, weapon_A.generateIdentification());
+        // 2. postcondition on identification number
+        assertTrue(weapon_A.canHaveAsIdentification(Weapon.class, identification_A));
+    }
+
+    @Test
+    public void testImportIdentifications_RestoredWeapons_ShouldKeepIdentifications() {
+        long freeIdentification = 6L * 3_000_017;
+        while (!weapon_A.canHaveAsIdentification(Weapon.class, freeIdentification)
+                || !weapon_A.canHaveAsIdentification(Weapon.class, freeIdentification + 6))
+            freeIdentification += 12;
+        long identification_A = freeIdentification;
+        long identification_B = freeIdentification + 6;
+
+        Equipment.importIdentifications(Weapon.class, identification_B, identification_A);
+
+        // 1. imported identification numbers are taken
+        assertFalse(weapon_A.canHaveAsIdentification(Weapon.class, identification_A));
+        // 2. restored weapons keep them, and a backpack finds them by them
+        Backpack backpack = new Backpack(1, 10, 100);
+        new Weapon(1, 14, identification_A).setBackpack(backpack);
+        assertTrue(backpack.containsItemWithIdentification(identification_A));
+        assertEquals(identification_B, new Weapon(1, 7, identification_B).getIdentification());
+        // 3. importing them again fails
+        assertThrows(IllegalArgumentException.class,
+                () -> Equipment.importIdentifications(Weapon.class, identification_A));
+    }
+
     /**
      * DAMAGE
      */
@@ -0,0 +1,376 @@
+package rpg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * A JUnit (5) test class for testing the non-private methods of the WorldJournal Class.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class WorldJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private Path worldPath, journalPath;
+
+    // ENTITIES
+    private Hero hero_A;
+    private Monster monster_A;
+
+    // EQUIPMENT
+    private Weapon weapon_A, weapon_B;
+    private Armor armor_A;
+    private Purse purse_A;
+    private Backpack backpack_A, backpack_B;
+
+    @BeforeEach
+    public void setUpWorld() {
+        worldPath = directory.resolve("world.rpgw");
+        journalPath = directory.resolve("world.rpgj");
+        hero_A = new Hero("Ben", 100, 45.25);
+        weapon_A = new Weapon(10, 35);
+        weapon_B = new Weapon(5, 14);
+        armor_A = new Armor(20, 80, ArmorType.TIN);
+        purse_A = new Purse(1, 5);
+        backpack_A = new Backpack(5, 30, 200);
+        backpack_B = new Backpack(3, 10, 100);
+
+        weapon_A.setOwner(hero_A);
+        backpack_A.setOwner(hero_A);
+        backpack_B.setBackpack(backpack_A);
+        weapon_B.setBackpack(backpack_B);
+        purse_A.setBackpack(backpack_B);
+        hero_A.equipArmor(armor_A);
+
+        monster_A = new Monster("Tom", 70, 49, new ArrayList<>(), SkinType.THICK);
+        monster_A.removeAllAnchorPoints();
+        monster_A.addAnchorPoint(new AnchorPoint("claw"));
+        monster_A.addAnchorPoint(new AnchorPoint("tail"));
+        monster_A.registerCapacity(1000);
+    }
+
+    @AfterEach
+    public void detachJournal() {
+        WorldEvents.setSink(WorldEventSink.NONE);
+    }
+
+    /**
+     * RECORDING AND REPLAYING
+     */
+
+    @Test
+    void testReplay_RecordedChanges_ShouldRestoreSameState() throws IOException {
+        WorldJournal journal = WorldJournal.checkpoint(worldPath, journalPath, List.of(hero_A, monster_A), 4,
+                JournalSync.ON_CLOSE);
+        WorldEvents.setSink(journal);
+
+        hero_A.setHitPoints(30);
+        monster_A.setHitPoints(10);
+        weapon_B.setOwner(monster_A);
+        purse_A.addToContents(2);
+        weapon_A.destroy();
+        hero_A.unequipArmor(armor_A);
+        armor_A.setBackpack(backpack_A);
+        journal.close();
+
+        assertEquals(7, journal.getNbChangesRecorded());
+        assertEquals(0, journal.getNbChangesSkipped());
+        try (WorldStore store = new WorldStore(worldPath)) {
+            assertEquals(7, WorldJournal.replay(store, journalPath));
+
+            Hero hero = (Hero) store.getEntity(0);
+            Monster monster = (Monster) store.getEntity(1);
+            assertEquals(30, hero.getHitPoints());
+            assertEquals(10, monster.getHitPoints());
+            assertNull(hero.getArmor());
+            assertEquals(hero_A.getTotalWeight(), hero.getTotalWeight());
+            assertEquals(monster_A.getTotalWeight(), monster.getTotalWeight());
+            Weapon weapon = (Weapon) monster.getAnchorPointAt(1).getItem();
+            assertEquals(14, weapon.getDamage());
+            assertSame(monster, weapon.getOwner());
+            for (int index = 0; index < store.getNbItems(); index++) {
+                Equipment item = store.getItem(index);
+                if (item instanceof Purse)
+                    assertEquals(2, ((Purse) item).getContents());
+                else if (item instanceof Armor)
+                    assertSame(hero, item.getBackpack().getOwner());
+                else if (item instanceof Weapon && item != weapon)
+                    assertTrue(item.isDestroyed());
+            }
+        }
+    }
+
+    @Test
+    void testReplay_HeroHittingMonster_ShouldRestoreHitPoints() throws IOException {
+        WorldJournal journal = WorldJournal.checkpoint(worldPath, journalPath, List.of(hero_A, monster_A), 4,
+                JournalSync.ON_CLOSE);
+        WorldEvents.setSink(journal);
+        hero_A.setRandom(new SplittableRandom(7));
+
+        hero_A.setHitPoints(31);
+        for (int round = 0; round < 100 && monster_A.isAlive(); round++)
+            hero_A.hit(monster_A);
+        journal.close();
+
+        assertFalse(monster_A.isAlive());
+        assertEquals(0, journal.getNbChangesSkipped());
+        try (WorldStore store = new WorldStore(worldPath)) {
+            WorldJournal.replay(store, journalPath);
+
+            assertEquals(hero_A.getHitPoints(), store.getEntity(0).getHitPoints());
+            assertEquals(0, store.getEntity(1).getHitPoints());
+        }
+    }
+
+    @Test
+    void testReplay_EntityStorePasses_ShouldRestoreHitPoints() throws IOException {
+        hero_A.setFighting(true);
+        hero_A.setHitPoints(40);
+        monster_A.setHitPoints(13);
+        EntityStore store = new EntityStore();
+        store.add(hero_A);
+        store.add(monster_A);
+        WorldJournal journal = WorldJournal.checkpoint(worldPath, journalPath, List.of(hero_A, monster_A), 4,
+                JournalSync.ON_CLOSE);
+        WorldEvents.setSink(journal);
+
+        store.regenerateHitPoints(5);
+        store.expireFighting();
+        journal.close();
+
+        assertEquals(43, hero_A.getHitPoints());
+        assertEquals(17, monster_A.getHitPoints());
+        assertEquals(3, journal.getNbChangesRecorded());
+        try (WorldStore world = new WorldStore(worldPath)) {
+            assertEquals(3, WorldJournal.replay(world, journalPath));
+            assertEquals(43, world.getEntity(0).getHitPoints());
+            assertEquals(17, world.getEntity(1).getHitPoints());
+        }
+    }
+
+    @Test
+    void testReplay_PurseContentsChanges_ShouldRestoreContents() throws IOException {
+        Purse purse_B = new Purse(1, 10);
+        purse_B.setBackpack(backpack_A);
+        purse_A.addToContents(4);
+        purse_B.addToContents(2);
+        WorldJournal journal = WorldJournal.checkpoint(worldPath, journalPath, List.of(hero_A), 4,
+                JournalSync.ON_CLOSE);
+        WorldEvents.setSink(journal);
+
+        purse_A.removeFromContents(3);
+        purse_A.addToContents(2);
+        purse_A.transferFrom(purse_B);
+        purse_B.fillToCapacity();
+        purse_B.empty();
+        purse_B.addToContents(7);
+        journal.close();
+
+        assertEquals(5, purse_A.getContents());
+        assertEquals(7, purse_B.getContents());
+        try (WorldStore store = new WorldStore(worldPath)) {
+            WorldJournal.replay(store, journalPath);
+
+            Hero hero = (Hero) store.getEntity(0);
+            assertEquals(hero_A.getTotalWeight(), hero.getTotalWeight());
+            for (int index = 0; index < store.getNbItems(); index++) {
+                if (store.getItem(index) instanceof Purse purse) {
+                    assertFalse(purse.isDestroyed());
+                    assertEquals(purse.getCapacity() == 5 ? 5 : 7, purse.getContents());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testRecord_NestedChanges_ShouldRecordChangeAskedForOnce() throws IOException {
+        Hero hero_B = new Hero("Ann", 100, 45.25);
+        Armor armor_B = new Armor(20, 80, ArmorType.TIN);
+        try (WorldJournal journal = WorldJournal.checkpoint(worldPath, journalPath, List.of(hero_A, hero_B), 16,
+                JournalSync.ON_CLOSE)) {
+            WorldEvents.setSink(journal);
+
+            hero_B.equipArmor(armor_B);
+            assertEquals(1, journal.getNbChangesRecorded());
+            hero_A.unequipArmor(armor_A);
+            assertEquals(2, journal.getNbChangesRecorded());
+            weapon_B.setOwner(hero_B);
+            assertEquals(3, journal.getNbChangesRecorded());
+            // Emptying the backpack is reported before its destruction
+            backpack_B.destroy();
+            assertEquals(5, journal.getNbChangesRecorded());
+        }
+    }
+
+    @Test
+    void testRecord_SuspendedOnOtherThread_ShouldRecordChange() throws Exception {
+        try (WorldJournal journal = WorldJournal.checkpoint(worldPath, journalPath, List.of(hero_A), 16,
+                JournalSync.ON_CLOSE)) {
+            WorldEvents.setSink(journal);
+
+            Thread other = new Thread(WorldEvents::suspend);
+            other.start();
+            other.join();
+            hero_A.setHitPoints(50);
+            assertEquals(1, journal.getNbChangesRecorded());
+
+            WorldEvents.suspend();
+            try {
+                hero_A.setHitPoints(40);
+            } finally {
+                WorldEvents.resume();
+            }
+            assertEquals(1, journal.getNbChangesRecorded());
+        }
+    }
+
+    @Test
+    void testRecord_UnsavedEntitiesAndItems_ShouldSkipThem() throws IOException {
+        WorldJournal journal = WorldJournal.checkpoint(worldPath, journalPath, List.of(hero_A), 16,
+                JournalSync.EVERY_BATCH);
+        WorldEvents.setSink(journal);
+
+        monster_A.setHitPoints(20);
+        Purse purse = new Purse(1, 5);
+        purse.setOwner(hero_A);
+        hero_A.setHitPoints(50);
+        journal.close();
+
+        assertEquals(1, journal.getNbChangesSkipped());
+        assertEquals(2, journal.getNbChangesRecorded());
+        try (WorldStore store = new WorldStore(worldPath)) {
+            assertEquals(1, WorldJournal.replay(store, journalPath));
+            assertEquals(50, store.getEntity(0).getHitPoints());
+        }
+    }
+
+    @Test
+    void testReplay_RestoringWorld_ShouldNotRecordChanges() throws IOException {
+        WorldJournal journal = WorldJournal.checkpoint(worldPath, journalPath, List.of(hero_A), 16,
+                JournalSync.ON_CLOSE);
+        WorldEvents.setSink(journal);
+        hero_A.setHitPoints(50);
+        journal.flush();
+
+        try (WorldStore store = new WorldStore(worldPath)) {
+            assertEquals(1, WorldJournal.replay(store, journalPath));
+        }
+        assertEquals(1, journal.getNbChangesRecorded());
+        assertEquals(0, journal.getNbChangesSkipped());
+        journal.close();
+    }
+
+    /**
+     * BATCHES
+     */
+
+    @Test
+    void testFlush_PendingBatch_ShouldWriteBatch() throws IOException {
+        try (WorldJournal journal = new WorldJournal(journalPath, List.of(hero_A, hero_A), 100,
+                JournalSync.EVERY_BATCH)) {
+            journal.hitPointsChanged(hero_A, 10);
+
+            assertEquals(WorldJournal.HEADER_SIZE, Files.size(journalPath));
+            journal.flush();
+            assertEquals(WorldJournal.HEADER_SIZE + WorldJournal.BATCH_HEADER_SIZE + WorldJournal.RECORD_SIZE,
+                    Files.size(journalPath));
+            journal.flush();
+            assertEquals(WorldJournal.HEADER_SIZE + WorldJournal.BATCH_HEADER_SIZE + WorldJournal.RECORD_SIZE,
+                    Files.size(journalPath));
+        }
+    }
+
+    @Test
+    void testReplay_TornOrCorruptBatch_ShouldStopBeforeIt() throws IOException {
+        WorldJournal journal = WorldJournal.checkpoint(worldPath, journalPath, List.of(hero_A), 1,
+                JournalSync.ON_CLOSE);
+        for (int hitPoints = 10; hitPoints <= 30; hitPoints += 10)
+            journal.hitPointsChanged(hero_A, hitPoints);
+        journal.close();
+        byte[] bytes = Files.readAllBytes(journalPath);
+
+        Files.write(journalPath, Arrays.copyOf(bytes, bytes.length - 5));
+        try (WorldStore store = new WorldStore(worldPath)) {
+            assertEquals(2, WorldJournal.replay(store, journalPath));
+            assertEquals(20, store.getEntity(0).getHitPoints());
+        }
+
+        // The hit points of the second change lie 16 bytes into its record
+        bytes[WorldJournal.HEADER_SIZE + 2 * WorldJournal.BATCH_HEADER_SIZE + WorldJournal.RECORD_SIZE + 16]++;
+        Files.write(journalPath, bytes);
+        try (WorldStore store = new WorldStore(worldPath)) {
+            assertEquals(1, WorldJournal.replay(store, journalPath));
+            assertEquals(10, store.getEntity(0).getHitPoints());
+        }
+    }
+
+    /**
+     * ILLEGAL CASES
+     */
+
+    @Test
+    void testConstructor_IllegalCases_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new WorldJournal(null, List.of(hero_A), 1, JournalSync.ON_CLOSE));
+        assertThrows(IllegalArgumentException.class,
+                () -> new WorldJournal(journalPath, null, 1, JournalSync.ON_CLOSE));
+        assertThrows(IllegalArgumentException.class,
+                () -> new WorldJournal(journalPath, List.of(hero_A), 0, JournalSync.ON_CLOSE));
+        assertThrows(IllegalArgumentException.class,
+                () -> new WorldJournal(journalPath, List.of(hero_A), WorldJournal.MAX_BATCH_SIZE + 1,
+                        JournalSync.ON_CLOSE));
+        assertThrows(IllegalArgumentException.class,
+                () -> new WorldJournal(journalPath, List.of(hero_A), 1, null));
+        List<Entity> entities = new ArrayList<>();
+        entities.add(null);
+        assertThrows(IllegalArgumentException.class,
+                () -> new WorldJournal(journalPath, entities, 1, JournalSync.ON_CLOSE));
+        assertThrows(IllegalArgumentException.class,
+                () -> WorldJournal.checkpoint(worldPath, journalPath, List.of(hero_A), 0, JournalSync.ON_CLOSE));
+        assertFalse(Files.exists(worldPath));
+    }
+
+    @Test
+    void testReplay_OtherWorldFile_ShouldThrowIOException() throws IOException {
+        WorldJournal.checkpoint(worldPath, journalPath, List.of(hero_A), 1, JournalSync.ON_CLOSE).close();
+        Path otherWorldPath = directory.resolve("other.rpgw");
+        WorldJournal.checkpoint(otherWorldPath, directory.resolve("other.rpgj"), List.of(hero_A), 1,
+                JournalSync.ON_CLOSE).close();
+
+        try (WorldStore store = new WorldStore(otherWorldPath)) {
+            assertThrows(IOException.class, () -> WorldJournal.replay(store, journalPath));
+            assertThrows(IOException.class, () -> WorldJournal.replay(store, otherWorldPath));
+            assertThrows(IllegalArgumentException.class, () -> WorldJournal.replay(store, null));
+        }
+    }
+
+    @Test
+    void testClose_AttachedJournal_ShouldDetachAndRefuseChanges() throws IOException {
+        WorldJournal journal = WorldJournal.checkpoint(worldPath, journalPath, List.of(hero_A), 1,
+                JournalSync.ON_CLOSE);
+        WorldEvents.setSink(journal);
+
+        journal.close();
+
+        assertTrue(journal.isClosed());
+        assertSame(WorldEventSink.NONE, WorldEvents.getSink());
+        assertThrows(IllegalStateException.class, journal::flush);
+        assertThrows(IllegalStateException.class, () -> journal.hitPointsChanged(hero_A, 1));
+        journal.close();
+    }
+}
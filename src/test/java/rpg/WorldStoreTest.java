@@ -0,0 +1,299 @@
+package rpg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * A JUnit (5) test class for testing the non-private methods of the WorldStore Class.
+ *
+ * @author  Jitse Vandenberghe
+ * @version 1.0
+ */
+public class WorldStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private Path path;
+
+    // ENTITIES
+    private Hero hero_A;
+    private Monster monster_A;
+
+    // EQUIPMENT
+    private Weapon weapon_A, weapon_B;
+    private Armor armor_A;
+    private Purse purse_A;
+    private Backpack backpack_A, backpack_B;
+
+    @BeforeEach
+    public void setUpWorld() {
+        path = directory.resolve("world.rpgw");
+        hero_A = new Hero("Ben", 100, 45.25);
+        weapon_A = new Weapon(10, 35);
+        weapon_B = new Weapon(5, 14);
+        armor_A = new Armor(20, 80, ArmorType.TIN);
+        purse_A = new Purse(1, 5);
+        backpack_A = new Backpack(5, 30, 200);
+        backpack_B = new Backpack(3, 10, 100);
+
+        // The hero holds a weapon and a backpack with a nested backpack, and wears armor
+        weapon_A.setOwner(hero_A);
+        backpack_A.setOwner(hero_A);
+        backpack_B.setBackpack(backpack_A);
+        weapon_B.setBackpack(backpack_B);
+        purse_A.setBackpack(backpack_B);
+        purse_A.addToContents(1);
+        hero_A.equipArmor(armor_A);
+        hero_A.setHitPoints(42);
+        hero_A.setPlacementStrategy(PlacementStrategy.VALUE_DENSITY);
+
+        monster_A = new Monster("Tom", 70, 49, new ArrayList<>(), SkinType.THICK);
+        monster_A.removeAllAnchorPoints();
+        monster_A.addAnchorPoint(new AnchorPoint("claw"));
+        monster_A.addAnchorPoint(new AnchorPoint("tail"));
+        monster_A.registerCapacity(1000);
+        new Weapon(2, 21).setOwner(monster_A);
+    }
+
+    /**
+     * SAVING AND OPENING
+     */
+
+    @Test
+    void testConstructor_SavedWorld_ShouldCreateNothing() throws IOException {
+        WorldStore.save(path, List.of(hero_A, monster_A, hero_A));
+
+        try (WorldStore store = new WorldStore(path)) {
+            assertEquals(2, store.getNbEntities());
+            assertEquals(7, store.getNbItems());
+            assertFalse(store.isCreated(0));
+            assertFalse(store.isCreated(1));
+            assertEquals("Tom", store.getNameAt(1));
+            assertFalse(store.isCreated(1));
+            assertEquals(monster_A.getAnchorPointAt(1).getItem().getIdentification(), store.getIdentificationAt(6));
+        }
+    }
+
+    @Test
+    void testGetEntity_Hero_ShouldRestoreSameState() throws IOException {
+        WorldStore.save(path, List.of(hero_A, monster_A));
+
+        try (WorldStore store = new WorldStore(path)) {
+            Hero hero = (Hero) store.getEntity(0);
+
+            assertSame(hero, store.getEntity(0));
+            assertTrue(store.isCreated(0));
+            assertFalse(store.isCreated(1));
+            assertEquals("Ben", hero.getName());
+            assertEquals(hero_A.getMaxHitPoints(), hero.getMaxHitPoints());
+            assertEquals(42, hero.getHitPoints());
+            assertEquals(hero_A.getCapacity(), hero.getCapacity());
+            assertEquals(hero_A.getProtection(), hero.getProtection());
+            assertEquals(PlacementStrategy.VALUE_DENSITY, hero.getPlacementStrategy());
+            assertEquals(hero_A.getTotalWeight(), hero.getTotalWeight());
+            assertEquals(hero_A.getAttackPower(), hero.getAttackPower());
+            assertEquals(hero_A.getNbAnchorPoints(), hero.getNbAnchorPoints());
+            for (int slot = 1; slot <= hero.getNbAnchorPoints(); slot++) {
+                assertEquals(hero_A.getAnchorPointAt(slot).getName(), hero.getAnchorPointAt(slot).getName());
+                Equipment item = hero.getAnchorPointAt(slot).getItem();
+                assertEquals(hero_A.getAnchorPointAt(slot).isEmpty(), item == null);
+                if (item != null)
+                    assertSame(hero, item.getOwner());
+            }
+            // The armor is attached to two anchor points, and restored once
+            assertSame(hero.getArmor(), hero.getAnchorPoint(HeroAnchor.BODY).getItem());
+        }
+    }
+
+    @Test
+    void testGetEntity_NestedBackpacks_ShouldRestoreContents() throws IOException {
+        WorldStore.save(path, List.of(hero_A));
+
+        try (WorldStore store = new WorldStore(path)) {
+            Hero hero = (Hero) store.getEntity(0);
+            Backpack backpack = null, nested = null;
+            Purse purse = null;
+            for (int index = 0; index < store.getNbItems(); index++) {
+                Equipment item = store.getItem(index);
+                if (item instanceof Backpack && item.getBackpack() == null)
+                    backpack = (Backpack) item;
+                else if (item instanceof Backpack)
+                    nested = (Backpack) item;
+                else if (item instanceof Purse)
+                    purse = (Purse) item;
+            }
+
+            assertSame(backpack, hero.getAnchorPointOfItem(backpack).getItem());
+            assertEquals(backpack_A.getTotalWeight(), backpack.getTotalWeight());
+            assertEquals(backpack_A.getCurrentValue(), backpack.getCurrentValue());
+            assertSame(backpack, nested.getBackpack());
+            assertTrue(nested.hasProperBackpack());
+            assertSame(hero, nested.getOwner());
+            assertSame(nested, purse.getBackpack());
+            assertTrue(purse.hasProperBackpack());
+            assertEquals(1, purse.getContents());
+            assertEquals(backpack_B.getTotalWeight(), nested.getTotalWeight());
+        }
+    }
+
+    @Test
+    void testGetEntity_Monster_ShouldRestoreSameState() throws IOException {
+        monster_A.setDamage(28);
+        monster_A.setFighting(true);
+        monster_A.setHitPoints(30);
+        WorldStore.save(path, List.of(monster_A));
+
+        try (WorldStore store = new WorldStore(path)) {
+            Monster monster = (Monster) store.getEntity(0);
+
+            assertEquals(28, monster.getDamage());
+            assertEquals(SkinType.THICK, monster.getType());
+            assertTrue(monster.isFighting());
+            assertEquals(30, monster.getHitPoints());
+            assertEquals(1000, monster.getCapacity());
+            assertEquals(2, monster.getNbAnchorPoints());
+            assertEquals("tail", monster.getAnchorPointAt(2).getName());
+            assertEquals(monster_A.getTotalWeight(), monster.getTotalWeight());
+        }
+    }
+
+    @Test
+    void testGetEntity_Monster_ShouldNotDrawFromGeneratorOfThread() throws IOException {
+        WorldStore.save(path, List.of(monster_A));
+        SplittableRandom expected = new SplittableRandom(42);
+
+        try (WorldStore store = new WorldStore(path)) {
+            RandomSource.setSeed(42);
+            Monster monster = (Monster) store.getEntity(0);
+
+            assertEquals(2, monster.getNbAnchorPoints());
+            assertEquals(1000, monster.getCapacity());
+            assertEquals(expected.nextLong(), RandomSource.current().nextLong());
+        } finally {
+            RandomSource.clearSeed();
+        }
+    }
+
+    @Test
+    void testGetItem_NotCreated_ShouldCreateEntityHoldingIt() throws IOException {
+        WorldStore.save(path, List.of(monster_A, hero_A));
+
+        try (WorldStore store = new WorldStore(path)) {
+            Equipment item = store.getItem(store.getNbItems() - 1);
+
+            assertTrue(store.isCreated(1));
+            assertFalse(store.isCreated(0));
+            assertSame(store.getEntity(1), item.getOwner());
+            assertThrows(IllegalArgumentException.class, () -> store.getItem(store.getNbItems()));
+            assertThrows(IllegalArgumentException.class, () -> store.getEntity(-1));
+        }
+    }
+
+    /**
+     * IDENTIFICATION NUMBERS
+     */
+
+    @Test
+    void testGetItem_TakenIdentification_ShouldTakeNewIdentification() throws IOException {
+        WorldStore.save(path, List.of(monster_A));
+
+        try (WorldStore store = new WorldStore(path)) {
+            Equipment weapon = store.getItem(0);
+
+            assertNotEquals(store.getIdentificationAt(0), weapon.getIdentification());
+            assertEquals(0, weapon.getIdentification() % 6);
+        }
+    }
+
+    @Test
+    void testGetItem_FreeIdentification_ShouldKeepReservedIdentification() throws IOException {
+        WorldStore.save(path, List.of(monster_A));
+        long free = 6L * 2_000_003;
+        while (!Equipment.isUniqueForType(Weapon.class, free))
+            free += 6;
+        // The identification number of the first item lies 8 bytes into its record
+        long position = WorldStore.HEADER_SIZE + WorldStore.ENTITY_RECORD_SIZE
+                + 2 * WorldStore.ANCHOR_POINT_RECORD_SIZE + 8;
+        patch(position, ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(0, free));
+
+        try (WorldStore store = new WorldStore(path)) {
+            assertEquals(free, store.getIdentificationAt(0));
+            assertTrue(Equipment.equipmentByType.isReserved(Weapon.class, free));
+            assertFalse(Equipment.isUniqueForType(Weapon.class, free));
+
+            Equipment weapon = store.getItem(0);
+
+            assertEquals(free, weapon.getIdentification());
+            assertFalse(Equipment.equipmentByType.isReserved(Weapon.class, free));
+        }
+    }
+
+    /**
+     * ILLEGAL CASES
+     */
+
+    @Test
+    void testSave_IllegalCases_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> WorldStore.save(null, List.of(hero_A)));
+        assertThrows(IllegalArgumentException.class, () -> WorldStore.save(path, null));
+        List<Entity> entities = new ArrayList<>();
+        entities.add(null);
+        assertThrows(IllegalArgumentException.class, () -> WorldStore.save(path, entities));
+    }
+
+    @Test
+    void testConstructor_MalformedFiles_ShouldThrowIOException() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> new WorldStore(null));
+        Files.write(path, new byte[] {1, 2, 3});
+        assertThrows(IOException.class, () -> new WorldStore(path));
+        Files.write(path, new byte[WorldStore.HEADER_SIZE]);
+        assertThrows(IOException.class, () -> new WorldStore(path));
+
+        WorldStore.save(path, List.of(hero_A));
+        // The number of anchor points of the hero lies 44 bytes into its record
+        patch(WorldStore.HEADER_SIZE + 44, ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(0, 1000));
+        assertThrows(IOException.class, () -> new WorldStore(path));
+
+        WorldStore.save(path, List.of(hero_A));
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> new WorldStore(path));
+    }
+
+    @Test
+    void testClose_ClosedStore_ShouldKeepCreatedEntities() throws IOException {
+        WorldStore.save(path, List.of(hero_A, monster_A));
+        WorldStore store = new WorldStore(path);
+        Entity hero = store.getEntity(0);
+
+        store.close();
+
+        assertTrue(store.isClosed());
+        assertSame(hero, store.getEntity(0));
+        assertThrows(IllegalStateException.class, () -> store.getEntity(1));
+        assertThrows(IllegalStateException.class, () -> store.getNameAt(1));
+    }
+
+    // AUXILIARY METHOD: overwrites the bytes of the world file at the given position
+    private void patch(long position, ByteBuffer bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(bytes, position);
+        }
+    }
+}